@@ -0,0 +1,36 @@
+package com.savian.cartblitz.bootstrap;
+
+import com.savian.cartblitz.config.CatalogImportProperties;
+import com.savian.cartblitz.dto.CatalogFormat;
+import com.savian.cartblitz.dto.CatalogImportResult;
+import com.savian.cartblitz.service.CatalogImportService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Slf4j
+@AllArgsConstructor
+@Component
+@ConditionalOnProperty("cartblitz.catalog.import.file")
+public class CatalogImportRunner implements CommandLineRunner {
+
+    private CatalogImportService catalogImportService;
+    private CatalogImportProperties catalogImportProperties;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Path file = Path.of(catalogImportProperties.getFile());
+        log.info("Importing catalog file {}", file);
+
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            CatalogImportResult result = catalogImportService.importCatalog(inputStream, CatalogFormat.fromFileName(file.getFileName().toString()));
+            result.getErrors().forEach(error -> log.warn("Catalog import error: {}", error));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.savian.cartblitz.config;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CartRetryMetrics {
+    public static final String CART_MUTATION = "cartMutation";
+
+    public CartRetryMetrics(RetryRegistry retryRegistry, MeterRegistry meterRegistry) {
+        Counter retried = conflictCounter(meterRegistry, "retried");
+        Counter exhausted = conflictCounter(meterRegistry, "exhausted");
+
+        Retry retry = retryRegistry.retry(CART_MUTATION);
+        retry.getEventPublisher()
+                .onRetry(event -> retried.increment())
+                .onError(event -> exhausted.increment());
+    }
+
+    private Counter conflictCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("cartblitz.cart.conflicts")
+                .description("Optimistic locking conflicts on cart and order mutations")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
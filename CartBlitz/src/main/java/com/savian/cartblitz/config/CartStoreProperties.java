@@ -0,0 +1,19 @@
+package com.savian.cartblitz.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties("cartblitz.cart")
+@Getter
+@Setter
+public class CartStoreProperties {
+    private String journalDir = "cart-journal";
+    private long maxActiveCarts = 10000;
+    private Duration idleTimeout = Duration.ofMinutes(30);
+    private Duration flushInterval = Duration.ofSeconds(2);
+}
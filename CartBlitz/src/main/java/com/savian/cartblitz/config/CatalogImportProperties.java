@@ -0,0 +1,17 @@
+package com.savian.cartblitz.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("cartblitz.catalog.import")
+@Getter
+@Setter
+public class CatalogImportProperties {
+    private String file;
+    private int chunkSize = 500;
+    private int threads = 4;
+    private int maxErrors = 100;
+}
@@ -0,0 +1,17 @@
+package com.savian.cartblitz.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties("cartblitz.coupon")
+@Getter
+@Setter
+public class CouponCacheProperties {
+    private Duration ttl = Duration.ofMinutes(5);
+    private long maxEvaluations = 10000;
+}
@@ -0,0 +1,55 @@
+package com.savian.cartblitz.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "cartblitz.datasource.replica", name = "url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("cartblitz-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("cartblitz.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties, ReplicaDataSourceProperties replicaDataSourceProperties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(replicaDataSourceProperties.getUrl())
+                .username(replicaDataSourceProperties.getUsername())
+                .password(replicaDataSourceProperties.getPassword())
+                .build();
+        dataSource.setPoolName("cartblitz-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource replicaDataSource, ReplicaDataSourceProperties replicaDataSourceProperties, MeterRegistry meterRegistry) {
+        ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(replicaDataSource, replicaDataSourceProperties.getMaxLag(), meterRegistry);
+        replicaLagMonitor.start(replicaDataSourceProperties.getLagCheckInterval());
+        return replicaLagMonitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource, ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor, meterRegistry));
+    }
+}
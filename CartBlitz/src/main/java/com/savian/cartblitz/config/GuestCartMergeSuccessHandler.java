@@ -0,0 +1,74 @@
+package com.savian.cartblitz.config;
+
+import com.savian.cartblitz.dto.CartItemDto;
+import com.savian.cartblitz.dto.GuestCart;
+import com.savian.cartblitz.service.CartService;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.SavedRequestAwareAuthenticationSuccessHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+public class GuestCartMergeSuccessHandler extends SavedRequestAwareAuthenticationSuccessHandler {
+    private final CartService cartService;
+
+    public GuestCartMergeSuccessHandler(CartService cartService) {
+        this.cartService = cartService;
+    }
+
+    @Override
+    public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+
+        if (session != null && session.getAttribute(GuestCart.SESSION_ATTRIBUTE) instanceof GuestCart guestCart) {
+            session.removeAttribute(GuestCart.SESSION_ATTRIBUTE);
+
+            if (!guestCart.isEmpty()) {
+                List<CartItemDto> unmerged = merge(authentication.getName(), guestCart.getItems());
+
+                if (!unmerged.isEmpty()) {
+                    GuestCart remaining = new GuestCart();
+                    remaining.add(unmerged);
+                    session.setAttribute(GuestCart.SESSION_ATTRIBUTE, remaining);
+                }
+            }
+        }
+
+        super.onAuthenticationSuccess(request, response, authentication);
+    }
+
+    private List<CartItemDto> merge(String username, List<CartItemDto> items) {
+        Long cartId;
+
+        try {
+            cartId = cartService.getOrCreateCartId(username);
+        }
+        catch (RuntimeException e) {
+            log.warn("could not merge the guest cart of {}: {}", username, e.getMessage());
+            return items;
+        }
+
+        List<CartItemDto> unmerged = new ArrayList<>();
+
+        for (CartItemDto item : items) {
+            try {
+                cartService.addLine(cartId, item.getProductId(), item.getQuantity());
+            }
+            catch (RuntimeException e) {
+                log.warn("could not merge product {} from the guest cart of {}: {}", item.getProductId(), username, e.getMessage());
+                unmerged.add(item);
+            }
+        }
+
+        return unmerged;
+    }
+}
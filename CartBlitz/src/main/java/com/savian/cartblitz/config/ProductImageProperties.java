@@ -0,0 +1,25 @@
+package com.savian.cartblitz.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConfigurationProperties("cartblitz.images")
+@Getter
+@Setter
+public class ProductImageProperties {
+    private String productsDir = "src/main/resources/static/images/products";
+    private int detailSize = 800;
+    private List<Integer> variantSizes = List.of(400, 200);
+    private float jpegQuality = 0.85f;
+    private int workerThreads = 2;
+    private int queueCapacity = 100;
+    private String cacheDir = "image-cache";
+    private List<Integer> servedWidths = List.of(200, 400, 800);
+    private Duration cacheMaxAge = Duration.ofDays(365);
+}
@@ -0,0 +1,23 @@
+package com.savian.cartblitz.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("cartblitz.product.page")
+@Getter
+@Setter
+public class ProductPageProperties {
+    private int defaultSize = 20;
+    private int maxSize = 100;
+
+    public int resolveSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultSize;
+        }
+
+        return Math.min(size, maxSize);
+    }
+}
@@ -0,0 +1,52 @@
+package com.savian.cartblitz.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter fallbackCounter;
+
+    public ReadWriteRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource, ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.primaryCounter = routeCounter(meterRegistry, "primary");
+        this.replicaCounter = routeCounter(meterRegistry, "replica");
+        this.fallbackCounter = routeCounter(meterRegistry, "fallback");
+
+        setTargetDataSources(Map.of(Route.PRIMARY, primaryDataSource, Route.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryCounter.increment();
+            return Route.PRIMARY;
+        }
+
+        if (replicaLagMonitor.isReplicaUsable()) {
+            replicaCounter.increment();
+            return Route.REPLICA;
+        }
+
+        fallbackCounter.increment();
+        return Route.PRIMARY;
+    }
+
+    private Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("cartblitz.datasource.routing")
+                .description("Connections handed out by the read/write routing data source")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.savian.cartblitz.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties("cartblitz.datasource.replica")
+@Getter
+@Setter
+public class ReplicaDataSourceProperties {
+    private String url;
+    private String username;
+    private String password;
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(2);
+}
@@ -0,0 +1,102 @@
+package com.savian.cartblitz.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class ReplicaLagMonitor {
+    private static final long UNKNOWN_LAG = -1;
+
+    private final DataSource replicaDataSource;
+    private final Duration maxLag;
+    private final ScheduledExecutorService executor;
+
+    private volatile boolean replicaUsable;
+    private volatile long lagSeconds = UNKNOWN_LAG;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLag = maxLag;
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("cartblitz.datasource.replica.lag", this, ReplicaLagMonitor::getLagSeconds)
+                .description("Replication lag of the read replica in seconds, -1 when unknown")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("cartblitz.datasource.replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .description("Whether read-only transactions are currently routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public void start(Duration interval) {
+        executor.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    public void check() {
+        boolean usable;
+
+        try (Connection connection = replicaDataSource.getConnection()) {
+            lagSeconds = readLagSeconds(connection);
+            usable = lagSeconds != UNKNOWN_LAG && lagSeconds <= maxLag.toSeconds();
+        }
+        catch (SQLException e) {
+            lagSeconds = UNKNOWN_LAG;
+            usable = false;
+            log.debug("replica check failed", e);
+        }
+
+        if (usable != replicaUsable) {
+            log.warn("read replica {} (lag {}s, max {}s)", usable ? "back in rotation" : "taken out of rotation", lagSeconds, maxLag.toSeconds());
+        }
+
+        replicaUsable = usable;
+    }
+
+    private long readLagSeconds(Connection connection) throws SQLException {
+        if (!"MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+            return connection.isValid(1) ? 0 : UNKNOWN_LAG;
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!resultSet.next()) {
+                return UNKNOWN_LAG;
+            }
+
+            boolean running = "Yes".equalsIgnoreCase(resultSet.getString("Replica_IO_Running"))
+                    && "Yes".equalsIgnoreCase(resultSet.getString("Replica_SQL_Running"));
+            long lag = resultSet.getLong("Seconds_Behind_Source");
+            boolean lagKnown = !resultSet.wasNull();
+
+            return running && lagKnown ? lag : UNKNOWN_LAG;
+        }
+    }
+}
@@ -17,9 +17,11 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityJpaConfig {
 
     private final JpaUserDetailsService userDetailsService;
+    private final GuestCartMergeSuccessHandler guestCartMergeSuccessHandler;
 
-    public SecurityJpaConfig(JpaUserDetailsService userDetailsService) {
+    public SecurityJpaConfig(JpaUserDetailsService userDetailsService, GuestCartMergeSuccessHandler guestCartMergeSuccessHandler) {
         this.userDetailsService = userDetailsService;
+        this.guestCartMergeSuccessHandler = guestCartMergeSuccessHandler;
     }
 
     @Bean
@@ -33,8 +35,9 @@ public class SecurityJpaConfig {
         return http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/home", "/login", "/register", "/categories", "/webjars/**", "/resources/**", "/images/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/product", "/product/brand/**", "/product/tag/**", "/product/priceRange").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/product", "/product/export", "/product/brand/**", "/product/tag/**", "/product/priceRange").hasAuthority("ROLE_ADMIN")
                         .requestMatchers(HttpMethod.GET, "/product/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/product/guest-cart").permitAll()
                         .requestMatchers("/cart/**", "/product/add-to-cart/**", "/profile").hasAuthority("ROLE_USER")
                         .requestMatchers(HttpMethod.POST, "/order/complete/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
                         .requestMatchers(HttpMethod.GET, "/order/id/**", "/orderProduct/**/orderId/**/productId/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
@@ -47,6 +50,7 @@ public class SecurityJpaConfig {
                                 .loginPage("/login")
                                 .permitAll()
                                 .loginProcessingUrl("/perform_login")
+                                .successHandler(guestCartMergeSuccessHandler)
                 )
                 .logout(logout ->
                         logout
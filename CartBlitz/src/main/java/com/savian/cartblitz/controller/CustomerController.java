@@ -1,9 +1,11 @@
 package com.savian.cartblitz.controller;
 
 import com.savian.cartblitz.dto.CustomerDto;
+import com.savian.cartblitz.dto.ExportFormat;
 import com.savian.cartblitz.exception.ResourceNotFoundException;
 import com.savian.cartblitz.model.Customer;
 import com.savian.cartblitz.service.CustomerService;
+import com.savian.cartblitz.service.ExportService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,11 +22,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -36,10 +39,14 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("customer")
 @Tag(name = "Customers", description = "Endpoint manage Customers")
 public class CustomerController {
+    private static final LinkTemplate CUSTOMER_LINK = LinkTemplate.of(CustomerController.class, "getCustomerById");
+
     CustomerService customerService;
+    ExportService exportService;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, ExportService exportService) {
         this.customerService = customerService;
+        this.exportService = exportService;
     }
 
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
@@ -51,24 +58,43 @@ public class CustomerController {
                     @ApiResponse(description = "Access denied", responseCode = "403"),
                     @ApiResponse(description = "Not Found", responseCode = "404")
             })
-    public ResponseEntity<CollectionModel<EntityModel<CustomerDto>>> getAllCustomers() {
+    public ResponseEntity<CollectionModel<EntityModel<CustomerDto>>> getAllCustomers(
+            @RequestParam(required = false) @Parameter(description = "Set to false to omit per-customer links") Boolean links) {
         List<CustomerDto> customers = customerService.getAllCustomers();
+        List<EntityModel<CustomerDto>> customerModels = new ArrayList<>(customers.size());
 
-        List<EntityModel<CustomerDto>> customerModels = customers.stream()
-                .map(customer -> {
-                    EntityModel<CustomerDto> customerModel = EntityModel.of(customer);
-                    customerModel.add(linkTo(methodOn(CustomerController.class).getCustomerById(customer.getCustomerId())).withSelfRel());
-                    return customerModel;
-                })
-                .collect(Collectors.toList());
+        if (LinkTemplate.enabled(links)) {
+            String baseUri = LinkTemplate.currentBaseUri();
+            for (CustomerDto customer : customers) {
+                customerModels.add(EntityModel.of(customer, CUSTOMER_LINK.withSelfRel(baseUri, customer.getCustomerId())));
+            }
+        } else {
+            for (CustomerDto customer : customers) {
+                customerModels.add(EntityModel.of(customer));
+            }
+        }
 
-        Link selfLink = linkTo(methodOn(CustomerController.class).getAllCustomers()).withSelfRel();
+        Link selfLink = linkTo(methodOn(CustomerController.class).getAllCustomers(links)).withSelfRel().expand();
 
         CollectionModel<EntityModel<CustomerDto>> collectionModel = CollectionModel.of(customerModels, selfLink);
 
         return ResponseEntity.ok(collectionModel);
     }
 
+    @GetMapping(path = "/export", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    @Operation(description = "Streaming export of all customers as NDJSON or as a JSON array",
+            summary = "Exporting all customers",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200"),
+                    @ApiResponse(description = "Access denied", responseCode = "403")
+            })
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "NDJSON or ARRAY") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(outputStream -> exportService.exportCustomers(outputStream, format));
+    }
+
     @GetMapping(path = "/id/{customerId}", produces = { MediaType.APPLICATION_JSON_VALUE })
     @CircuitBreaker(name = "customerService", fallbackMethod = "fallbackForGetCustomerById")
     @Operation(description = "Showing all info about a customer with given id",
@@ -87,7 +113,7 @@ public class CustomerController {
                     CustomerDto customer = optionalCustomer.get();
                     EntityModel<CustomerDto> customerModel = EntityModel.of(customer);
                     customerModel.add(linkTo(methodOn(CustomerController.class).getCustomerById(customerId)).withSelfRel());
-                    customerModel.add(linkTo(methodOn(CustomerController.class).getAllCustomers()).withRel("all-customers"));
+                    customerModel.add(linkTo(methodOn(CustomerController.class).getAllCustomers(null)).withRel("all-customers").expand());
 
                     return ResponseEntity.ok(customerModel);
                 } else {
@@ -112,7 +138,7 @@ public class CustomerController {
             CustomerDto customer = optionalCustomer.get();
             EntityModel<CustomerDto> customerModel = EntityModel.of(customer);
             customerModel.add(linkTo(methodOn(CustomerController.class).getCustomerByUsername(username)).withSelfRel());
-            customerModel.add(linkTo(methodOn(CustomerController.class).getAllCustomers()).withRel("all-customers"));
+            customerModel.add(linkTo(methodOn(CustomerController.class).getAllCustomers(null)).withRel("all-customers").expand());
 
             return ResponseEntity.ok(customerModel);
         } else {
@@ -218,7 +244,7 @@ public class CustomerController {
         }
     }
 
-    public ResponseEntity<CollectionModel<EntityModel<CustomerDto>>> fallbackForGetAllCustomers(Exception ex) {
+    public ResponseEntity<CollectionModel<EntityModel<CustomerDto>>> fallbackForGetAllCustomers(Boolean links, Exception ex) {
         log.error("Fallback method executed for GetAllCustomers due to {}", ex.toString());
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
@@ -0,0 +1,104 @@
+package com.savian.cartblitz.controller;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.server.core.AnnotationMappingDiscoverer;
+import org.springframework.hateoas.server.core.MappingDiscoverer;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class LinkTemplate {
+    private static final MappingDiscoverer DISCOVERER = new AnnotationMappingDiscoverer(RequestMapping.class);
+
+    private final String template;
+    private final String[] literals;
+    private final int length;
+
+    private LinkTemplate(String mapping) {
+        String template = mapping.startsWith("/") ? mapping : "/" + mapping;
+        this.template = template;
+
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int open = template.indexOf('{');
+
+        while (open >= 0) {
+            int close = template.indexOf('}', open);
+            parts.add(template.substring(start, open));
+            start = close + 1;
+            open = template.indexOf('{', start);
+        }
+        parts.add(template.substring(start));
+
+        this.literals = parts.toArray(new String[0]);
+        this.length = Arrays.stream(literals).mapToInt(String::length).sum();
+    }
+
+    public static LinkTemplate of(Class<?> controller, String methodName) {
+        List<Method> methods = Arrays.stream(controller.getMethods())
+                .filter(method -> method.getName().equals(methodName))
+                .toList();
+
+        if (methods.size() != 1) {
+            throw new IllegalArgumentException("Expected exactly one " + controller.getSimpleName() + "." + methodName + " handler, found " + methods.size());
+        }
+
+        String mapping = DISCOVERER.getMapping(controller, methods.get(0));
+        if (mapping == null) {
+            throw new IllegalArgumentException(controller.getSimpleName() + "." + methodName + " has no request mapping");
+        }
+
+        return new LinkTemplate(mapping);
+    }
+
+    public static String currentBaseUri() {
+        return ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+    }
+
+    public static boolean enabled(Boolean links) {
+        return !Boolean.FALSE.equals(links);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public String expand(String baseUri, Object... values) {
+        if (values.length != literals.length - 1) {
+            throw new IllegalArgumentException(template + " expects " + (literals.length - 1) + " values, got " + values.length);
+        }
+
+        StringBuilder href = new StringBuilder(baseUri.length() + length + 16 * values.length);
+        href.append(baseUri).append(literals[0]);
+
+        for (int i = 0; i < values.length; i++) {
+            href.append(encode(values[i])).append(literals[i + 1]);
+        }
+
+        return href.toString();
+    }
+
+    public Link withSelfRel(String baseUri, Object... values) {
+        return Link.of(expand(baseUri, values), IanaLinkRelations.SELF);
+    }
+
+    public Link withRel(String baseUri, String rel, Object... values) {
+        return Link.of(expand(baseUri, values), LinkRelation.of(rel));
+    }
+
+    private static String encode(Object value) {
+        if (value instanceof Number) {
+            return value.toString();
+        }
+
+        return UriUtils.encodePathSegment(String.valueOf(value), StandardCharsets.UTF_8);
+    }
+}
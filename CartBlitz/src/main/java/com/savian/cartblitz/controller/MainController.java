@@ -2,16 +2,21 @@ package com.savian.cartblitz.controller;
 
 import com.savian.cartblitz.config.WarrantyValidator;
 import com.savian.cartblitz.dto.CustomerDto;
+import com.savian.cartblitz.dto.CustomerProfileView;
 import com.savian.cartblitz.exception.ResourceNotFoundException;
 import com.savian.cartblitz.model.*;
 import com.savian.cartblitz.model.security.Authority;
 import com.savian.cartblitz.repository.CustomerRepository;
 import com.savian.cartblitz.repository.ProductRepository;
-import com.savian.cartblitz.repository.TagRepository;
 import com.savian.cartblitz.repository.WarrantyRepository;
 import com.savian.cartblitz.repository.security.AuthorityRepository;
+import com.savian.cartblitz.service.CartService;
+import com.savian.cartblitz.service.CustomerService;
 import com.savian.cartblitz.service.OrderProductService;
 import com.savian.cartblitz.service.OrderService;
+import com.savian.cartblitz.service.ProductImageProcessor;
+import com.savian.cartblitz.service.ProductSearchService;
+import com.savian.cartblitz.service.TagService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -30,19 +35,10 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.security.Principal;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @Slf4j
@@ -61,11 +57,19 @@ public class MainController {
     @Autowired
     private OrderService orderService;
     @Autowired
+    private CartService cartService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
     private WarrantyRepository warrantyRepository;
     @Autowired
-    private TagRepository tagRepository;
+    private TagService tagService;
     @Autowired
     private WarrantyValidator warrantyValidator;
+    @Autowired
+    private ProductSearchService productSearchService;
+    @Autowired
+    private ProductImageProcessor productImageProcessor;
 
     @RequestMapping(value = {"", "/", "/home"}, produces = MediaType.TEXT_HTML_VALUE)
     @Operation(
@@ -187,15 +191,12 @@ public class MainController {
     )
     public String viewProfile(Model model, Principal principal) {
         String username = principal.getName();
-        Optional<Customer> optionalCustomer = customerRepository.findByUsername(username);
+        Optional<CustomerProfileView> optionalCustomer = customerService.getCustomerProfile(username);
 
         if (optionalCustomer.isPresent()) {
-            Customer customer = optionalCustomer.get();
-            List<Order> completedOrders = customer.getOrders().stream()
-                    .filter(order -> order.getStatus() == OrderStatusEnum.COMPLETED)
-                    .collect(Collectors.toList());
+            CustomerProfileView customer = optionalCustomer.get();
             model.addAttribute("customer", customer);
-            model.addAttribute("completedOrders", completedOrders);
+            model.addAttribute("completedOrders", customer.getCompletedOrders());
             return "profile";
         } else {
             return "redirect:/";
@@ -213,49 +214,37 @@ public class MainController {
             }
     )
     public String viewCart(Model model, Principal principal, RedirectAttributes redirectAttributes) {
-        String username = principal.getName();
-        Optional<Customer> optionalCustomer = customerRepository.findByUsername(username);
+        Order cartOrder = cartService.getCart(principal.getName()).orElse(null);
 
-        if (optionalCustomer.isPresent()) {
-            Customer customer = optionalCustomer.get();
-            Optional<Order> cartOrderOptional = customer.getOrders().stream()
-                    .filter(order -> order.getStatus() == OrderStatusEnum.CART)
-                    .findFirst();
-
-            Order cartOrder = cartOrderOptional.orElse(null);
+        if(cartOrder != null){
+            if(cartOrder.getOrderProducts().isEmpty()){
+                orderService.removeOrderById(cartOrder.getOrderId());
 
-            if(cartOrder != null){
-                if(cartOrder.getOrderProducts().isEmpty()){
-                    orderService.removeOrderById(cartOrder.getOrderId());
+                cartOrder = null;
+            }
+            else {
+                Map<OrderProductId, String> errorMessagesMap = new HashMap<>();
 
-                    cartOrder = null;
-                }
-                else {
-                    Map<OrderProductId, String> errorMessagesMap = new HashMap<>();
-
-                    for (OrderProduct orderProduct : cartOrder.getOrderProducts()) {
-                        if (orderProduct.getQuantity() > orderProduct.getProduct().getStockQuantity()) {
-                            String errorMessage = "Nu sunt suficiente produse de tipul '" + orderProduct.getProduct().getName() + "' în stoc.";
-                            errorMessagesMap.put(orderProduct.getOrderProductId(), errorMessage);
-                        }
+                for (OrderProduct orderProduct : cartOrder.getOrderProducts()) {
+                    if (orderProduct.getQuantity() > orderProduct.getProduct().getStockQuantity()) {
+                        String errorMessage = "Nu sunt suficiente produse de tipul '" + orderProduct.getProduct().getName() + "' în stoc.";
+                        errorMessagesMap.put(orderProduct.getOrderProductId(), errorMessage);
                     }
-
-                    model.addAttribute("errorMessagesMap", errorMessagesMap);
                 }
+
+                model.addAttribute("errorMessagesMap", errorMessagesMap);
             }
+        }
 
-            model.addAttribute("cartOrder", cartOrder);
+        model.addAttribute("cartOrder", cartOrder);
 
-            if (redirectAttributes.getFlashAttributes().containsKey("errorProductQuantity")) {
-                String errorProductQuantity = (String) redirectAttributes.getFlashAttributes().get("errorProductQuantity");
+        if (redirectAttributes.getFlashAttributes().containsKey("errorProductQuantity")) {
+            String errorProductQuantity = (String) redirectAttributes.getFlashAttributes().get("errorProductQuantity");
 
-                model.addAttribute("errorProductQuantity", errorProductQuantity);
-            }
-
-            return "cart";
-        } else {
-            return "redirect:/";
+            model.addAttribute("errorProductQuantity", errorProductQuantity);
         }
+
+        return "cart";
     }
 
     @GetMapping(value = "/cart/applyCoupon")
@@ -269,65 +258,52 @@ public class MainController {
             }
     )
     @CircuitBreaker(name = "applyCouponCart", fallbackMethod = "applyCouponFallback")
-    public String applyCouponCart(@RequestHeader(value = "coupon", defaultValue = "coupon") String correlationId, Model model, Principal principal) {
-        String username = principal.getName();
-        Optional<Customer> optionalCustomer = customerRepository.findByUsername(username);
+    public String applyCouponCart(@RequestHeader(value = "coupon", defaultValue = "coupon") String correlationId,
+                                  @RequestParam(required = false) String code, Model model, Principal principal) {
+        Order cartOrder = cartService.getCart(principal.getName()).orElse(null);
 
-        if (optionalCustomer.isPresent()) {
-            Customer customer = optionalCustomer.get();
-            Optional<Order> cartOrderOptional = customer.getOrders().stream()
-                    .filter(order -> order.getStatus() == OrderStatusEnum.CART)
-                    .findFirst();
+        if(cartOrder != null){
+            if(cartOrder.getOrderProducts().isEmpty()){
+                orderService.removeOrderById(cartOrder.getOrderId());
 
-            Order cartOrder = cartOrderOptional.orElse(null);
-
-            if(cartOrder != null){
-                if(cartOrder.getOrderProducts().isEmpty()){
-                    orderService.removeOrderById(cartOrder.getOrderId());
-
-                    return "redirect:/";
-                }
-                else {
-                    cartOrder = orderService.applyCoupon(cartOrder.getOrderId(), correlationId);
-                }
+                return "redirect:/";
             }
+            else {
+                cartOrder = orderService.applyCoupon(cartOrder.getOrderId(), parseCouponCodes(code), correlationId);
+            }
+        }
 
-            model.addAttribute("cartOrder", cartOrder);
+        model.addAttribute("cartOrder", cartOrder);
 
-            return "redirect:/cart";
-        } else {
-            return "redirect:/";
-        }
+        return "redirect:/cart";
     }
 
-    public String applyCouponFallback(String correlationId, Model model, Principal principal) {
-        String username = principal.getName();
-        Optional<Customer> optionalCustomer = customerRepository.findByUsername(username);
+    public String applyCouponFallback(String correlationId, String code, Model model, Principal principal) {
+        Order cartOrder = cartService.getCart(principal.getName()).orElse(null);
 
-        if (optionalCustomer.isPresent()) {
-            Customer customer = optionalCustomer.get();
-            Optional<Order> cartOrderOptional = customer.getOrders().stream()
-                    .filter(order -> order.getStatus() == OrderStatusEnum.CART)
-                    .findFirst();
-
-            Order cartOrder = cartOrderOptional.orElse(null);
-
-            if(cartOrder != null){
-                if(cartOrder.getOrderProducts().isEmpty()){
-                    orderService.removeOrderById(cartOrder.getOrderId());
-                    cartOrder = null;
-                    model.addAttribute("errorProductQuantity", "No active cart found.");
-                } else {
-                    model.addAttribute("errorProductQuantity", "Failed to apply coupon.");
-                }
+        if(cartOrder != null){
+            if(cartOrder.getOrderProducts().isEmpty()){
+                orderService.removeOrderById(cartOrder.getOrderId());
+                cartOrder = null;
+                model.addAttribute("errorProductQuantity", "No active cart found.");
+            } else {
+                model.addAttribute("errorProductQuantity", "Failed to apply coupon.");
             }
+        }
 
-            model.addAttribute("cartOrder", cartOrder);
+        model.addAttribute("cartOrder", cartOrder);
 
-            return "cart";
-        } else {
-            return "redirect:/";
+        return "cart";
+    }
+
+    private List<String> parseCouponCodes(String code) {
+        if (code == null || code.isBlank()) {
+            return List.of();
         }
+
+        return Arrays.stream(code.split("[,\\s]+"))
+                .filter(value -> !value.isBlank())
+                .toList();
     }
 
     @GetMapping(value = "/addProduct", produces = MediaType.TEXT_HTML_VALUE)
@@ -352,7 +328,8 @@ public class MainController {
             responses = {
                     @ApiResponse(description = "Redirect to home", responseCode = "302"),
                     @ApiResponse(description = "Validation error", responseCode = "400"),
-                    @ApiResponse(description = "Access denied", responseCode = "403")
+                    @ApiResponse(description = "Access denied", responseCode = "403"),
+                    @ApiResponse(description = "Image processing is busy", responseCode = "503")
             }
     )
     public String processRegister(@Valid @ModelAttribute("product") Product product,
@@ -369,84 +346,65 @@ public class MainController {
             return "productAdd";
         }
 
-        Warranty warranty = product.getWarranty();
-
-        if(warrantyValidator.areAllWarrantyFieldsCompleted(warranty)){
-            warranty = warrantyRepository.save(product.getWarranty());
-
-            product.setWarranty(warranty);
-        }
-        else{
-            product.setWarranty(null);
-        }
-
-        Set<Tag> newTagsSet = new HashSet<>();
+        List<byte[]> imageBytes = new ArrayList<>();
 
-        for (Tag tag : product.getTags()) {
-            tag.setName(tag.getName().toUpperCase());
+        if(images != null) {
+            for (MultipartFile image: images) {
+                if (image.isEmpty()) {
+                    continue;
+                }
 
-            if(tag.getName().isEmpty() || tag.getName().isBlank()){
-                continue;
-            }
+                try {
+                    imageBytes.add(image.getBytes());
+                } catch (IOException e) {
+                    log.error(e.toString());
 
-            Optional<Tag> existingTagOptional = tagRepository.findByName(tag.getName());
-            if (existingTagOptional.isPresent()) {
-                Tag existingTag = existingTagOptional.get();
-                newTagsSet.add(existingTag);
-            } else {
-                Tag savedTag = tagRepository.save(tag);
-                newTagsSet.add(savedTag);
+                    return "redirect:/";
+                }
             }
         }
 
-        product.setTags(newTagsSet.stream().toList());
-
-        if(newTagsSet.isEmpty()){
-            product.setTags(null);
-        }
-
-        Product savedProduct = productRepository.save(product);
+        productImageProcessor.reserve(imageBytes.size());
 
-        log.info("added product successfully: {}", savedProduct);
+        int submitted = 0;
 
-        int idx = 1;
+        try {
+            Warranty warranty = product.getWarranty();
 
-        if(images != null) {
-            for (MultipartFile image: images) {
-                if (image.isEmpty()) {
-                    continue;
-                }
+            if(warrantyValidator.areAllWarrantyFieldsCompleted(warranty)){
+                warranty = warrantyRepository.save(product.getWarranty());
 
-                try {
-                    byte[] imageBytes = image.getBytes();
+                product.setWarranty(warranty);
+            }
+            else{
+                product.setWarranty(null);
+            }
 
-                    ByteArrayInputStream bais = new ByteArrayInputStream(imageBytes);
-                    BufferedImage originalImage = ImageIO.read(bais);
+            List<String> tagNames = product.getTags().stream()
+                    .map(tag -> tag.getName().toUpperCase())
+                    .filter(name -> !name.isBlank())
+                    .toList();
 
-                    BufferedImage resizedImage = new BufferedImage(800, 800, BufferedImage.TYPE_INT_RGB);
-                    Graphics2D g2d = resizedImage.createGraphics();
-                    g2d.drawImage(originalImage.getScaledInstance(800, 800, Image.SCALE_SMOOTH), 0, 0, null);
+            List<Tag> tags = tagService.resolveTags(tagNames);
 
-                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                    ImageIO.write(resizedImage, "jpg", baos);
-                    byte[] resizedImageBytes = baos.toByteArray();
+            product.setTags(tags.isEmpty() ? null : tags);
 
-                    Long productId = savedProduct.getProductId();
+            Product savedProduct = productRepository.save(product);
+            productSearchService.indexProduct(savedProduct);
 
-                    String productDir = "src/main/resources/static/images/products/" + product.getCategory() + "/";
-                    String imageName = productId + "_" + idx + ".jpg";
-                    Path imagePath = Paths.get(productDir, imageName);
-                    Files.write(imagePath, resizedImageBytes);
+            log.info("added product successfully: {}", savedProduct);
 
-                    idx++;
-                } catch (IOException e) {
-                    log.error(e.toString());
+            for (byte[] bytes: imageBytes) {
+                productImageProcessor.submit(product.getCategory().toLowerCase(), savedProduct.getProductId(), submitted + 1, bytes);
 
-                    return "redirect:/";
-                }
+                submitted++;
             }
 
-            log.info("added product images successfully: {}", savedProduct);
+            if (!imageBytes.isEmpty()) {
+                log.info("queued product images for processing: {}", savedProduct);
+            }
+        } finally {
+            productImageProcessor.release(imageBytes.size() - submitted);
         }
 
         return "redirect:/";
@@ -1,10 +1,11 @@
 package com.savian.cartblitz.controller;
 
+import com.savian.cartblitz.dto.ExportFormat;
+import com.savian.cartblitz.dto.OrderDetailView;
 import com.savian.cartblitz.dto.OrderDto;
 import com.savian.cartblitz.exception.ResourceNotFoundException;
-import com.savian.cartblitz.mapper.OrderMapper;
-import com.savian.cartblitz.model.Order;
 import com.savian.cartblitz.model.OrderStatusEnum;
+import com.savian.cartblitz.service.ExportService;
 import com.savian.cartblitz.service.OrderService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,6 +19,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,12 +28,13 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -43,12 +46,15 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("order")
 @Tag(name = "Orders",description = "Endpoint manage Orders")
 public class OrderController {
+    private static final LinkTemplate ORDER_LINK = LinkTemplate.of(OrderController.class, "GetOrderById");
+    private static final LinkTemplate CUSTOMER_ORDERS_LINK = LinkTemplate.of(OrderController.class, "GetOrdersByCustomerId");
+
     OrderService orderService;
-    OrderMapper orderMapper;
+    ExportService exportService;
 
-    public OrderController(OrderService orderService, OrderMapper orderMapper) {
+    public OrderController(OrderService orderService, ExportService exportService) {
         this.orderService = orderService;
-        this.orderMapper = orderMapper;
+        this.exportService = exportService;
     }
 
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
@@ -60,18 +66,26 @@ public class OrderController {
                     @ApiResponse(description = "Access denied", responseCode = "403"),
                     @ApiResponse(description = "Not Found", responseCode = "404")
             })
-    public ResponseEntity<CollectionModel<EntityModel<OrderDto>>> GetAllOrders(){
+    public ResponseEntity<CollectionModel<EntityModel<OrderDto>>> GetAllOrders(
+            @RequestParam(required = false) @Parameter(description = "Set to false to omit per-order links") Boolean links){
         List<OrderDto> orders = orderService.getAllOrders();
 
-        List<EntityModel<OrderDto>> orderResources = orders.stream()
-                .map(order -> EntityModel.of(order,
-                        linkTo(methodOn(OrderController.class).GetOrderById(order.getOrderId())).withRel("orderDetails"),
-                        linkTo(methodOn(OrderController.class).GetOrdersByCustomerId(order.getCustomerId())).withRel("customerOrders")
-                ))
-                .collect(Collectors.toList());
+        return ResponseEntity.ok(CollectionModel.of(toOrderModels(orders, links, true),
+                linkTo(methodOn(OrderController.class).GetAllOrders(links)).withSelfRel().expand()));
+    }
 
-        return ResponseEntity.ok(CollectionModel.of(orderResources,
-                linkTo(methodOn(OrderController.class).GetAllOrders()).withSelfRel()));
+    @GetMapping(path = "/export", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    @Operation(description = "Streaming export of all orders as NDJSON or as a JSON array",
+            summary = "Exporting all orders",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200"),
+                    @ApiResponse(description = "Access denied", responseCode = "403")
+            })
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "NDJSON or ARRAY") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(outputStream -> exportService.exportOrders(outputStream, format));
     }
 
     @GetMapping(path = "/id/{orderId}", produces = { MediaType.APPLICATION_JSON_VALUE })
@@ -91,8 +105,8 @@ public class OrderController {
             OrderDto order = optionalOrder.get();
             return ResponseEntity.ok(EntityModel.of(order,
                     linkTo(methodOn(OrderController.class).GetOrderById(orderId)).withSelfRel(),
-                    linkTo(methodOn(OrderController.class).GetOrdersByCustomerId(order.getCustomerId())).withRel("customerOrders"),
-                    linkTo(methodOn(OrderController.class).GetAllOrders()).withRel("allOrders")
+                    linkTo(methodOn(OrderController.class).GetOrdersByCustomerId(order.getCustomerId(), null)).withRel("customerOrders"),
+                    linkTo(methodOn(OrderController.class).GetAllOrders(null)).withRel("allOrders").expand()
             ));
         } else {
             return ResponseEntity.notFound().build();
@@ -112,14 +126,13 @@ public class OrderController {
         if (orderId == null) {
             return "redirect:/";
         }
-        Optional<OrderDto> orderOptional = orderService.getOrderById(orderId);
+        Optional<OrderDetailView> orderOptional = orderService.getOrderDetailView(orderId);
 
         if(orderOptional.isEmpty()){
             return "redirect:/";
         }
-        Order order = orderMapper.orderDtoToOrder(orderOptional.get());
 
-        model.addAttribute("order", order);
+        model.addAttribute("order", orderOptional.get());
 
         return "orderDetails";
     }
@@ -133,19 +146,13 @@ public class OrderController {
                     @ApiResponse(description = "Not Found", responseCode = "404")
             })
     public ResponseEntity<CollectionModel<EntityModel<OrderDto>>> GetOrdersByCustomerId(
-            @PathVariable @Parameter(name = "customerId", description = "Customer id", example = "1", required = true) Long customerId){
+            @PathVariable @Parameter(name = "customerId", description = "Customer id", example = "1", required = true) Long customerId,
+            @RequestParam(required = false) Boolean links){
         List<OrderDto> orders = orderService.getOrdersByCustomerId(customerId);
+        Link selfLink = linkTo(methodOn(OrderController.class).GetOrdersByCustomerId(customerId, links)).withSelfRel().expand();
 
-        List<EntityModel<OrderDto>> orderResources = orders.stream()
-                .map(order -> EntityModel.of(order,
-                        linkTo(methodOn(OrderController.class).GetOrderById(order.getOrderId())).withRel("orderDetails"),
-                        linkTo(methodOn(OrderController.class).GetOrdersByCustomerId(customerId)).withSelfRel(),
-                        linkTo(methodOn(OrderController.class).GetAllOrders()).withRel("allOrders")
-                ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(CollectionModel.of(orderResources,
-                linkTo(methodOn(OrderController.class).GetOrdersByCustomerId(customerId)).withSelfRel()));
+        return ResponseEntity.ok(CollectionModel.of(toOrderModels(orders, links, false,
+                selfLink, linkTo(methodOn(OrderController.class).GetAllOrders(null)).withRel("allOrders").expand()), selfLink));
     }
 
     @GetMapping(path = "/status/{status}", produces = { MediaType.APPLICATION_JSON_VALUE })
@@ -157,20 +164,13 @@ public class OrderController {
                     @ApiResponse(description = "Not Found", responseCode = "404")
             })
     public ResponseEntity<CollectionModel<EntityModel<OrderDto>>> GetOrdersByStatus(
-            @PathVariable @Parameter(name = "status", description = "Status", required = true) OrderStatusEnum status){
+            @PathVariable @Parameter(name = "status", description = "Status", required = true) OrderStatusEnum status,
+            @RequestParam(required = false) Boolean links){
         List<OrderDto> orders = orderService.getOrdersByStatus(status);
+        Link selfLink = linkTo(methodOn(OrderController.class).GetOrdersByStatus(status, links)).withSelfRel().expand();
 
-        List<EntityModel<OrderDto>> orderResources = orders.stream()
-                .map(order -> EntityModel.of(order,
-                        linkTo(methodOn(OrderController.class).GetOrderById(order.getOrderId())).withRel("orderDetails"),
-                        linkTo(methodOn(OrderController.class).GetOrdersByCustomerId(order.getCustomerId())).withRel("customerOrders"),
-                        linkTo(methodOn(OrderController.class).GetOrdersByStatus(status)).withSelfRel(),
-                        linkTo(methodOn(OrderController.class).GetAllOrders()).withRel("allOrders")
-                ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(CollectionModel.of(orderResources,
-                linkTo(methodOn(OrderController.class).GetOrdersByStatus(status)).withSelfRel()));
+        return ResponseEntity.ok(CollectionModel.of(toOrderModels(orders, links, true,
+                selfLink, linkTo(methodOn(OrderController.class).GetAllOrders(null)).withRel("allOrders").expand()), selfLink));
     }
 
     @PostMapping(path = "/complete/{orderId}")
@@ -206,7 +206,7 @@ public class OrderController {
 
         return ResponseEntity.ok(EntityModel.of(updatedOrder,
                 linkTo(methodOn(OrderController.class).GetOrderById(orderId)).withRel("orderDetails"),
-                linkTo(methodOn(OrderController.class).GetAllOrders()).withRel("allOrders")
+                linkTo(methodOn(OrderController.class).GetAllOrders(null)).withRel("allOrders").expand()
         ));
     }
 
@@ -226,8 +226,8 @@ public class OrderController {
         return ResponseEntity.created(URI.create("/order/" + createdOrder.getOrderId()))
                 .body(EntityModel.of(createdOrder,
                         linkTo(methodOn(OrderController.class).GetOrderById(createdOrder.getOrderId())).withRel("orderDetails"),
-                        linkTo(methodOn(OrderController.class).GetOrdersByCustomerId(createdOrder.getCustomerId())).withRel("customerOrders"),
-                        linkTo(methodOn(OrderController.class).GetAllOrders()).withRel("allOrders")
+                        linkTo(methodOn(OrderController.class).GetOrdersByCustomerId(createdOrder.getCustomerId(), null)).withRel("customerOrders"),
+                        linkTo(methodOn(OrderController.class).GetAllOrders(null)).withRel("allOrders").expand()
                 ));
     }
 
@@ -247,7 +247,7 @@ public class OrderController {
 
         return ResponseEntity.ok(EntityModel.of(updatedOrder,
                 linkTo(methodOn(OrderController.class).GetOrderById(orderId)).withRel("orderDetails"),
-                linkTo(methodOn(OrderController.class).GetAllOrders()).withRel("allOrders")
+                linkTo(methodOn(OrderController.class).GetAllOrders(null)).withRel("allOrders").expand()
         ));
     }
 
@@ -270,7 +270,30 @@ public class OrderController {
         }
     }
 
-    public ResponseEntity<CollectionModel<EntityModel<OrderDto>>> fallbackForGetAllOrders(Exception ex) {
+    private List<EntityModel<OrderDto>> toOrderModels(List<OrderDto> orders, Boolean links, boolean customerLinks, Link... collectionLinks) {
+        List<EntityModel<OrderDto>> orderModels = new ArrayList<>(orders.size());
+
+        if (!LinkTemplate.enabled(links)) {
+            for (OrderDto order : orders) {
+                orderModels.add(EntityModel.of(order));
+            }
+            return orderModels;
+        }
+
+        String baseUri = LinkTemplate.currentBaseUri();
+        for (OrderDto order : orders) {
+            EntityModel<OrderDto> orderModel = EntityModel.of(order, ORDER_LINK.withRel(baseUri, "orderDetails", order.getOrderId()));
+            if (customerLinks) {
+                orderModel.add(CUSTOMER_ORDERS_LINK.withRel(baseUri, "customerOrders", order.getCustomerId()));
+            }
+            orderModel.add(collectionLinks);
+            orderModels.add(orderModel);
+        }
+
+        return orderModels;
+    }
+
+    public ResponseEntity<CollectionModel<EntityModel<OrderDto>>> fallbackForGetAllOrders(Boolean links, Exception ex) {
         log.error("Fallback method executed for GetAllOrders due to {}", ex.toString());
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
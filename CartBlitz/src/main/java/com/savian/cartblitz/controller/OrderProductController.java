@@ -1,9 +1,11 @@
 package com.savian.cartblitz.controller;
 
+import com.savian.cartblitz.dto.ExportFormat;
 import com.savian.cartblitz.dto.OrderProductDto;
 import com.savian.cartblitz.exception.ResourceNotFoundException;
 import com.savian.cartblitz.model.OrderProduct;
 import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.service.ExportService;
 import com.savian.cartblitz.service.OrderProductService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,6 +24,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.net.URI;
@@ -40,9 +43,11 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @Tag(name = "OrderProducts",description = "Endpoint manage OrderProducts")
 public class OrderProductController {
     OrderProductService orderProductService;
+    ExportService exportService;
 
-    public OrderProductController(OrderProductService orderProductService) {
+    public OrderProductController(OrderProductService orderProductService, ExportService exportService) {
         this.orderProductService = orderProductService;
+        this.exportService = exportService;
     }
 
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
@@ -63,6 +68,20 @@ public class OrderProductController {
                 linkTo(methodOn(OrderProductController.class).GetAllOrderProducts()).withSelfRel()));
     }
 
+    @GetMapping(path = "/export", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    @Operation(description = "Streaming export of all orderProducts as NDJSON or as a JSON array",
+            summary = "Exporting all orderProducts",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200"),
+                    @ApiResponse(description = "Access denied", responseCode = "403")
+            })
+    public ResponseEntity<StreamingResponseBody> exportOrderProducts(
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "NDJSON or ARRAY") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(outputStream -> exportService.exportOrderProducts(outputStream, format));
+    }
+
     @GetMapping(path = "/orderId/{orderId}/productId/{productId}", produces = { MediaType.APPLICATION_JSON_VALUE })
     @CircuitBreaker(name = "orderProductService", fallbackMethod = "fallbackForGetOrderProductById")
     @Operation(description = "Showing all info about a orderProduct with given id",
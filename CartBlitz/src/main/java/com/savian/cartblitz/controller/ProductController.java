@@ -1,13 +1,14 @@
 package com.savian.cartblitz.controller;
 
+import com.savian.cartblitz.config.ProductPageProperties;
 import com.savian.cartblitz.dto.*;
 import com.savian.cartblitz.exception.ResourceNotFoundException;
-import com.savian.cartblitz.mapper.ProductMapper;
 import com.savian.cartblitz.model.*;
-import com.savian.cartblitz.repository.OrderProductRepository;
+import com.savian.cartblitz.repository.ProductQuery;
+import com.savian.cartblitz.service.CartService;
+import com.savian.cartblitz.service.CatalogImportService;
 import com.savian.cartblitz.service.CustomerService;
-import com.savian.cartblitz.service.OrderProductService;
-import com.savian.cartblitz.service.OrderService;
+import com.savian.cartblitz.service.ExportService;
 import com.savian.cartblitz.service.ProductService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,10 +18,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -31,12 +36,15 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.security.Principal;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -48,20 +56,25 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("product")
 @Tag(name = "Products",description = "Endpoint manage Products")
 public class ProductController {
+    private static final LinkTemplate PRODUCT_API_LINK = LinkTemplate.of(ProductController.class, "getProductByIdApi");
+    private static final LinkTemplate PRODUCT_PAGE_LINK = LinkTemplate.of(ProductController.class, "GetProductById");
+    private static final LinkTemplate CATEGORY_PAGE_LINK = LinkTemplate.of(ProductController.class, "GetProductsByCategory");
+
     ProductService productService;
+    ExportService exportService;
+    CatalogImportService catalogImportService;
     CustomerService customerService;
-    OrderService orderService;
-    OrderProductRepository orderProductRepository;
-    OrderProductService orderProductService;
-    ProductMapper productMapper;
+    CartService cartService;
+    ProductPageProperties productPageProperties;
 
-    public ProductController(ProductService productService, CustomerService customerService, OrderService orderService, OrderProductRepository orderProductRepository, OrderProductService orderProductService, ProductMapper productMapper) {
+    public ProductController(ProductService productService, CustomerService customerService, CartService cartService, ProductPageProperties productPageProperties, ExportService exportService,
+                             CatalogImportService catalogImportService) {
         this.productService = productService;
         this.customerService = customerService;
-        this.orderService = orderService;
-        this.orderProductRepository = orderProductRepository;
-        this.orderProductService = orderProductService;
-        this.productMapper = productMapper;
+        this.cartService = cartService;
+        this.productPageProperties = productPageProperties;
+        this.exportService = exportService;
+        this.catalogImportService = catalogImportService;
     }
 
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
@@ -73,23 +86,49 @@ public class ProductController {
             @ApiResponse(description = "Access denied", responseCode = "403"),
             @ApiResponse(description = "Not Found", responseCode = "404"),
     })
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> GetAllProducts() {
-        List<ProductDto> productDtos = productService.getAllProducts();
-
-        List<EntityModel<ProductDto>> productModels = productDtos.stream()
-                .map(productDto -> {
-                    Link selfLink = linkTo(ProductController.class).slash("id").slash(productDto.getProductId()).withSelfRel();
-                    Link categoryLink = linkTo(ProductController.class).slash("category").slash(productDto.getCategory()).withRel("category");
-                    return EntityModel.of(productDto, selfLink, categoryLink);
-                })
-                .collect(Collectors.toList());
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> GetAllProducts(
+            @RequestParam(required = false) @Parameter(description = "Return products with an id greater than this cursor") Long after,
+            @RequestParam(required = false) @Parameter(description = "Return products with an id lower than this cursor") Long before,
+            @RequestParam(required = false) @Parameter(description = "Page size") Integer size,
+            @RequestParam(required = false) @Parameter(description = "Set to false to omit per-product links") Boolean links) {
+        int pageSize = productPageProperties.resolveSize(size);
+        ProductPageDto page = productService.getProductsPage(after, before, pageSize);
+        List<EntityModel<ProductSummary>> productModels;
+
+        if (LinkTemplate.enabled(links)) {
+            String baseUri = LinkTemplate.currentBaseUri();
+            productModels = new ArrayList<>(page.getProducts().size());
+
+            for (ProductSummary product : page.getProducts()) {
+                productModels.add(EntityModel.of(product,
+                        PRODUCT_PAGE_LINK.withSelfRel(baseUri, product.getProductId()),
+                        CATEGORY_PAGE_LINK.withRel(baseUri, "category", product.getCategory())));
+            }
+        } else {
+            productModels = toProductModels(page.getProducts(), links);
+        }
 
-        Link selfLink = linkTo(ProductController.class).withSelfRel();
-        CollectionModel<EntityModel<ProductDto>> model = CollectionModel.of(productModels, selfLink);
+        CollectionModel<EntityModel<ProductSummary>> model = CollectionModel.of(productModels);
+        addPageLinks(model, linkTo(ProductController.class).toUriComponentsBuilder()
+                .queryParamIfPresent("links", Optional.ofNullable(links)), page, after, before, pageSize);
 
         return ResponseEntity.ok(model);
     }
 
+    @GetMapping(path = "/export", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    @Operation(description = "Streaming export of all products as NDJSON or as a JSON array",
+            summary = "Exporting all products")
+    @ApiResponses(value = {
+            @ApiResponse(description = "Success", responseCode = "200"),
+            @ApiResponse(description = "Access denied", responseCode = "403"),
+    })
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "NDJSON or ARRAY") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(outputStream -> exportService.exportProducts(outputStream, format));
+    }
+
     @GetMapping(path = "/api/id/{productId}", produces = MediaType.APPLICATION_JSON_VALUE)
     @CircuitBreaker(name = "productService", fallbackMethod = "fallbackForGetProductById")
     @Operation(description = "Showing all info about a product with given id",
@@ -101,14 +140,14 @@ public class ProductController {
     })
     public ResponseEntity<EntityModel<ProductDto>> getProductByIdApi(
             @PathVariable Long productId) {
-        Optional<Product> optionalProduct = productService.getProductById(productId);
+        Optional<ProductDto> optionalProduct = productService.getProductDetailById(productId);
 
         if (optionalProduct.isPresent()) {
-            ProductDto productDto = productMapper.productToProductDto(optionalProduct.get());
+            ProductDto productDto = optionalProduct.get();
 
             EntityModel<ProductDto> model = EntityModel.of(productDto);
             model.add(linkTo(methodOn(ProductController.class).getProductByIdApi(productId)).withSelfRel());
-            model.add(linkTo(methodOn(ProductController.class).getProductsByCategoryApi(productDto.getCategory())).withRel("productsInCategory"));
+            model.add(linkTo(ProductController.class).slash("api").slash("category").slash(productDto.getCategory()).withRel("productsInCategory"));
 
             return ResponseEntity.ok(model);
         } else {
@@ -126,10 +165,10 @@ public class ProductController {
     })
     public String GetProductById(
             @PathVariable Long productId, Model model, Principal principal){
-        Optional<Product> optionalProduct = productService.getProductById(productId);
+        Optional<ProductDetailView> optionalProduct = productService.getProductDetailView(productId);
 
         if (optionalProduct.isPresent()) {
-            Product product = optionalProduct.get();
+            ProductDetailView product = optionalProduct.get();
             ReviewDto review = new ReviewDto();
 
             if(principal != null){
@@ -139,19 +178,15 @@ public class ProductController {
                 optionalCustomer.ifPresent(customer -> review.setCustomerId(customer.getCustomerId()));
             }
 
-            int numImages = productService.getNumImagesForProduct(product.getCategory().toLowerCase(), productId);
-
-            List<String> tagNames = new ArrayList<>();
-            for (com.savian.cartblitz.model.Tag tag : product.getTags()) {
-                tagNames.add(tag.getName());
-            }
+            int numImages = productService.getNumImagesForProduct(productId);
 
             review.setProductId(productId);
 
             model.addAttribute("product", product);
             model.addAttribute("numImages", numImages);
+            model.addAttribute("imagesPending", productService.hasPendingImages(productId));
             model.addAttribute("review", review);
-            model.addAttribute("tagNames", tagNames);
+            model.addAttribute("tagNames", product.getTagNames());
 
             return "product";
         } else {
@@ -167,27 +202,20 @@ public class ProductController {
             @ApiResponse(description = "Access denied", responseCode = "403"),
             @ApiResponse(description = "Not Found", responseCode = "404"),
     })
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> getProductsByCategoryApi(
-            @PathVariable String category) {
-        List<ProductDto> products = productService.getProductsByCategory(category);
-        Map<Long, Integer> numImagesMap = new HashMap<>();
-
-        for (ProductDto productDto : products) {
-            int numImages = productService.getNumImagesForProduct(productDto.getCategory().toLowerCase(), productDto.getProductId());
-            numImagesMap.put(productDto.getProductId(), numImages);
-        }
-
-        List<EntityModel<ProductDto>> productModels = new ArrayList<>();
-        for (ProductDto product : products) {
-            Long productId = product.getProductId();
-            EntityModel<ProductDto> model = EntityModel.of(product);
-            model.add(linkTo(methodOn(ProductController.class).getProductByIdApi(productId)).withSelfRel());
-            productModels.add(model);
-        }
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> getProductsByCategoryApi(
+            @PathVariable String category,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean links) {
+        int pageSize = productPageProperties.resolveSize(size);
+        ProductPageDto page = productService.getProductsByCategoryPage(category, after, before, pageSize);
 
-        Link selfLink = linkTo(methodOn(ProductController.class).getProductsByCategoryApi(category)).withSelfRel();
+        List<EntityModel<ProductSummary>> productModels = toProductModels(page.getProducts(), links);
 
-        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(productModels, selfLink);
+        CollectionModel<EntityModel<ProductSummary>> collectionModel = CollectionModel.of(productModels);
+        addPageLinks(collectionModel, linkTo(ProductController.class).slash("api").slash("category").slash(category).toUriComponentsBuilder()
+                .queryParamIfPresent("links", Optional.ofNullable(links)), page, after, before, pageSize);
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -203,19 +231,12 @@ public class ProductController {
             @PathVariable String category,
             HttpSession session,
             Model model){
-        List<ProductDto> products = productService.getProductsByCategory(category);
-        Map<Long, Integer> numImagesMap = new HashMap<>();
-
-        for(ProductDto productDto: products){
-            int numImages = productService.getNumImagesForProduct(productDto.getCategory().toLowerCase(), productDto.getProductId());
-            numImagesMap.put(productDto.getProductId(), numImages);
-        }
+        List<ProductSummary> products = productService.getProductsByCategory(category);
 
         session.setAttribute("products", products);
         model.addAttribute("products", products);
         model.addAttribute("category", category);
         model.addAttribute("categoryReadable", getReadableCategory(category));
-        model.addAttribute("numImagesMap", numImagesMap);
 
         return "products";
     }
@@ -227,25 +248,26 @@ public class ProductController {
             @ApiResponse(description = "Access denied", responseCode = "403"),
             @ApiResponse(description = "Not Found", responseCode = "404"),
     })
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> sortProductsByCategoryApi(
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> sortProductsByCategoryApi(
             @PathVariable String category,
             @RequestParam String sortBy,
-            @RequestParam String sortOrder) {
-        List<ProductDto> products = productService.getProductsByCategory(category);
-        List<ProductDto> sortedProducts = productService.sortProducts(products, sortBy, sortOrder);
-
-        List<EntityModel<ProductDto>> productModels = sortedProducts.stream()
-                .map(product -> {
-                    EntityModel<ProductDto> model = EntityModel.of(product);
-                    model.add(linkTo(methodOn(ProductController.class).getProductByIdApi(product.getProductId())).withSelfRel());
-                    model.add(linkTo(methodOn(ProductController.class).sortProductsByCategoryApi(category, sortBy, sortOrder)).withRel("sorted-products"));
-                    return model;
-                }).toList();
-
-        Link selfLink = linkTo(methodOn(ProductController.class).sortProductsByCategoryApi(category, sortBy, sortOrder)).withSelfRel();
-        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(productModels, selfLink);
-
-        return ResponseEntity.ok(collectionModel);
+            @RequestParam String sortOrder,
+            @RequestParam(required = false) @Parameter(description = "Zero-based page number") Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean links) {
+        int pageSize = productPageProperties.resolveSize(size);
+        int pageNumber = resolvePage(page);
+        List<ProductSummary> sortedProducts = productService.findProducts(ProductQuery.builder()
+                .category(category)
+                .sortBy(sortBy)
+                .sortOrder(sortOrder)
+                .offset(getOffset(pageNumber, pageSize))
+                .limit(pageSize + 1)
+                .build());
+
+        Link selfLink = linkTo(methodOn(ProductController.class).sortProductsByCategoryApi(category, sortBy, sortOrder, pageNumber, pageSize, links)).withSelfRel().expand();
+
+        return ResponseEntity.ok(toOffsetPage(sortedProducts, selfLink, "sorted-products", pageNumber, pageSize, links));
     }
 
     @GetMapping(path = "/category/{category}/sort", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -261,24 +283,17 @@ public class ProductController {
             HttpSession session,
             Model model) {
         @SuppressWarnings("unchecked")
-        List<ProductDto> products = (List<ProductDto>) session.getAttribute("products");
+        List<ProductSummary> products = (List<ProductSummary>) session.getAttribute("products");
 
         if (products == null) {
             return "redirect:/";
         }
 
-        List<ProductDto> sortedProducts = productService.sortProducts(products, sortBy, sortOrder);
-        Map<Long, Integer> numImagesMap = new HashMap<>();
-
-        for(ProductDto productDto: products){
-            int numImages = productService.getNumImagesForProduct(productDto.getCategory().toLowerCase(), productDto.getProductId());
-            numImagesMap.put(productDto.getProductId(), numImages);
-        }
+        List<ProductSummary> sortedProducts = productService.sortProducts(products, sortBy, sortOrder);
 
         model.addAttribute("products", sortedProducts);
         model.addAttribute("category", category);
         model.addAttribute("categoryReadable", getReadableCategory(category));
-        model.addAttribute("numImagesMap", numImagesMap);
 
         return "products";
     }
@@ -289,41 +304,26 @@ public class ProductController {
             @ApiResponse(description = "Success", responseCode = "200"),
             @ApiResponse(description = "Not Found", responseCode = "404"),
     })
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> filterProductsByCategoryApi(
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> filterProductsByCategoryApi(
             @PathVariable String category,
             @RequestParam String minPrice,
-            @RequestParam String maxPrice) {
-        List<ProductDto> products = productService.getProductsByCategory(category);
-
-        BigDecimal minPriceValue = BigDecimal.ZERO;
-        BigDecimal maxPriceValue = BigDecimal.valueOf(Double.MAX_VALUE);
-
-        if (minPrice != null && !minPrice.isEmpty()) {
-            try {
-                minPriceValue = new BigDecimal(minPrice);
-            } catch (NumberFormatException ignored) {}
-        }
-
-        if (maxPrice != null && !maxPrice.isEmpty()) {
-            try {
-                maxPriceValue = new BigDecimal(maxPrice);
-            } catch (NumberFormatException ignored) {}
-        }
-
-        List<ProductDto> filteredProducts = productService.filterProductsMinPriceMaxPrice(products, minPriceValue, maxPriceValue);
-
-        List<EntityModel<ProductDto>> productModels = filteredProducts.stream()
-                .map(product -> {
-                    EntityModel<ProductDto> model = EntityModel.of(product);
-                    model.add(linkTo(methodOn(ProductController.class).getProductByIdApi(product.getProductId())).withSelfRel());
-                    model.add(linkTo(methodOn(ProductController.class).filterProductsByCategoryApi(category, minPrice, maxPrice)).withRel("filtered-products"));
-                    return model;
-                }).toList();
-
-        Link selfLink = linkTo(methodOn(ProductController.class).filterProductsByCategoryApi(category, minPrice, maxPrice)).withSelfRel();
-        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(productModels, selfLink);
-
-        return ResponseEntity.ok(collectionModel);
+            @RequestParam String maxPrice,
+            @RequestParam(required = false) @Parameter(description = "Zero-based page number") Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean links) {
+        int pageSize = productPageProperties.resolveSize(size);
+        int pageNumber = resolvePage(page);
+        List<ProductSummary> filteredProducts = productService.findProducts(ProductQuery.builder()
+                .category(category)
+                .minPrice(parsePrice(minPrice))
+                .maxPrice(parsePrice(maxPrice))
+                .offset(getOffset(pageNumber, pageSize))
+                .limit(pageSize + 1)
+                .build());
+
+        Link selfLink = linkTo(methodOn(ProductController.class).filterProductsByCategoryApi(category, minPrice, maxPrice, pageNumber, pageSize, links)).withSelfRel().expand();
+
+        return ResponseEntity.ok(toOffsetPage(filteredProducts, selfLink, "filtered-products", pageNumber, pageSize, links));
     }
 
     @GetMapping(path = "/category/{category}/filter", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -339,7 +339,7 @@ public class ProductController {
             HttpSession session,
             Model model) {
         @SuppressWarnings("unchecked")
-        List<ProductDto> products = (List<ProductDto>) session.getAttribute("products");
+        List<ProductSummary> products = (List<ProductSummary>) session.getAttribute("products");
 
         if (products == null) {
             return "redirect:/";
@@ -360,18 +360,11 @@ public class ProductController {
             } catch (NumberFormatException ignored) {}
         }
 
-        List<ProductDto> sortedProducts = productService.filterProductsMinPriceMaxPrice(products, minPriceValue, maxPriceValue);
-        Map<Long, Integer> numImagesMap = new HashMap<>();
-
-        for(ProductDto productDto: products){
-            int numImages = productService.getNumImagesForProduct(productDto.getCategory().toLowerCase(), productDto.getProductId());
-            numImagesMap.put(productDto.getProductId(), numImages);
-        }
+        List<ProductSummary> sortedProducts = productService.filterProductsMinPriceMaxPrice(products, minPriceValue, maxPriceValue);
 
         model.addAttribute("products", sortedProducts);
         model.addAttribute("category", category);
         model.addAttribute("categoryReadable", getReadableCategory(category));
-        model.addAttribute("numImagesMap", numImagesMap);
 
         return "products";
     }
@@ -382,20 +375,15 @@ public class ProductController {
             @ApiResponse(description = "Success", responseCode = "200"),
             @ApiResponse(description = "Not Found", responseCode = "404")
     })
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> searchProductsApi(
-            @RequestParam(name = "search") String searchQuery) {
-        List<ProductDto> products = productService.searchProducts(searchQuery);
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> searchProductsApi(
+            @RequestParam(name = "search") String searchQuery,
+            @RequestParam(required = false) Boolean links) {
+        List<ProductSummary> products = productService.searchProducts(searchQuery);
 
-        List<EntityModel<ProductDto>> productModels = products.stream()
-                .map(product -> {
-                    EntityModel<ProductDto> model = EntityModel.of(product);
-                    model.add(linkTo(methodOn(ProductController.class).getProductByIdApi(product.getProductId())).withSelfRel());
-                    model.add(linkTo(methodOn(ProductController.class).searchProductsApi(searchQuery)).withRel("search-results"));
-                    return model;
-                }).toList();
+        Link selfLink = linkTo(methodOn(ProductController.class).searchProductsApi(searchQuery, links)).withSelfRel().expand();
+        List<EntityModel<ProductSummary>> productModels = toProductModels(products, links, selfLink.withRel("search-results"));
 
-        Link selfLink = linkTo(methodOn(ProductController.class).searchProductsApi(searchQuery)).withSelfRel();
-        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(productModels, selfLink);
+        CollectionModel<EntityModel<ProductSummary>> collectionModel = CollectionModel.of(productModels, selfLink);
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -410,17 +398,10 @@ public class ProductController {
             @RequestParam(name = "search") String searchQuery,
             HttpSession session,
             Model model) {
-        List<ProductDto> products = productService.searchProducts(searchQuery);
-        Map<Long, Integer> numImagesMap = new HashMap<>();
-
-        for(ProductDto productDto: products){
-            int numImages = productService.getNumImagesForProduct(productDto.getCategory().toLowerCase(), productDto.getProductId());
-            numImagesMap.put(productDto.getProductId(), numImages);
-        }
+        List<ProductSummary> products = productService.searchProducts(searchQuery);
 
         session.setAttribute("products", products);
         model.addAttribute("products", products);
-        model.addAttribute("numImagesMap", numImagesMap);
 
         return "products";
     }
@@ -431,24 +412,24 @@ public class ProductController {
             @ApiResponse(description = "Success", responseCode = "200"),
             @ApiResponse(description = "Not Found", responseCode = "404"),
     })
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> sortProductsApi(
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> sortProductsApi(
             @RequestParam String sortBy,
-            @RequestParam String sortOrder) {
-        List<ProductDto> products = productService.getAllProducts();
-        List<ProductDto> sortedProducts = productService.sortProducts(products, sortBy, sortOrder);
-
-        List<EntityModel<ProductDto>> productModels = sortedProducts.stream()
-                .map(product -> {
-                    EntityModel<ProductDto> model = EntityModel.of(product);
-                    model.add(linkTo(methodOn(ProductController.class).getProductByIdApi(product.getProductId())).withSelfRel());
-                    model.add(linkTo(methodOn(ProductController.class).sortProductsApi(sortBy, sortOrder)).withRel("sorted-products"));
-                    return model;
-                }).toList();
-
-        Link selfLink = linkTo(methodOn(ProductController.class).sortProductsApi(sortBy, sortOrder)).withSelfRel();
-        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(productModels, selfLink);
-
-        return ResponseEntity.ok(collectionModel);
+            @RequestParam String sortOrder,
+            @RequestParam(required = false) @Parameter(description = "Zero-based page number") Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean links) {
+        int pageSize = productPageProperties.resolveSize(size);
+        int pageNumber = resolvePage(page);
+        List<ProductSummary> sortedProducts = productService.findProducts(ProductQuery.builder()
+                .sortBy(sortBy)
+                .sortOrder(sortOrder)
+                .offset(getOffset(pageNumber, pageSize))
+                .limit(pageSize + 1)
+                .build());
+
+        Link selfLink = linkTo(methodOn(ProductController.class).sortProductsApi(sortBy, sortOrder, pageNumber, pageSize, links)).withSelfRel().expand();
+
+        return ResponseEntity.ok(toOffsetPage(sortedProducts, selfLink, "sorted-products", pageNumber, pageSize, links));
     }
 
     @GetMapping(path = "/sort", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -463,22 +444,15 @@ public class ProductController {
             HttpSession session,
             Model model) {
         @SuppressWarnings("unchecked")
-        List<ProductDto> products = (List<ProductDto>) session.getAttribute("products");
+        List<ProductSummary> products = (List<ProductSummary>) session.getAttribute("products");
 
         if (products == null) {
             return "redirect:/";
         }
 
-        List<ProductDto> sortedProducts = productService.sortProducts(products, sortBy, sortOrder);
-        Map<Long, Integer> numImagesMap = new HashMap<>();
-
-        for(ProductDto productDto: products){
-            int numImages = productService.getNumImagesForProduct(productDto.getCategory().toLowerCase(), productDto.getProductId());
-            numImagesMap.put(productDto.getProductId(), numImages);
-        }
+        List<ProductSummary> sortedProducts = productService.sortProducts(products, sortBy, sortOrder);
 
         model.addAttribute("products", sortedProducts);
-        model.addAttribute("numImagesMap", numImagesMap);
 
         return "products";
     }
@@ -490,40 +464,24 @@ public class ProductController {
             @ApiResponse(description = "Success", responseCode = "200"),
             @ApiResponse(description = "Not Found", responseCode = "404"),
     })
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> filterProductsApi(
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> filterProductsApi(
             @RequestParam String minPrice,
-            @RequestParam String maxPrice) {
-        List<ProductDto> products = productService.getAllProducts();
-
-        BigDecimal minPriceValue = BigDecimal.ZERO;
-        BigDecimal maxPriceValue = BigDecimal.valueOf(Double.MAX_VALUE);
-
-        if (minPrice != null && !minPrice.isEmpty()) {
-            try {
-                minPriceValue = new BigDecimal(minPrice);
-            } catch (NumberFormatException ignored) {}
-        }
-
-        if (maxPrice != null && !maxPrice.isEmpty()) {
-            try {
-                maxPriceValue = new BigDecimal(maxPrice);
-            } catch (NumberFormatException ignored) {}
-        }
-
-        List<ProductDto> filteredProducts = productService.filterProductsMinPriceMaxPrice(products, minPriceValue, maxPriceValue);
-
-        List<EntityModel<ProductDto>> productModels = filteredProducts.stream()
-                .map(product -> {
-                    EntityModel<ProductDto> model = EntityModel.of(product);
-                    model.add(linkTo(methodOn(ProductController.class).getProductByIdApi(product.getProductId())).withSelfRel());
-                    model.add(linkTo(methodOn(ProductController.class).filterProductsApi(minPrice, maxPrice)).withRel("filtered-products"));
-                    return model;
-                }).toList();
-
-        Link selfLink = linkTo(methodOn(ProductController.class).filterProductsApi(minPrice, maxPrice)).withSelfRel();
-        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(productModels, selfLink);
-
-        return ResponseEntity.ok(collectionModel);
+            @RequestParam String maxPrice,
+            @RequestParam(required = false) @Parameter(description = "Zero-based page number") Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean links) {
+        int pageSize = productPageProperties.resolveSize(size);
+        int pageNumber = resolvePage(page);
+        List<ProductSummary> filteredProducts = productService.findProducts(ProductQuery.builder()
+                .minPrice(parsePrice(minPrice))
+                .maxPrice(parsePrice(maxPrice))
+                .offset(getOffset(pageNumber, pageSize))
+                .limit(pageSize + 1)
+                .build());
+
+        Link selfLink = linkTo(methodOn(ProductController.class).filterProductsApi(minPrice, maxPrice, pageNumber, pageSize, links)).withSelfRel().expand();
+
+        return ResponseEntity.ok(toOffsetPage(filteredProducts, selfLink, "filtered-products", pageNumber, pageSize, links));
     }
 
     @GetMapping(path = "/filter", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -539,7 +497,7 @@ public class ProductController {
             HttpSession session,
             Model model) {
         @SuppressWarnings("unchecked")
-        List<ProductDto> products = (List<ProductDto>) session.getAttribute("products");
+        List<ProductSummary> products = (List<ProductSummary>) session.getAttribute("products");
 
         if (products == null) {
             return "redirect:/";
@@ -560,16 +518,9 @@ public class ProductController {
             } catch (NumberFormatException ignored) {}
         }
 
-        List<ProductDto> sortedProducts = productService.filterProductsMinPriceMaxPrice(products, minPriceValue, maxPriceValue);
-        Map<Long, Integer> numImagesMap = new HashMap<>();
-
-        for(ProductDto productDto: products){
-            int numImages = productService.getNumImagesForProduct(productDto.getCategory().toLowerCase(), productDto.getProductId());
-            numImagesMap.put(productDto.getProductId(), numImages);
-        }
+        List<ProductSummary> sortedProducts = productService.filterProductsMinPriceMaxPrice(products, minPriceValue, maxPriceValue);
 
         model.addAttribute("products", sortedProducts);
-        model.addAttribute("numImagesMap", numImagesMap);
 
         return "products";
     }
@@ -590,40 +541,58 @@ public class ProductController {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String username = userDetails.getUsername();
 
-        Optional<CustomerDto> customer = customerService.getCustomerByUsername(username);
-
-        if (customer.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Customer not found");
-        }
-
         Optional<Product> product = productService.getProductById(productId);
         if (product.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
         }
 
-        OrderDto shoppingCart = orderService.getOrdersByCustomerIdAndStatus(customer.get().getCustomerId(), OrderStatusEnum.CART).stream().findFirst().orElse(null);
+        Long cartId = cartService.getOrCreateCartId(username);
+
+        cartService.addLine(cartId, productId, 1);
+
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(URI.create("/cart"))
+                .build();
+    }
 
-        if (shoppingCart == null) {
-            shoppingCart = orderService.saveOrder(customer.get().getCustomerId());
+    @PostMapping(path = "/add-to-cart", consumes = { MediaType.APPLICATION_JSON_VALUE }, produces = { MediaType.APPLICATION_JSON_VALUE })
+    @Operation(summary = "Add several products to the shopping cart",
+            description = "Adds all given product lines to the authenticated customer's shopping cart in a single request.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products added to cart"),
+            @ApiResponse(responseCode = "400", description = "Field validation error or insufficient stock"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "Customer or Product not found")
+    })
+    public ResponseEntity<List<OrderProduct>> addAllToCart(@RequestBody @NotEmpty List<@Valid CartItemDto> items, Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        Optional<OrderProduct> orderProduct = orderProductRepository.findByOrderOrderIdAndProductProductId(shoppingCart.getOrderId(), productId);
-        if (orderProduct.isPresent()) {
-            orderProduct.get().setQuantity(orderProduct.get().getQuantity() + 1);
-            orderProduct.get().setPrice(orderProduct.get().getPrice().add(product.get().getPrice()));
-        } else {
-            OrderProductDto newOrderProduct = new OrderProductDto(shoppingCart.getOrderId(), productId, 1, product.get().getPrice());
-            orderProductService.saveOrderProduct(newOrderProduct);
-            shoppingCart.setTotalAmount(product.get().getPrice());
-            shoppingCart.setOrderProducts(new ArrayList<>());
-            shoppingCart.getOrderProducts().add(newOrderProduct);
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        Long cartId = cartService.getOrCreateCartId(userDetails.getUsername());
+
+        return ResponseEntity.ok(cartService.addLines(cartId, items));
+    }
+
+    @PostMapping(path = "/guest-cart", consumes = { MediaType.APPLICATION_JSON_VALUE }, produces = { MediaType.APPLICATION_JSON_VALUE })
+    @Operation(summary = "Add products to the guest cart",
+            description = "Keeps the given product lines in the session until the visitor logs in, when they are merged into the customer's shopping cart.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products kept in the guest cart"),
+            @ApiResponse(responseCode = "400", description = "Field validation error")
+    })
+    public ResponseEntity<List<CartItemDto>> addToGuestCart(@RequestBody @NotEmpty List<@Valid CartItemDto> items, HttpSession session) {
+        GuestCart guestCart = (GuestCart) session.getAttribute(GuestCart.SESSION_ATTRIBUTE);
+
+        if (guestCart == null) {
+            guestCart = new GuestCart();
         }
 
-        orderService.saveOrUpdateOrder(shoppingCart);
+        guestCart.add(items);
+        session.setAttribute(GuestCart.SESSION_ATTRIBUTE, guestCart);
 
-        return ResponseEntity.status(HttpStatus.FOUND)
-                .location(URI.create("/cart"))
-                .build();
+        return ResponseEntity.ok(guestCart.getItems());
     }
 
     @GetMapping(path = "/brand/{brand}", produces = { MediaType.APPLICATION_JSON_VALUE })
@@ -633,20 +602,20 @@ public class ProductController {
             @ApiResponse(description = "Success", responseCode = "200"),
             @ApiResponse(description = "Not Found", responseCode = "404"),
     })
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> GetProductsByBrand(
-            @PathVariable @Parameter(name = "brand", description = "Product brand", example = "Intel", required = true) String brand) {
-        List<ProductDto> products = productService.getProductsByBrand(brand);
-        List<EntityModel<ProductDto>> productModels = new ArrayList<>();
-
-        for (ProductDto product : products) {
-            EntityModel<ProductDto> productModel = EntityModel.of(product);
-            productModel.add(linkTo(methodOn(ProductController.class).getProductByIdApi(product.getProductId())).withSelfRel());
-            productModel.add(linkTo(methodOn(ProductController.class).GetProductsByBrand(brand)).withRel("products-by-brand"));
-            productModels.add(productModel);
-        }
-
-        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(productModels);
-        collectionModel.add(linkTo(methodOn(ProductController.class).GetProductsByBrand(brand)).withSelfRel());
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> GetProductsByBrand(
+            @PathVariable @Parameter(name = "brand", description = "Product brand", example = "Intel", required = true) String brand,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean links) {
+        int pageSize = productPageProperties.resolveSize(size);
+        ProductPageDto page = productService.getProductsByBrandPage(brand, after, before, pageSize);
+        UriComponentsBuilder uriBuilder = linkTo(ProductController.class).slash("brand").slash(brand).toUriComponentsBuilder();
+        Link brandLink = Link.of(uriBuilder.toUriString(), "products-by-brand");
+        List<EntityModel<ProductSummary>> productModels = toProductModels(page.getProducts(), links, brandLink);
+
+        CollectionModel<EntityModel<ProductSummary>> collectionModel = CollectionModel.of(productModels);
+        addPageLinks(collectionModel, uriBuilder.queryParamIfPresent("links", Optional.ofNullable(links)), page, after, before, pageSize);
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -658,21 +627,23 @@ public class ProductController {
             @ApiResponse(description = "Success", responseCode = "200"),
             @ApiResponse(description = "Not Found", responseCode = "404"),
     })
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> GetProductsByPriceRange(
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> GetProductsByPriceRange(
             @RequestParam(name = "minPrice", required = false, defaultValue = "0.00") BigDecimal minPrice,
-            @RequestParam(name = "maxPrice", required = false, defaultValue = "100000000.00") BigDecimal maxPrice) {
-        List<ProductDto> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-        List<EntityModel<ProductDto>> productModels = new ArrayList<>();
-
-        for (ProductDto product : products) {
-            EntityModel<ProductDto> productModel = EntityModel.of(product);
-            productModel.add(linkTo(methodOn(ProductController.class).getProductByIdApi(product.getProductId())).withSelfRel());
-            productModel.add(linkTo(methodOn(ProductController.class).GetProductsByPriceRange(minPrice, maxPrice)).withRel("products-by-price-range"));
-            productModels.add(productModel);
-        }
-
-        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(productModels);
-        collectionModel.add(linkTo(methodOn(ProductController.class).GetProductsByPriceRange(minPrice, maxPrice)).withSelfRel());
+            @RequestParam(name = "maxPrice", required = false, defaultValue = "100000000.00") BigDecimal maxPrice,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean links) {
+        int pageSize = productPageProperties.resolveSize(size);
+        ProductPageDto page = productService.getProductsByPriceRangePage(minPrice, maxPrice, after, before, pageSize);
+        UriComponentsBuilder uriBuilder = linkTo(ProductController.class).slash("priceRange").toUriComponentsBuilder()
+                .queryParam("minPrice", minPrice)
+                .queryParam("maxPrice", maxPrice);
+        Link priceRangeLink = Link.of(uriBuilder.toUriString(), "products-by-price-range");
+        List<EntityModel<ProductSummary>> productModels = toProductModels(page.getProducts(), links, priceRangeLink);
+
+        CollectionModel<EntityModel<ProductSummary>> collectionModel = CollectionModel.of(productModels);
+        addPageLinks(collectionModel, uriBuilder.queryParamIfPresent("links", Optional.ofNullable(links)), page, after, before, pageSize);
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -684,21 +655,15 @@ public class ProductController {
                     @ApiResponse(description = "Success", responseCode = "200"),
                     @ApiResponse(description = "Not Found", responseCode = "404"),
             })
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> GetProductsByTagId(
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> GetProductsByTagId(
             @PathVariable
-            @Parameter(name = "tagId", description = "Tag id", example = "1", required = true) Long tagId) {
-        List<ProductDto> products = productService.getProductsByTagId(tagId);
-        List<EntityModel<ProductDto>> productModels = new ArrayList<>();
-
-        for (ProductDto product : products) {
-            EntityModel<ProductDto> productModel = EntityModel.of(product);
-            productModel.add(linkTo(methodOn(ProductController.class).getProductByIdApi(product.getProductId())).withSelfRel());
-            productModel.add(linkTo(methodOn(ProductController.class).GetProductsByTagId(tagId)).withRel("products-by-tag"));
-            productModels.add(productModel);
-        }
+            @Parameter(name = "tagId", description = "Tag id", example = "1", required = true) Long tagId,
+            @RequestParam(required = false) Boolean links) {
+        List<ProductSummary> products = productService.getProductsByTagId(tagId);
+        Link selfLink = linkTo(methodOn(ProductController.class).GetProductsByTagId(tagId, links)).withSelfRel().expand();
+        List<EntityModel<ProductSummary>> productModels = toProductModels(products, links, selfLink.withRel("products-by-tag"));
 
-        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(productModels);
-        collectionModel.add(linkTo(methodOn(ProductController.class).GetProductsByTagId(tagId)).withSelfRel());
+        CollectionModel<EntityModel<ProductSummary>> collectionModel = CollectionModel.of(productModels, selfLink);
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -741,6 +706,21 @@ public class ProductController {
         return ResponseEntity.created(URI.create("/product/" + product.getProductId())).body(productModel);
     }
 
+    @PostMapping(path = "/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE }, produces = { MediaType.APPLICATION_JSON_VALUE })
+    @Operation(description = "Bulk importing a CSV or NDJSON product catalog in parallel chunks",
+            summary = "Importing a product catalog",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200"),
+                    @ApiResponse(description = "Access denied", responseCode = "403"),
+                    @ApiResponse(description = "Unsupported media type", responseCode = "415")
+            })
+    public ResponseEntity<CatalogImportResult> importCatalog(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream catalog) throws IOException {
+        CatalogFormat format = CatalogFormat.fromMediaType(MediaType.parseMediaType(contentType));
+
+        return ResponseEntity.ok(catalogImportService.importCatalog(catalog, format));
+    }
+
     @PutMapping(path = "/id/{productId}", produces = { MediaType.APPLICATION_JSON_VALUE })
     @Operation(description = "Updating the details of a product with the given id",
             summary = "Updating product with given id",
@@ -790,7 +770,82 @@ public class ProductController {
         };
     }
 
-    public ResponseEntity<CollectionModel<EntityModel<ProductDto>>> fallbackForGetAllProducts(Exception ex) {
+    private BigDecimal parsePrice(String price) {
+        if (price == null || price.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return new BigDecimal(price);
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+
+    private void addPageLinks(CollectionModel<?> model, UriComponentsBuilder uriBuilder, ProductPageDto page, Long after, Long before, int size) {
+        model.add(getPageLink(uriBuilder, after, before, size, IanaLinkRelations.SELF));
+
+        if (page.getNextCursor() != null) {
+            model.add(getPageLink(uriBuilder, page.getNextCursor(), null, size, IanaLinkRelations.NEXT));
+        }
+        if (page.getPrevCursor() != null) {
+            model.add(getPageLink(uriBuilder, null, page.getPrevCursor(), size, IanaLinkRelations.PREV));
+        }
+    }
+
+    private CollectionModel<EntityModel<ProductSummary>> toOffsetPage(List<ProductSummary> products, Link selfLink, String collectionRel, int page, int size, Boolean links) {
+        boolean hasMore = products.size() > size;
+        List<ProductSummary> pageProducts = hasMore ? products.subList(0, size) : products;
+        CollectionModel<EntityModel<ProductSummary>> model = CollectionModel.of(toProductModels(pageProducts, links, selfLink.withRel(collectionRel)), selfLink);
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(selfLink.getHref());
+
+        if (hasMore) {
+            model.add(Link.of(uriBuilder.cloneBuilder().replaceQueryParam("page", page + 1).toUriString(), IanaLinkRelations.NEXT));
+        }
+        if (page > 0) {
+            model.add(Link.of(uriBuilder.cloneBuilder().replaceQueryParam("page", page - 1).toUriString(), IanaLinkRelations.PREV));
+        }
+
+        return model;
+    }
+
+    private int resolvePage(Integer page) {
+        return page == null || page < 0 ? 0 : page;
+    }
+
+    private int getOffset(int page, int size) {
+        return (int) Math.min((long) page * size, Integer.MAX_VALUE);
+    }
+
+    private List<EntityModel<ProductSummary>> toProductModels(List<ProductSummary> products, Boolean links, Link... collectionLinks) {
+        List<EntityModel<ProductSummary>> productModels = new ArrayList<>(products.size());
+
+        if (!LinkTemplate.enabled(links)) {
+            for (ProductSummary product : products) {
+                productModels.add(EntityModel.of(product));
+            }
+            return productModels;
+        }
+
+        String baseUri = LinkTemplate.currentBaseUri();
+        for (ProductSummary product : products) {
+            EntityModel<ProductSummary> productModel = EntityModel.of(product, PRODUCT_API_LINK.withSelfRel(baseUri, product.getProductId()));
+            productModel.add(collectionLinks);
+            productModels.add(productModel);
+        }
+
+        return productModels;
+    }
+
+    private Link getPageLink(UriComponentsBuilder uriBuilder, Long after, Long before, int size, LinkRelation relation) {
+        return Link.of(uriBuilder.cloneBuilder()
+                .queryParamIfPresent("after", Optional.ofNullable(after))
+                .queryParamIfPresent("before", Optional.ofNullable(before))
+                .queryParam("size", size)
+                .toUriString(), relation);
+    }
+
+    public ResponseEntity<CollectionModel<EntityModel<ProductSummary>>> fallbackForGetAllProducts(Long after, Long before, Integer size, Boolean links, Exception ex) {
         log.error("Fallback method executed for GetAllProducts due to {}", ex.toString());
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
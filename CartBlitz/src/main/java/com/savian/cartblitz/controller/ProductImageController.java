@@ -0,0 +1,63 @@
+package com.savian.cartblitz.controller;
+
+import com.savian.cartblitz.config.ProductImageProperties;
+import com.savian.cartblitz.dto.ProductImageVariant;
+import com.savian.cartblitz.service.ProductImageVariantService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@Slf4j
+@RestController
+@RequestMapping("/images/products")
+public class ProductImageController {
+    private final ProductImageVariantService productImageVariantService;
+    private final ProductImageProperties productImageProperties;
+
+    public ProductImageController(ProductImageVariantService productImageVariantService, ProductImageProperties productImageProperties) {
+        this.productImageVariantService = productImageVariantService;
+        this.productImageProperties = productImageProperties;
+    }
+
+    @GetMapping(value = "/{category:[a-z0-9-]+}/{productId:\\d+}_{index:\\d+}.jpg")
+    @Operation(
+            description = "Serves a product image, optionally resized to the closest generated width",
+            summary = "Get product image",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200"),
+                    @ApiResponse(description = "Partial content", responseCode = "206"),
+                    @ApiResponse(description = "Not modified", responseCode = "304"),
+                    @ApiResponse(description = "Image not found", responseCode = "404")
+            })
+    public ResponseEntity<Resource> getProductImage(
+            @PathVariable @Parameter(name = "category", description = "Product category", example = "cpu", required = true) String category,
+            @PathVariable @Parameter(name = "productId", description = "Product id", example = "1", required = true) Long productId,
+            @PathVariable @Parameter(name = "index", description = "Image index", example = "1", required = true) Integer index,
+            @RequestParam(required = false) @Parameter(name = "w", description = "Requested width in pixels", example = "200") Integer w,
+            @RequestParam(required = false) @Parameter(name = "v", description = "Content fingerprint of the original image") String v) {
+        Optional<ProductImageVariant> variant = productImageVariantService.getVariant(category, productId, index, w);
+
+        if (variant.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        CacheControl cacheControl = variant.get().getFingerprint().equals(v)
+                ? CacheControl.maxAge(productImageProperties.getCacheMaxAge()).cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
+
+        return ResponseEntity.ok()
+                .eTag(variant.get().getEtag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.IMAGE_JPEG)
+                .body(new FileSystemResource(variant.get().getPath()));
+    }
+}
@@ -1,7 +1,9 @@
 package com.savian.cartblitz.controller;
 
+import com.savian.cartblitz.dto.ExportFormat;
 import com.savian.cartblitz.dto.ReviewDto;
 import com.savian.cartblitz.exception.ResourceNotFoundException;
+import com.savian.cartblitz.service.ExportService;
 import com.savian.cartblitz.service.ReviewService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +15,7 @@ import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -21,11 +24,12 @@ import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -37,10 +41,14 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("review")
 @Tag(name = "Reviews",description = "Endpoint manage Reviews")
 public class ReviewController {
+    private static final LinkTemplate REVIEW_LINK = LinkTemplate.of(ReviewController.class, "GetReviewById");
+
     ReviewService reviewService;
+    ExportService exportService;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, ExportService exportService) {
         this.reviewService = reviewService;
+        this.exportService = exportService;
     }
 
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
@@ -52,20 +60,31 @@ public class ReviewController {
                     @ApiResponse(description = "Access denied", responseCode = "403"),
                     @ApiResponse(description = "Not Found", responseCode = "404")
             })
-    public ResponseEntity<CollectionModel<EntityModel<ReviewDto>>> GetAllReviews() {
+    public ResponseEntity<CollectionModel<EntityModel<ReviewDto>>> GetAllReviews(
+            @RequestParam(required = false) @Parameter(description = "Set to false to omit per-review links") Boolean links) {
         List<ReviewDto> reviews = reviewService.getAllReviews();
-        List<EntityModel<ReviewDto>> reviewModels = reviews.stream()
-                .map(review -> EntityModel.of(review,
-                        linkTo(methodOn(ReviewController.class).GetReviewById(review.getReviewId())).withSelfRel(),
-                        linkTo(methodOn(ReviewController.class).GetAllReviews()).withRel("all-reviews")))
-                .collect(Collectors.toList());
+        Link selfLink = linkTo(methodOn(ReviewController.class).GetAllReviews(links)).withSelfRel().expand();
+        List<EntityModel<ReviewDto>> reviewModels = toReviewModels(reviews, links, selfLink.withRel("all-reviews"));
 
-        CollectionModel<EntityModel<ReviewDto>> collectionModel = CollectionModel.of(reviewModels);
-        collectionModel.add(linkTo(methodOn(ReviewController.class).GetAllReviews()).withSelfRel());
+        CollectionModel<EntityModel<ReviewDto>> collectionModel = CollectionModel.of(reviewModels, selfLink);
 
         return ResponseEntity.ok(collectionModel);
     }
 
+    @GetMapping(path = "/export", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    @Operation(description = "Streaming export of all reviews as NDJSON or as a JSON array",
+            summary = "Exporting all reviews",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200"),
+                    @ApiResponse(description = "Access denied", responseCode = "403")
+            })
+    public ResponseEntity<StreamingResponseBody> exportReviews(
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "NDJSON or ARRAY") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(outputStream -> exportService.exportReviews(outputStream, format));
+    }
+
     @GetMapping(path = "/id/{reviewId}", produces = { MediaType.APPLICATION_JSON_VALUE })
     @CircuitBreaker(name = "reviewService", fallbackMethod = "fallbackForGetReviewById")
     @Operation(description = "Showing all info about a review with given id",
@@ -82,7 +101,7 @@ public class ReviewController {
 
         return optionalReview.map(review -> ResponseEntity.ok(EntityModel.of(review,
                         linkTo(methodOn(ReviewController.class).GetReviewById(reviewId)).withSelfRel(),
-                        linkTo(methodOn(ReviewController.class).GetAllReviews()).withRel("all-reviews"))))
+                        linkTo(methodOn(ReviewController.class).GetAllReviews(null)).withRel("all-reviews").expand())))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -96,16 +115,13 @@ public class ReviewController {
             })
     public ResponseEntity<CollectionModel<EntityModel<ReviewDto>>> GetReviewsByCustomerId(
             @PathVariable
-            @Parameter(name = "customerId", description = "Customer id", example = "1", required = true) Long customerId){
+            @Parameter(name = "customerId", description = "Customer id", example = "1", required = true) Long customerId,
+            @RequestParam(required = false) Boolean links){
         List<ReviewDto> reviews = reviewService.getReviewsByCustomerId(customerId);
-        List<EntityModel<ReviewDto>> reviewModels = reviews.stream()
-                .map(review -> EntityModel.of(review,
-                        linkTo(methodOn(ReviewController.class).GetReviewById(review.getReviewId())).withSelfRel(),
-                        linkTo(methodOn(ReviewController.class).GetReviewsByCustomerId(customerId)).withRel("reviews-by-customer")))
-                .collect(Collectors.toList());
+        Link selfLink = linkTo(methodOn(ReviewController.class).GetReviewsByCustomerId(customerId, links)).withSelfRel().expand();
+        List<EntityModel<ReviewDto>> reviewModels = toReviewModels(reviews, links, selfLink.withRel("reviews-by-customer"));
 
-        CollectionModel<EntityModel<ReviewDto>> collectionModel = CollectionModel.of(reviewModels);
-        collectionModel.add(linkTo(methodOn(ReviewController.class).GetReviewsByCustomerId(customerId)).withSelfRel());
+        CollectionModel<EntityModel<ReviewDto>> collectionModel = CollectionModel.of(reviewModels, selfLink);
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -120,16 +136,13 @@ public class ReviewController {
             })
     public ResponseEntity<CollectionModel<EntityModel<ReviewDto>>> GetReviewsByProductId(
             @PathVariable
-            @Parameter(name = "productId", description = "Product id", example = "1", required = true) Long productId){
+            @Parameter(name = "productId", description = "Product id", example = "1", required = true) Long productId,
+            @RequestParam(required = false) Boolean links){
         List<ReviewDto> reviews = reviewService.getReviewsByProductId(productId);
-        List<EntityModel<ReviewDto>> reviewModels = reviews.stream()
-                .map(review -> EntityModel.of(review,
-                        linkTo(methodOn(ReviewController.class).GetReviewById(review.getReviewId())).withSelfRel(),
-                        linkTo(methodOn(ReviewController.class).GetReviewsByProductId(productId)).withRel("reviews-by-product")))
-                .collect(Collectors.toList());
+        Link selfLink = linkTo(methodOn(ReviewController.class).GetReviewsByProductId(productId, links)).withSelfRel().expand();
+        List<EntityModel<ReviewDto>> reviewModels = toReviewModels(reviews, links, selfLink.withRel("reviews-by-product"));
 
-        CollectionModel<EntityModel<ReviewDto>> collectionModel = CollectionModel.of(reviewModels);
-        collectionModel.add(linkTo(methodOn(ReviewController.class).GetReviewsByProductId(productId)).withSelfRel());
+        CollectionModel<EntityModel<ReviewDto>> collectionModel = CollectionModel.of(reviewModels, selfLink);
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -144,16 +157,13 @@ public class ReviewController {
             })
     public ResponseEntity<CollectionModel<EntityModel<ReviewDto>>> GetReviewsByRating(
             @PathVariable
-            @Parameter(name = "rating", description = "Rating", example = "1", required = true) Integer rating){
+            @Parameter(name = "rating", description = "Rating", example = "1", required = true) Integer rating,
+            @RequestParam(required = false) Boolean links){
         List<ReviewDto> reviews = reviewService.getReviewsByRating(rating);
-        List<EntityModel<ReviewDto>> reviewModels = reviews.stream()
-                .map(review -> EntityModel.of(review,
-                        linkTo(methodOn(ReviewController.class).GetReviewById(review.getReviewId())).withSelfRel(),
-                        linkTo(methodOn(ReviewController.class).GetReviewsByRating(rating)).withRel("reviews-by-rating")))
-                .collect(Collectors.toList());
+        Link selfLink = linkTo(methodOn(ReviewController.class).GetReviewsByRating(rating, links)).withSelfRel().expand();
+        List<EntityModel<ReviewDto>> reviewModels = toReviewModels(reviews, links, selfLink.withRel("reviews-by-rating"));
 
-        CollectionModel<EntityModel<ReviewDto>> collectionModel = CollectionModel.of(reviewModels);
-        collectionModel.add(linkTo(methodOn(ReviewController.class).GetReviewsByRating(rating)).withSelfRel());
+        CollectionModel<EntityModel<ReviewDto>> collectionModel = CollectionModel.of(reviewModels, selfLink);
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -235,7 +245,25 @@ public class ReviewController {
         }
     }
 
-    public ResponseEntity<CollectionModel<EntityModel<ReviewDto>>> fallbackForGetAllReviews(Exception ex) {
+    private List<EntityModel<ReviewDto>> toReviewModels(List<ReviewDto> reviews, Boolean links, Link collectionLink) {
+        List<EntityModel<ReviewDto>> reviewModels = new ArrayList<>(reviews.size());
+
+        if (!LinkTemplate.enabled(links)) {
+            for (ReviewDto review : reviews) {
+                reviewModels.add(EntityModel.of(review));
+            }
+            return reviewModels;
+        }
+
+        String baseUri = LinkTemplate.currentBaseUri();
+        for (ReviewDto review : reviews) {
+            reviewModels.add(EntityModel.of(review, REVIEW_LINK.withSelfRel(baseUri, review.getReviewId()), collectionLink));
+        }
+
+        return reviewModels;
+    }
+
+    public ResponseEntity<CollectionModel<EntityModel<ReviewDto>>> fallbackForGetAllReviews(Boolean links, Exception ex) {
         log.error("Fallback method executed for GetAllReviews due to {}", ex.toString());
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
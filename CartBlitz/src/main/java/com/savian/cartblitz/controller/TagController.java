@@ -21,9 +21,9 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -35,6 +35,8 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("tag")
 @Tag(name = "Tags",description = "Endpoint manage Tags")
 public class TagController {
+    private static final LinkTemplate TAG_LINK = LinkTemplate.of(TagController.class, "GetTagById");
+
     TagService tagService;
 
     public TagController(TagService tagService) {
@@ -50,15 +52,12 @@ public class TagController {
                     @ApiResponse(description = "Access denied", responseCode = "403"),
                     @ApiResponse(description = "Not Found", responseCode = "404")
             })
-    public ResponseEntity<CollectionModel<EntityModel<TagDto>>> GetAllTags() {
+    public ResponseEntity<CollectionModel<EntityModel<TagDto>>> GetAllTags(
+            @RequestParam(required = false) @Parameter(description = "Set to false to omit per-tag links") Boolean links) {
         List<TagDto> tagDtos = tagService.getAllTags();
+        List<EntityModel<TagDto>> tagModels = toTagModels(tagDtos, links);
 
-        List<EntityModel<TagDto>> tagModels = tagDtos.stream()
-                .map(tagDto -> EntityModel.of(tagDto,
-                        linkTo(methodOn(TagController.class).GetTagById(tagDto.getTagId())).withSelfRel()))
-                .collect(Collectors.toList());
-
-        Link selfLink = linkTo(methodOn(TagController.class).GetAllTags()).withSelfRel();
+        Link selfLink = linkTo(methodOn(TagController.class).GetAllTags(links)).withSelfRel().expand();
         CollectionModel<EntityModel<TagDto>> model = CollectionModel.of(tagModels, selfLink);
 
         return ResponseEntity.ok(model);
@@ -113,15 +112,12 @@ public class TagController {
             })
     public ResponseEntity<CollectionModel<EntityModel<TagDto>>> GetTagsByProductId(
             @PathVariable
-            @Parameter(name = "productId", description = "Product id", example = "1", required = true) Long productId) {
+            @Parameter(name = "productId", description = "Product id", example = "1", required = true) Long productId,
+            @RequestParam(required = false) Boolean links) {
         List<TagDto> tagDtos = tagService.getTagsByProductId(productId);
+        List<EntityModel<TagDto>> tagModels = toTagModels(tagDtos, links);
 
-        List<EntityModel<TagDto>> tagModels = tagDtos.stream()
-                .map(tagDto -> EntityModel.of(tagDto,
-                        linkTo(methodOn(TagController.class).GetTagById(tagDto.getTagId())).withSelfRel()))
-                .collect(Collectors.toList());
-
-        Link selfLink = linkTo(methodOn(TagController.class).GetTagsByProductId(productId)).withSelfRel();
+        Link selfLink = linkTo(methodOn(TagController.class).GetTagsByProductId(productId, links)).withSelfRel().expand();
         CollectionModel<EntityModel<TagDto>> model = CollectionModel.of(tagModels, selfLink);
 
         return ResponseEntity.ok(model);
@@ -183,7 +179,25 @@ public class TagController {
         }
     }
 
-    public ResponseEntity<CollectionModel<EntityModel<TagDto>>> fallbackForGetAllTags(Exception ex) {
+    private List<EntityModel<TagDto>> toTagModels(List<TagDto> tagDtos, Boolean links) {
+        List<EntityModel<TagDto>> tagModels = new ArrayList<>(tagDtos.size());
+
+        if (!LinkTemplate.enabled(links)) {
+            for (TagDto tagDto : tagDtos) {
+                tagModels.add(EntityModel.of(tagDto));
+            }
+            return tagModels;
+        }
+
+        String baseUri = LinkTemplate.currentBaseUri();
+        for (TagDto tagDto : tagDtos) {
+            tagModels.add(EntityModel.of(tagDto, TAG_LINK.withSelfRel(baseUri, tagDto.getTagId())));
+        }
+
+        return tagModels;
+    }
+
+    public ResponseEntity<CollectionModel<EntityModel<TagDto>>> fallbackForGetAllTags(Boolean links, Exception ex) {
         log.error("Fallback method executed for GetAllTags due to {}", ex.toString());
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
     }
@@ -0,0 +1,21 @@
+package com.savian.cartblitz.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemDto {
+    @NotNull(message = "Product id is mandatory.")
+    private Long productId;
+
+    @NotNull(message = "Quantity is mandatory.")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+}
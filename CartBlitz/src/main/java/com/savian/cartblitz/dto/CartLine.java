@@ -0,0 +1,18 @@
+package com.savian.cartblitz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLine {
+    private Long productId;
+    private Integer quantity;
+    private BigDecimal price;
+}
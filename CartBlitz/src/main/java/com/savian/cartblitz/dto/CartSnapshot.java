@@ -0,0 +1,38 @@
+package com.savian.cartblitz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSnapshot {
+    private String username;
+    private Long customerId;
+    private Long orderId;
+    private Long version;
+    private long sequence;
+    private long updatedAt;
+    private BigDecimal totalAmount;
+    private List<CartLine> lines = new ArrayList<>();
+
+    public Optional<CartLine> findLine(Long productId) {
+        return lines.stream().filter(line -> line.getProductId().equals(productId)).findFirst();
+    }
+
+    public CartSnapshot copy() {
+        List<CartLine> linesCopy = lines.stream()
+                .map(line -> new CartLine(line.getProductId(), line.getQuantity(), line.getPrice()))
+                .toList();
+
+        return new CartSnapshot(username, customerId, orderId, version, sequence, updatedAt, totalAmount, new ArrayList<>(linesCopy));
+    }
+}
@@ -0,0 +1,42 @@
+package com.savian.cartblitz.dto;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+@Getter
+public enum CatalogFormat {
+    CSV(MediaType.parseMediaType("text/csv"), ".csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON, ".ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    CatalogFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public static CatalogFormat fromMediaType(MediaType mediaType) {
+        for (CatalogFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported catalog media type: " + mediaType);
+    }
+
+    public static CatalogFormat fromFileName(String fileName) {
+        String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+
+        for (CatalogFormat format : values()) {
+            if (lowerCaseName.endsWith(format.extension)) {
+                return format;
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported catalog file: " + fileName);
+    }
+}
@@ -0,0 +1,20 @@
+package com.savian.cartblitz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportResult {
+    private long imported;
+    private long failed;
+    private long durationMillis;
+    private double rowsPerSecond;
+    private List<String> errors;
+}
@@ -0,0 +1,24 @@
+package com.savian.cartblitz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponEvaluationLine {
+    private Long productId;
+    private String category;
+    private String brand;
+    private List<String> tags;
+    private BigDecimal unitPrice;
+    private int quantity;
+}
@@ -0,0 +1,19 @@
+package com.savian.cartblitz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponEvaluationRequest {
+    private List<String> codes;
+    private List<CouponEvaluationLine> lines;
+}
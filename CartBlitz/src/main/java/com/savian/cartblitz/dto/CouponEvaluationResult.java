@@ -0,0 +1,22 @@
+package com.savian.cartblitz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponEvaluationResult {
+    private String versionId;
+    private List<CouponLinePrice> lines;
+    private BigDecimal subtotal;
+    private BigDecimal total;
+    private List<String> appliedCodes;
+    private List<String> unknownCodes;
+}
@@ -46,4 +46,11 @@ public class CustomerDto {
     private List<ReviewDto> reviews;
 
     public CustomerDto() {}
+
+    public CustomerDto(Long customerId, String username, String email, String fullName) {
+        this.customerId = customerId;
+        this.username = username;
+        this.email = email;
+        this.fullName = fullName;
+    }
 }
@@ -0,0 +1,19 @@
+package com.savian.cartblitz.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CustomerProfileView {
+    private Long customerId;
+    private String username;
+    private String email;
+    private String fullName;
+    private List<OrderDto> completedOrders = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.savian.cartblitz.dto;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+public enum ExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    ARRAY(MediaType.APPLICATION_JSON);
+
+    private final MediaType mediaType;
+
+    ExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+}
@@ -0,0 +1,46 @@
+package com.savian.cartblitz.dto;
+
+import com.savian.cartblitz.exception.GuestCartLimitException;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GuestCart implements Serializable {
+    public static final String SESSION_ATTRIBUTE = "guestCart";
+    public static final int MAX_PRODUCTS = 50;
+    public static final int MAX_QUANTITY = 99;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Map<Long, Integer> quantities = new LinkedHashMap<>();
+
+    public synchronized void add(List<CartItemDto> items) {
+        Map<Long, Integer> merged = new LinkedHashMap<>(quantities);
+
+        for (CartItemDto item : items) {
+            int quantity = merged.merge(item.getProductId(), item.getQuantity(), (current, added) -> (int) Math.min((long) current + added, Integer.MAX_VALUE));
+
+            if (quantity > MAX_QUANTITY || merged.size() > MAX_PRODUCTS) {
+                throw new GuestCartLimitException(MAX_PRODUCTS, MAX_QUANTITY);
+            }
+        }
+
+        quantities.clear();
+        quantities.putAll(merged);
+    }
+
+    public synchronized List<CartItemDto> getItems() {
+        List<CartItemDto> items = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> items.add(new CartItemDto(productId, quantity)));
+        return items;
+    }
+
+    public synchronized boolean isEmpty() {
+        return quantities.isEmpty();
+    }
+}
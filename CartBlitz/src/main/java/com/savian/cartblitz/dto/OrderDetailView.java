@@ -0,0 +1,22 @@
+package com.savian.cartblitz.dto;
+
+import com.savian.cartblitz.model.OrderStatusEnum;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderDetailView {
+    private Long orderId;
+    private OrderStatusEnum status;
+    private Timestamp orderDate;
+    private BigDecimal totalAmount;
+    private List<OrderLineView> lines = new ArrayList<>();
+}
@@ -30,5 +30,8 @@ public class OrderDto {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private List<OrderProductDto> orderProducts;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     public OrderDto() {}
 }
@@ -0,0 +1,26 @@
+package com.savian.cartblitz.dto;
+
+import com.savian.cartblitz.model.OrderStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportRow {
+    private Long orderId;
+    private Long customerId;
+    private BigDecimal totalAmount;
+    private OrderStatusEnum status;
+    private Timestamp orderDate;
+    private Long version;
+    private Long productId;
+    private Integer quantity;
+    private BigDecimal price;
+}
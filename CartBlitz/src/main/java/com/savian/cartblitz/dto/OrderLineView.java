@@ -0,0 +1,21 @@
+package com.savian.cartblitz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineView {
+    private Long productId;
+    private String name;
+    private String category;
+    private BigDecimal unitPrice;
+    private Integer quantity;
+    private BigDecimal price;
+}
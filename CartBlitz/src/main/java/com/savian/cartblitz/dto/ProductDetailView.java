@@ -0,0 +1,26 @@
+package com.savian.cartblitz.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductDetailView {
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private String description;
+    private String brand;
+    private String category;
+    private WarrantyDto warranty;
+    private ProductRatingDto rating;
+    private List<String> tagNames = new ArrayList<>();
+    private List<ReviewView> reviews = new ArrayList<>();
+}
@@ -42,5 +42,8 @@ public class ProductDto {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private List<TagDto> tags;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private ProductRatingDto rating;
+
     public ProductDto() {}
 }
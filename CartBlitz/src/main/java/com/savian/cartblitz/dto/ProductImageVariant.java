@@ -0,0 +1,14 @@
+package com.savian.cartblitz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+@Getter
+@AllArgsConstructor
+public class ProductImageVariant {
+    private Path path;
+    private String etag;
+    private String fingerprint;
+}
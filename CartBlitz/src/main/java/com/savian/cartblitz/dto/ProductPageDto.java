@@ -0,0 +1,22 @@
+package com.savian.cartblitz.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ProductPageDto {
+    private List<ProductSummary> products;
+    private Long nextCursor;
+    private Long prevCursor;
+
+    public ProductPageDto() {}
+
+    public ProductPageDto(List<ProductSummary> products, Long nextCursor, Long prevCursor) {
+        this.products = products;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+    }
+}
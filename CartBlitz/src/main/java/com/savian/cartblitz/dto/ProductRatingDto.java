@@ -0,0 +1,17 @@
+package com.savian.cartblitz.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductRatingDto {
+    private long reviewCount;
+    private Double averageRating;
+    private Map<Integer, Long> histogram = new LinkedHashMap<>();
+}
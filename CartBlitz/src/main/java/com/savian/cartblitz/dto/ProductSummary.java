@@ -0,0 +1,36 @@
+package com.savian.cartblitz.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class ProductSummary {
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private String description;
+    private String brand;
+    private String category;
+    private Integer imageCount;
+    private boolean imagesPending;
+    private Long reviewCount;
+    private Double averageRating;
+
+    public ProductSummary() {}
+
+    public ProductSummary(Long productId, String name, BigDecimal price, Integer stockQuantity, String description, String brand, String category, Long reviewCount, Double averageRating) {
+        this.productId = productId;
+        this.name = name;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.description = description;
+        this.brand = brand;
+        this.category = category;
+        this.reviewCount = reviewCount;
+        this.averageRating = averageRating;
+    }
+}
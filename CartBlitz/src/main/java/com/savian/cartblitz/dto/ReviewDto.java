@@ -26,4 +26,13 @@ public class ReviewDto {
     private Timestamp reviewDate;
 
     public ReviewDto() {}
+
+    public ReviewDto(Long reviewId, Long customerId, Long productId, Integer rating, String comment, Timestamp reviewDate) {
+        this.reviewId = reviewId;
+        this.customerId = customerId;
+        this.productId = productId;
+        this.rating = rating;
+        this.comment = comment;
+        this.reviewDate = reviewDate;
+    }
 }
@@ -1,5 +1,8 @@
 package com.savian.cartblitz.exception;
 
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -35,11 +38,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
     }
 
+    @ExceptionHandler({ OptimisticLockingFailureException.class})
+    public ResponseEntity<String> handle(OptimisticLockingFailureException e){
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("The resource was modified concurrently, please retry.");
+    }
+
     @ExceptionHandler({ ProductQuantityException.class})
     public ResponseEntity<String> handle(ProductQuantityException e){
         return ResponseEntity.badRequest().body(e.getMessage());
     }
 
+    @ExceptionHandler({ GuestCartLimitException.class})
+    public ResponseEntity<String> handle(GuestCartLimitException e){
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler({ ProductImageQueueFullException.class})
+    public ResponseEntity<String> handle(ProductImageQueueFullException e){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").body(e.getMessage());
+    }
+
     @ExceptionHandler({ WarrantyNotFoundException.class})
     public ResponseEntity<String> handle(WarrantyNotFoundException e){
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -86,6 +104,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolations(ConstraintViolationException e) {
+        Map<String, Object> errors = new LinkedHashMap<>();
+        e.getConstraintViolations().forEach(violation ->
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("errors", errors);
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(ResourceNotFoundException.class)
     public ModelAndView handlerNotFoundException(){
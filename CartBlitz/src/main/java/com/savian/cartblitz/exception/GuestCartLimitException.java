@@ -0,0 +1,7 @@
+package com.savian.cartblitz.exception;
+
+public class GuestCartLimitException extends RuntimeException{
+    public GuestCartLimitException(int maxProducts, int maxQuantity) {
+        super("The guest cart holds at most " + maxProducts + " products with up to " + maxQuantity + " items each.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.savian.cartblitz.exception;
+
+public class ProductImageQueueFullException extends RuntimeException{
+    public ProductImageQueueFullException() {
+        super("Image processing is busy, please retry the upload shortly.");
+    }
+}
@@ -1,7 +1,9 @@
 package com.savian.cartblitz.mapper;
 
 import com.savian.cartblitz.dto.CustomerDto;
+import com.savian.cartblitz.dto.CustomerProfileView;
 import com.savian.cartblitz.model.Customer;
+import com.savian.cartblitz.model.OrderStatusEnum;
 import com.savian.cartblitz.repository.OrderRepository;
 import com.savian.cartblitz.repository.ReviewRepository;
 import org.springframework.stereotype.Component;
@@ -43,4 +45,17 @@ public class CustomerMapper {
         customerDto.setReviews(customer.getReviews().stream().map(reviewMapper::reviewToReviewDto).toList());
         return customerDto;
     }
+
+    public CustomerProfileView customerToCustomerProfileView(Customer customer){
+        CustomerProfileView customerProfileView = new CustomerProfileView();
+        customerProfileView.setCustomerId(customer.getCustomerId());
+        customerProfileView.setUsername(customer.getUsername());
+        customerProfileView.setEmail(customer.getEmail());
+        customerProfileView.setFullName(customer.getFullName());
+        customerProfileView.setCompletedOrders(customer.getOrders().stream()
+                .filter(order -> order.getStatus() == OrderStatusEnum.COMPLETED)
+                .map(orderMapper::orderToOrderDto)
+                .toList());
+        return customerProfileView;
+    }
 }
@@ -1,6 +1,8 @@
 package com.savian.cartblitz.mapper;
 
+import com.savian.cartblitz.dto.OrderDetailView;
 import com.savian.cartblitz.dto.OrderDto;
+import com.savian.cartblitz.dto.OrderLineView;
 import com.savian.cartblitz.model.Order;
 import com.savian.cartblitz.repository.CustomerRepository;
 import com.savian.cartblitz.repository.OrderProductRepository;
@@ -25,6 +27,7 @@ public class OrderMapper {
         orderDto.setTotalAmount(order.getTotalAmount());
         orderDto.setStatus(order.getStatus());
         orderDto.setOrderDate(order.getOrderDate());
+        orderDto.setVersion(order.getVersion());
         if (order.getOrderProducts() != null){
             orderDto.setOrderProducts(order.getOrderProducts().stream().map(orderProductMapper::orderProductToOrderProductDto).toList());
         }
@@ -38,7 +41,30 @@ public class OrderMapper {
         order.setTotalAmount(orderDto.getTotalAmount());
         order.setStatus(orderDto.getStatus());
         order.setOrderDate(orderDto.getOrderDate());
+        if (orderDto.getVersion() != null) {
+            order.setVersion(orderDto.getVersion());
+        }
         order.setOrderProducts(orderProductRepository.findByOrderOrderId(orderDto.getOrderId()));
         return order;
     }
+
+    public OrderDetailView orderToOrderDetailView(Order order){
+        OrderDetailView orderDetailView = new OrderDetailView();
+        orderDetailView.setOrderId(order.getOrderId());
+        orderDetailView.setStatus(order.getStatus());
+        orderDetailView.setOrderDate(order.getOrderDate());
+        orderDetailView.setTotalAmount(order.getTotalAmount());
+        if (order.getOrderProducts() != null){
+            orderDetailView.setLines(order.getOrderProducts().stream()
+                    .map(orderProduct -> new OrderLineView(
+                            orderProduct.getProduct().getProductId(),
+                            orderProduct.getProduct().getName(),
+                            orderProduct.getProduct().getCategory(),
+                            orderProduct.getProduct().getPrice(),
+                            orderProduct.getQuantity(),
+                            orderProduct.getPrice()))
+                    .toList());
+        }
+        return orderDetailView;
+    }
 }
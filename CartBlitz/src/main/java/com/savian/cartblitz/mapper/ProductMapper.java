@@ -1,7 +1,10 @@
 package com.savian.cartblitz.mapper;
 
+import com.savian.cartblitz.dto.ProductDetailView;
 import com.savian.cartblitz.dto.ProductDto;
+import com.savian.cartblitz.dto.ReviewView;
 import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.model.Tag;
 import com.savian.cartblitz.repository.OrderProductRepository;
 import com.savian.cartblitz.repository.ReviewRepository;
 import com.savian.cartblitz.repository.WarrantyRepository;
@@ -12,14 +15,16 @@ public class ProductMapper {
     private final OrderProductMapper orderProductMapper;
     private final ReviewMapper reviewMapper;
     private final TagMapper tagMapper;
+    private final WarrantyMapper warrantyMapper;
     private final OrderProductRepository orderProductRepository;
     private final ReviewRepository reviewRepository;
     private final WarrantyRepository warrantyRepository;
 
-    public ProductMapper(OrderProductMapper orderProductMapper, ReviewMapper reviewMapper, TagMapper tagMapper, OrderProductRepository orderProductRepository, ReviewRepository reviewRepository, WarrantyRepository warrantyRepository) {
+    public ProductMapper(OrderProductMapper orderProductMapper, ReviewMapper reviewMapper, TagMapper tagMapper, WarrantyMapper warrantyMapper, OrderProductRepository orderProductRepository, ReviewRepository reviewRepository, WarrantyRepository warrantyRepository) {
         this.orderProductMapper = orderProductMapper;
         this.reviewMapper = reviewMapper;
         this.tagMapper = tagMapper;
+        this.warrantyMapper = warrantyMapper;
         this.orderProductRepository = orderProductRepository;
         this.reviewRepository = reviewRepository;
         this.warrantyRepository = warrantyRepository;
@@ -60,4 +65,27 @@ public class ProductMapper {
         productDto.setTags(tagMapper.tagsToTagDtos(product.getTags()));
         return productDto;
     }
+
+    public ProductDetailView productToProductDetailView(Product product){
+        ProductDetailView productDetailView = new ProductDetailView();
+        productDetailView.setProductId(product.getProductId());
+        productDetailView.setName(product.getName());
+        productDetailView.setPrice(product.getPrice());
+        productDetailView.setStockQuantity(product.getStockQuantity());
+        productDetailView.setDescription(product.getDescription());
+        productDetailView.setBrand(product.getBrand());
+        productDetailView.setCategory(product.getCategory());
+        if(product.getWarranty() != null) {
+            productDetailView.setWarranty(warrantyMapper.warrantyToWarrantyDto(product.getWarranty()));
+        }
+        if(product.getTags() != null) {
+            productDetailView.setTagNames(product.getTags().stream().map(Tag::getName).toList());
+        }
+        if(product.getReviews() != null) {
+            productDetailView.setReviews(product.getReviews().stream()
+                    .map(review -> new ReviewView(review.getCustomer().getUsername(), review.getRating(), review.getComment(), review.getReviewDate()))
+                    .toList());
+        }
+        return productDetailView;
+    }
 }
@@ -4,6 +4,7 @@ import com.savian.cartblitz.model.security.Authority;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.hateoas.RepresentationModel;
 
 import java.util.ArrayList;
@@ -20,7 +21,8 @@ import java.util.Set;
 @Table(name = "customer")
 public class Customer extends RepresentationModel<Customer> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     private Long customerId;
 
     @Column(nullable = false, length = 50)
@@ -36,15 +38,18 @@ public class Customer extends RepresentationModel<Customer> {
     private String fullName;
 
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @Builder.Default
     private List<Order> orders = new ArrayList<>();
 
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @Builder.Default
     private List<Review> reviews = new ArrayList<>();
 
     @Singular
     @ManyToMany(cascade = CascadeType.MERGE, fetch = FetchType.EAGER)
+    @BatchSize(size = 50)
     @JoinTable(name = "customer_authority", joinColumns = {@JoinColumn(name = "CUSTOMER_ID", referencedColumnName = "customerId")}, inverseJoinColumns = {@JoinColumn(name = "AUTHORITY_ID", referencedColumnName = "ID")})
     private Set<Authority> authorities;
 
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.hateoas.RepresentationModel;
 
 import java.math.BigDecimal;
@@ -16,14 +17,29 @@ import java.util.Objects;
 @Setter
 @Getter
 @Entity
+@NamedEntityGraph(name = "Order.listing", attributeNodes = {
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode("orderProducts")
+})
+@NamedEntityGraph(name = "Order.detail", attributeNodes = {
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "orderProducts", subgraph = "Order.detail.orderProducts")
+}, subgraphs = @NamedSubgraph(name = "Order.detail.orderProducts", attributeNodes = @NamedAttributeNode("product")))
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "`order`")
+@Table(name = "`order`",
+        indexes = @Index(name = "idx_order_customer_status", columnList = "customer_id, status"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_active_cart", columnNames = "active_cart_customer_id"))
 public class Order extends RepresentationModel<Order> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long orderId;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @JsonIgnore
     @ManyToOne
     @JoinColumn(name = "customer_id")
@@ -40,8 +56,19 @@ public class Order extends RepresentationModel<Order> {
     private Timestamp orderDate;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     private List<OrderProduct> orderProducts;
 
+    @JsonIgnore
+    @Column(name = "active_cart_customer_id")
+    private Long activeCartCustomerId;
+
+    @PrePersist
+    @PreUpdate
+    void updateActiveCartCustomerId() {
+        activeCartCustomerId = status == OrderStatusEnum.CART && customer != null ? customer.getCustomerId() : null;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
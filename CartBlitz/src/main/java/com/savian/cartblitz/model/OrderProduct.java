@@ -21,6 +21,10 @@ public class OrderProduct extends RepresentationModel<OrderProduct> {
     @EmbeddedId
     private OrderProductId orderProductId;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @JsonIgnore
     @ManyToOne
     @MapsId("orderId")
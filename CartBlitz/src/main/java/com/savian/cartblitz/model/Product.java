@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.hateoas.RepresentationModel;
 
 import java.math.BigDecimal;
@@ -15,14 +18,25 @@ import java.util.Objects;
 @Setter
 @Getter
 @Entity
+@Cacheable
+@NamedEntityGraph(name = "Product.detail", attributeNodes = {
+        @NamedAttributeNode("warranty"),
+        @NamedAttributeNode("tags")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "product")
 public class Product extends RepresentationModel<Product> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long productId;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @Column(nullable = false, length = 50)
     private String name;
 
@@ -42,9 +56,11 @@ public class Product extends RepresentationModel<Product> {
     private String category;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     private List<OrderProduct> orderProducts;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     private List<Review> reviews;
 
     @OneToOne
@@ -52,6 +68,8 @@ public class Product extends RepresentationModel<Product> {
     private Warranty warranty;
 
     @ManyToMany
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-tags")
     @JoinTable(
             name = "product_tag",
             joinColumns = @JoinColumn(name = "product_id"),
@@ -0,0 +1,55 @@
+package com.savian.cartblitz.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Formula;
+
+@Setter
+@Getter
+@Entity
+@NoArgsConstructor
+@Table(name = "product_rating_stats")
+public class ProductRatingStats {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "one_star", nullable = false)
+    private long oneStar;
+
+    @Column(name = "two_stars", nullable = false)
+    private long twoStars;
+
+    @Column(name = "three_stars", nullable = false)
+    private long threeStars;
+
+    @Column(name = "four_stars", nullable = false)
+    private long fourStars;
+
+    @Column(name = "five_stars", nullable = false)
+    private long fiveStars;
+
+    @Formula("case when review_count > 0 then rating_sum * 1.0 / review_count end")
+    private Double averageRating;
+
+    public ProductRatingStats(Long productId) {
+        this.productId = productId;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductRatingStats{" +
+                "productId=" + productId +
+                ", reviewCount=" + reviewCount +
+                ", ratingSum=" + ratingSum +
+                '}';
+    }
+}
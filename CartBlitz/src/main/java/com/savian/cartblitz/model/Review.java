@@ -19,7 +19,8 @@ import java.util.Objects;
 @Table(name = "review")
 public class Review extends RepresentationModel<Review> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "review_seq")
+    @SequenceGenerator(name = "review_seq", sequenceName = "review_seq", allocationSize = 50)
     private Long reviewId;
 
     @JsonIgnore
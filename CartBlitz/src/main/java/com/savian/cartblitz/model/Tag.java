@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.hateoas.RepresentationModel;
 
 import java.util.ArrayList;
@@ -14,18 +17,22 @@ import java.util.Objects;
 @Setter
 @Getter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tag")
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "tag")
 public class Tag extends RepresentationModel<Tag> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    @SequenceGenerator(name = "tag_seq", sequenceName = "tag_seq", allocationSize = 50)
     private Long tagId;
 
     @Column(nullable = false, length = 50)
     private String name;
 
     @ManyToMany(mappedBy = "tags")
+    @BatchSize(size = 50)
     private List<Product> products = new ArrayList<>();
 
     public Tag(String name) {
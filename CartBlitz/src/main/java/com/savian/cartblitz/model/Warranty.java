@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.hateoas.RepresentationModel;
 
 import java.util.Objects;
@@ -12,12 +14,15 @@ import java.util.Objects;
 @Setter
 @Getter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "warranty")
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "warranty")
 public class Warranty extends RepresentationModel<Warranty> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warranty_seq")
+    @SequenceGenerator(name = "warranty_seq", sequenceName = "warranty_seq", allocationSize = 50)
     private Long warrantyId;
 
     @OneToOne(mappedBy = "warranty", cascade = CascadeType.ALL)
@@ -0,0 +1,57 @@
+package com.savian.cartblitz.repository;
+
+import com.savian.cartblitz.dto.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public class ExportRowRepository {
+    // Connector/J streams a result row by row only for this fetch size; any other value buffers the whole result set
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Stream<ProductSummary> streamProducts() {
+        return stream("SELECT new com.savian.cartblitz.dto.ProductSummary(p.productId, p.name, p.price, p.stockQuantity, p.description, p.brand, p.category, coalesce(s.reviewCount, 0L), s.averageRating) " +
+                "FROM Product p LEFT JOIN ProductRatingStats s ON s.productId = p.productId ORDER BY p.productId", ProductSummary.class);
+    }
+
+    public Stream<OrderExportRow> streamOrders() {
+        return stream("SELECT new com.savian.cartblitz.dto.OrderExportRow(o.orderId, o.customer.customerId, o.totalAmount, o.status, o.orderDate, o.version, " +
+                "op.orderProductId.productId, op.quantity, op.price) " +
+                "FROM Order o LEFT JOIN o.orderProducts op ORDER BY o.orderId, op.orderProductId.productId", OrderExportRow.class);
+    }
+
+    public Stream<CustomerDto> streamCustomers() {
+        return stream("SELECT new com.savian.cartblitz.dto.CustomerDto(c.customerId, c.username, c.email, c.fullName) FROM Customer c ORDER BY c.customerId", CustomerDto.class);
+    }
+
+    public Stream<ReviewDto> streamReviews() {
+        return stream("SELECT new com.savian.cartblitz.dto.ReviewDto(r.reviewId, r.customer.customerId, r.product.productId, r.rating, r.comment, r.reviewDate) " +
+                "FROM Review r ORDER BY r.reviewId", ReviewDto.class);
+    }
+
+    public Stream<OrderProductDto> streamOrderProducts() {
+        return stream("SELECT new com.savian.cartblitz.dto.OrderProductDto(op.orderProductId.orderId, op.orderProductId.productId, op.quantity, op.price) " +
+                "FROM OrderProduct op ORDER BY op.orderProductId.orderId, op.orderProductId.productId", OrderProductDto.class);
+    }
+
+    private <T> Stream<T> stream(String jpql, Class<T> type) {
+        return entityManager.createQuery(jpql, type)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, isMySql() ? MYSQL_STREAMING_FETCH_SIZE : FETCH_SIZE)
+                .getResultStream();
+    }
+
+    private boolean isMySql() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+}
@@ -2,14 +2,38 @@ package com.savian.cartblitz.repository;
 
 import com.savian.cartblitz.model.Order;
 import com.savian.cartblitz.model.OrderStatusEnum;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    @Override
+    @EntityGraph("Order.listing")
+    List<Order> findAll();
+
+    @EntityGraph("Order.listing")
     List<Order> findByCustomerCustomerId(Long customerId);
+
+    @EntityGraph("Order.listing")
     List<Order> findByStatus(OrderStatusEnum status);
+
     List<Order> findByCustomerCustomerIdAndStatus(Long customerId, OrderStatusEnum status);
+
+    @EntityGraph("Order.detail")
+    Optional<Order> findDetailByOrderId(Long orderId);
+
+    @Transactional
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderProducts op LEFT JOIN FETCH op.product WHERE o.orderId = :orderId")
+    Optional<Order> findWithLinesByOrderId(@Param("orderId") Long orderId);
+
+    @Transactional
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderProducts op LEFT JOIN FETCH op.product WHERE o.customer.username = :username AND o.activeCartCustomerId = o.customer.customerId")
+    Optional<Order> findActiveCartByUsername(@Param("username") String username);
 }
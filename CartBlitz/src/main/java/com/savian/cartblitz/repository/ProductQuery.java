@@ -0,0 +1,83 @@
+package com.savian.cartblitz.repository;
+
+import com.savian.cartblitz.model.Product;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+@Getter
+@Builder
+public class ProductQuery {
+    public static final String RATING_SORT = "rating";
+    private static final List<String> SORTABLE_FIELDS = List.of("brand", "name", "price", RATING_SORT);
+
+    private String category;
+    private String brand;
+    private Long tagId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Collection<Long> productIds;
+    private Long afterId;
+    private Long beforeId;
+    private String sortBy;
+    private String sortOrder;
+    private Integer offset;
+    private Integer limit;
+
+    public Specification<Product> toSpecification() {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (category != null && !category.isBlank()) {
+                predicates.add(cb.equal(cb.upper(root.get("category")), category.toUpperCase(Locale.ROOT)));
+            }
+            if (brand != null && !brand.isBlank()) {
+                predicates.add(cb.equal(cb.upper(root.get("brand")), brand.toUpperCase(Locale.ROOT)));
+            }
+            if (tagId != null) {
+                Subquery<Long> taggedProducts = query.subquery(Long.class);
+                Root<Product> taggedRoot = taggedProducts.from(Product.class);
+                taggedProducts.select(taggedRoot.get("productId")).where(cb.equal(taggedRoot.join("tags").get("tagId"), tagId));
+                predicates.add(root.get("productId").in(taggedProducts));
+            }
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            if (productIds != null) {
+                predicates.add(root.get("productId").in(productIds));
+            }
+            if (afterId != null) {
+                predicates.add(cb.greaterThan(root.get("productId"), afterId));
+            }
+            if (beforeId != null) {
+                predicates.add(cb.lessThan(root.get("productId"), beforeId));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public Sort toSort() {
+        Sort byId = Sort.by("productId").ascending();
+
+        if (sortBy == null || !SORTABLE_FIELDS.contains(sortBy)) {
+            return byId;
+        }
+
+        Sort sort = Sort.by(sortBy);
+        return ("desc".equals(sortOrder) ? sort.descending() : sort.ascending()).and(byId);
+    }
+}
@@ -0,0 +1,5 @@
+package com.savian.cartblitz.repository;
+
+public interface ProductRatingDeltaRepository {
+    void upsertDelta(Long productId, long count, long sum, long oneStar, long twoStars, long threeStars, long fourStars, long fiveStars);
+}
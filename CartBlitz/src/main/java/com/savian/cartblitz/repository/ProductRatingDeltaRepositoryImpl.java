@@ -0,0 +1,54 @@
+package com.savian.cartblitz.repository;
+
+import com.savian.cartblitz.model.ProductRatingStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.List;
+
+public class ProductRatingDeltaRepositoryImpl implements ProductRatingDeltaRepository {
+    private static final String MYSQL_UPSERT = "INSERT INTO product_rating_stats " +
+            "(product_id, review_count, rating_sum, one_star, two_stars, three_stars, four_stars, five_stars) " +
+            "VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8) AS delta " +
+            "ON DUPLICATE KEY UPDATE review_count = product_rating_stats.review_count + delta.review_count, " +
+            "rating_sum = product_rating_stats.rating_sum + delta.rating_sum, " +
+            "one_star = product_rating_stats.one_star + delta.one_star, " +
+            "two_stars = product_rating_stats.two_stars + delta.two_stars, " +
+            "three_stars = product_rating_stats.three_stars + delta.three_stars, " +
+            "four_stars = product_rating_stats.four_stars + delta.four_stars, " +
+            "five_stars = product_rating_stats.five_stars + delta.five_stars";
+    private static final String MERGE_UPSERT = "MERGE INTO product_rating_stats s USING (SELECT " +
+            "CAST(?1 AS BIGINT) AS product_id, CAST(?2 AS BIGINT) AS review_count, CAST(?3 AS BIGINT) AS rating_sum, " +
+            "CAST(?4 AS BIGINT) AS one_star, CAST(?5 AS BIGINT) AS two_stars, CAST(?6 AS BIGINT) AS three_stars, " +
+            "CAST(?7 AS BIGINT) AS four_stars, CAST(?8 AS BIGINT) AS five_stars) delta ON s.product_id = delta.product_id " +
+            "WHEN MATCHED THEN UPDATE SET review_count = s.review_count + delta.review_count, rating_sum = s.rating_sum + delta.rating_sum, " +
+            "one_star = s.one_star + delta.one_star, two_stars = s.two_stars + delta.two_stars, three_stars = s.three_stars + delta.three_stars, " +
+            "four_stars = s.four_stars + delta.four_stars, five_stars = s.five_stars + delta.five_stars " +
+            "WHEN NOT MATCHED THEN INSERT (product_id, review_count, rating_sum, one_star, two_stars, three_stars, four_stars, five_stars) " +
+            "VALUES (delta.product_id, delta.review_count, delta.rating_sum, delta.one_star, delta.two_stars, delta.three_stars, delta.four_stars, delta.five_stars)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void upsertDelta(Long productId, long count, long sum, long oneStar, long twoStars, long threeStars, long fourStars, long fiveStars) {
+        NativeQuery<?> query = entityManager.createNativeQuery(isMySql() ? MYSQL_UPSERT : MERGE_UPSERT)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ProductRatingStats.class);
+
+        List<Object> parameters = List.of(productId, count, sum, oneStar, twoStars, threeStars, fourStars, fiveStars);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+
+        query.executeUpdate();
+    }
+
+    private boolean isMySql() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+}
@@ -0,0 +1,19 @@
+package com.savian.cartblitz.repository;
+
+import com.savian.cartblitz.model.ProductRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductRatingStatsRepository extends JpaRepository<ProductRatingStats, Long>, ProductRatingDeltaRepository {
+    @Modifying
+    @Query("UPDATE ProductRatingStats s SET s.reviewCount = s.reviewCount + :count, s.ratingSum = s.ratingSum + :sum, " +
+            "s.oneStar = s.oneStar + :oneStar, s.twoStars = s.twoStars + :twoStars, s.threeStars = s.threeStars + :threeStars, " +
+            "s.fourStars = s.fourStars + :fourStars, s.fiveStars = s.fiveStars + :fiveStars WHERE s.productId = :productId")
+    int applyDelta(@Param("productId") Long productId, @Param("count") long count, @Param("sum") long sum,
+                   @Param("oneStar") long oneStar, @Param("twoStars") long twoStars, @Param("threeStars") long threeStars,
+                   @Param("fourStars") long fourStars, @Param("fiveStars") long fiveStars);
+}
@@ -0,0 +1,13 @@
+package com.savian.cartblitz.repository;
+
+import com.savian.cartblitz.dto.ProductSummary;
+import com.savian.cartblitz.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductSummaryRepository {
+    List<ProductSummary> findSummaries(Specification<Product> specification, Sort sort, Integer limit);
+    List<ProductSummary> findSummaries(Specification<Product> specification, Sort sort, Integer offset, Integer limit);
+}
@@ -0,0 +1,84 @@
+package com.savian.cartblitz.repository;
+
+import com.savian.cartblitz.dto.ProductSummary;
+import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.model.ProductRatingStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductSummaryRepositoryImpl implements ProductSummaryRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductSummary> findSummaries(Specification<Product> specification, Sort sort, Integer limit) {
+        return findSummaries(specification, sort, null, limit);
+    }
+
+    @Override
+    public List<ProductSummary> findSummaries(Specification<Product> specification, Sort sort, Integer offset, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> root = query.from(Product.class);
+
+        Subquery<Long> reviewCount = query.subquery(Long.class);
+        Root<ProductRatingStats> reviewCountRoot = reviewCount.from(ProductRatingStats.class);
+        reviewCount.select(reviewCountRoot.get("reviewCount")).where(cb.equal(reviewCountRoot.get("productId"), root.get("productId")));
+
+        Subquery<Double> averageRating = query.subquery(Double.class);
+        Root<ProductRatingStats> averageRatingRoot = averageRating.from(ProductRatingStats.class);
+        averageRating.select(averageRatingRoot.get("averageRating")).where(cb.equal(averageRatingRoot.get("productId"), root.get("productId")));
+
+        query.select(cb.construct(ProductSummary.class,
+                root.get("productId"),
+                root.get("name"),
+                root.get("price"),
+                root.get("stockQuantity"),
+                root.get("description"),
+                root.get("brand"),
+                root.get("category"),
+                cb.coalesce(reviewCount, 0L),
+                averageRating));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, root, cb, averageRating));
+
+        TypedQuery<ProductSummary> typedQuery = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true);
+        if (offset != null) {
+            typedQuery.setFirstResult(offset);
+        }
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        return typedQuery.getResultList();
+    }
+
+    private List<Order> toOrders(Sort sort, Root<Product> root, CriteriaBuilder cb, Expression<Double> averageRating) {
+        List<Order> orders = new ArrayList<>();
+
+        for (Sort.Order order : sort) {
+            if (ProductQuery.RATING_SORT.equals(order.getProperty())) {
+                orders.add(order.isAscending() ? cb.asc(averageRating) : cb.desc(averageRating));
+            }
+            else {
+                orders.addAll(QueryUtils.toOrders(Sort.by(order), root, cb));
+            }
+        }
+
+        return orders;
+    }
+}
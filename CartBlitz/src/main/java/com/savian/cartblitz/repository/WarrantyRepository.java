@@ -1,8 +1,17 @@
 package com.savian.cartblitz.repository;
 
 import com.savian.cartblitz.model.Warranty;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface WarrantyRepository extends JpaRepository<Warranty, Long> {}
\ No newline at end of file
+public interface WarrantyRepository extends JpaRepository<Warranty, Long> {
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Warranty> findAll();
+}
@@ -0,0 +1,23 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.dto.CartItemDto;
+import com.savian.cartblitz.model.Order;
+import com.savian.cartblitz.model.OrderProduct;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+public interface CartService {
+    Optional<Order> getCart(String username);
+    Optional<Long> getCartId(String username);
+    Long getOrCreateCartId(String username);
+    Optional<OrderProduct> getLine(Long orderId, Long productId);
+    List<OrderProduct> getLines(Long orderId);
+
+    OrderProduct addLine(Long orderId, Long productId, Integer quantity);
+    List<OrderProduct> addLines(Long orderId, List<CartItemDto> items);
+    OrderProduct saveLine(Long orderId, Long productId, Integer quantity, BigDecimal price);
+    OrderProduct updateLine(Long orderId, Long productId, Integer quantity, BigDecimal price);
+    void removeLine(Long orderId, Long productId);
+}
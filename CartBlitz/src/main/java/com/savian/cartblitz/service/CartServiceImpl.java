@@ -0,0 +1,361 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.config.CartRetryMetrics;
+import com.savian.cartblitz.dto.CartItemDto;
+import com.savian.cartblitz.dto.CartLine;
+import com.savian.cartblitz.dto.CartSnapshot;
+import com.savian.cartblitz.exception.*;
+import com.savian.cartblitz.model.*;
+import com.savian.cartblitz.repository.*;
+import io.github.resilience4j.retry.annotation.Retry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class CartServiceImpl implements CartService {
+    private final OrderRepository orderRepository;
+    private final OrderProductRepository orderProductRepository;
+    private final ProductRepository productRepository;
+    private final CustomerRepository customerRepository;
+    private final OrderService orderService;
+    private final CartStore cartStore;
+
+    public CartServiceImpl(OrderRepository orderRepository, OrderProductRepository orderProductRepository, ProductRepository productRepository, CustomerRepository customerRepository, OrderService orderService, CartStore cartStore) {
+        this.orderRepository = orderRepository;
+        this.orderProductRepository = orderProductRepository;
+        this.productRepository = productRepository;
+        this.customerRepository = customerRepository;
+        this.orderService = orderService;
+        this.cartStore = cartStore;
+    }
+
+    @Override
+    public Optional<Order> getCart(String username) {
+        return cartStore.getCart(username).map(this::toOrder);
+    }
+
+    @Override
+    public Optional<Long> getCartId(String username) {
+        return cartStore.getCart(username).map(CartSnapshot::getOrderId);
+    }
+
+    @Override
+    public Long getOrCreateCartId(String username) {
+        Optional<Long> cartId = getCartId(username);
+
+        if (cartId.isPresent()) {
+            return cartId.get();
+        }
+
+        Customer customer = customerRepository.findByUsername(username)
+                .orElseThrow(() -> new CustomerNotFoundException("username", username));
+
+        try {
+            return orderService.saveOrder(customer.getCustomerId()).getOrderId();
+        }
+        catch (OrderInProgressException e) {
+            return getCartId(username).orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    public Optional<OrderProduct> getLine(Long orderId, Long productId) {
+        Optional<CartSnapshot> cart = cartStore.findCart(orderId);
+
+        if (cart.isPresent()) {
+            return cart.get().findLine(productId)
+                    .flatMap(line -> productRepository.findById(productId)
+                            .map(product -> toOrderProduct(toOrderHeader(cart.get()), line, product)));
+        }
+
+        return orderProductRepository.findByOrderOrderIdAndProductProductId(orderId, productId);
+    }
+
+    @Override
+    public List<OrderProduct> getLines(Long orderId) {
+        cartStore.flush(orderId);
+
+        return orderProductRepository.findByOrderOrderId(orderId);
+    }
+
+    @Override
+    @Transactional
+    @Retry(name = CartRetryMetrics.CART_MUTATION)
+    public OrderProduct addLine(Long orderId, Long productId, Integer quantity) {
+        Product product = getProduct(productId);
+
+        Optional<CartSnapshot> cart = cartStore.modify(orderId, snapshot -> {
+            CartLine line = snapshot.findLine(productId).orElse(null);
+            applyLine(snapshot, product, line, (line == null ? 0 : line.getQuantity()) + quantity, product.getPrice());
+        });
+
+        if (cart.isPresent()) {
+            return toOrderProduct(cart.get(), product);
+        }
+
+        Order order = getOrderWithLines(orderId);
+        Optional<OrderProduct> line = findLine(order, productId);
+
+        return applyLine(order, product, line.orElse(null), line.map(OrderProduct::getQuantity).orElse(0) + quantity, product.getPrice());
+    }
+
+    @Override
+    @Transactional
+    @Retry(name = CartRetryMetrics.CART_MUTATION)
+    public List<OrderProduct> addLines(Long orderId, List<CartItemDto> items) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+
+        for (CartItemDto item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        Map<Long, Product> products = getProducts(quantities.keySet());
+
+        Optional<CartSnapshot> cart = cartStore.modify(orderId, snapshot -> {
+            quantities.forEach((productId, quantity) ->
+                    checkStock(products.get(productId), snapshot.findLine(productId).map(CartLine::getQuantity).orElse(0) + quantity));
+
+            quantities.forEach((productId, quantity) -> {
+                CartLine line = snapshot.findLine(productId).orElse(null);
+                Product product = products.get(productId);
+                applyLine(snapshot, product, line, (line == null ? 0 : line.getQuantity()) + quantity, product.getPrice());
+            });
+        });
+
+        if (cart.isPresent()) {
+            Order order = toOrderHeader(cart.get());
+
+            return quantities.keySet().stream()
+                    .map(productId -> toOrderProduct(order, cart.get().findLine(productId).orElseThrow(), products.get(productId)))
+                    .toList();
+        }
+
+        Order order = getOrderWithLines(orderId);
+        Map<Long, OrderProduct> lines = order.getOrderProducts().stream()
+                .collect(Collectors.toMap(line -> line.getProduct().getProductId(), Function.identity()));
+
+        quantities.forEach((productId, quantity) ->
+                checkStock(products.get(productId), Optional.ofNullable(lines.get(productId)).map(OrderProduct::getQuantity).orElse(0) + quantity));
+
+        return quantities.entrySet().stream()
+                .map(entry -> {
+                    OrderProduct line = lines.get(entry.getKey());
+                    Product product = products.get(entry.getKey());
+                    return applyLine(order, product, line, (line == null ? 0 : line.getQuantity()) + entry.getValue(), product.getPrice());
+                })
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    @Retry(name = CartRetryMetrics.CART_MUTATION)
+    public OrderProduct saveLine(Long orderId, Long productId, Integer quantity, BigDecimal price) {
+        Product product = getProduct(productId);
+
+        Optional<CartSnapshot> cart = cartStore.modify(orderId, snapshot -> {
+            CartLine line = snapshot.findLine(productId).orElse(null);
+            applyLine(snapshot, product, line, quantity, line != null ? price : product.getPrice());
+        });
+
+        if (cart.isPresent()) {
+            return toOrderProduct(cart.get(), product);
+        }
+
+        Order order = getOrderWithLines(orderId);
+        Optional<OrderProduct> line = findLine(order, productId);
+
+        return applyLine(order, product, line.orElse(null), quantity, line.isPresent() ? price : product.getPrice());
+    }
+
+    @Override
+    @Transactional
+    @Retry(name = CartRetryMetrics.CART_MUTATION)
+    public OrderProduct updateLine(Long orderId, Long productId, Integer quantity, BigDecimal price) {
+        Optional<CartSnapshot> cart = cartStore.modify(orderId, snapshot -> {
+            CartLine line = snapshot.findLine(productId)
+                    .orElseThrow(() -> new OrderProductNotFoundException(orderId, productId));
+            applyLine(snapshot, getProduct(productId), line, quantity, price);
+        });
+
+        if (cart.isPresent()) {
+            return toOrderProduct(cart.get(), getProduct(productId));
+        }
+
+        Order order = getOrderWithLines(orderId);
+        OrderProduct line = findLine(order, productId)
+                .orElseThrow(() -> new OrderProductNotFoundException(orderId, productId));
+
+        return applyLine(order, line.getProduct(), line, quantity, price);
+    }
+
+    @Override
+    @Transactional
+    @Retry(name = CartRetryMetrics.CART_MUTATION)
+    public void removeLine(Long orderId, Long productId) {
+        Optional<CartSnapshot> cart = cartStore.modify(orderId, snapshot -> {
+            CartLine line = snapshot.findLine(productId)
+                    .orElseThrow(() -> new OrderProductNotFoundException(orderId, productId));
+
+            snapshot.getLines().remove(line);
+            snapshot.setTotalAmount(snapshot.getTotalAmount().subtract(lineAmount(line.getQuantity(), line.getPrice())).max(BigDecimal.ZERO));
+        });
+
+        if (cart.isPresent()) {
+            return;
+        }
+
+        Order order = getOrderWithLines(orderId);
+        OrderProduct line = findLine(order, productId)
+                .orElseThrow(() -> new OrderProductNotFoundException(orderId, productId));
+
+        order.getOrderProducts().remove(line);
+        adjustTotalAmount(order, lineAmount(line.getQuantity(), line.getPrice()).negate());
+
+        orderProductRepository.delete(line);
+    }
+
+    private void applyLine(CartSnapshot cart, Product product, CartLine line, Integer quantity, BigDecimal price) {
+        checkStock(product, quantity);
+
+        BigDecimal previousAmount = BigDecimal.ZERO;
+
+        if (line == null) {
+            line = new CartLine();
+            line.setProductId(product.getProductId());
+            cart.getLines().add(line);
+        }
+        else {
+            previousAmount = lineAmount(line.getQuantity(), line.getPrice());
+        }
+
+        line.setQuantity(quantity);
+        line.setPrice(price);
+
+        cart.setTotalAmount(cart.getTotalAmount().add(lineAmount(quantity, price).subtract(previousAmount)).max(BigDecimal.ZERO));
+    }
+
+    private OrderProduct applyLine(Order order, Product product, OrderProduct line, Integer quantity, BigDecimal price) {
+        checkStock(product, quantity);
+
+        BigDecimal previousAmount = BigDecimal.ZERO;
+
+        if (line == null) {
+            line = new OrderProduct();
+            line.setOrderProductId(new OrderProductId(order.getOrderId(), product.getProductId()));
+            line.setOrder(order);
+            line.setProduct(product);
+            order.getOrderProducts().add(line);
+        }
+        else {
+            previousAmount = lineAmount(line.getQuantity(), line.getPrice());
+        }
+
+        line.setQuantity(quantity);
+        line.setPrice(price);
+
+        adjustTotalAmount(order, lineAmount(quantity, price).subtract(previousAmount));
+
+        return line;
+    }
+
+    private void checkStock(Product product, Integer quantity) {
+        if (quantity > product.getStockQuantity()) {
+            throw new ProductQuantityException(product.getProductId(), product.getStockQuantity());
+        }
+    }
+
+    private void adjustTotalAmount(Order order, BigDecimal amount) {
+        order.setTotalAmount(order.getTotalAmount().add(amount).max(BigDecimal.ZERO));
+        order.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private BigDecimal lineAmount(Integer quantity, BigDecimal price) {
+        return BigDecimal.valueOf(quantity).multiply(price);
+    }
+
+    private Optional<OrderProduct> findLine(Order order, Long productId) {
+        return order.getOrderProducts().stream()
+                .filter(line -> line.getProduct().getProductId().equals(productId))
+                .findFirst();
+    }
+
+    private Order getOrderWithLines(Long orderId) {
+        Order order = orderRepository.findWithLinesByOrderId(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+
+        if (order.getOrderProducts() == null) {
+            order.setOrderProducts(new ArrayList<>());
+        }
+
+        return order;
+    }
+
+    private Product getProduct(Long productId) {
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+    }
+
+    private Map<Long, Product> getProducts(Collection<Long> productIds) {
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new ProductNotFoundException(productId);
+            }
+        }
+
+        return products;
+    }
+
+    private Order toOrder(CartSnapshot cart) {
+        List<Long> productIds = cart.getLines().stream().map(CartLine::getProductId).toList();
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        Order order = toOrderHeader(cart);
+
+        for (CartLine line : cart.getLines()) {
+            Product product = products.get(line.getProductId());
+
+            if (product != null) {
+                order.getOrderProducts().add(toOrderProduct(order, line, product));
+            }
+        }
+
+        return order;
+    }
+
+    private Order toOrderHeader(CartSnapshot cart) {
+        Order order = new Order();
+        order.setOrderId(cart.getOrderId());
+        order.setTotalAmount(cart.getTotalAmount());
+        order.setStatus(OrderStatusEnum.CART);
+        order.setOrderDate(new Timestamp(cart.getUpdatedAt()));
+        order.setOrderProducts(new ArrayList<>());
+        return order;
+    }
+
+    private OrderProduct toOrderProduct(CartSnapshot cart, Product product) {
+        CartLine line = cart.findLine(product.getProductId()).orElseThrow();
+
+        return toOrderProduct(toOrderHeader(cart), line, product);
+    }
+
+    private OrderProduct toOrderProduct(Order order, CartLine line, Product product) {
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setOrderProductId(new OrderProductId(order.getOrderId(), line.getProductId()));
+        orderProduct.setOrder(order);
+        orderProduct.setProduct(product);
+        orderProduct.setQuantity(line.getQuantity());
+        orderProduct.setPrice(line.getPrice());
+        return orderProduct;
+    }
+}
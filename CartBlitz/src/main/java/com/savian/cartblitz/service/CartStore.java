@@ -0,0 +1,17 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.dto.CartSnapshot;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface CartStore {
+    Optional<CartSnapshot> getCart(String username);
+    Optional<CartSnapshot> findCart(Long orderId);
+    Optional<CartSnapshot> modify(Long orderId, Consumer<CartSnapshot> change);
+
+    void flush(Long orderId);
+    void flushAll();
+    void evict(Long orderId);
+    void discard(Long orderId);
+}
@@ -0,0 +1,666 @@
+package com.savian.cartblitz.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.savian.cartblitz.config.CartStoreProperties;
+import com.savian.cartblitz.dto.CartLine;
+import com.savian.cartblitz.dto.CartSnapshot;
+import com.savian.cartblitz.exception.OrderNotFoundException;
+import com.savian.cartblitz.model.*;
+import com.savian.cartblitz.repository.*;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CartStoreImpl implements CartStore {
+    private static final String JOURNAL_FILE = "carts.journal";
+    private static final JournalRecord STOP = new JournalRecord(null, null);
+
+    private final OrderRepository orderRepository;
+    private final OrderProductRepository orderProductRepository;
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<String, ActiveCart> carts;
+    private final Map<Long, String> usernamesByOrderId = new ConcurrentHashMap<>();
+    private final Map<String, ActiveCart> pendingWrites = new ConcurrentHashMap<>();
+
+    private final Object journalLock = new Object();
+    private final Path journalPath;
+    private FileChannel journal;
+    private boolean journalCompacted = true;
+
+    private final BlockingQueue<JournalRecord> journalQueue = new LinkedBlockingQueue<>();
+    private final Thread journalWriter;
+    private boolean journalClosed;
+
+    private final ScheduledExecutorService writer;
+
+    public CartStoreImpl(OrderRepository orderRepository, OrderProductRepository orderProductRepository, ProductRepository productRepository, ObjectMapper objectMapper, PlatformTransactionManager transactionManager, CartStoreProperties cartStoreProperties) {
+        this.orderRepository = orderRepository;
+        this.orderProductRepository = orderProductRepository;
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(cartStoreProperties.getMaxActiveCarts())
+                .expireAfterAccess(cartStoreProperties.getIdleTimeout())
+                .evictionListener(this::onEviction)
+                .build();
+
+        this.journalPath = Path.of(cartStoreProperties.getJournalDir()).resolve(JOURNAL_FILE);
+
+        try {
+            Files.createDirectories(journalPath.getParent());
+            replayJournal();
+            this.journal = openJournal();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("cannot open cart journal " + journalPath, e);
+        }
+
+        this.journalWriter = new Thread(this::runJournal, "cart-journal");
+        this.journalWriter.setDaemon(true);
+        this.journalWriter.start();
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = cartStoreProperties.getFlushInterval().toMillis();
+        this.writer.scheduleWithFixedDelay(this::flushAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<CartSnapshot> getCart(String username) {
+        return Optional.ofNullable(carts.get(username, this::loadCart)).map(ActiveCart::read);
+    }
+
+    @Override
+    public Optional<CartSnapshot> findCart(Long orderId) {
+        String username = usernamesByOrderId.get(orderId);
+
+        if (username == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(carts.getIfPresent(username))
+                .filter(cart -> cart.isFor(orderId))
+                .map(ActiveCart::read);
+    }
+
+    @Override
+    public Optional<CartSnapshot> modify(Long orderId, Consumer<CartSnapshot> change) {
+        while (true) {
+            ActiveCart cart = resolveCart(orderId);
+
+            if (cart == null) {
+                return Optional.empty();
+            }
+
+            CartSnapshot snapshot;
+
+            synchronized (cart) {
+                if (cart.removed) {
+                    continue;
+                }
+
+                change.accept(cart.state);
+
+                cart.state.setSequence(cart.state.getSequence() + 1);
+                cart.state.setUpdatedAt(System.currentTimeMillis());
+                cart.dirty = true;
+
+                snapshot = cart.state.copy();
+            }
+
+            appendJournal(snapshot);
+
+            return Optional.of(snapshot);
+        }
+    }
+
+    @Override
+    public void flush(Long orderId) {
+        String username = usernamesByOrderId.get(orderId);
+
+        if (username == null) {
+            return;
+        }
+
+        ActiveCart cart = carts.getIfPresent(username);
+
+        if (cart != null && cart.isFor(orderId)) {
+            write(cart);
+        }
+    }
+
+    @Override
+    public void flushAll() {
+        try {
+            for (ActiveCart cart : new ArrayList<>(carts.asMap().values())) {
+                try {
+                    if (!write(cart)) {
+                        discard(cart.orderId());
+                    }
+                }
+                catch (RuntimeException e) {
+                    log.warn("write-behind of cart {} failed, will retry: {}", cart.orderId(), e.toString());
+                }
+            }
+
+            for (Map.Entry<String, ActiveCart> entry : new ArrayList<>(pendingWrites.entrySet())) {
+                try {
+                    write(entry.getValue());
+                    pendingWrites.remove(entry.getKey(), entry.getValue());
+                }
+                catch (RuntimeException e) {
+                    log.warn("write-behind of evicted cart {} failed, will retry: {}", entry.getValue().orderId(), e.toString());
+                }
+            }
+
+            compactJournal();
+        }
+        catch (RuntimeException e) {
+            log.error("cart write-behind cycle failed", e);
+        }
+    }
+
+    @Override
+    public void evict(Long orderId) {
+        while (true) {
+            String username = usernamesByOrderId.get(orderId);
+
+            if (username == null) {
+                return;
+            }
+
+            ActiveCart cart = carts.getIfPresent(username);
+
+            if (cart == null || !cart.isFor(orderId)) {
+                return;
+            }
+
+            boolean written = write(cart);
+
+            synchronized (cart) {
+                if (written && cart.dirty) {
+                    continue;
+                }
+
+                cart.removed = true;
+            }
+
+            carts.asMap().remove(username, cart);
+            usernamesByOrderId.remove(orderId, username);
+
+            return;
+        }
+    }
+
+    @Override
+    public void discard(Long orderId) {
+        String username = usernamesByOrderId.get(orderId);
+
+        if (username == null) {
+            return;
+        }
+
+        carts.asMap().computeIfPresent(username, (key, cart) -> {
+            if (!cart.isFor(orderId)) {
+                return cart;
+            }
+
+            remove(cart);
+
+            return null;
+        });
+        pendingWrites.remove(username);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(30, TimeUnit.SECONDS);
+
+        flushAll();
+
+        synchronized (journalQueue) {
+            journalClosed = true;
+            journalQueue.add(STOP);
+        }
+        journalWriter.join(TimeUnit.SECONDS.toMillis(30));
+
+        synchronized (journalLock) {
+            try {
+                journal.close();
+            }
+            catch (IOException e) {
+                log.warn("cannot close cart journal {}", journalPath, e);
+            }
+        }
+    }
+
+    private ActiveCart resolveCart(Long orderId) {
+        String username = usernamesByOrderId.get(orderId);
+
+        if (username != null) {
+            ActiveCart cart = carts.get(username, this::loadCart);
+
+            if (cart != null && cart.isFor(orderId)) {
+                return cart;
+            }
+        }
+
+        Order order = orderRepository.findWithLinesByOrderId(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+
+        if (order.getStatus() != OrderStatusEnum.CART || order.getCustomer() == null) {
+            return null;
+        }
+
+        ActiveCart cart = carts.get(order.getCustomer().getUsername(), key -> activate(order));
+
+        return cart.isFor(orderId) ? cart : null;
+    }
+
+    private ActiveCart loadCart(String username) {
+        ActiveCart pending = pendingWrites.remove(username);
+
+        if (pending != null) {
+            ActiveCart cart;
+
+            // Waits for a write-behind of the evicted cart that is in progress, so the copy carries its new version
+            pending.writeLock.lock();
+            try {
+                synchronized (pending) {
+                    cart = new ActiveCart(pending.state.copy(), pending.dirty);
+                }
+            }
+            finally {
+                pending.writeLock.unlock();
+            }
+
+            usernamesByOrderId.put(cart.orderId(), username);
+            return cart;
+        }
+
+        return orderRepository.findActiveCartByUsername(username)
+                .map(this::activate)
+                .orElse(null);
+    }
+
+    private ActiveCart activate(Order order) {
+        CartSnapshot snapshot = new CartSnapshot();
+        snapshot.setUsername(order.getCustomer().getUsername());
+        snapshot.setCustomerId(order.getCustomer().getCustomerId());
+        snapshot.setOrderId(order.getOrderId());
+        snapshot.setVersion(order.getVersion());
+        snapshot.setTotalAmount(order.getTotalAmount());
+        snapshot.setUpdatedAt(order.getOrderDate() != null ? order.getOrderDate().getTime() : System.currentTimeMillis());
+
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            snapshot.getLines().add(new CartLine(orderProduct.getProduct().getProductId(), orderProduct.getQuantity(), orderProduct.getPrice()));
+        }
+
+        usernamesByOrderId.put(order.getOrderId(), snapshot.getUsername());
+
+        return new ActiveCart(snapshot, false);
+    }
+
+    // Runs inside the cache's atomic removal, so the write itself is left to the cart-writer thread
+    private void onEviction(String username, ActiveCart cart, com.github.benmanes.caffeine.cache.RemovalCause cause) {
+        if (cart == null) {
+            return;
+        }
+
+        remove(cart);
+
+        synchronized (cart) {
+            if (cart.dirty) {
+                pendingWrites.put(username, cart);
+            }
+        }
+    }
+
+    private void remove(ActiveCart cart) {
+        synchronized (cart) {
+            cart.removed = true;
+        }
+
+        usernamesByOrderId.remove(cart.orderId());
+    }
+
+    private boolean write(ActiveCart cart) {
+        cart.writeLock.lock();
+        try {
+            CartSnapshot snapshot;
+
+            synchronized (cart) {
+                if (!cart.dirty) {
+                    return true;
+                }
+
+                snapshot = cart.state.copy();
+            }
+
+            BigDecimal totalAmount = snapshot.getTotalAmount();
+            boolean persisted = Boolean.TRUE.equals(transactionTemplate.execute(status -> persist(snapshot)));
+
+            synchronized (cart) {
+                if (persisted) {
+                    cart.state.setVersion(snapshot.getVersion());
+                    cart.state.setTotalAmount(cart.state.getTotalAmount().add(snapshot.getTotalAmount().subtract(totalAmount)).max(BigDecimal.ZERO));
+                }
+
+                if (cart.state.getSequence() == snapshot.getSequence()) {
+                    cart.dirty = false;
+                }
+            }
+
+            return persisted;
+        }
+        finally {
+            cart.writeLock.unlock();
+        }
+    }
+
+    // Stores the written version and total back into the snapshot
+    private boolean persist(CartSnapshot snapshot) {
+        Order order = orderRepository.findWithLinesByOrderId(snapshot.getOrderId()).orElse(null);
+
+        if (order == null || order.getStatus() != OrderStatusEnum.CART) {
+            log.warn("dropping cart snapshot {} for order {}: the order is no longer an active cart", snapshot.getSequence(), snapshot.getOrderId());
+            return false;
+        }
+
+        boolean changedElsewhere = snapshot.getVersion() != null && !snapshot.getVersion().equals(order.getVersion());
+
+        if (changedElsewhere) {
+            log.warn("re-applying cart snapshot {} for order {} on top of a change made elsewhere (version {}, cart loaded at {})",
+                    snapshot.getSequence(), snapshot.getOrderId(), order.getVersion(), snapshot.getVersion());
+        }
+
+        BigDecimal previousLinesAmount = linesAmount(order);
+
+        Map<Long, OrderProduct> existingLines = order.getOrderProducts().stream()
+                .collect(Collectors.toMap(orderProduct -> orderProduct.getProduct().getProductId(), Function.identity()));
+
+        List<Long> newProductIds = snapshot.getLines().stream()
+                .map(CartLine::getProductId)
+                .filter(productId -> !existingLines.containsKey(productId))
+                .toList();
+        Map<Long, Product> newProducts = newProductIds.isEmpty() ? Map.of() : productRepository.findAllById(newProductIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        for (CartLine line : snapshot.getLines()) {
+            OrderProduct orderProduct = existingLines.remove(line.getProductId());
+
+            if (orderProduct == null) {
+                Product product = newProducts.get(line.getProductId());
+
+                if (product == null) {
+                    log.warn("dropping cart line for missing product {} in order {}", line.getProductId(), order.getOrderId());
+                    continue;
+                }
+
+                orderProduct = new OrderProduct();
+                orderProduct.setOrderProductId(new OrderProductId(order.getOrderId(), line.getProductId()));
+                orderProduct.setOrder(order);
+                orderProduct.setProduct(product);
+                order.getOrderProducts().add(orderProduct);
+            }
+
+            orderProduct.setQuantity(line.getQuantity());
+            orderProduct.setPrice(line.getPrice());
+        }
+
+        for (OrderProduct removedLine : existingLines.values()) {
+            order.getOrderProducts().remove(removedLine);
+            orderProductRepository.delete(removedLine);
+        }
+
+        if (changedElsewhere) {
+            // Keeps whatever the other change did to the total and moves it by the difference the cart's lines make
+            snapshot.setTotalAmount(order.getTotalAmount().add(linesAmount(order).subtract(previousLinesAmount)).max(BigDecimal.ZERO));
+        }
+
+        order.setTotalAmount(snapshot.getTotalAmount());
+        order.setOrderDate(new Timestamp(snapshot.getUpdatedAt()));
+        orderRepository.flush();
+
+        snapshot.setVersion(order.getVersion());
+
+        return true;
+    }
+
+    private BigDecimal linesAmount(Order order) {
+        return order.getOrderProducts().stream()
+                .map(orderProduct -> BigDecimal.valueOf(orderProduct.getQuantity()).multiply(orderProduct.getPrice()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private void appendJournal(CartSnapshot snapshot) {
+        JournalRecord record;
+
+        try {
+            record = new JournalRecord(ByteBuffer.wrap((objectMapper.writeValueAsString(snapshot) + "\n").getBytes(StandardCharsets.UTF_8)), new CompletableFuture<>());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("cannot append to cart journal " + journalPath, e);
+        }
+
+        synchronized (journalQueue) {
+            if (journalClosed) {
+                throw new IllegalStateException("cart journal " + journalPath + " is closed");
+            }
+
+            journalQueue.add(record);
+        }
+
+        try {
+            record.durable().join();
+        }
+        catch (CompletionException e) {
+            throw new UncheckedIOException("cannot append to cart journal " + journalPath,
+                    e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause()));
+        }
+    }
+
+    private void runJournal() {
+        List<JournalRecord> batch = new ArrayList<>();
+
+        while (true) {
+            try {
+                batch.add(journalQueue.take());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            journalQueue.drainTo(batch);
+            boolean stop = batch.removeIf(record -> record == STOP);
+
+            commitJournal(batch);
+            batch.clear();
+
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    private void commitJournal(List<JournalRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            synchronized (journalLock) {
+                for (JournalRecord record : batch) {
+                    while (record.data().hasRemaining()) {
+                        journal.write(record.data());
+                    }
+                }
+                journal.force(false);
+                journalCompacted = false;
+            }
+
+            batch.forEach(record -> record.durable().complete(null));
+        }
+        catch (IOException | RuntimeException e) {
+            batch.forEach(record -> record.durable().completeExceptionally(e));
+        }
+    }
+
+    private void compactJournal() {
+        synchronized (journalLock) {
+            if (journalCompacted) {
+                return;
+            }
+
+            List<ActiveCart> unwritten = new ArrayList<>(carts.asMap().values());
+            unwritten.addAll(pendingWrites.values());
+
+            Path compacted = journalPath.resolveSibling(JOURNAL_FILE + ".tmp");
+
+            try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (ActiveCart cart : unwritten) {
+                    CartSnapshot snapshot;
+
+                    synchronized (cart) {
+                        if (!cart.dirty) {
+                            continue;
+                        }
+
+                        snapshot = cart.state.copy();
+                    }
+
+                    ByteBuffer record = ByteBuffer.wrap((objectMapper.writeValueAsString(snapshot) + "\n").getBytes(StandardCharsets.UTF_8));
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                }
+                channel.force(false);
+
+                journal.close();
+                Files.move(compacted, journalPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                journal = openJournal();
+                journalCompacted = true;
+            }
+            catch (IOException e) {
+                log.warn("cannot compact cart journal {}", journalPath, e);
+
+                try {
+                    if (!journal.isOpen()) {
+                        journal = openJournal();
+                    }
+                }
+                catch (IOException reopenException) {
+                    throw new UncheckedIOException("cannot reopen cart journal " + journalPath, reopenException);
+                }
+            }
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void replayJournal() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+
+        Map<Long, CartSnapshot> latest = new HashMap<>();
+
+        for (String record : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+            if (record.isBlank()) {
+                continue;
+            }
+
+            try {
+                CartSnapshot snapshot = objectMapper.readValue(record, CartSnapshot.class);
+                latest.merge(snapshot.getOrderId(), snapshot, (current, candidate) -> candidate.getSequence() > current.getSequence() ? candidate : current);
+            }
+            catch (IOException e) {
+                log.warn("skipping unreadable cart journal record: {}", e.getMessage());
+            }
+        }
+
+        for (CartSnapshot snapshot : latest.values()) {
+            carts.put(snapshot.getUsername(), new ActiveCart(snapshot, true));
+            usernamesByOrderId.put(snapshot.getOrderId(), snapshot.getUsername());
+        }
+
+        if (!latest.isEmpty()) {
+            journalCompacted = false;
+            log.info("recovered {} carts from journal {}", latest.size(), journalPath);
+        }
+    }
+
+    private record JournalRecord(ByteBuffer data, CompletableFuture<Void> durable) {
+    }
+
+    private static final class ActiveCart {
+        private final CartSnapshot state;
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private boolean dirty;
+        private boolean removed;
+
+        private ActiveCart(CartSnapshot state, boolean dirty) {
+            this.state = state;
+            this.dirty = dirty;
+        }
+
+        private synchronized CartSnapshot read() {
+            return state.copy();
+        }
+
+        private Long orderId() {
+            return state.getOrderId();
+        }
+
+        private boolean isFor(Long orderId) {
+            return state.getOrderId().equals(orderId);
+        }
+    }
+}
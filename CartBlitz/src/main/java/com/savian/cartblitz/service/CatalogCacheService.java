@@ -0,0 +1,9 @@
+package com.savian.cartblitz.service;
+
+import java.util.Collection;
+
+public interface CatalogCacheService {
+    void evictProduct(Long productId);
+    void evictProductTags(Collection<Long> productIds);
+    void evictProductStock(Collection<Long> productIds);
+}
@@ -0,0 +1,50 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+
+@Slf4j
+@Service
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+    private static final String PRODUCT_TAGS_ROLE = Product.class.getName() + ".tags";
+    // The table behind Product; cached queries that read it are keyed to this query space
+    private static final String[] PRODUCT_QUERY_SPACES = { "product" };
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final CacheImplementor cache;
+
+    public CatalogCacheServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cache = sessionFactory.getCache();
+    }
+
+    @Override
+    public void evictProduct(Long productId) {
+        cache.evictEntityData(Product.class, productId);
+        cache.evictCollectionData(PRODUCT_TAGS_ROLE, productId);
+    }
+
+    @Override
+    public void evictProductTags(Collection<Long> productIds) {
+        productIds.forEach(productId -> cache.evictCollectionData(PRODUCT_TAGS_ROLE, productId));
+
+        log.debug("evicted cached tags for {} products", productIds.size());
+    }
+
+    @Override
+    public void evictProductStock(Collection<Long> productIds) {
+        productIds.forEach(productId -> cache.evictEntityData(Product.class, productId));
+
+        // Only the cached queries over product go stale; tag and warranty queries stay cached
+        try (SessionImplementor session = sessionFactory.openSession()) {
+            cache.getTimestampsCache().invalidate(PRODUCT_QUERY_SPACES, session);
+        }
+    }
+}
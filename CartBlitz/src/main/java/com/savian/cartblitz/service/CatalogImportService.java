@@ -0,0 +1,11 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.dto.CatalogFormat;
+import com.savian.cartblitz.dto.CatalogImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface CatalogImportService {
+    CatalogImportResult importCatalog(InputStream inputStream, CatalogFormat format) throws IOException;
+}
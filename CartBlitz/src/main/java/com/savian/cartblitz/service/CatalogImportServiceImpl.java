@@ -0,0 +1,312 @@
+package com.savian.cartblitz.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savian.cartblitz.config.CatalogImportProperties;
+import com.savian.cartblitz.dto.CatalogFormat;
+import com.savian.cartblitz.dto.CatalogImportResult;
+import com.savian.cartblitz.dto.ProductImportRow;
+import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.model.Tag;
+import com.savian.cartblitz.model.Warranty;
+import com.savian.cartblitz.repository.ProductRepository;
+import com.savian.cartblitz.repository.TagRepository;
+import com.savian.cartblitz.repository.WarrantyRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+    private final ProductRepository productRepository;
+    private final WarrantyRepository warrantyRepository;
+    private final TagRepository tagRepository;
+    private final TagService tagService;
+    private final ProductSearchService productSearchService;
+    private final CatalogImportProperties catalogImportProperties;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    public CatalogImportServiceImpl(ProductRepository productRepository, WarrantyRepository warrantyRepository, TagRepository tagRepository,
+                                    TagService tagService, ProductSearchService productSearchService, CatalogImportProperties catalogImportProperties,
+                                    Validator validator, ObjectMapper objectMapper, EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.warrantyRepository = warrantyRepository;
+        this.tagRepository = tagRepository;
+        this.tagService = tagService;
+        this.productSearchService = productSearchService;
+        this.catalogImportProperties = catalogImportProperties;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(catalogImportProperties.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "catalog-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CatalogImportResult importCatalog(InputStream inputStream, CatalogFormat format) throws IOException {
+        ImportProgress progress = new ImportProgress(catalogImportProperties.getMaxErrors());
+        Map<String, Tag> tagDictionary = new HashMap<>();
+        Semaphore inFlight = new Semaphore(catalogImportProperties.getThreads() * 2);
+        List<Future<?>> chunks = new ArrayList<>();
+
+        tagRepository.findAll().forEach(tag -> tagDictionary.put(tag.getName().toUpperCase(), tag));
+
+        try (CatalogRowReader reader = new CatalogRowReader(inputStream, format, objectMapper)) {
+            List<ProductImportRow> rows = new ArrayList<>();
+            long firstLine = 0;
+
+            while (true) {
+                ProductImportRow row;
+
+                try {
+                    row = reader.next();
+                }
+                catch (IllegalArgumentException e) {
+                    progress.failRow(reader.getLineNumber(), e.getMessage());
+                    continue;
+                }
+
+                if (row == null) {
+                    break;
+                }
+
+                String error = validate(row);
+
+                if (error != null) {
+                    progress.failRow(reader.getLineNumber(), error);
+                    continue;
+                }
+
+                if (rows.isEmpty()) {
+                    firstLine = reader.getLineNumber();
+                }
+
+                rows.add(row);
+
+                if (rows.size() == catalogImportProperties.getChunkSize()) {
+                    chunks.add(submit(toProducts(rows, tagDictionary), firstLine, reader.getLineNumber(), inFlight, progress));
+                    rows = new ArrayList<>();
+                }
+            }
+
+            if (!rows.isEmpty()) {
+                chunks.add(submit(toProducts(rows, tagDictionary), firstLine, reader.getLineNumber(), inFlight, progress));
+            }
+        }
+        finally {
+            await(chunks);
+        }
+
+        CatalogImportResult result = progress.toResult();
+        log.info("Catalog import finished: {} imported, {} failed in {} ms ({} rows/s)",
+                result.getImported(), result.getFailed(), result.getDurationMillis(), Math.round(result.getRowsPerSecond()));
+
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    String validate(ProductImportRow row) {
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" "));
+        }
+
+        List<Object> warrantyFields = Arrays.asList(row.getWarrantyDurationMonths(), row.getWarrantyType(), row.getWarrantyTerms(), row.getWarrantyDetails());
+        long completedWarrantyFields = warrantyFields.stream()
+                .filter(value -> value != null && !(value instanceof String text && text.isBlank()))
+                .count();
+
+        if (completedWarrantyFields != 0 && completedWarrantyFields != warrantyFields.size()) {
+            return "Warranty fields must be either all set or all empty.";
+        }
+
+        return null;
+    }
+
+    List<Product> toProducts(List<ProductImportRow> rows, Map<String, Tag> tagDictionary) {
+        // Upper case is only the dictionary key; new tags keep the spelling of their first occurrence in the feed
+        Map<String, String> missingTags = new LinkedHashMap<>();
+
+        for (ProductImportRow row : rows) {
+            if (row.getTags() != null) {
+                row.getTags().stream()
+                        .filter(name -> !tagDictionary.containsKey(name.toUpperCase()))
+                        .forEach(name -> missingTags.putIfAbsent(name.toUpperCase(), name));
+            }
+        }
+
+        if (!missingTags.isEmpty()) {
+            tagService.resolveTags(new ArrayList<>(missingTags.values())).forEach(tag -> tagDictionary.put(tag.getName().toUpperCase(), tag));
+        }
+
+        List<Product> products = new ArrayList<>(rows.size());
+
+        for (ProductImportRow row : rows) {
+            Product product = new Product();
+            product.setName(row.getName());
+            product.setPrice(row.getPrice());
+            product.setStockQuantity(row.getStockQuantity());
+            product.setDescription(row.getDescription());
+            product.setBrand(row.getBrand());
+            product.setCategory(row.getCategory());
+
+            if (row.getWarrantyDurationMonths() != null) {
+                Warranty warranty = new Warranty();
+                warranty.setDurationMonths(row.getWarrantyDurationMonths());
+                warranty.setType(row.getWarrantyType());
+                warranty.setTerms(row.getWarrantyTerms());
+                warranty.setDetails(row.getWarrantyDetails());
+                product.setWarranty(warranty);
+            }
+
+            if (row.getTags() != null) {
+                product.setTags(row.getTags().stream()
+                        .map(name -> tagDictionary.get(name.toUpperCase()))
+                        .distinct()
+                        .collect(Collectors.toCollection(ArrayList::new)));
+            }
+
+            products.add(product);
+        }
+
+        return products;
+    }
+
+    private Future<?> submit(List<Product> products, long firstLine, long lastLine, Semaphore inFlight, ImportProgress progress) throws InterruptedIOException {
+        try {
+            inFlight.acquire();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Catalog import interrupted");
+        }
+
+        try {
+            return executor.submit(() -> {
+                try {
+                    insertChunk(products, firstLine, lastLine, progress);
+                }
+                finally {
+                    inFlight.release();
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    void insertChunk(List<Product> products, long firstLine, long lastLine, ImportProgress progress) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                warrantyRepository.saveAll(products.stream().map(Product::getWarranty).filter(Objects::nonNull).toList());
+                productRepository.saveAll(products);
+            });
+        }
+        catch (RuntimeException e) {
+            log.warn("Catalog import chunk at lines {}-{} failed", firstLine, lastLine, e);
+            progress.failRows(products.size(), "lines " + firstLine + "-" + lastLine + ": " + e.getMessage());
+            return;
+        }
+
+        products.forEach(productSearchService::indexProduct);
+
+        progress.imported(products.size());
+    }
+
+    private void await(List<Future<?>> chunks) throws InterruptedIOException {
+        for (Future<?> chunk : chunks) {
+            try {
+                chunk.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Catalog import interrupted");
+            }
+            catch (ExecutionException e) {
+                log.error("Catalog import chunk failed", e.getCause());
+            }
+        }
+    }
+
+    static class ImportProgress {
+        private final long startNanos = System.nanoTime();
+        private final int maxErrors;
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<String> errors = new ArrayList<>();
+
+        ImportProgress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void imported(int rows) {
+            long total = imported.addAndGet(rows);
+            log.info("Catalog import progress: {} imported, {} failed ({} rows/s)", total, failed.get(), Math.round(rowsPerSecond(total)));
+        }
+
+        void failRow(long line, String error) {
+            failRows(1, "line " + line + ": " + error);
+        }
+
+        void failRows(int rows, String error) {
+            failed.addAndGet(rows);
+
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        CatalogImportResult toResult() {
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            synchronized (errors) {
+                return new CatalogImportResult(imported.get(), failed.get(), durationMillis, rowsPerSecond(imported.get()), new ArrayList<>(errors));
+            }
+        }
+
+        private double rowsPerSecond(long rows) {
+            long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+
+            return rows * 1_000_000_000d / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.savian.cartblitz.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.savian.cartblitz.dto.CatalogFormat;
+import com.savian.cartblitz.dto.ProductImportRow;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+class CatalogRowReader implements Closeable {
+    static final String TAG_SEPARATOR = "|";
+
+    private final BufferedReader reader;
+    private final CatalogFormat format;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader rowReader;
+    private final List<String> header;
+    private long lineNumber;
+    private long rowLineNumber;
+
+    CatalogRowReader(InputStream inputStream, CatalogFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.rowReader = objectMapper.readerFor(ProductImportRow.class);
+        this.header = format == CatalogFormat.CSV ? readHeader() : List.of();
+    }
+
+    ProductImportRow next() throws IOException {
+        while (true) {
+            List<String> fields;
+
+            if (format == CatalogFormat.CSV) {
+                fields = readCsvRecord();
+            }
+            else {
+                String line = readLine();
+                fields = line == null ? null : List.of(line);
+            }
+
+            if (fields == null) {
+                return null;
+            }
+
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+
+            try {
+                return format == CatalogFormat.CSV ? toRow(fields) : rowReader.readValue(fields.get(0));
+            }
+            catch (JsonProcessingException e) {
+                throw new IllegalArgumentException(e.getOriginalMessage());
+            }
+        }
+    }
+
+    long getLineNumber() {
+        return rowLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readHeader() throws IOException {
+        List<String> fields = readCsvRecord();
+
+        if (fields == null) {
+            return List.of();
+        }
+
+        return fields.stream().map(name -> name.replace("\uFEFF", "").trim()).toList();
+    }
+
+    private ProductImportRow toRow(List<String> fields) {
+        if (fields.size() > header.size()) {
+            throw new IllegalArgumentException("expected " + header.size() + " fields but found " + fields.size());
+        }
+
+        Map<String, Object> values = new HashMap<>();
+
+        for (int i = 0; i < fields.size(); i++) {
+            String value = fields.get(i).trim();
+
+            if (value.isEmpty()) {
+                continue;
+            }
+
+            if (header.get(i).equals("tags")) {
+                values.put("tags", Arrays.stream(value.split("\\" + TAG_SEPARATOR))
+                        .map(String::trim)
+                        .filter(tag -> !tag.isEmpty())
+                        .toList());
+            }
+            else {
+                values.put(header.get(i), value);
+            }
+        }
+
+        return objectMapper.convertValue(values, ProductImportRow.class);
+    }
+
+    private List<String> readCsvRecord() throws IOException {
+        String line = readLine();
+
+        if (line == null) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+
+                line = reader.readLine();
+
+                if (line == null) {
+                    throw new IllegalArgumentException("unterminated quoted field");
+                }
+
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+
+            char c = line.charAt(i++);
+
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                }
+                else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                }
+                else {
+                    quoted = false;
+                }
+            }
+            else if (c == '"') {
+                quoted = true;
+            }
+            else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            }
+            else {
+                field.append(c);
+            }
+        }
+    }
+
+    private String readLine() throws IOException {
+        String line = reader.readLine();
+
+        if (line != null) {
+            rowLineNumber = ++lineNumber;
+        }
+
+        return line;
+    }
+}
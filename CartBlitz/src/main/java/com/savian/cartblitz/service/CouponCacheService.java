@@ -0,0 +1,13 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.dto.CouponEvaluationRequest;
+import com.savian.cartblitz.dto.CouponEvaluationResult;
+import com.savian.cartblitz.model.Coupon;
+
+public interface CouponCacheService {
+    Coupon getCoupon(String correlationId);
+
+    CouponEvaluationResult evaluate(String correlationId, CouponEvaluationRequest request);
+
+    void invalidate();
+}
@@ -0,0 +1,183 @@
+package com.savian.cartblitz.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.savian.cartblitz.config.CouponCacheProperties;
+import com.savian.cartblitz.dto.CouponEvaluationRequest;
+import com.savian.cartblitz.dto.CouponEvaluationResult;
+import com.savian.cartblitz.model.Coupon;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+public class CouponCacheServiceImpl implements CouponCacheService {
+    static final String CIRCUIT_BREAKER = "couponService";
+
+    private final CouponServiceProxy couponServiceProxy;
+    private final CouponCacheProperties couponCacheProperties;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService refresher;
+
+    private final Map<String, CachedCoupon> coupons = new ConcurrentHashMap<>();
+    private final Cache<EvaluationKey, CouponEvaluationResult> evaluations;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile String currentVersion;
+
+    public CouponCacheServiceImpl(CouponServiceProxy couponServiceProxy, CouponCacheProperties couponCacheProperties, CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.couponServiceProxy = couponServiceProxy;
+        this.couponCacheProperties = couponCacheProperties;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER);
+        this.evaluations = Caffeine.newBuilder()
+                .maximumSize(couponCacheProperties.getMaxEvaluations())
+                .build();
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coupon-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Coupon getCoupon(String correlationId) {
+        CachedCoupon cached = current();
+
+        if (cached == null) {
+            return loadFirst(correlationId);
+        }
+
+        if (cached.isExpired()) {
+            refreshAsync(correlationId);
+        }
+
+        return cached.coupon;
+    }
+
+    // Promotions only change with the coupon version, so a result stays valid for the same cart until the version moves
+    @Override
+    public CouponEvaluationResult evaluate(String correlationId, CouponEvaluationRequest request) {
+        CouponEvaluationResult cached = evaluations.getIfPresent(new EvaluationKey(getCoupon(correlationId).getVersionId(), request));
+
+        if (cached != null) {
+            return cached;
+        }
+
+        CouponEvaluationResult result = circuitBreaker.executeSupplier(() -> couponServiceProxy.evaluate(correlationId, request).getBody());
+
+        if (result != null && result.getVersionId() != null) {
+            evaluations.put(new EvaluationKey(result.getVersionId(), request), result);
+        }
+
+        return result;
+    }
+
+    @Override
+    public void invalidate() {
+        String version = currentVersion;
+
+        if (version != null) {
+            coupons.computeIfPresent(version, (key, cached) -> new CachedCoupon(cached.coupon, System.nanoTime()));
+            refreshAsync("coupon-refresh");
+        }
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        log.info("configuration refreshed, revalidating cached coupon {}", currentVersion);
+        invalidate();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdown();
+    }
+
+    private synchronized Coupon loadFirst(String correlationId) {
+        CachedCoupon cached = current();
+
+        if (cached != null) {
+            return cached.coupon;
+        }
+
+        Coupon coupon = fetch(correlationId);
+        store(coupon);
+        return coupon;
+    }
+
+    private void refreshAsync(String correlationId) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            refresher.execute(() -> {
+                try {
+                    store(fetch(correlationId));
+                }
+                catch (RuntimeException e) {
+                    log.warn("could not revalidate coupon {}, serving the last known version: {}", currentVersion, e.toString());
+                }
+                finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            refreshing.set(false);
+            throw e;
+        }
+    }
+
+    private Coupon fetch(String correlationId) {
+        return circuitBreaker.executeSupplier(() -> couponServiceProxy.getCoupon(correlationId).getBody());
+    }
+
+    private void store(Coupon coupon) {
+        if (coupon == null || coupon.getVersionId() == null) {
+            return;
+        }
+
+        String previousVersion = currentVersion;
+        coupons.put(coupon.getVersionId(), new CachedCoupon(coupon, System.nanoTime() + couponCacheProperties.getTtl().toNanos()));
+        currentVersion = coupon.getVersionId();
+
+        if (previousVersion != null && !previousVersion.equals(coupon.getVersionId())) {
+            coupons.remove(previousVersion);
+            evaluations.invalidateAll();
+            log.info("coupon version changed from {} to {}", previousVersion, coupon.getVersionId());
+        }
+    }
+
+    private CachedCoupon current() {
+        String version = currentVersion;
+        return version == null ? null : coupons.get(version);
+    }
+
+    private record EvaluationKey(String versionId, CouponEvaluationRequest request) {
+    }
+
+    private static class CachedCoupon {
+        private final Coupon coupon;
+        private final long expiresAtNanos;
+
+        private CachedCoupon(Coupon coupon, long expiresAtNanos) {
+            this.coupon = coupon;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+    }
+}
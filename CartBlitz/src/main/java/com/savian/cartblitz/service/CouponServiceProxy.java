@@ -1,13 +1,20 @@
 package com.savian.cartblitz.service;
 
+import com.savian.cartblitz.dto.CouponEvaluationRequest;
+import com.savian.cartblitz.dto.CouponEvaluationResult;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import com.savian.cartblitz.model.Coupon;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 
 @FeignClient(value = "coupon")
 public interface CouponServiceProxy {
     @GetMapping("/coupon")
     ResponseEntity<Coupon> getCoupon(@RequestHeader("coupon") String correlationId);
+
+    @PostMapping("/coupon/evaluate")
+    ResponseEntity<CouponEvaluationResult> evaluate(@RequestHeader("coupon") String correlationId, @RequestBody CouponEvaluationRequest request);
 }
@@ -1,6 +1,7 @@
 package com.savian.cartblitz.service;
 
 import com.savian.cartblitz.dto.CustomerDto;
+import com.savian.cartblitz.dto.CustomerProfileView;
 import com.savian.cartblitz.model.Customer;
 
 import java.util.List;
@@ -10,6 +11,7 @@ public interface CustomerService {
     List<CustomerDto> getAllCustomers();
     Optional<CustomerDto> getCustomerById(Long customerId);
     Optional<CustomerDto> getCustomerByUsername(String username);
+    Optional<CustomerProfileView> getCustomerProfile(String username);
 
     List<CustomerDto> getCustomersAscFullName();
     List<CustomerDto> getCustomersDescFullName();
@@ -1,6 +1,7 @@
 package com.savian.cartblitz.service;
 
 import com.savian.cartblitz.dto.CustomerDto;
+import com.savian.cartblitz.dto.CustomerProfileView;
 import com.savian.cartblitz.exception.CustomerEmailDuplicateException;
 import com.savian.cartblitz.exception.CustomerNotFoundException;
 import com.savian.cartblitz.exception.CustomerUsernameDuplicateException;
@@ -8,6 +9,7 @@ import com.savian.cartblitz.mapper.CustomerMapper;
 import com.savian.cartblitz.model.Customer;
 import com.savian.cartblitz.repository.CustomerRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Objects;
@@ -24,11 +26,13 @@ public class CustomerServiceImpl implements CustomerService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CustomerDto> getAllCustomers() {
         return customerRepository.findAll().stream().map(customerMapper::customerToCustomerDto).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<CustomerDto> getCustomerById(Long customerId) {
         Optional<Customer> customer = customerRepository.findById(customerId);
         if (customer.isPresent()) {
@@ -40,6 +44,7 @@ public class CustomerServiceImpl implements CustomerService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<CustomerDto> getCustomerByUsername(String username) {
         Optional<Customer> customer = customerRepository.findByUsername(username);
         if (customer.isPresent()) {
@@ -51,11 +56,19 @@ public class CustomerServiceImpl implements CustomerService{
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<CustomerProfileView> getCustomerProfile(String username) {
+        return customerRepository.findByUsername(username).map(customerMapper::customerToCustomerProfileView);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<CustomerDto> getCustomersAscFullName() {
         return customerRepository.findAllByOrderByFullNameAsc().stream().map(customerMapper::customerToCustomerDto).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CustomerDto> getCustomersDescFullName() {
         return customerRepository.findAllByOrderByFullNameDesc().stream().map(customerMapper::customerToCustomerDto).toList();
     }
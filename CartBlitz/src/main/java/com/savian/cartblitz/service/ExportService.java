@@ -0,0 +1,14 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+    long exportProducts(OutputStream outputStream, ExportFormat format) throws IOException;
+    long exportOrders(OutputStream outputStream, ExportFormat format) throws IOException;
+    long exportCustomers(OutputStream outputStream, ExportFormat format) throws IOException;
+    long exportReviews(OutputStream outputStream, ExportFormat format) throws IOException;
+    long exportOrderProducts(OutputStream outputStream, ExportFormat format) throws IOException;
+}
@@ -0,0 +1,136 @@
+package com.savian.cartblitz.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.savian.cartblitz.dto.*;
+import com.savian.cartblitz.repository.ExportRowRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class ExportServiceImpl implements ExportService {
+    private final ExportRowRepository exportRowRepository;
+    private final ObjectWriter objectWriter;
+
+    public ExportServiceImpl(ExportRowRepository exportRowRepository, ObjectMapper objectMapper) {
+        this.exportRowRepository = exportRowRepository;
+        this.objectWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportProducts(OutputStream outputStream, ExportFormat format) throws IOException {
+        try (Stream<ProductSummary> products = exportRowRepository.streamProducts()) {
+            return write("products", outputStream, format, products.iterator());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(OutputStream outputStream, ExportFormat format) throws IOException {
+        try (Stream<OrderExportRow> rows = exportRowRepository.streamOrders()) {
+            return write("orders", outputStream, format, new OrderIterator(rows.iterator()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCustomers(OutputStream outputStream, ExportFormat format) throws IOException {
+        try (Stream<CustomerDto> customers = exportRowRepository.streamCustomers()) {
+            return write("customers", outputStream, format, customers.iterator());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportReviews(OutputStream outputStream, ExportFormat format) throws IOException {
+        try (Stream<ReviewDto> reviews = exportRowRepository.streamReviews()) {
+            return write("reviews", outputStream, format, reviews.iterator());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrderProducts(OutputStream outputStream, ExportFormat format) throws IOException {
+        try (Stream<OrderProductDto> orderProducts = exportRowRepository.streamOrderProducts()) {
+            return write("order products", outputStream, format, orderProducts.iterator());
+        }
+    }
+
+    private long write(String name, OutputStream outputStream, ExportFormat format, Iterator<?> values) throws IOException {
+        long count = 0;
+        ObjectWriter writer = format == ExportFormat.NDJSON ? objectWriter.withRootValueSeparator("\n") : objectWriter;
+
+        try (SequenceWriter sequenceWriter = writer.writeValues(outputStream)) {
+            sequenceWriter.init(format == ExportFormat.ARRAY);
+            while (values.hasNext()) {
+                sequenceWriter.write(values.next());
+                count++;
+            }
+        }
+
+        if (format == ExportFormat.NDJSON && count > 0) {
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+
+        log.info("Exported {} {} as {}", count, name, format);
+        return count;
+    }
+
+    private static class OrderIterator implements Iterator<OrderDto> {
+        private final Iterator<OrderExportRow> rows;
+        private OrderExportRow next;
+
+        OrderIterator(Iterator<OrderExportRow> rows) {
+            this.rows = rows;
+            this.next = rows.hasNext() ? rows.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public OrderDto next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            OrderExportRow row = next;
+            OrderDto orderDto = new OrderDto();
+            orderDto.setOrderId(row.getOrderId());
+            orderDto.setCustomerId(row.getCustomerId());
+            orderDto.setTotalAmount(row.getTotalAmount());
+            orderDto.setStatus(row.getStatus());
+            orderDto.setOrderDate(row.getOrderDate());
+            orderDto.setVersion(row.getVersion());
+            orderDto.setOrderProducts(new ArrayList<>());
+
+            while (row != null && row.getOrderId().equals(orderDto.getOrderId())) {
+                if (row.getProductId() != null) {
+                    orderDto.getOrderProducts().add(new OrderProductDto(row.getOrderId(), row.getProductId(), row.getQuantity(), row.getPrice()));
+                }
+                row = rows.hasNext() ? rows.next() : null;
+            }
+
+            next = row;
+            return orderDto;
+        }
+    }
+}
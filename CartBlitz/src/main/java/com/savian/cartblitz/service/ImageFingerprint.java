@@ -0,0 +1,40 @@
+package com.savian.cartblitz.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+final class ImageFingerprint {
+    private static final int LENGTH = 16;
+
+    private ImageFingerprint() {
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String format(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest()).substring(0, LENGTH);
+    }
+
+    static String of(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(path), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+
+        return format(digest);
+    }
+}
@@ -0,0 +1,7 @@
+package com.savian.cartblitz.service;
+
+import java.util.Map;
+
+public interface InventoryService {
+    void reserveStock(Map<Long, Integer> quantities);
+}
@@ -0,0 +1,78 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.exception.ProductNotFoundException;
+import com.savian.cartblitz.exception.ProductQuantityException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Service
+public class InventoryServiceImpl implements InventoryService {
+    private static final String DECREMENT_STOCK =
+            "UPDATE product SET stock_quantity = stock_quantity - ?, version = version + 1 WHERE product_id = ? AND stock_quantity >= ?";
+    private static final String SELECT_STOCK =
+            "SELECT stock_quantity FROM product WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogCacheService catalogCacheService;
+
+    public InventoryServiceImpl(JdbcTemplate jdbcTemplate, CatalogCacheService catalogCacheService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogCacheService = catalogCacheService;
+    }
+
+    @Override
+    @Transactional
+    public void reserveStock(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(DECREMENT_STOCK, lines, lines.size(), (statement, line) -> {
+            statement.setInt(1, line.getValue());
+            statement.setLong(2, line.getKey());
+            statement.setInt(3, line.getValue());
+        })[0];
+
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] != 1) {
+                Long productId = lines.get(i).getKey();
+                List<Integer> stock = jdbcTemplate.queryForList(SELECT_STOCK, Integer.class, productId);
+
+                if (stock.isEmpty()) {
+                    throw new ProductNotFoundException(productId);
+                }
+
+                log.warn("stock reservation rejected for product {}: requested {}, available {}", productId, lines.get(i).getValue(), stock.get(0));
+                throw new ProductQuantityException(productId, stock.get(0));
+            }
+        }
+
+        evictAfterCommit(quantities.keySet().stream().toList());
+    }
+
+    private void evictAfterCommit(List<Long> productIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogCacheService.evictProductStock(productIds);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                catalogCacheService.evictProductStock(productIds);
+            }
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.savian.cartblitz.service;
 
+import com.savian.cartblitz.dto.OrderDetailView;
 import com.savian.cartblitz.dto.OrderDto;
 import com.savian.cartblitz.model.Order;
 import com.savian.cartblitz.model.OrderStatusEnum;
@@ -11,6 +12,7 @@ import java.util.Optional;
 public interface OrderService {
     List<OrderDto> getAllOrders();
     Optional<OrderDto> getOrderById(Long orderId);
+    Optional<OrderDetailView> getOrderDetailView(Long orderId);
 
     List<OrderDto> getOrdersByCustomerId(Long customerId);
     List<OrderDto> getOrdersByStatus(OrderStatusEnum status);
@@ -18,7 +20,7 @@ public interface OrderService {
 
     OrderDto completeOrder(Long orderId);
     OrderDto modifyTotalAmount(Long orderId, BigDecimal amount);
-    Order applyCoupon(Long orderId, String correlationId);
+    Order applyCoupon(Long orderId, List<String> codes, String correlationId);
 
     OrderDto saveOrder(Long customerId);
     void saveOrUpdateOrder(OrderDto orderDto);
@@ -1,5 +1,10 @@
 package com.savian.cartblitz.service;
 
+import com.savian.cartblitz.config.CartRetryMetrics;
+import com.savian.cartblitz.dto.CouponEvaluationLine;
+import com.savian.cartblitz.dto.CouponEvaluationRequest;
+import com.savian.cartblitz.dto.CouponEvaluationResult;
+import com.savian.cartblitz.dto.OrderDetailView;
 import com.savian.cartblitz.dto.OrderDto;
 import com.savian.cartblitz.exception.CustomerNotFoundException;
 import com.savian.cartblitz.exception.OrderInProgressException;
@@ -7,47 +12,54 @@ import com.savian.cartblitz.exception.OrderNotFoundException;
 import com.savian.cartblitz.mapper.OrderMapper;
 import com.savian.cartblitz.model.*;
 import com.savian.cartblitz.repository.CustomerRepository;
-import com.savian.cartblitz.repository.OrderProductRepository;
 import com.savian.cartblitz.repository.OrderRepository;
-import com.savian.cartblitz.repository.ProductRepository;
+import io.github.resilience4j.retry.annotation.Retry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Slf4j
 @Service
 public class OrderServiceImpl implements OrderService{
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
-    private final ProductRepository productRepository;
-    private final OrderProductRepository orderProductRepository;
     private final OrderMapper orderMapper;
-    private CouponServiceProxy couponServiceProxy;
+    private CouponCacheService couponCacheService;
+    private final InventoryService inventoryService;
+    private final CartStore cartStore;
+    private final TransactionTemplate transactionTemplate;
 
-    public OrderServiceImpl(OrderRepository orderRepository, CustomerRepository customerRepository, ProductRepository productRepository, OrderProductRepository orderProductRepository, OrderMapper orderMapper, CouponServiceProxy couponServiceProxy) {
+    public OrderServiceImpl(OrderRepository orderRepository, CustomerRepository customerRepository, OrderMapper orderMapper, CouponCacheService couponCacheService, InventoryService inventoryService, CartStore cartStore, PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
-        this.productRepository = productRepository;
-        this.orderProductRepository = orderProductRepository;
         this.orderMapper = orderMapper;
-        this.couponServiceProxy = couponServiceProxy;
+        this.couponCacheService = couponCacheService;
+        this.inventoryService = inventoryService;
+        this.cartStore = cartStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getAllOrders() {
         return orderRepository.findAll().stream().map(orderMapper::orderToOrderDto).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<OrderDto> getOrderById(Long orderId) {
-        Optional<Order> order = orderRepository.findById(orderId);
+        Optional<Order> order = orderRepository.findDetailByOrderId(orderId);
 
         if (order.isPresent()){
             return order.map(orderMapper::orderToOrderDto);
@@ -58,105 +70,180 @@ public class OrderServiceImpl implements OrderService{
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public Optional<OrderDetailView> getOrderDetailView(Long orderId) {
+        Optional<Order> order = orderRepository.findDetailByOrderId(orderId);
+
+        if (order.isPresent()){
+            return order.map(orderMapper::orderToOrderDetailView);
+        }
+        else {
+            throw new OrderNotFoundException(orderId);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByCustomerId(Long customerId) {
-        Customer customer = customerRepository.findById(customerId).orElse(null);
-        if (customer != null) {
-            List<Order> orders = customer.getOrders();
-            return orders.stream().map(orderMapper::orderToOrderDto).toList();
+        if (customerRepository.existsById(customerId)) {
+            return orderRepository.findByCustomerCustomerId(customerId).stream().map(orderMapper::orderToOrderDto).toList();
         }
         return Collections.emptyList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByStatus(OrderStatusEnum status) {
         return orderRepository.findByStatus(status).stream().map(orderMapper::orderToOrderDto).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByCustomerIdAndStatus(Long customerId, OrderStatusEnum status) {
         return orderRepository.findByCustomerCustomerIdAndStatus(customerId, status).stream().map(orderMapper::orderToOrderDto).toList();
     }
 
     @Override
+    @Retry(name = CartRetryMetrics.CART_MUTATION)
     public OrderDto completeOrder(Long orderId) {
-        Optional<Order> optOrder = orderRepository.findById(orderId);
-        if (optOrder.isPresent()){
-            Order prevOrder = optOrder.get();
+        cartStore.evict(orderId);
 
-            for(OrderProduct orderProduct: prevOrder.getOrderProducts()){
-                Product product = orderProduct.getProduct();
-                Integer quantity = orderProduct.getQuantity();
+        return transactionTemplate.execute(status -> {
+            Optional<Order> optOrder = orderRepository.findById(orderId);
+            if (optOrder.isPresent()){
+                Order prevOrder = optOrder.get();
 
-                product.setStockQuantity(Math.max(product.getStockQuantity() - quantity, 0));
-                productRepository.save(product);
-            }
+                // A checkout that lost the race (or its retry) finds the order already completed and must not reserve stock again
+                if (prevOrder.getStatus() != OrderStatusEnum.CART) {
+                    return orderMapper.orderToOrderDto(prevOrder);
+                }
 
-            prevOrder.setStatus(OrderStatusEnum.COMPLETED);
-            prevOrder.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
+                Map<Long, Integer> quantities = new HashMap<>();
+                for(OrderProduct orderProduct: prevOrder.getOrderProducts()){
+                    quantities.merge(orderProduct.getProduct().getProductId(), orderProduct.getQuantity(), Integer::sum);
+                }
 
-            Order savedOrder = orderRepository.save(prevOrder);
-            return orderMapper.orderToOrderDto(savedOrder);
-        }
-        else{
-            throw new OrderNotFoundException(orderId);
-        }
+                inventoryService.reserveStock(quantities);
+
+                prevOrder.setStatus(OrderStatusEnum.COMPLETED);
+                prevOrder.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
+
+                Order savedOrder = orderRepository.save(prevOrder);
+                return orderMapper.orderToOrderDto(savedOrder);
+            }
+            else{
+                throw new OrderNotFoundException(orderId);
+            }
+        });
     }
 
     @Override
     public OrderDto modifyTotalAmount(Long orderId, BigDecimal amount) {
-        Optional<Order> optOrder = orderRepository.findById(orderId);
-        if (optOrder.isPresent()){
-            Order prevOrder = optOrder.get();
+        cartStore.evict(orderId);
 
-            prevOrder.setTotalAmount((prevOrder.getTotalAmount().add(amount)).max(BigDecimal.valueOf(0)));
-            prevOrder.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
+        return transactionTemplate.execute(status -> {
+            Optional<Order> optOrder = orderRepository.findById(orderId);
+            if (optOrder.isPresent()){
+                Order prevOrder = optOrder.get();
 
-            Order savedOrder = orderRepository.save(prevOrder);
-            return orderMapper.orderToOrderDto(savedOrder);
-        }
-        else{
-            throw new OrderNotFoundException(orderId);
-        }
+                prevOrder.setTotalAmount((prevOrder.getTotalAmount().add(amount)).max(BigDecimal.valueOf(0)));
+                prevOrder.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
+
+                Order savedOrder = orderRepository.save(prevOrder);
+                return orderMapper.orderToOrderDto(savedOrder);
+            }
+            else{
+                throw new OrderNotFoundException(orderId);
+            }
+        });
     }
 
     @Override
-    public Order applyCoupon(Long orderId, String correlationId) {
-        Optional<Order> optOrder = orderRepository.findById(orderId);
-        if (optOrder.isPresent()) {
-            Order order = optOrder.get();
-            Coupon coupon = couponServiceProxy.getCoupon(correlationId).getBody();
-
-            if(coupon == null){
-                return order;
-            }
+    public Order applyCoupon(Long orderId, List<String> codes, String correlationId) {
+        cartStore.evict(orderId);
+
+        return transactionTemplate.execute(status -> {
+            Optional<Order> optOrder = orderRepository.findById(orderId);
+            if (optOrder.isPresent()) {
+                Order order = optOrder.get();
+
+                CouponEvaluationResult result = evaluateCoupons(order, codes, correlationId);
+
+                if (result != null) {
+                    log.info("correlation-id coupon: {}, version {}, applied {}, unknown {}", correlationId, result.getVersionId(), result.getAppliedCodes(), result.getUnknownCodes());
+
+                    Map<Long, BigDecimal> prices = new HashMap<>();
+                    result.getLines().forEach(line -> prices.put(line.getProductId(), line.getDiscountedUnitPrice()));
+
+                    for(OrderProduct orderProduct: order.getOrderProducts()){
+                        BigDecimal price = prices.get(orderProduct.getProduct().getProductId());
+
+                        if(price != null){
+                            orderProduct.setPrice(price);
+                        }
+                    }
+                }
+                else {
+                    Coupon coupon = codes.isEmpty() ? couponCacheService.getCoupon(correlationId) : null;
+
+                    if(coupon == null){
+                        return order;
+                    }
 
-            log.info(coupon.getVersionId());
-            log.info("correlation-id coupon: {}", correlationId);
+                    log.info("correlation-id coupon: {}, cached version {}", correlationId, coupon.getVersionId());
 
-            BigDecimal newTotal = BigDecimal.ZERO;
+                    BigDecimal percentPaid = BigDecimal.valueOf(100L - coupon.getDiscount());
 
-            for(OrderProduct orderProduct: order.getOrderProducts()){
-                Product product = productRepository.getReferenceById(orderProduct.getProduct().getProductId());
+                    for(OrderProduct orderProduct: order.getOrderProducts()){
+                        Product product = orderProduct.getProduct();
 
-                if(coupon.getProductCategory().equalsIgnoreCase(product.getCategory())){
-                    double percentPaid = (100 - coupon.getDiscount()) / 100.0;
+                        if(coupon.getProductCategory().equalsIgnoreCase(product.getCategory())){
+                            orderProduct.setPrice(product.getPrice().multiply(percentPaid).divide(ONE_HUNDRED, 2, RoundingMode.HALF_UP));
+                        }
+                    }
+                }
 
-                    orderProduct.setPrice(product.getPrice().multiply(BigDecimal.valueOf(percentPaid)));
+                BigDecimal newTotal = BigDecimal.ZERO;
 
-                    orderProductRepository.save(orderProduct);
+                for(OrderProduct orderProduct: order.getOrderProducts()){
+                    newTotal = newTotal.add(orderProduct.getPrice().multiply(BigDecimal.valueOf(orderProduct.getQuantity())));
                 }
 
-                newTotal = newTotal.add(orderProduct.getPrice());
+                order.setTotalAmount(newTotal);
+
+                return orderRepository.save(order);
+            }
+            else{
+                throw new OrderNotFoundException(orderId);
             }
+        });
+    }
 
-            order.setTotalAmount(newTotal);
+    private CouponEvaluationResult evaluateCoupons(Order order, List<String> codes, String correlationId) {
+        try {
+            return couponCacheService.evaluate(correlationId, toEvaluationRequest(order, codes));
+        }
+        catch (RuntimeException e) {
+            if (!codes.isEmpty()) {
+                throw e;
+            }
 
-            return orderRepository.save(order);
+            log.warn("correlation-id coupon: {}, evaluation unavailable, falling back to the cached coupon: {}", correlationId, e.toString());
+            return null;
         }
-        else{
-            throw new OrderNotFoundException(orderId);
+    }
+
+    private CouponEvaluationRequest toEvaluationRequest(Order order, List<String> codes) {
+        List<CouponEvaluationLine> lines = new ArrayList<>(order.getOrderProducts().size());
+
+        for(OrderProduct orderProduct: order.getOrderProducts()){
+            Product product = orderProduct.getProduct();
+            List<String> tags = product.getTags().stream().map(Tag::getName).toList();
+
+            lines.add(new CouponEvaluationLine(product.getProductId(), product.getCategory(), product.getBrand(), tags, product.getPrice(), orderProduct.getQuantity()));
         }
+
+        return new CouponEvaluationRequest(codes, lines);
     }
 
     @Override
@@ -172,8 +259,13 @@ public class OrderServiceImpl implements OrderService{
             order.setStatus(OrderStatusEnum.CART);
             order.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
 
-            Order savedOrder = orderRepository.save(order);
-            return orderMapper.orderToOrderDto(savedOrder);
+            try {
+                Order savedOrder = orderRepository.saveAndFlush(order);
+                return orderMapper.orderToOrderDto(savedOrder);
+            }
+            catch (DataIntegrityViolationException e) {
+                throw new OrderInProgressException();
+            }
         }
         else {
             throw new OrderInProgressException();
@@ -182,48 +274,62 @@ public class OrderServiceImpl implements OrderService{
 
     @Override
     public void saveOrUpdateOrder(OrderDto orderDto) {
+        if (orderDto.getOrderId() != null) {
+            cartStore.evict(orderDto.getOrderId());
+        }
+
         orderRepository.save(orderMapper.orderDtoToOrder(orderDto));
     }
 
     @Override
     public OrderDto updateOrder(Long orderId, Long customerId) {
-        Optional<Order> optOrder = orderRepository.findById(orderId);
-        if (optOrder.isPresent()){
-            Order prevOrder = optOrder.get();
+        cartStore.evict(orderId);
 
-            Customer customer = customerRepository.findById(customerId)
-                    .orElseThrow(() -> new CustomerNotFoundException(customerId));
+        return transactionTemplate.execute(status -> {
+            Optional<Order> optOrder = orderRepository.findById(orderId);
+            if (optOrder.isPresent()){
+                Order prevOrder = optOrder.get();
 
-            prevOrder.setCustomer(customer);
-            prevOrder.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
+                Customer customer = customerRepository.findById(customerId)
+                        .orElseThrow(() -> new CustomerNotFoundException(customerId));
 
-            Order savedOrder = orderRepository.save(prevOrder);
-            return orderMapper.orderToOrderDto(savedOrder);
-        }
-        else{
-            throw new OrderNotFoundException(orderId);
-        }
+                prevOrder.setCustomer(customer);
+                prevOrder.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
+
+                Order savedOrder = orderRepository.save(prevOrder);
+                return orderMapper.orderToOrderDto(savedOrder);
+            }
+            else{
+                throw new OrderNotFoundException(orderId);
+            }
+        });
     }
 
     @Override
     public void updateTotalAmount(Long orderId, BigDecimal amount) {
-        Optional<Order> optOrder = orderRepository.findById(orderId);
-        if (optOrder.isPresent()){
-            Order prevOrder = optOrder.get();
+        cartStore.evict(orderId);
 
-            prevOrder.setTotalAmount(amount);
-            prevOrder.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
+        transactionTemplate.executeWithoutResult(status -> {
+            Optional<Order> optOrder = orderRepository.findById(orderId);
+            if (optOrder.isPresent()){
+                Order prevOrder = optOrder.get();
 
-            Order savedOrder = orderRepository.save(prevOrder);
-            orderMapper.orderToOrderDto(savedOrder);
-        }
-        else{
-            throw new OrderNotFoundException(orderId);
-        }
+                prevOrder.setTotalAmount(amount);
+                prevOrder.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
+
+                Order savedOrder = orderRepository.save(prevOrder);
+                orderMapper.orderToOrderDto(savedOrder);
+            }
+            else{
+                throw new OrderNotFoundException(orderId);
+            }
+        });
     }
 
     @Override
     public void removeOrderById(Long orderId) {
+        cartStore.discard(orderId);
+
         Optional<Order> order = orderRepository.findById(orderId);
         if(order.isPresent()){
             orderRepository.deleteById(orderId);
@@ -0,0 +1,11 @@
+package com.savian.cartblitz.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface ProductImageProcessor {
+    void reserve(int count);
+    void release(int count);
+    void submit(String category, Long productId, int index, byte[] imageBytes);
+    void writeVariant(Path source, Path target, int width) throws IOException;
+}
@@ -0,0 +1,185 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.config.ProductImageProperties;
+import com.savian.cartblitz.exception.ProductImageQueueFullException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class ProductImageProcessorImpl implements ProductImageProcessor {
+    private final ProductImageService productImageService;
+    private final ProductImageProperties productImageProperties;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+
+    public ProductImageProcessorImpl(ProductImageService productImageService, ProductImageProperties productImageProperties) {
+        this.productImageService = productImageService;
+        this.productImageProperties = productImageProperties;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                productImageProperties.getWorkerThreads(),
+                productImageProperties.getWorkerThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(productImageProperties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "product-image-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.slots = new Semaphore(productImageProperties.getWorkerThreads() + productImageProperties.getQueueCapacity());
+    }
+
+    @Override
+    public void reserve(int count) {
+        if (!slots.tryAcquire(count)) {
+            throw new ProductImageQueueFullException();
+        }
+    }
+
+    @Override
+    public void release(int count) {
+        if (count > 0) {
+            slots.release(count);
+        }
+    }
+
+    @Override
+    public void submit(String category, Long productId, int index, byte[] imageBytes) {
+        productImageService.markPending(productId);
+
+        try {
+            executor.execute(() -> {
+                try {
+                    process(category, productId, index, imageBytes);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            productImageService.completePending(productId);
+            throw e;
+        }
+    }
+
+    @Override
+    public void writeVariant(Path source, Path target, int width) throws IOException {
+        BufferedImage sourceImage = ImageIO.read(source.toFile());
+
+        if (sourceImage == null) {
+            throw new IOException("unsupported image format: " + source);
+        }
+
+        writeJpeg(resize(sourceImage, width), target);
+    }
+
+    void process(String category, Long productId, int index, byte[] imageBytes) {
+        try {
+            BufferedImage originalImage = ImageIO.read(new ByteArrayInputStream(imageBytes));
+
+            if (originalImage == null) {
+                log.error("unsupported image format for product {} image {}", productId, index);
+                return;
+            }
+
+            BufferedImage detailImage = resize(originalImage, productImageProperties.getDetailSize());
+
+            for (Integer width : productImageProperties.getVariantSizes()) {
+                writeJpeg(resize(detailImage, width), productImageService.getVariantPath(category, productId, index, width));
+            }
+            String fingerprint = writeJpeg(detailImage, productImageService.getImagePath(category, productId, index));
+
+            productImageService.registerImage(category, productId, index, fingerprint);
+
+            log.info("processed image {} for product {}", index, productId);
+        } catch (IOException e) {
+            log.error("could not process image {} for product {}: {}", index, productId, e.toString());
+        } finally {
+            productImageService.completePending(productId);
+        }
+    }
+
+    private BufferedImage resize(BufferedImage image, int size) {
+        BufferedImage resizedImage = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = resizedImage.createGraphics();
+
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, size, size);
+            g2d.drawImage(image, 0, 0, size, size, null);
+        } finally {
+            g2d.dispose();
+        }
+
+        return resizedImage;
+    }
+
+    private String writeJpeg(BufferedImage image, Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path tempPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        MessageDigest digest = ImageFingerprint.newDigest();
+
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+            try (OutputStream outputStream = new DigestOutputStream(Files.newOutputStream(tempPath), digest);
+                 ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(productImageProperties.getJpegQuality());
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+                writer.setOutput(imageOutputStream);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            return ImageFingerprint.format(digest);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException deleteException) {
+                e.addSuppressed(deleteException);
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("image processing did not finish before shutdown, {} jobs dropped", executor.shutdownNow().size());
+        }
+    }
+}
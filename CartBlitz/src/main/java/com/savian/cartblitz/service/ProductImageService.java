@@ -0,0 +1,19 @@
+package com.savian.cartblitz.service;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public interface ProductImageService {
+    int getImageCount(Long productId);
+    boolean isPending(Long productId);
+    List<String> getImagePaths(Long productId);
+    String getFingerprint(Long productId, int index);
+    Path getImagePath(String category, Long productId, int index);
+    Path getVariantPath(String category, Long productId, int index, int width);
+
+    void rebuildManifest();
+    void registerImage(String category, Long productId, int index, String fingerprint);
+    void markPending(Long productId);
+    void completePending(Long productId);
+    void removeProduct(Long productId);
+}
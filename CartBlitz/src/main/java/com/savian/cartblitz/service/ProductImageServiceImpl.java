@@ -0,0 +1,155 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.config.ProductImageProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class ProductImageServiceImpl implements ProductImageService {
+    private static final Pattern IMAGE_NAME = Pattern.compile("(\\d+)_(\\d+)\\.jpg");
+
+    private final ProductImageProperties productImageProperties;
+
+    private volatile Map<Long, ProductImages> manifest = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> pendingImages = new ConcurrentHashMap<>();
+
+    public ProductImageServiceImpl(ProductImageProperties productImageProperties) {
+        this.productImageProperties = productImageProperties;
+    }
+
+    @Override
+    public int getImageCount(Long productId) {
+        ProductImages images = manifest.get(productId);
+        return images == null ? 0 : images.count();
+    }
+
+    @Override
+    public boolean isPending(Long productId) {
+        return pendingImages.containsKey(productId);
+    }
+
+    @Override
+    public List<String> getImagePaths(Long productId) {
+        ProductImages images = manifest.get(productId);
+
+        if (images == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> paths = new ArrayList<>();
+        for (int index = 1; index <= images.count(); index++) {
+            paths.add("/images/products/" + images.category() + "/" + productId + "_" + index + ".jpg");
+        }
+
+        return paths;
+    }
+
+    @Override
+    public String getFingerprint(Long productId, int index) {
+        ProductImages images = manifest.get(productId);
+        return images == null ? null : images.fingerprints().get(index);
+    }
+
+    @Override
+    public Path getImagePath(String category, Long productId, int index) {
+        return Paths.get(productImageProperties.getProductsDir(), category, productId + "_" + index + ".jpg");
+    }
+
+    @Override
+    public Path getVariantPath(String category, Long productId, int index, int width) {
+        return Paths.get(productImageProperties.getProductsDir(), category, productId + "_" + index + "_" + width + ".jpg");
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildManifest() {
+        Path root = Paths.get(productImageProperties.getProductsDir());
+        Map<Long, ProductImages> newManifest = new ConcurrentHashMap<>();
+
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.walk(root, 2)) {
+                files.filter(Files::isRegularFile).forEach(file -> {
+                    Matcher matcher = IMAGE_NAME.matcher(file.getFileName().toString());
+
+                    if (matcher.matches()) {
+                        String category = file.getParent().getFileName().toString();
+                        newManifest.merge(Long.valueOf(matcher.group(1)),
+                                ProductImages.of(category, Integer.parseInt(matcher.group(2)), fingerprint(file)),
+                                ProductImages::merge);
+                    }
+                });
+            } catch (IOException e) {
+                log.error("could not scan product images in {}: {}", root, e.toString());
+            }
+        }
+
+        manifest = newManifest;
+
+        log.info("product image manifest built for {} products", newManifest.size());
+    }
+
+    @Override
+    public void registerImage(String category, Long productId, int index, String fingerprint) {
+        manifest.merge(productId, ProductImages.of(category, index, fingerprint), ProductImages::merge);
+    }
+
+    @Override
+    public void markPending(Long productId) {
+        pendingImages.merge(productId, 1, Integer::sum);
+    }
+
+    @Override
+    public void completePending(Long productId) {
+        pendingImages.computeIfPresent(productId, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    @Override
+    public void removeProduct(Long productId) {
+        manifest.remove(productId);
+        pendingImages.remove(productId);
+    }
+
+    private String fingerprint(Path file) {
+        try {
+            return ImageFingerprint.of(file);
+        } catch (IOException e) {
+            log.warn("could not fingerprint product image {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    private record ProductImages(String category, SortedMap<Integer, String> fingerprints) {
+        static ProductImages of(String category, int index, String fingerprint) {
+            SortedMap<Integer, String> fingerprints = new TreeMap<>();
+            fingerprints.put(index, fingerprint);
+            return new ProductImages(category, Collections.unmodifiableSortedMap(fingerprints));
+        }
+
+        ProductImages merge(ProductImages other) {
+            SortedMap<Integer, String> merged = new TreeMap<>(fingerprints);
+            merged.putAll(other.fingerprints());
+            return new ProductImages(other.category(), Collections.unmodifiableSortedMap(merged));
+        }
+
+        int count() {
+            int count = 0;
+            while (fingerprints.containsKey(count + 1)) {
+                count++;
+            }
+            return count;
+        }
+    }
+}
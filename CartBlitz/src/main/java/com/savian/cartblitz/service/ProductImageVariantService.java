@@ -0,0 +1,10 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.dto.ProductImageVariant;
+
+import java.util.Optional;
+
+public interface ProductImageVariantService {
+    Optional<ProductImageVariant> getVariant(String category, Long productId, int index, Integer width);
+    String getImageUrl(String category, Long productId, int index, Integer width);
+}
@@ -0,0 +1,125 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.config.ProductImageProperties;
+import com.savian.cartblitz.dto.ProductImageVariant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service("productImageVariantService")
+public class ProductImageVariantServiceImpl implements ProductImageVariantService {
+    private final ProductImageService productImageService;
+    private final ProductImageProcessor productImageProcessor;
+    private final ProductImageProperties productImageProperties;
+
+    private final Map<Path, FileHash> hashes = new ConcurrentHashMap<>();
+    private final Map<Path, Object> generationLocks = new ConcurrentHashMap<>();
+
+    public ProductImageVariantServiceImpl(ProductImageService productImageService, ProductImageProcessor productImageProcessor, ProductImageProperties productImageProperties) {
+        this.productImageService = productImageService;
+        this.productImageProcessor = productImageProcessor;
+        this.productImageProperties = productImageProperties;
+    }
+
+    @Override
+    public Optional<ProductImageVariant> getVariant(String category, Long productId, int index, Integer width) {
+        Path original = productImageService.getImagePath(category, productId, index);
+
+        try {
+            if (!Files.isRegularFile(original)) {
+                return Optional.empty();
+            }
+
+            Path variant = resolveVariant(category, productId, index, original, resolveWidth(width));
+
+            return Optional.of(new ProductImageVariant(variant, hash(variant), hash(original)));
+        } catch (IOException e) {
+            log.error("could not read image {} for product {}: {}", index, productId, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String getImageUrl(String category, Long productId, int index, Integer width) {
+        String fingerprint = productImageService.getFingerprint(productId, index);
+
+        return UriComponentsBuilder.fromPath("/images/products/{category}/{productId}_{index}.jpg")
+                .queryParamIfPresent("w", Optional.ofNullable(width))
+                .queryParamIfPresent("v", Optional.ofNullable(fingerprint))
+                .buildAndExpand(category, productId, index)
+                .toUriString();
+    }
+
+    private Integer resolveWidth(Integer width) {
+        if (width == null || width <= 0 || width >= productImageProperties.getDetailSize()) {
+            return null;
+        }
+
+        return productImageProperties.getServedWidths().stream()
+                .filter(servedWidth -> servedWidth >= width && servedWidth < productImageProperties.getDetailSize())
+                .min(Integer::compare)
+                .orElse(null);
+    }
+
+    private Path resolveVariant(String category, Long productId, int index, Path original, Integer width) throws IOException {
+        if (width == null) {
+            return original;
+        }
+
+        Path pregenerated = productImageService.getVariantPath(category, productId, index, width);
+        if (isFresh(pregenerated, original)) {
+            return pregenerated;
+        }
+
+        Path cached = Paths.get(productImageProperties.getCacheDir(), category, productId + "_" + index + "_" + width + ".jpg");
+        if (isFresh(cached, original)) {
+            return cached;
+        }
+
+        synchronized (generationLocks.computeIfAbsent(cached, key -> new Object())) {
+            if (!isFresh(cached, original)) {
+                try {
+                    productImageProcessor.writeVariant(original, cached, width);
+                    log.info("generated {}px variant of image {} for product {}", width, index, productId);
+                } catch (IOException e) {
+                    log.error("could not generate {}px variant of image {} for product {}: {}", width, index, productId, e.toString());
+                    return original;
+                }
+            }
+        }
+
+        return cached;
+    }
+
+    private boolean isFresh(Path variant, Path original) throws IOException {
+        return Files.isRegularFile(variant)
+                && Files.getLastModifiedTime(variant).compareTo(Files.getLastModifiedTime(original)) >= 0;
+    }
+
+    private String hash(Path path) throws IOException {
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        long size = Files.size(path);
+
+        FileHash fileHash = hashes.get(path);
+        if (fileHash != null && fileHash.lastModified() == lastModified && fileHash.size() == size) {
+            return fileHash.hash();
+        }
+
+        String hash = ImageFingerprint.of(path);
+        hashes.put(path, new FileHash(lastModified, size, hash));
+
+        return hash;
+    }
+
+    private record FileHash(long lastModified, long size, String hash) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.dto.ProductRatingDto;
+
+public interface ProductRatingService {
+    void addRating(Long productId, int rating);
+    void removeRating(Long productId, int rating);
+    ProductRatingDto getRating(Long productId);
+}
@@ -0,0 +1,58 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.dto.ProductRatingDto;
+import com.savian.cartblitz.model.ProductRatingStats;
+import com.savian.cartblitz.repository.ProductRatingStatsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ProductRatingServiceImpl implements ProductRatingService {
+    private final ProductRatingStatsRepository productRatingStatsRepository;
+
+    public ProductRatingServiceImpl(ProductRatingStatsRepository productRatingStatsRepository) {
+        this.productRatingStatsRepository = productRatingStatsRepository;
+    }
+
+    @Override
+    @Transactional
+    public void addRating(Long productId, int rating) {
+        productRatingStatsRepository.upsertDelta(productId, 1, rating,
+                rating == 1 ? 1 : 0,
+                rating == 2 ? 1 : 0,
+                rating == 3 ? 1 : 0,
+                rating == 4 ? 1 : 0,
+                rating == 5 ? 1 : 0);
+    }
+
+    @Override
+    @Transactional
+    public void removeRating(Long productId, int rating) {
+        applyDelta(productId, rating, -1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductRatingDto getRating(Long productId) {
+        ProductRatingStats stats = productRatingStatsRepository.findById(productId).orElseGet(() -> new ProductRatingStats(productId));
+
+        ProductRatingDto productRatingDto = new ProductRatingDto();
+        productRatingDto.setReviewCount(stats.getReviewCount());
+        productRatingDto.setAverageRating(stats.getAverageRating());
+        productRatingDto.getHistogram().put(1, stats.getOneStar());
+        productRatingDto.getHistogram().put(2, stats.getTwoStars());
+        productRatingDto.getHistogram().put(3, stats.getThreeStars());
+        productRatingDto.getHistogram().put(4, stats.getFourStars());
+        productRatingDto.getHistogram().put(5, stats.getFiveStars());
+        return productRatingDto;
+    }
+
+    private int applyDelta(Long productId, int rating, int delta) {
+        return productRatingStatsRepository.applyDelta(productId, delta, (long) delta * rating,
+                rating == 1 ? delta : 0,
+                rating == 2 ? delta : 0,
+                rating == 3 ? delta : 0,
+                rating == 4 ? delta : 0,
+                rating == 5 ? delta : 0);
+    }
+}
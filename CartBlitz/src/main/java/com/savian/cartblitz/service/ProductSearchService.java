@@ -0,0 +1,15 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductSearchService {
+    List<Long> search(String query);
+
+    void rebuildIndex();
+    void indexProduct(Product product);
+    void reindexProducts(Collection<Long> productIds);
+    void removeProduct(Long productId);
+}
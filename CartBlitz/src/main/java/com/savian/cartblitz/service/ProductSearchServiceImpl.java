@@ -0,0 +1,255 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.model.Tag;
+import com.savian.cartblitz.repository.ProductRepository;
+import com.savian.cartblitz.repository.TagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int NAME_WEIGHT = 8;
+    private static final int BRAND_WEIGHT = 4;
+    private static final int TAG_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ProductRepository productRepository;
+    private final TagRepository tagRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    // updates made while a rebuild is reading products; a null document marks a removal
+    private Map<Long, Map<String, Integer>> pendingUpdates;
+
+    public ProductSearchServiceImpl(ProductRepository productRepository, TagRepository tagRepository) {
+        this.productRepository = productRepository;
+        this.tagRepository = tagRepository;
+    }
+
+    @Override
+    public List<Long> search(String query) {
+        List<String> queryTokens = tokenize(query).stream().distinct().toList();
+
+        lock.readLock().lock();
+        try {
+            if (queryTokens.isEmpty()) {
+                return documents.keySet().stream().sorted().toList();
+            }
+
+            Map<Long, Integer> scores = null;
+
+            for (String queryToken : queryTokens) {
+                Map<Long, Integer> tokenScores = new HashMap<>();
+
+                for (Map.Entry<String, Map<Long, Integer>> entry : postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).entrySet()) {
+                    int multiplier = entry.getKey().equals(queryToken) ? 2 : 1;
+                    entry.getValue().forEach((productId, weight) -> tokenScores.merge(productId, weight * multiplier, Integer::sum));
+                }
+
+                if (scores == null) {
+                    scores = tokenScores;
+                }
+                else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((productId, score) -> score + tokenScores.get(productId));
+                }
+
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIndex() {
+        NavigableMap<String, Map<Long, Integer>> newPostings = new TreeMap<>();
+        Map<Long, Map<String, Integer>> newDocuments = new HashMap<>();
+
+        lock.writeLock().lock();
+        try {
+            pendingUpdates = new HashMap<>();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            for (Product product : productRepository.findAll()) {
+                index(newPostings, newDocuments, product.getProductId(), buildDocument(product));
+            }
+        }
+        catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingUpdates = null;
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingUpdates.forEach((productId, document) -> {
+                unindex(newPostings, newDocuments, productId);
+
+                if (document != null) {
+                    index(newPostings, newDocuments, productId, document);
+                }
+            });
+            pendingUpdates = null;
+            postings = newPostings;
+            documents = newDocuments;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("product search index built for {} products and {} tokens", newDocuments.size(), newPostings.size());
+    }
+
+    @Override
+    public void indexProduct(Product product) {
+        if (product == null || product.getProductId() == null) {
+            return;
+        }
+
+        Map<String, Integer> document = buildDocument(product);
+
+        lock.writeLock().lock();
+        try {
+            unindex(postings, documents, product.getProductId());
+            index(postings, documents, product.getProductId(), document);
+
+            if (pendingUpdates != null) {
+                pendingUpdates.put(product.getProductId(), document);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindexProducts(Collection<Long> productIds) {
+        Set<Long> missingProductIds = new HashSet<>(productIds);
+
+        for (Product product : productRepository.findAllById(productIds)) {
+            indexProduct(product);
+            missingProductIds.remove(product.getProductId());
+        }
+
+        missingProductIds.forEach(this::removeProduct);
+    }
+
+    @Override
+    public void removeProduct(Long productId) {
+        lock.writeLock().lock();
+        try {
+            unindex(postings, documents, productId);
+
+            if (pendingUpdates != null) {
+                pendingUpdates.put(productId, null);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(NavigableMap<String, Map<Long, Integer>> postings, Map<Long, Map<String, Integer>> documents, Long productId, Map<String, Integer> document) {
+        documents.put(productId, document);
+        document.forEach((token, weight) -> postings.computeIfAbsent(token, key -> new HashMap<>()).put(productId, weight));
+    }
+
+    private void unindex(NavigableMap<String, Map<Long, Integer>> postings, Map<Long, Map<String, Integer>> documents, Long productId) {
+        Map<String, Integer> document = documents.remove(productId);
+
+        if (document == null) {
+            return;
+        }
+
+        for (String token : document.keySet()) {
+            Map<Long, Integer> posting = postings.get(token);
+
+            if (posting != null) {
+                posting.remove(productId);
+
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private Map<String, Integer> buildDocument(Product product) {
+        Map<String, Integer> document = new HashMap<>();
+
+        addField(document, product.getName(), NAME_WEIGHT);
+        addField(document, product.getBrand(), BRAND_WEIGHT);
+        addField(document, product.getCategory(), CATEGORY_WEIGHT);
+        addField(document, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        for (Tag tag : getTags(product)) {
+            addField(document, tag.getName(), TAG_WEIGHT);
+        }
+
+        return document;
+    }
+
+    private List<Tag> getTags(Product product) {
+        if (product.getTags() == null) {
+            return Collections.emptyList();
+        }
+        else if (Hibernate.isInitialized(product.getTags())) {
+            return product.getTags();
+        }
+        else {
+            return tagRepository.findByProductsProductId(product.getProductId());
+        }
+    }
+
+    private void addField(Map<String, Integer> document, String value, int weight) {
+        for (String token : tokenize(value)) {
+            document.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private List<String> tokenize(String value) {
+        if (value == null || value.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(TOKEN_SEPARATOR.split(value.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+}
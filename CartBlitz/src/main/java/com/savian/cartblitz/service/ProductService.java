@@ -1,25 +1,34 @@
 package com.savian.cartblitz.service;
 
+import com.savian.cartblitz.dto.ProductDetailView;
 import com.savian.cartblitz.dto.ProductDto;
+import com.savian.cartblitz.dto.ProductPageDto;
+import com.savian.cartblitz.dto.ProductSummary;
 import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.repository.ProductQuery;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductService {
-    List<ProductDto> getAllProducts();
     Optional<Product> getProductById(Long productId);
+    Optional<ProductDto> getProductDetailById(Long productId);
+    Optional<ProductDetailView> getProductDetailView(Long productId);
 
-    List<ProductDto> getProductsByCategory(String category);
-    List<ProductDto> getProductsByBrand(String brand);
-    List<ProductDto> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
-    List<ProductDto> getProductsByTagId(Long tagId);
-    List<ProductDto> sortProducts(List<ProductDto> products, String sortBy, String sortOrder);
-    List<ProductDto> filterProductsMinPriceMaxPrice(List<ProductDto> products, BigDecimal minPrice, BigDecimal maxPrice);
-    List<ProductDto> searchProducts(String search);
+    List<ProductSummary> getProductsByCategory(String category);
+    List<ProductSummary> getProductsByTagId(Long tagId);
+    ProductPageDto getProductsPage(Long after, Long before, int size);
+    ProductPageDto getProductsByCategoryPage(String category, Long after, Long before, int size);
+    ProductPageDto getProductsByBrandPage(String brand, Long after, Long before, int size);
+    ProductPageDto getProductsByPriceRangePage(BigDecimal minPrice, BigDecimal maxPrice, Long after, Long before, int size);
+    List<ProductSummary> findProducts(ProductQuery query);
+    List<ProductSummary> sortProducts(List<ProductSummary> products, String sortBy, String sortOrder);
+    List<ProductSummary> filterProductsMinPriceMaxPrice(List<ProductSummary> products, BigDecimal minPrice, BigDecimal maxPrice);
+    List<ProductSummary> searchProducts(String search);
     Product updateStockQuantity(Long productId, Integer stockQuantity);
-    int getNumImagesForProduct(String category, Long productId);
+    int getNumImagesForProduct(Long productId);
+    boolean hasPendingImages(Long productId);
 
     Product saveProduct(ProductDto productDto);
     Product updateProduct(Long productId, ProductDto productDto);
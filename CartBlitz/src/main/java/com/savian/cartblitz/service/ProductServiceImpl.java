@@ -1,17 +1,23 @@
 package com.savian.cartblitz.service;
 
+import com.savian.cartblitz.dto.ProductDetailView;
 import com.savian.cartblitz.dto.ProductDto;
+import com.savian.cartblitz.dto.ProductPageDto;
+import com.savian.cartblitz.dto.ProductSummary;
 import com.savian.cartblitz.exception.ProductNotFoundException;
 import com.savian.cartblitz.exception.TagNotFoundException;
 import com.savian.cartblitz.mapper.ProductMapper;
 import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.repository.ProductQuery;
 import com.savian.cartblitz.repository.ProductRepository;
 import com.savian.cartblitz.repository.TagRepository;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.File;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,19 +25,21 @@ public class ProductServiceImpl implements ProductService{
     private final ProductRepository productRepository;
     private final TagRepository tagRepository;
     private final ProductMapper productMapper;
+    private final ProductSearchService productSearchService;
+    private final ProductImageService productImageService;
+    private final ProductRatingService productRatingService;
 
-    public ProductServiceImpl(ProductRepository productRepository, TagRepository tagRepository, ProductMapper productMapper) {
+    public ProductServiceImpl(ProductRepository productRepository, TagRepository tagRepository, ProductMapper productMapper, ProductSearchService productSearchService, ProductImageService productImageService, ProductRatingService productRatingService) {
         this.productRepository = productRepository;
         this.tagRepository = tagRepository;
         this.productMapper = productMapper;
+        this.productSearchService = productSearchService;
+        this.productImageService = productImageService;
+        this.productRatingService = productRatingService;
     }
 
     @Override
-    public List<ProductDto> getAllProducts() {
-        return productRepository.findAll().stream().map(productMapper::productToProductDto).toList();
-    }
-
-    @Override
+    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long productId) {
         Optional<Product> product = productRepository.findById(productId);
         if (product.isPresent()) {
@@ -43,39 +51,92 @@ public class ProductServiceImpl implements ProductService{
     }
 
     @Override
-    public List<ProductDto> getProductsByCategory(String category) {
-        return productRepository.findByCategoryIgnoreCase(category).stream().map(productMapper::productToProductDto).toList();
+    @Transactional(readOnly = true)
+    public Optional<ProductDto> getProductDetailById(Long productId) {
+        Optional<Product> product = productRepository.findDetailByProductId(productId);
+        if (product.isPresent()) {
+            ProductDto productDto = productMapper.productToProductDto(product.get());
+            productDto.setRating(productRatingService.getRating(productId));
+            return Optional.of(productDto);
+        }
+        else {
+            throw new ProductNotFoundException(productId);
+        }
     }
 
     @Override
-    public List<ProductDto> getProductsByBrand(String brand) {
-        return productRepository.findByBrandIgnoreCase(brand).stream().map(productMapper::productToProductDto).toList();
+    @Transactional(readOnly = true)
+    public Optional<ProductDetailView> getProductDetailView(Long productId) {
+        Optional<Product> product = productRepository.findDetailByProductId(productId);
+        if (product.isPresent()) {
+            ProductDetailView productDetailView = productMapper.productToProductDetailView(product.get());
+            productDetailView.setRating(productRatingService.getRating(productId));
+            return Optional.of(productDetailView);
+        }
+        else {
+            throw new ProductNotFoundException(productId);
+        }
     }
 
     @Override
-    public List<ProductDto> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return productRepository.findByPriceBetween(minPrice, maxPrice).stream().map(productMapper::productToProductDto).toList();
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getProductsByCategory(String category) {
+        return findProducts(ProductQuery.builder().category(category).build());
     }
 
     @Override
-    public List<ProductDto> getProductsByTagId(Long tagId) {
+    @Transactional(readOnly = true)
+    public List<ProductSummary> getProductsByTagId(Long tagId) {
         tagRepository.findById(tagId).orElseThrow(() -> new TagNotFoundException(tagId));
 
-        return productRepository.findByTagsTagId(tagId).stream().map(productMapper::productToProductDto).toList();
+        return findProducts(ProductQuery.builder().tagId(tagId).build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageDto getProductsPage(Long after, Long before, int size) {
+        return getPage(ProductQuery.builder(), after, before, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageDto getProductsByCategoryPage(String category, Long after, Long before, int size) {
+        return getPage(ProductQuery.builder().category(category), after, before, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageDto getProductsByBrandPage(String brand, Long after, Long before, int size) {
+        return getPage(ProductQuery.builder().brand(brand), after, before, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageDto getProductsByPriceRangePage(BigDecimal minPrice, BigDecimal maxPrice, Long after, Long before, int size) {
+        return getPage(ProductQuery.builder().minPrice(minPrice).maxPrice(maxPrice), after, before, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSummary> findProducts(ProductQuery query) {
+        return withImageCounts(productRepository.findSummaries(query));
     }
 
     @Override
-    public List<ProductDto> sortProducts(List<ProductDto> products, String sortBy, String sortOrder) {
-        Comparator<ProductDto> comparator;
+    public List<ProductSummary> sortProducts(List<ProductSummary> products, String sortBy, String sortOrder) {
+        Comparator<ProductSummary> comparator;
         switch (sortBy) {
             case "brand":
-                comparator = Comparator.comparing(ProductDto::getBrand);
+                comparator = Comparator.comparing(ProductSummary::getBrand);
                 break;
             case "name":
-                comparator = Comparator.comparing(ProductDto::getName);
+                comparator = Comparator.comparing(ProductSummary::getName);
                 break;
             case "price":
-                comparator = Comparator.comparing(ProductDto::getPrice);
+                comparator = Comparator.comparing(ProductSummary::getPrice);
+                break;
+            case ProductQuery.RATING_SORT:
+                comparator = Comparator.comparing(ProductSummary::getAverageRating, Comparator.nullsFirst(Comparator.naturalOrder()));
                 break;
             default:
                 return products;
@@ -85,17 +146,17 @@ public class ProductServiceImpl implements ProductService{
             comparator = comparator.reversed();
         }
 
-        List<ProductDto> sortedProducts = new ArrayList<>(products);
+        List<ProductSummary> sortedProducts = new ArrayList<>(products);
         sortedProducts.sort(comparator);
 
         return sortedProducts;
     }
 
     @Override
-    public List<ProductDto> filterProductsMinPriceMaxPrice(List<ProductDto> products, BigDecimal minPrice, BigDecimal maxPrice) {
-        List<ProductDto> filteredProducts = new ArrayList<>();
+    public List<ProductSummary> filterProductsMinPriceMaxPrice(List<ProductSummary> products, BigDecimal minPrice, BigDecimal maxPrice) {
+        List<ProductSummary> filteredProducts = new ArrayList<>();
 
-        for (ProductDto product : products) {
+        for (ProductSummary product : products) {
             BigDecimal price = product.getPrice();
 
             if (price.compareTo(minPrice) >= 0 && price.compareTo(maxPrice) <= 0) {
@@ -107,23 +168,21 @@ public class ProductServiceImpl implements ProductService{
     }
 
     @Override
-    public List<ProductDto> searchProducts(String search) {
-        List<Product> byBrand = productRepository.findByBrandContainingIgnoreCase(search);
-        List<Product> byCategory = productRepository.findByCategoryContainingIgnoreCase(search);
-        List<Product> byDescription = productRepository.findByDescriptionContainingIgnoreCase(search);
-        List<Product> byName = productRepository.findByNameContainingIgnoreCase(search);
-        List<Product> byTag = productRepository.findByTagsNameIgnoreCase(search);
+    @Transactional(readOnly = true)
+    public List<ProductSummary> searchProducts(String search) {
+        List<Long> productIds = productSearchService.search(search);
+
+        if (productIds.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        Set<Product> resultSet = new HashSet<>();
-        resultSet.addAll(byBrand);
-        resultSet.addAll(byCategory);
-        resultSet.addAll(byDescription);
-        resultSet.addAll(byName);
-        resultSet.addAll(byTag);
+        Map<Long, ProductSummary> productsById = findProducts(ProductQuery.builder().productIds(productIds).build()).stream()
+                .collect(Collectors.toMap(ProductSummary::getProductId, Function.identity()));
 
-        return resultSet.stream()
-                .map(productMapper::productToProductDto)
-                .collect(Collectors.toList());
+        return productIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
@@ -141,36 +200,21 @@ public class ProductServiceImpl implements ProductService{
     }
 
     @Override
-    public int getNumImagesForProduct(String category, Long productId) {
-        Optional<Product> optProduct = productRepository.findById(productId);
-
-        if (optProduct.isPresent()) {
-            String productDir = "src/main/resources/static/images/products/" + category + "/" + productId;
-
-            int numImages = 0;
-
-            while (true) {
-                String imagePath = productDir + "_" + (numImages + 1) + ".jpg";
-
-                File imageFile = new File(imagePath);
-                if (imageFile.exists()) {
-                    numImages++;
-                }
-                else {
-                    break;
-                }
-            }
+    public int getNumImagesForProduct(Long productId) {
+        return productImageService.getImageCount(productId);
+    }
 
-            return numImages;
-        }
-        else{
-            throw new ProductNotFoundException(productId);
-        }
+    @Override
+    public boolean hasPendingImages(Long productId) {
+        return productImageService.isPending(productId);
     }
 
     @Override
     public Product saveProduct(ProductDto productDto) {
-        return productRepository.save(productMapper.productDtoToProduct(productDto));
+        Product savedProduct = productRepository.save(productMapper.productDtoToProduct(productDto));
+        productSearchService.indexProduct(savedProduct);
+
+        return savedProduct;
     }
 
     @Override
@@ -187,7 +231,10 @@ public class ProductServiceImpl implements ProductService{
             prevProduct.setBrand(productDto.getBrand());
             prevProduct.setCategory(productDto.getCategory());
 
-            return productRepository.save(prevProduct);
+            Product savedProduct = productRepository.save(prevProduct);
+            productSearchService.indexProduct(savedProduct);
+
+            return savedProduct;
         }
         else{
             throw new ProductNotFoundException(productId);
@@ -199,9 +246,51 @@ public class ProductServiceImpl implements ProductService{
         Optional<Product> product = productRepository.findById(productId);
         if(product.isPresent()){
             productRepository.deleteById(productId);
+            productSearchService.removeProduct(productId);
+            productImageService.removeProduct(productId);
         }
         else{
             throw new ProductNotFoundException(productId);
         }
     }
+
+    private ProductPageDto getPage(ProductQuery.ProductQueryBuilder query, Long after, Long before, int size) {
+        boolean backwards = after == null && before != null;
+        Sort sort = backwards ? Sort.by("productId").descending() : Sort.by("productId").ascending();
+
+        List<ProductSummary> products = new ArrayList<>(productRepository.findSummaries(
+                query.afterId(after).beforeId(backwards ? before : null).build().toSpecification(), sort, size + 1));
+
+        boolean hasMore = products.size() > size;
+        if (hasMore) {
+            products.remove(size);
+        }
+        if (backwards) {
+            Collections.reverse(products);
+        }
+
+        withImageCounts(products);
+
+        if (products.isEmpty()) {
+            return new ProductPageDto(products, null, null);
+        }
+
+        Long firstId = products.get(0).getProductId();
+        Long lastId = products.get(products.size() - 1).getProductId();
+
+        if (backwards) {
+            return new ProductPageDto(products, lastId, hasMore ? firstId : null);
+        }
+
+        return new ProductPageDto(products, hasMore ? lastId : null, after != null ? firstId : null);
+    }
+
+    private List<ProductSummary> withImageCounts(List<ProductSummary> products) {
+        for (ProductSummary product : products) {
+            product.setImageCount(productImageService.getImageCount(product.getProductId()));
+            product.setImagesPending(productImageService.isPending(product.getProductId()));
+        }
+
+        return products;
+    }
 }
@@ -26,20 +26,24 @@ public class ReviewServiceImpl implements ReviewService{
     private final ReviewMapper reviewMapper;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
+    private final ProductRatingService productRatingService;
 
-    public ReviewServiceImpl(ReviewRepository reviewRepository, ReviewMapper reviewMapper, CustomerRepository customerRepository, ProductRepository productRepository) {
+    public ReviewServiceImpl(ReviewRepository reviewRepository, ReviewMapper reviewMapper, CustomerRepository customerRepository, ProductRepository productRepository, ProductRatingService productRatingService) {
         this.reviewRepository = reviewRepository;
         this.reviewMapper = reviewMapper;
         this.customerRepository = customerRepository;
         this.productRepository = productRepository;
+        this.productRatingService = productRatingService;
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewDto> getAllReviews() {
         return reviewRepository.findAll().stream().map(reviewMapper::reviewToReviewDto).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<ReviewDto> getReviewById(Long reviewId) {
         Optional<Review> review = reviewRepository.findById(reviewId);
         if (review.isPresent()) {
@@ -51,7 +55,7 @@ public class ReviewServiceImpl implements ReviewService{
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<ReviewDto> getReviewsByCustomerId(Long customerId) {
         Customer customer = customerRepository.findById(customerId).orElse(null);
         if (customer != null) {
@@ -62,6 +66,7 @@ public class ReviewServiceImpl implements ReviewService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewDto> getReviewsByProductId(Long productId) {
         productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException(productId));
 
@@ -69,11 +74,13 @@ public class ReviewServiceImpl implements ReviewService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewDto> getReviewsByRating(Integer rating) {
         return reviewRepository.findByRating(rating).stream().map(reviewMapper::reviewToReviewDto).toList();
     }
 
     @Override
+    @Transactional
     public ReviewDto saveReview(ReviewDto reviewDto) {
         customerRepository.findById(reviewDto.getCustomerId()).orElseThrow(() -> new CustomerNotFoundException(reviewDto.getCustomerId()));
 
@@ -82,10 +89,12 @@ public class ReviewServiceImpl implements ReviewService{
         reviewDto.setReviewDate(Timestamp.valueOf(LocalDateTime.now()));
 
         Review savedReview = reviewRepository.save(reviewMapper.reviewDtoToReview(reviewDto));
+        productRatingService.addRating(reviewDto.getProductId(), reviewDto.getRating());
         return reviewMapper.reviewToReviewDto(savedReview);
     }
 
     @Override
+    @Transactional
     public ReviewDto updateReview(Long reviewId, ReviewDto reviewDto) {
         Optional<Review> optReview = reviewRepository.findById(reviewId);
         if (optReview.isPresent()){
@@ -96,6 +105,8 @@ public class ReviewServiceImpl implements ReviewService{
                     .orElseThrow(() -> new ProductNotFoundException(reviewDto.getProductId()));
 
             Review prevReview = optReview.get();
+            Long prevProductId = prevReview.getProduct().getProductId();
+            Integer prevRating = prevReview.getRating();
 
             prevReview.setProduct(product);
             prevReview.setCustomer(customer);
@@ -104,6 +115,12 @@ public class ReviewServiceImpl implements ReviewService{
             prevReview.setReviewDate(Timestamp.valueOf(LocalDateTime.now()));
 
             Review savedReview = reviewRepository.save(prevReview);
+
+            if (!prevProductId.equals(product.getProductId()) || !prevRating.equals(reviewDto.getRating())) {
+                productRatingService.removeRating(prevProductId, prevRating);
+                productRatingService.addRating(product.getProductId(), reviewDto.getRating());
+            }
+
             return reviewMapper.reviewToReviewDto(savedReview);
         }
         else{
@@ -112,10 +129,12 @@ public class ReviewServiceImpl implements ReviewService{
     }
 
     @Override
+    @Transactional
     public void removeReviewById(Long reviewId) {
         Optional<Review> review = reviewRepository.findById(reviewId);
         if(review.isPresent()){
             reviewRepository.deleteById(reviewId);
+            productRatingService.removeRating(review.get().getProduct().getProductId(), review.get().getRating());
         }
         else{
             throw new ReviewNotFoundException(reviewId);
@@ -1,7 +1,9 @@
 package com.savian.cartblitz.service;
 
 import com.savian.cartblitz.dto.TagDto;
+import com.savian.cartblitz.model.Tag;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +14,8 @@ public interface TagService {
     
     List<TagDto> getTagsByProductId(Long productId);
 
+    List<Tag> resolveTags(Collection<String> names);
+
     TagDto saveTag(TagDto tagDto);
     TagDto updateTag(Long tagId, TagDto tagDto);
     void removeTagById(Long tagId);
@@ -3,33 +3,39 @@ package com.savian.cartblitz.service;
 import com.savian.cartblitz.dto.TagDto;
 import com.savian.cartblitz.exception.*;
 import com.savian.cartblitz.mapper.TagMapper;
+import com.savian.cartblitz.model.Product;
 import com.savian.cartblitz.model.Tag;
 import com.savian.cartblitz.repository.ProductRepository;
 import com.savian.cartblitz.repository.TagRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class TagServiceImpl implements TagService{
     private final TagRepository tagRepository;
     private final ProductRepository productRepository;
     private final TagMapper tagMapper;
+    private final ProductSearchService productSearchService;
+    private final CatalogCacheService catalogCacheService;
 
-    public TagServiceImpl(TagRepository tagRepository, ProductRepository productRepository, TagMapper tagMapper) {
+    public TagServiceImpl(TagRepository tagRepository, ProductRepository productRepository, TagMapper tagMapper, ProductSearchService productSearchService, CatalogCacheService catalogCacheService) {
         this.tagRepository = tagRepository;
         this.productRepository = productRepository;
         this.tagMapper = tagMapper;
+        this.productSearchService = productSearchService;
+        this.catalogCacheService = catalogCacheService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TagDto> getAllTags() {
         return tagRepository.findAll().stream().map(tagMapper::tagToTagDto).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<TagDto> getTagById(Long tagId) {
         Optional<TagDto> tagDto = tagRepository.findById(tagId).map(tagMapper::tagToTagDto);
         
@@ -42,6 +48,7 @@ public class TagServiceImpl implements TagService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<TagDto> getTagByName(String name) {
         Optional<TagDto> tagDto = tagRepository.findByName(name).map(tagMapper::tagToTagDto);
 
@@ -54,12 +61,30 @@ public class TagServiceImpl implements TagService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TagDto> getTagsByProductId(Long productId) {
         productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException(productId));
 
         return tagRepository.findByProductsProductId(productId).stream().map(tagMapper::tagToTagDto).toList();
     }
 
+    @Override
+    @Transactional
+    public List<Tag> resolveTags(Collection<String> names) {
+        Set<String> uniqueNames = new LinkedHashSet<>(names);
+
+        if (uniqueNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Tag> tags = new ArrayList<>(tagRepository.findByNameIn(uniqueNames));
+        tags.forEach(tag -> uniqueNames.removeIf(name -> name.equalsIgnoreCase(tag.getName())));
+
+        tags.addAll(tagRepository.saveAll(uniqueNames.stream().map(Tag::new).toList()));
+
+        return tags;
+    }
+
     @Override
     public TagDto saveTag(TagDto tagDto) {
         Optional<Tag> existingTag = tagRepository.findByName(tagDto.getName());
@@ -88,6 +113,8 @@ public class TagServiceImpl implements TagService{
             existingTag.setName(tagDto.getName());
             tagRepository.save(existingTag);
 
+            productSearchService.reindexProducts(getProductIdsByTagId(tagId));
+
             return tagDto;
         }
         else{
@@ -100,10 +127,19 @@ public class TagServiceImpl implements TagService{
         Optional<Tag> tag = tagRepository.findById(tagId);
         
         if(tag.isPresent()){
+            List<Long> productIds = getProductIdsByTagId(tagId);
+
             tagRepository.deleteById(tagId);
+            catalogCacheService.evictProductTags(productIds);
+
+            productSearchService.reindexProducts(productIds);
         }
         else{
             throw new TagNotFoundException(tagId);
         }
     }
+
+    private List<Long> getProductIdsByTagId(Long tagId) {
+        return productRepository.findByTagsTagId(tagId).stream().map(Product::getProductId).toList();
+    }
 }
@@ -6,6 +6,7 @@ import com.savian.cartblitz.mapper.WarrantyMapper;
 import com.savian.cartblitz.model.Warranty;
 import com.savian.cartblitz.repository.WarrantyRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,18 +15,22 @@ import java.util.Optional;
 public class WarrantyServiceImpl implements WarrantyService{
     private final WarrantyRepository warrantyRepository;
     private final WarrantyMapper warrantyMapper;
+    private final CatalogCacheService catalogCacheService;
 
-    public WarrantyServiceImpl(WarrantyRepository warrantyRepository, WarrantyMapper warrantyMapper) {
+    public WarrantyServiceImpl(WarrantyRepository warrantyRepository, WarrantyMapper warrantyMapper, CatalogCacheService catalogCacheService) {
         this.warrantyRepository = warrantyRepository;
         this.warrantyMapper = warrantyMapper;
+        this.catalogCacheService = catalogCacheService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<WarrantyDto> getAllWarranties() {
         return warrantyRepository.findAll().stream().map(warrantyMapper::warrantyToWarrantyDto).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<WarrantyDto> getWarrantyById(Long warrantyId) {
         Optional<WarrantyDto> warrantyDto = warrantyRepository.findById(warrantyId).map(warrantyMapper::warrantyToWarrantyDto);
 
@@ -69,6 +74,10 @@ public class WarrantyServiceImpl implements WarrantyService{
 
         if(warranty.isPresent()){
             warrantyRepository.deleteById(warrantyId);
+
+            if (warranty.get().getProduct() != null) {
+                catalogCacheService.evictProduct(warranty.get().getProduct().getProductId());
+            }
         }
         else{
             throw new WarrantyNotFoundException(warrantyId);
@@ -0,0 +1,106 @@
+--
+-- Schema of the CartBlitz_DB dumps, as previously generated by spring.jpa.hibernate.ddl-auto=update.
+-- Databases that already hold these tables are baselined at version 1 and skip this script.
+--
+
+CREATE TABLE `authority` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `role` varchar(255) DEFAULT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `customer` (
+  `customer_id` bigint NOT NULL AUTO_INCREMENT,
+  `account_non_expired` bit(1) DEFAULT NULL,
+  `account_non_locked` bit(1) DEFAULT NULL,
+  `credentials_non_expired` bit(1) DEFAULT NULL,
+  `email` varchar(100) NOT NULL,
+  `enabled` bit(1) DEFAULT NULL,
+  `full_name` varchar(100) NOT NULL,
+  `password` varchar(255) NOT NULL,
+  `username` varchar(50) NOT NULL,
+  PRIMARY KEY (`customer_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `customer_authority` (
+  `customer_id` bigint NOT NULL,
+  `authority_id` bigint NOT NULL,
+  PRIMARY KEY (`customer_id`,`authority_id`),
+  KEY `FKh7496x7bdurjfaju8s2spo4w7` (`authority_id`),
+  CONSTRAINT `FKh7496x7bdurjfaju8s2spo4w7` FOREIGN KEY (`authority_id`) REFERENCES `authority` (`id`),
+  CONSTRAINT `FKrsprkrhauqyet0v12v8r73xmj` FOREIGN KEY (`customer_id`) REFERENCES `customer` (`customer_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `warranty` (
+  `warranty_id` bigint NOT NULL AUTO_INCREMENT,
+  `duration_months` int NOT NULL,
+  `type` varchar(255) NOT NULL,
+  `details` varchar(255) NOT NULL,
+  `terms` varchar(255) NOT NULL,
+  PRIMARY KEY (`warranty_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `product` (
+  `product_id` bigint NOT NULL AUTO_INCREMENT,
+  `brand` varchar(50) DEFAULT NULL,
+  `category` varchar(50) DEFAULT NULL,
+  `description` text,
+  `name` varchar(50) NOT NULL,
+  `price` decimal(10,2) NOT NULL,
+  `stock_quantity` int NOT NULL,
+  `warranty_id` bigint DEFAULT NULL,
+  PRIMARY KEY (`product_id`),
+  UNIQUE KEY `UK_4yihu80rv2ofatfhpw7ic23s8` (`warranty_id`),
+  CONSTRAINT `FKta0mw3dplwkiadhr3l59hqhxt` FOREIGN KEY (`warranty_id`) REFERENCES `warranty` (`warranty_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `tag` (
+  `tag_id` bigint NOT NULL AUTO_INCREMENT,
+  `name` varchar(50) NOT NULL,
+  PRIMARY KEY (`tag_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `product_tag` (
+  `product_id` bigint NOT NULL,
+  `tag_id` bigint NOT NULL,
+  KEY `FK3b3a7hu5g2kh24wf0cwv3lgsm` (`tag_id`),
+  KEY `FK2rf7w3d88x20p7vuc2m9mvv91` (`product_id`),
+  CONSTRAINT `FK2rf7w3d88x20p7vuc2m9mvv91` FOREIGN KEY (`product_id`) REFERENCES `product` (`product_id`),
+  CONSTRAINT `FK3b3a7hu5g2kh24wf0cwv3lgsm` FOREIGN KEY (`tag_id`) REFERENCES `tag` (`tag_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `order` (
+  `order_id` bigint NOT NULL AUTO_INCREMENT,
+  `order_date` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  `status` enum('CART','COMPLETED') NOT NULL DEFAULT 'CART',
+  `total_amount` decimal(10,2) NOT NULL DEFAULT '0.00',
+  `customer_id` bigint DEFAULT NULL,
+  PRIMARY KEY (`order_id`),
+  KEY `FK1oduxyuuo3n2g98l3j7754vym` (`customer_id`),
+  CONSTRAINT `FK1oduxyuuo3n2g98l3j7754vym` FOREIGN KEY (`customer_id`) REFERENCES `customer` (`customer_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `order_product` (
+  `price` decimal(10,2) NOT NULL,
+  `quantity` int NOT NULL,
+  `order_id` bigint NOT NULL,
+  `product_id` bigint NOT NULL,
+  PRIMARY KEY (`order_id`,`product_id`),
+  KEY `FKhnfgqyjx3i80qoymrssls3kno` (`product_id`),
+  CONSTRAINT `FKhnfgqyjx3i80qoymrssls3kno` FOREIGN KEY (`product_id`) REFERENCES `product` (`product_id`),
+  CONSTRAINT `FKm6igrp4lwucj1me05axmv885c` FOREIGN KEY (`order_id`) REFERENCES `order` (`order_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `review` (
+  `review_id` bigint NOT NULL AUTO_INCREMENT,
+  `comment` varchar(255) DEFAULT NULL,
+  `rating` int NOT NULL,
+  `review_date` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  `product_id` bigint DEFAULT NULL,
+  `customer_id` bigint DEFAULT NULL,
+  PRIMARY KEY (`review_id`),
+  KEY `FKiyof1sindb9qiqr9o8npj8klt` (`product_id`),
+  KEY `FKgce54o0p6uugoc2tev4awewly` (`customer_id`),
+  CONSTRAINT `FKgce54o0p6uugoc2tev4awewly` FOREIGN KEY (`customer_id`) REFERENCES `customer` (`customer_id`),
+  CONSTRAINT `FKiyof1sindb9qiqr9o8npj8klt` FOREIGN KEY (`product_id`) REFERENCES `product` (`product_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,47 @@
+--
+-- Secondary indexes for the repository finders and the ProductQuery filters.
+--
+
+-- CustomerRepository.findByUsername / findByEmail, and the full-name sorted listings
+ALTER TABLE `customer`
+  ADD UNIQUE KEY `uk_customer_username` (`username`),
+  ADD UNIQUE KEY `uk_customer_email` (`email`),
+  ADD KEY `idx_customer_full_name` (`full_name`);
+
+-- ProductQuery compares UPPER(category) and UPPER(brand); indexed generated columns
+-- with the same expression let MySQL use an index for those predicates.
+ALTER TABLE `product`
+  ADD COLUMN `category_upper` varchar(50) GENERATED ALWAYS AS (UPPER(`category`)) VIRTUAL,
+  ADD COLUMN `brand_upper` varchar(50) GENERATED ALWAYS AS (UPPER(`brand`)) VIRTUAL,
+  ADD KEY `idx_product_category_upper` (`category_upper`, `price`),
+  ADD KEY `idx_product_brand_upper` (`brand_upper`, `price`),
+  ADD KEY `idx_product_price` (`price`),
+  ADD KEY `idx_product_name` (`name`),
+  ADD KEY `idx_product_brand` (`brand`);
+
+-- ProductQuery text filter (match_text)
+ALTER TABLE `product`
+  ADD FULLTEXT KEY `ft_product_text` (`name`, `brand`, `description`);
+
+-- TagRepository.findByName / findByNameIn
+ALTER TABLE `tag`
+  ADD KEY `idx_tag_name` (`name`);
+
+-- ProductRepository.findByTagsTagId and the tag filter subquery
+ALTER TABLE `product_tag`
+  ADD KEY `idx_product_tag_tag_product` (`tag_id`, `product_id`),
+  ADD KEY `idx_product_tag_product_tag` (`product_id`, `tag_id`);
+
+-- OrderRepository.findByStatus
+ALTER TABLE `order`
+  ADD KEY `idx_order_status` (`status`);
+
+-- OrderProductRepository.findByProductProductId
+ALTER TABLE `order_product`
+  ADD KEY `idx_order_product_product_order` (`product_id`, `order_id`);
+
+-- ReviewRepository.findByProductProductId / findByCustomerCustomerId / findByRating
+ALTER TABLE `review`
+  ADD KEY `idx_review_product_rating` (`product_id`, `rating`),
+  ADD KEY `idx_review_customer_date` (`customer_id`, `review_date`),
+  ADD KEY `idx_review_rating` (`rating`);
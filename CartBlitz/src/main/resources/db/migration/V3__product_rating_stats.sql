@@ -0,0 +1,29 @@
+--
+-- Per-product rating aggregates maintained by ProductRatingService, backfilled from the existing reviews.
+--
+
+CREATE TABLE `product_rating_stats` (
+  `product_id` bigint NOT NULL,
+  `review_count` bigint NOT NULL DEFAULT 0,
+  `rating_sum` bigint NOT NULL DEFAULT 0,
+  `one_star` bigint NOT NULL DEFAULT 0,
+  `two_stars` bigint NOT NULL DEFAULT 0,
+  `three_stars` bigint NOT NULL DEFAULT 0,
+  `four_stars` bigint NOT NULL DEFAULT 0,
+  `five_stars` bigint NOT NULL DEFAULT 0,
+  PRIMARY KEY (`product_id`),
+  CONSTRAINT `fk_product_rating_stats_product` FOREIGN KEY (`product_id`) REFERENCES `product` (`product_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `product_rating_stats` (`product_id`, `review_count`, `rating_sum`, `one_star`, `two_stars`, `three_stars`, `four_stars`, `five_stars`)
+SELECT `product_id`,
+       COUNT(*),
+       SUM(`rating`),
+       SUM(`rating` = 1),
+       SUM(`rating` = 2),
+       SUM(`rating` = 3),
+       SUM(`rating` = 4),
+       SUM(`rating` = 5)
+FROM `review`
+WHERE `product_id` IS NOT NULL
+GROUP BY `product_id`;
@@ -0,0 +1,39 @@
+--
+-- Optimistic-locking version columns and the sequence tables backing the pooled id generators (allocationSize = 50).
+-- The sequence tables may already exist where the old id sequences dump was imported; those keep their current value.
+--
+
+-- @Version on Product, Order and OrderProduct
+ALTER TABLE `product`
+  ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE `order`
+  ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE `order_product`
+  ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
+
+-- New ids start above the existing rows
+CREATE TABLE IF NOT EXISTS `customer_seq` (`next_val` bigint DEFAULT NULL) ENGINE=InnoDB;
+INSERT INTO `customer_seq` SELECT COALESCE(MAX(`customer_id`), 0) + 50 FROM `customer`
+WHERE NOT EXISTS (SELECT * FROM `customer_seq`);
+
+CREATE TABLE IF NOT EXISTS `order_seq` (`next_val` bigint DEFAULT NULL) ENGINE=InnoDB;
+INSERT INTO `order_seq` SELECT COALESCE(MAX(`order_id`), 0) + 50 FROM `order`
+WHERE NOT EXISTS (SELECT * FROM `order_seq`);
+
+CREATE TABLE IF NOT EXISTS `product_seq` (`next_val` bigint DEFAULT NULL) ENGINE=InnoDB;
+INSERT INTO `product_seq` SELECT COALESCE(MAX(`product_id`), 0) + 50 FROM `product`
+WHERE NOT EXISTS (SELECT * FROM `product_seq`);
+
+CREATE TABLE IF NOT EXISTS `review_seq` (`next_val` bigint DEFAULT NULL) ENGINE=InnoDB;
+INSERT INTO `review_seq` SELECT COALESCE(MAX(`review_id`), 0) + 50 FROM `review`
+WHERE NOT EXISTS (SELECT * FROM `review_seq`);
+
+CREATE TABLE IF NOT EXISTS `tag_seq` (`next_val` bigint DEFAULT NULL) ENGINE=InnoDB;
+INSERT INTO `tag_seq` SELECT COALESCE(MAX(`tag_id`), 0) + 50 FROM `tag`
+WHERE NOT EXISTS (SELECT * FROM `tag_seq`);
+
+CREATE TABLE IF NOT EXISTS `warranty_seq` (`next_val` bigint DEFAULT NULL) ENGINE=InnoDB;
+INSERT INTO `warranty_seq` SELECT COALESCE(MAX(`warranty_id`), 0) + 50 FROM `warranty`
+WHERE NOT EXISTS (SELECT * FROM `warranty_seq`);
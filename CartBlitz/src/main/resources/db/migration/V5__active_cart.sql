@@ -0,0 +1,59 @@
+--
+-- At most one CART order per customer, enforced by a unique key on a column that is set only while the order is a cart.
+-- Customers that already have several carts keep the newest one; the lines of the older carts are merged into it.
+--
+
+-- OrderRepository.findByCustomerCustomerIdAndStatus
+ALTER TABLE `order`
+  ADD KEY `idx_order_customer_status` (`customer_id`, `status`);
+
+CREATE TEMPORARY TABLE `kept_cart` (
+  `customer_id` bigint NOT NULL,
+  `order_id` bigint NOT NULL,
+  PRIMARY KEY (`customer_id`)
+) ENGINE=InnoDB;
+
+INSERT INTO `kept_cart`
+SELECT `customer_id`, MAX(`order_id`)
+FROM `order`
+WHERE `status` = 'CART' AND `customer_id` IS NOT NULL
+GROUP BY `customer_id`
+HAVING COUNT(*) > 1;
+
+INSERT INTO `order_product` (`order_id`, `product_id`, `price`, `quantity`)
+SELECT `merged`.`order_id`, `merged`.`product_id`, `merged`.`price`, `merged`.`quantity`
+FROM (
+  SELECT `k`.`order_id`, `op`.`product_id`, MAX(`op`.`price`) AS `price`, SUM(`op`.`quantity`) AS `quantity`
+  FROM `order_product` `op`
+  JOIN `order` `o` ON `o`.`order_id` = `op`.`order_id`
+  JOIN `kept_cart` `k` ON `k`.`customer_id` = `o`.`customer_id`
+  WHERE `o`.`status` = 'CART' AND `o`.`order_id` <> `k`.`order_id`
+  GROUP BY `k`.`order_id`, `op`.`product_id`
+) AS `merged`
+ON DUPLICATE KEY UPDATE `quantity` = `order_product`.`quantity` + `merged`.`quantity`;
+
+DELETE `op`
+FROM `order_product` `op`
+JOIN `order` `o` ON `o`.`order_id` = `op`.`order_id`
+JOIN `kept_cart` `k` ON `k`.`customer_id` = `o`.`customer_id`
+WHERE `o`.`status` = 'CART' AND `o`.`order_id` <> `k`.`order_id`;
+
+DELETE `o`
+FROM `order` `o`
+JOIN `kept_cart` `k` ON `k`.`customer_id` = `o`.`customer_id`
+WHERE `o`.`status` = 'CART' AND `o`.`order_id` <> `k`.`order_id`;
+
+UPDATE `order` `o`
+JOIN `kept_cart` `k` ON `k`.`order_id` = `o`.`order_id`
+SET `o`.`total_amount` = (SELECT COALESCE(SUM(`op`.`price` * `op`.`quantity`), 0) FROM `order_product` `op` WHERE `op`.`order_id` = `o`.`order_id`);
+
+DROP TEMPORARY TABLE `kept_cart`;
+
+-- Maintained by Order.updateActiveCartCustomerId from here on
+ALTER TABLE `order`
+  ADD COLUMN `active_cart_customer_id` bigint DEFAULT NULL;
+
+UPDATE `order` SET `active_cart_customer_id` = `customer_id` WHERE `status` = 'CART';
+
+ALTER TABLE `order`
+  ADD UNIQUE KEY `uk_order_active_cart` (`active_cart_customer_id`);
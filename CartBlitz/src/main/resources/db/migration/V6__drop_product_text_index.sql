@@ -0,0 +1,6 @@
+--
+-- No query uses the full-text index added in V2; drop it so product writes stop maintaining it.
+--
+
+ALTER TABLE `product`
+  DROP INDEX `ft_product_text`;
@@ -0,0 +1,86 @@
+package com.savian.cartblitz.benchmark;
+
+import com.savian.cartblitz.controller.LinkTemplate;
+import com.savian.cartblitz.controller.ProductController;
+import com.savian.cartblitz.dto.ProductSummary;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductLinkBenchmark {
+    private static final LinkTemplate PRODUCT_API_LINK = LinkTemplate.of(ProductController.class, "getProductByIdApi");
+
+    @Param("10000")
+    private int products;
+
+    private List<ProductSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/product/api/sort");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        summaries = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            summaries.add(new ProductSummary(id, "product " + id, BigDecimal.TEN, 5, "description", "brand", "category", 0L, null));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<EntityModel<ProductSummary>> methodOnLinks() {
+        List<EntityModel<ProductSummary>> models = new ArrayList<>(summaries.size());
+        for (ProductSummary product : summaries) {
+            models.add(EntityModel.of(product, linkTo(methodOn(ProductController.class).getProductByIdApi(product.getProductId())).withSelfRel()));
+        }
+        return models;
+    }
+
+    @Benchmark
+    public List<EntityModel<ProductSummary>> templateLinks() {
+        String baseUri = LinkTemplate.currentBaseUri();
+        List<EntityModel<ProductSummary>> models = new ArrayList<>(summaries.size());
+        for (ProductSummary product : summaries) {
+            models.add(EntityModel.of(product, PRODUCT_API_LINK.withSelfRel(baseUri, product.getProductId())));
+        }
+        return models;
+    }
+
+    @Benchmark
+    public List<EntityModel<ProductSummary>> withoutLinks() {
+        List<EntityModel<ProductSummary>> models = new ArrayList<>(summaries.size());
+        for (ProductSummary product : summaries) {
+            models.add(EntityModel.of(product));
+        }
+        return models;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductLinkBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.savian.cartblitz.config;
+
+import com.savian.cartblitz.dto.CartItemDto;
+import com.savian.cartblitz.dto.GuestCart;
+import com.savian.cartblitz.exception.ProductQuantityException;
+import com.savian.cartblitz.model.OrderProduct;
+import com.savian.cartblitz.service.CartService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class GuestCartMergeSuccessHandlerUnitTest {
+    @InjectMocks
+    private GuestCartMergeSuccessHandler guestCartMergeSuccessHandler;
+    @Mock
+    private CartService cartService;
+
+    @Test
+    public void testMergeKeepsFailedLinesInSession() throws Exception {
+        log.info("Starting testMergeKeepsFailedLinesInSession");
+
+        MockHttpServletRequest request = getRequestWithGuestCart(List.of(new CartItemDto(10L, 2), new CartItemDto(11L, 5)));
+
+        Mockito.when(cartService.getOrCreateCartId("user")).thenReturn(1L);
+        Mockito.when(cartService.addLine(1L, 10L, 2)).thenReturn(new OrderProduct());
+        Mockito.when(cartService.addLine(1L, 11L, 5)).thenThrow(new ProductQuantityException(11L, 4));
+
+        guestCartMergeSuccessHandler.onAuthenticationSuccess(request, new MockHttpServletResponse(), getAuthentication());
+
+        GuestCart remaining = (GuestCart) request.getSession().getAttribute(GuestCart.SESSION_ATTRIBUTE);
+        Assertions.assertEquals(1, remaining.getItems().size());
+        Assertions.assertEquals(11L, remaining.getItems().get(0).getProductId());
+        Assertions.assertEquals(5, remaining.getItems().get(0).getQuantity());
+
+        log.info("Finished testMergeKeepsFailedLinesInSession successfully");
+    }
+
+    @Test
+    public void testMergeRemovesGuestCartWhenAllLinesMerge() throws Exception {
+        log.info("Starting testMergeRemovesGuestCartWhenAllLinesMerge");
+
+        MockHttpServletRequest request = getRequestWithGuestCart(List.of(new CartItemDto(10L, 2)));
+
+        Mockito.when(cartService.getOrCreateCartId("user")).thenReturn(1L);
+
+        guestCartMergeSuccessHandler.onAuthenticationSuccess(request, new MockHttpServletResponse(), getAuthentication());
+
+        Mockito.verify(cartService).addLine(1L, 10L, 2);
+        Assertions.assertNull(request.getSession().getAttribute(GuestCart.SESSION_ATTRIBUTE));
+
+        log.info("Finished testMergeRemovesGuestCartWhenAllLinesMerge successfully");
+    }
+
+    private MockHttpServletRequest getRequestWithGuestCart(List<CartItemDto> items) {
+        GuestCart guestCart = new GuestCart();
+        guestCart.add(items);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession().setAttribute(GuestCart.SESSION_ATTRIBUTE, guestCart);
+        return request;
+    }
+
+    private UsernamePasswordAuthenticationToken getAuthentication() {
+        return UsernamePasswordAuthenticationToken.authenticated("user", "password", List.of());
+    }
+}
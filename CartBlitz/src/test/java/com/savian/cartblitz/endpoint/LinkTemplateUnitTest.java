@@ -0,0 +1,87 @@
+package com.savian.cartblitz.endpoint;
+
+import com.savian.cartblitz.controller.LinkTemplate;
+import com.savian.cartblitz.controller.OrderController;
+import com.savian.cartblitz.controller.ProductController;
+import com.savian.cartblitz.controller.ReviewController;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class LinkTemplateUnitTest {
+    @BeforeEach
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/product");
+        request.setServerName("cartblitz.test");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testExpandMatchesLinkTo() {
+        log.info("Starting testExpandMatchesLinkTo");
+
+        String baseUri = LinkTemplate.currentBaseUri();
+
+        assertSameLink(
+                linkTo(methodOn(ProductController.class).getProductByIdApi(42L)).withSelfRel(),
+                LinkTemplate.of(ProductController.class, "getProductByIdApi").withSelfRel(baseUri, 42L));
+        assertSameLink(
+                linkTo(methodOn(OrderController.class).GetOrdersByCustomerId(7L, null)).withRel("customerOrders").expand(),
+                LinkTemplate.of(OrderController.class, "GetOrdersByCustomerId").withRel(baseUri, "customerOrders", 7L));
+        assertSameLink(
+                linkTo(methodOn(ReviewController.class).GetReviewById(3L)).withSelfRel(),
+                LinkTemplate.of(ReviewController.class, "GetReviewById").withSelfRel(baseUri, 3L));
+
+        log.info("Finished testExpandMatchesLinkTo successfully");
+    }
+
+    @Test
+    public void testExpandEncodesPathSegments() {
+        log.info("Starting testExpandEncodesPathSegments");
+
+        LinkTemplate template = LinkTemplate.of(ProductController.class, "GetProductsByCategory");
+        Link link = template.withRel("http://cartblitz.test:8080", "category", "video card/gpu");
+
+        Assertions.assertEquals("/product/category/{category}", template.getTemplate());
+        Assertions.assertEquals("http://cartblitz.test:8080/product/category/video%20card%2Fgpu", link.getHref());
+        Assertions.assertEquals(IanaLinkRelations.SELF, template.withSelfRel("", "x").getRel());
+
+        log.info("Finished testExpandEncodesPathSegments successfully");
+    }
+
+    @Test
+    public void testRejectsUnknownOrMismatchedUsage() {
+        log.info("Starting testRejectsUnknownOrMismatchedUsage");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LinkTemplate.of(ProductController.class, "missingHandler"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> LinkTemplate.of(ProductController.class, "getProductByIdApi").expand("", 1L, 2L));
+        Assertions.assertFalse(LinkTemplate.enabled(Boolean.FALSE));
+        Assertions.assertTrue(LinkTemplate.enabled(null));
+
+        log.info("Finished testRejectsUnknownOrMismatchedUsage successfully");
+    }
+
+    private void assertSameLink(Link expected, Link actual) {
+        Assertions.assertEquals(expected.getHref(), actual.getHref());
+        Assertions.assertEquals(expected.getRel(), actual.getRel());
+    }
+}
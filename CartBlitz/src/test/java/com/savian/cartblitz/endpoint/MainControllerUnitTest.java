@@ -25,6 +25,7 @@ import org.springframework.web.servlet.ModelAndView;
 import java.security.Principal;
 import java.util.*;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -134,6 +135,7 @@ public class MainControllerUnitTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("categories"))
                 .andExpect(model().attributeExists("categories"))
-                .andExpect(model().attribute("categories", categoryController.getCategoryMap()));
+                .andExpect(model().attribute("categories", categoryController.getCategoryMap()))
+                .andExpect(content().string(containsString("/images/categories/cpu-")));
     }
 }
@@ -13,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -154,6 +155,19 @@ public class OrderProductControllerUnitTest {
                 .andExpect(header().string("Location", "/orderProduct/orderId/" + orderProductDto.getOrderId() + "/productId/" + orderProductDto.getProductId()));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testCreateOrderProductConflict() throws Exception {
+        OrderProductDto orderProductDto = getDummyOrderProductDtoOne();
+
+        when(orderProductService.saveOrderProduct(any())).thenThrow(new ObjectOptimisticLockingFailureException(Order.class, orderProductDto.getOrderId()));
+
+        mockMvc.perform(post("/orderProduct")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderProductDto)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     public void testCreateOrderProductInvalid() throws Exception {
@@ -1,11 +1,19 @@
 package com.savian.cartblitz.endpoint;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savian.cartblitz.dto.CartItemDto;
+import com.savian.cartblitz.dto.GuestCart;
+import com.savian.cartblitz.dto.ProductDetailView;
 import com.savian.cartblitz.dto.ProductDto;
+import com.savian.cartblitz.dto.ProductPageDto;
+import com.savian.cartblitz.dto.ProductSummary;
 import com.savian.cartblitz.dto.TagDto;
 import com.savian.cartblitz.exception.ProductNotFoundException;
 import com.savian.cartblitz.mapper.ProductMapper;
+import com.savian.cartblitz.model.OrderProduct;
+import com.savian.cartblitz.model.OrderProductId;
 import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.service.CartService;
 import com.savian.cartblitz.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +29,7 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static org.mockito.Mockito.*;
 import static org.hamcrest.Matchers.*;
@@ -40,28 +49,82 @@ public class ProductControllerUnitTest {
     private ProductService productService;
     @MockBean
     private ProductMapper productMapper;
+    @MockBean
+    private CartService cartService;
 
     @Test
     @WithMockUser(roles = "ADMIN")
     void testGetAllProducts() throws Exception {
-        List<ProductDto> productDtoList = Arrays.asList(getDummyProductDtoOne(), getDummyProductDtoTwo());
+        List<ProductSummary> productDtoList = Arrays.asList(getDummyProductSummaryOne(), getDummyProductSummaryTwo());
 
-        when(productService.getAllProducts()).thenReturn(productDtoList);
+        when(productService.getProductsPage(null, null, 20)).thenReturn(new ProductPageDto(productDtoList, null, null));
 
         mockMvc.perform(get("/product")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$._embedded.productDtoList.size()", is(productDtoList.size())))
-                .andExpect(jsonPath("$._embedded.productDtoList[0].name", is(productDtoList.get(0).getName())))
-                .andExpect(jsonPath("$._embedded.productDtoList[1].name", is(productDtoList.get(1).getName())));
+                .andExpect(jsonPath("$._embedded.productSummaryList.size()", is(productDtoList.size())))
+                .andExpect(jsonPath("$._embedded.productSummaryList[0].name", is(productDtoList.get(0).getName())))
+                .andExpect(jsonPath("$._embedded.productSummaryList[1].name", is(productDtoList.get(1).getName())))
+                .andExpect(jsonPath("$._links.next").doesNotExist())
+                .andExpect(jsonPath("$._links.prev").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetAllProductsPageLinks() throws Exception {
+        List<ProductSummary> productDtoList = Arrays.asList(getDummyProductSummaryOne(), getDummyProductSummaryTwo());
+
+        when(productService.getProductsPage(5L, null, 100)).thenReturn(new ProductPageDto(productDtoList, 12L, 6L));
+
+        mockMvc.perform(get("/product")
+                        .param("after", "5")
+                        .param("size", "500")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.self.href", org.hamcrest.Matchers.endsWith("/product?after=5&size=100")))
+                .andExpect(jsonPath("$._links.next.href", org.hamcrest.Matchers.endsWith("/product?after=12&size=100")))
+                .andExpect(jsonPath("$._links.prev.href", org.hamcrest.Matchers.endsWith("/product?before=6&size=100")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetAllProductsItemLinks() throws Exception {
+        List<ProductSummary> productDtoList = Arrays.asList(getDummyProductSummaryOne(), getDummyProductSummaryTwo());
+
+        when(productService.getProductsPage(null, null, 20)).thenReturn(new ProductPageDto(productDtoList, null, null));
+
+        mockMvc.perform(get("/product")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.productSummaryList[0]._links.self.href", is("http://localhost/product/id/10")))
+                .andExpect(jsonPath("$._embedded.productSummaryList[0]._links.category.href", is("http://localhost/product/category/productTest%20category")))
+                .andExpect(jsonPath("$._embedded.productSummaryList[1]._links.self.href", is("http://localhost/product/id/11")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetAllProductsWithoutLinks() throws Exception {
+        List<ProductSummary> productDtoList = Arrays.asList(getDummyProductSummaryOne(), getDummyProductSummaryTwo());
+
+        when(productService.getProductsPage(5L, null, 20)).thenReturn(new ProductPageDto(productDtoList, 12L, null));
+
+        mockMvc.perform(get("/product")
+                        .param("after", "5")
+                        .param("links", "false")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.productSummaryList.size()", is(productDtoList.size())))
+                .andExpect(jsonPath("$._embedded.productSummaryList[0]._links").doesNotExist())
+                .andExpect(jsonPath("$._embedded.productSummaryList[1]._links").doesNotExist())
+                .andExpect(jsonPath("$._links.next.href", org.hamcrest.Matchers.endsWith("/product?links=false&after=12&size=20")));
     }
 
     @Test
     void testGetProductByIdSuccess() throws Exception {
-        Product product = getDummyProductOne();
+        ProductDetailView product = getDummyProductDetailView();
 
-        when(productService.getProductById(product.getProductId())).thenReturn(Optional.of(product));
+        when(productService.getProductDetailView(product.getProductId())).thenReturn(Optional.of(product));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/product/id/{productId}", product.getProductId())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -74,7 +137,7 @@ public class ProductControllerUnitTest {
     void testGetProductByIdNotFound() throws Exception {
         Long productId = 10L;
 
-        when(productService.getProductById(productId)).thenReturn(Optional.empty());
+        when(productService.getProductDetailView(productId)).thenReturn(Optional.empty());
 
         mockMvc.perform(MockMvcRequestBuilders.get("/product/id/{productId}", productId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -83,10 +146,23 @@ public class ProductControllerUnitTest {
                 .andExpect(MockMvcResultMatchers.view().name("error"));
     }
 
+    @Test
+    void testGetProductByIdApiSuccess() throws Exception {
+        ProductDto productDto = getDummyProductDtoOne();
+
+        when(productService.getProductDetailById(productDto.getProductId())).thenReturn(Optional.of(productDto));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/product/api/id/{productId}", productDto.getProductId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.productId").value(productDto.getProductId()));
+    }
+
     @Test
     void testGetProductsByCategory() throws Exception {
         String category = "CPU";
-        List<ProductDto> productDtoList = Arrays.asList(getDummyProductDtoOne(), getDummyProductDtoTwo());
+        List<ProductSummary> productDtoList = Arrays.asList(getDummyProductSummaryOne(), getDummyProductSummaryTwo());
 
         when(productService.getProductsByCategory(category)).thenReturn(productDtoList);
 
@@ -102,7 +178,7 @@ public class ProductControllerUnitTest {
         String category = "electronics";
         String sortBy = "name";
         String sortOrder = "asc";
-        List<ProductDto> products = List.of(getDummyProductDtoOne(), getDummyProductDtoTwo());
+        List<ProductSummary> products = List.of(getDummyProductSummaryOne(), getDummyProductSummaryTwo());
         when(productService.sortProducts(products, sortBy, sortOrder)).thenReturn(products);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/product/category/{category}/sort", category)
@@ -114,21 +190,83 @@ public class ProductControllerUnitTest {
                 .andExpect(MockMvcResultMatchers.redirectedUrl("/"));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testSortProductsApi() throws Exception {
+        List<ProductSummary> productDtoList = Arrays.asList(getDummyProductSummaryOne(), getDummyProductSummaryTwo());
+
+        when(productService.findProducts(any())).thenReturn(productDtoList);
+
+        mockMvc.perform(get("/product/api/sort")
+                        .param("sortBy", "price")
+                        .param("sortOrder", "desc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.productSummaryList.size()", is(productDtoList.size())));
+
+        verify(productService).findProducts(argThat(query -> "price".equals(query.getSortBy())
+                && "desc".equals(query.getSortOrder())
+                && query.getOffset() == 0
+                && query.getLimit() == 21));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testSortProductsApiPageLinks() throws Exception {
+        List<ProductSummary> productDtoList = Arrays.asList(getDummyProductSummaryOne(), getDummyProductSummaryTwo());
+
+        when(productService.findProducts(any())).thenReturn(productDtoList);
+
+        mockMvc.perform(get("/product/api/sort")
+                        .param("sortBy", "price")
+                        .param("sortOrder", "desc")
+                        .param("page", "2")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.productSummaryList.size()", is(1)))
+                .andExpect(jsonPath("$._embedded.productSummaryList[0].name", is(productDtoList.get(0).getName())))
+                .andExpect(jsonPath("$._links.self.href", containsString("page=2")))
+                .andExpect(jsonPath("$._links.next.href", containsString("page=3")))
+                .andExpect(jsonPath("$._links.prev.href", containsString("page=1")));
+
+        verify(productService).findProducts(argThat(query -> query.getOffset() == 2 && query.getLimit() == 2));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testFilterProductsByCategoryApi() throws Exception {
+        List<ProductSummary> productDtoList = List.of(getDummyProductSummaryOne());
+
+        when(productService.findProducts(any())).thenReturn(productDtoList);
+
+        mockMvc.perform(get("/product/api/category/{category}/filter", "CPU")
+                        .param("minPrice", "100")
+                        .param("maxPrice", "abc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.productSummaryList.size()", is(productDtoList.size())));
+
+        verify(productService).findProducts(argThat(query -> "CPU".equals(query.getCategory())
+                && BigDecimal.valueOf(100).equals(query.getMinPrice())
+                && query.getMaxPrice() == null));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void testGetProductsByBrand() throws Exception {
         String brand = "Intel";
-        List<ProductDto> productDtoList = Arrays.asList(getDummyProductDtoOne(), getDummyProductDtoTwo());
+        List<ProductSummary> productDtoList = Arrays.asList(getDummyProductSummaryOne(), getDummyProductSummaryTwo());
 
-        when(productService.getProductsByBrand(brand)).thenReturn(productDtoList);
+        when(productService.getProductsByBrandPage(brand, null, null, 20)).thenReturn(new ProductPageDto(productDtoList, null, null));
 
         mockMvc.perform(get("/product/brand/{brand}", brand)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$._embedded.productDtoList.size()", is(productDtoList.size())))
-                .andExpect(jsonPath("$._embedded.productDtoList[0].name", is(productDtoList.get(0).getName())))
-                .andExpect(jsonPath("$._embedded.productDtoList[1].name", is(productDtoList.get(1).getName())));
+                .andExpect(jsonPath("$._embedded.productSummaryList.size()", is(productDtoList.size())))
+                .andExpect(jsonPath("$._embedded.productSummaryList[0].name", is(productDtoList.get(0).getName())))
+                .andExpect(jsonPath("$._embedded.productSummaryList[1].name", is(productDtoList.get(1).getName())));
     }
 
     @Test
@@ -136,9 +274,9 @@ public class ProductControllerUnitTest {
     void testGetProductsByPriceRange() throws Exception {
         BigDecimal minPrice = BigDecimal.valueOf(50.0);
         BigDecimal maxPrice = BigDecimal.valueOf(100.0);
-        List<ProductDto> productDtoList = Arrays.asList(getDummyProductDtoOne(), getDummyProductDtoTwo());
+        List<ProductSummary> productDtoList = Arrays.asList(getDummyProductSummaryOne(), getDummyProductSummaryTwo());
 
-        when(productService.getProductsByPriceRange(minPrice, maxPrice)).thenReturn(productDtoList);
+        when(productService.getProductsByPriceRangePage(minPrice, maxPrice, null, null, 20)).thenReturn(new ProductPageDto(productDtoList, null, null));
 
         mockMvc.perform(get("/product/priceRange")
                         .param("minPrice", String.valueOf(minPrice))
@@ -146,25 +284,24 @@ public class ProductControllerUnitTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$._embedded.productDtoList.size()", is(productDtoList.size())))
-                .andExpect(jsonPath("$._embedded.productDtoList[0].name", is(productDtoList.get(0).getName())))
-                .andExpect(jsonPath("$._embedded.productDtoList[1].name", is(productDtoList.get(1).getName())));
+                .andExpect(jsonPath("$._embedded.productSummaryList.size()", is(productDtoList.size())))
+                .andExpect(jsonPath("$._embedded.productSummaryList[0].name", is(productDtoList.get(0).getName())))
+                .andExpect(jsonPath("$._embedded.productSummaryList[1].name", is(productDtoList.get(1).getName())));
     }
 
     @Test
     @WithMockUser(roles = "ADMIN")
     public void testGetProductsByTagIdSuccess() throws Exception {
-        ProductDto productOne = getDummyProductDtoOne();
+        ProductSummary productOne = getDummyProductSummaryOne();
         TagDto tagDto = getDummyTagDto();
-        productOne.setTags(Collections.singletonList(tagDto));
 
-        when(productService.getProductsByTagId(productOne.getTags().get(0).getTagId())).thenReturn(List.of(productOne));
+        when(productService.getProductsByTagId(tagDto.getTagId())).thenReturn(List.of(productOne));
 
-        mockMvc.perform(get("/product/tag/{tagId}", productOne.getTags().get(0).getTagId())
+        mockMvc.perform(get("/product/tag/{tagId}", tagDto.getTagId())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$._embedded.productDtoList[0].productId").value(productOne.getProductId()));
+                .andExpect(jsonPath("$._embedded.productSummaryList[0].productId").value(productOne.getProductId()));
     }
 
     @Test
@@ -300,6 +437,72 @@ public class ProductControllerUnitTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @WithMockUser(username = "userTest", roles = "USER")
+    void testAddAllToCartSuccess() throws Exception {
+        List<CartItemDto> items = List.of(new CartItemDto(10L, 2), new CartItemDto(11L, 1));
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setOrderProductId(new OrderProductId(20L, 10L));
+        orderProduct.setQuantity(2);
+        orderProduct.setPrice(BigDecimal.ONE);
+
+        when(cartService.getOrCreateCartId("userTest")).thenReturn(20L);
+        when(cartService.addLines(eq(20L), anyList())).thenReturn(List.of(orderProduct));
+
+        mockMvc.perform(post("/product/add-to-cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].quantity", is(2)));
+
+        verify(cartService, times(1)).addLines(eq(20L), argThat(lines -> lines.size() == 2));
+    }
+
+    @Test
+    @WithMockUser(username = "userTest", roles = "USER")
+    void testAddAllToCartInvalid() throws Exception {
+        List<CartItemDto> items = List.of(new CartItemDto(10L, 0));
+
+        mockMvc.perform(post("/product/add-to-cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(cartService);
+    }
+
+    @Test
+    void testAddToGuestCart() throws Exception {
+        mockMvc.perform(post("/product/guest-cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new CartItemDto(10L, 2), new CartItemDto(10L, 1)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].quantity", is(3)));
+
+        verifyNoInteractions(cartService);
+    }
+
+    @Test
+    void testAddToGuestCartOverLimit() throws Exception {
+        mockMvc.perform(post("/product/guest-cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new CartItemDto(10L, GuestCart.MAX_QUANTITY), new CartItemDto(10L, 1)))))
+                .andExpect(status().isBadRequest());
+
+        List<CartItemDto> tooManyProducts = LongStream.rangeClosed(1, GuestCart.MAX_PRODUCTS + 1)
+                .mapToObj(productId -> new CartItemDto(productId, 1))
+                .toList();
+
+        mockMvc.perform(post("/product/guest-cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tooManyProducts)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(cartService);
+    }
+
     private Product getDummyProductOne(){
         Product product = new Product();
         product.setProductId(10L);
@@ -312,6 +515,18 @@ public class ProductControllerUnitTest {
         return product;
     }
 
+    private ProductDetailView getDummyProductDetailView(){
+        ProductDetailView product = new ProductDetailView();
+        product.setProductId(10L);
+        product.setName("productTest");
+        product.setPrice(BigDecimal.valueOf(1L));
+        product.setStockQuantity(0);
+        product.setDescription("productTest description");
+        product.setBrand("productTest brand");
+        product.setCategory("productTest category");
+        return product;
+    }
+
     private ProductDto getDummyProductDtoOne(){
         ProductDto productDto = new ProductDto();
         productDto.setProductId(10L);
@@ -324,16 +539,24 @@ public class ProductControllerUnitTest {
         return productDto;
     }
 
-    private ProductDto getDummyProductDtoTwo(){
-        ProductDto productDto = new ProductDto();
-        productDto.setProductId(10L);
-        productDto.setName("productTest");
-        productDto.setPrice(BigDecimal.valueOf(1L));
-        productDto.setStockQuantity(0);
-        productDto.setDescription("productTest description");
-        productDto.setBrand("productTest brand");
-        productDto.setCategory("productTest category");
-        return productDto;
+    private ProductSummary getDummyProductSummaryOne(){
+        ProductSummary productSummary = new ProductSummary();
+        productSummary.setProductId(10L);
+        productSummary.setName("productTest");
+        productSummary.setPrice(BigDecimal.valueOf(1L));
+        productSummary.setStockQuantity(0);
+        productSummary.setDescription("productTest description");
+        productSummary.setBrand("productTest brand");
+        productSummary.setCategory("productTest category");
+        productSummary.setImageCount(0);
+        return productSummary;
+    }
+
+    private ProductSummary getDummyProductSummaryTwo(){
+        ProductSummary productSummary = getDummyProductSummaryOne();
+        productSummary.setProductId(11L);
+        productSummary.setName("productTest two");
+        return productSummary;
     }
 
     private TagDto getDummyTagDto(){
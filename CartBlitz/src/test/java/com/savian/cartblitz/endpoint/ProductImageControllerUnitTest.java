@@ -0,0 +1,100 @@
+package com.savian.cartblitz.endpoint;
+
+import com.savian.cartblitz.dto.ProductImageVariant;
+import com.savian.cartblitz.service.ProductImageVariantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("mysql")
+@org.junit.jupiter.api.Tag("test")
+public class ProductImageControllerUnitTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductImageVariantService productImageVariantService;
+
+    @TempDir
+    Path imagesDir;
+
+    private Path imagePath;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        imagePath = imagesDir.resolve("1_1_200.jpg");
+        Files.write(imagePath, new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+    }
+
+    @Test
+    public void testGetProductImageSuccess() throws Exception {
+        when(productImageVariantService.getVariant("cpu", 1L, 1, 200)).thenReturn(Optional.of(new ProductImageVariant(imagePath, "abc", "def")));
+
+        mockMvc.perform(get("/images/products/cpu/1_1.jpg").param("w", "200"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andExpect(content().bytes(new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}));
+    }
+
+    @Test
+    public void testGetProductImageFingerprinted() throws Exception {
+        when(productImageVariantService.getVariant("cpu", 1L, 1, 200)).thenReturn(Optional.of(new ProductImageVariant(imagePath, "abc", "def")));
+
+        mockMvc.perform(get("/images/products/cpu/1_1.jpg").param("w", "200").param("v", "def"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    public void testGetProductImageNotModified() throws Exception {
+        when(productImageVariantService.getVariant("cpu", 1L, 1, 200)).thenReturn(Optional.of(new ProductImageVariant(imagePath, "abc", "def")));
+
+        mockMvc.perform(get("/images/products/cpu/1_1.jpg").param("w", "200").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void testGetProductImageRange() throws Exception {
+        when(productImageVariantService.getVariant("cpu", 1L, 1, 200)).thenReturn(Optional.of(new ProductImageVariant(imagePath, "abc", "def")));
+
+        mockMvc.perform(get("/images/products/cpu/1_1.jpg").param("w", "200").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().bytes(new byte[]{2, 3, 4, 5}));
+    }
+
+    @Test
+    public void testGetProductImageNotFound() throws Exception {
+        when(productImageVariantService.getVariant(anyString(), anyLong(), anyInt(), any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/images/products/cpu/99_1.jpg"))
+                .andExpect(status().isNotFound());
+    }
+}
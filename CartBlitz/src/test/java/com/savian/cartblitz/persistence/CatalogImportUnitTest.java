@@ -0,0 +1,106 @@
+package com.savian.cartblitz.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.model.Tag;
+import com.savian.cartblitz.repository.ProductRepository;
+import com.savian.cartblitz.service.ProductSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "cartblitz.cart.flush-interval=1h")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class CatalogImportUnitTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testImportCsvCatalog() throws Exception {
+        log.info("Starting testImportCsvCatalog");
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String catalog = "name,price,stockQuantity,brand,category,tags,warrantyDurationMonths,warrantyType,warrantyTerms,warrantyDetails\n"
+                + "import" + suffix + " 1,100,5,productTest brand,productTest category,import" + suffix + "|gpu,24,type,terms,details\n"
+                + "import" + suffix + " 2,200,3,productTest brand,productTest category,IMPORT" + suffix + ",,,,\n"
+                + "import" + suffix + " 3,abc,3,productTest brand,productTest category,,,,,\n";
+
+        String body = mockMvc.perform(post("/product/import")
+                        .contentType("text/csv")
+                        .content(catalog.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        JsonNode result = objectMapper.readTree(body);
+        Assertions.assertEquals(2, result.get("imported").asLong());
+        Assertions.assertEquals(1, result.get("failed").asLong());
+        Assertions.assertTrue(result.get("errors").get(0).asText().startsWith("line 4: "));
+
+        List<Long> productIds = productSearchService.search("import" + suffix);
+        Assertions.assertEquals(2, productIds.size());
+
+        List<Product> products = productIds.stream().map(productId -> productRepository.findDetailByProductId(productId).orElseThrow()).toList();
+        Product first = products.stream().filter(product -> product.getName().endsWith(" 1")).findFirst().orElseThrow();
+        Product second = products.stream().filter(product -> product.getName().endsWith(" 2")).findFirst().orElseThrow();
+
+        Assertions.assertEquals(24, first.getWarranty().getDurationMonths());
+        Set<String> firstTags = first.getTags().stream().map(Tag::getName).collect(Collectors.toSet());
+        Assertions.assertEquals(2, firstTags.size());
+        Assertions.assertTrue(firstTags.contains("import" + suffix));
+        Assertions.assertTrue(firstTags.stream().anyMatch("gpu"::equalsIgnoreCase));
+        Assertions.assertNull(second.getWarranty());
+        Assertions.assertEquals(1, second.getTags().size());
+        Assertions.assertTrue(first.getTags().stream().anyMatch(tag -> tag.getTagId().equals(second.getTags().get(0).getTagId())));
+
+        log.info("Finished testImportCsvCatalog successfully");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testImportRejectsUnsupportedMediaType() throws Exception {
+        log.info("Starting testImportRejectsUnsupportedMediaType");
+
+        mockMvc.perform(post("/product/import").contentType(MediaType.TEXT_PLAIN).content("name"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        log.info("Finished testImportRejectsUnsupportedMediaType successfully");
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testImportRequiresAdmin() throws Exception {
+        log.info("Starting testImportRequiresAdmin");
+
+        mockMvc.perform(post("/product/import").contentType(MediaType.APPLICATION_NDJSON).content("{}"))
+                .andExpect(status().isForbidden());
+
+        log.info("Finished testImportRequiresAdmin successfully");
+    }
+}
@@ -0,0 +1,114 @@
+package com.savian.cartblitz.persistence;
+
+import com.savian.cartblitz.dto.CartItemDto;
+import com.savian.cartblitz.model.Customer;
+import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.repository.CustomerRepository;
+import com.savian.cartblitz.repository.ProductRepository;
+import com.savian.cartblitz.service.CartService;
+import com.savian.cartblitz.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest(properties = "cartblitz.cart.flush-interval=1h")
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class CheckoutStatementCountUnitTest {
+    private static final int LINES = 12;
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testSaveAllProductsIsBatched() {
+        log.info("Starting testSaveAllProductsIsBatched");
+
+        statistics.clear();
+        List<Product> products = productRepository.saveAll(getDummyProducts());
+
+        log.info("saveAll of {} products: {} statements, {} inserts", products.size(), statistics.getPrepareStatementCount(), statistics.getEntityInsertCount());
+
+        Assertions.assertEquals(LINES, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 3);
+
+        log.info("Finished testSaveAllProductsIsBatched successfully");
+    }
+
+    @Test
+    public void testCheckoutStatements() {
+        List<Product> products = productRepository.saveAll(getDummyProducts());
+        Customer customer = customerRepository.save(getDummyCustomer());
+
+        log.info("Starting testCheckoutStatements");
+
+        statistics.clear();
+
+        Long orderId = orderService.saveOrder(customer.getCustomerId()).getOrderId();
+        cartService.addLines(orderId, products.stream().map(product -> new CartItemDto(product.getProductId(), 1)).toList());
+        orderService.completeOrder(orderId);
+
+        log.info("checkout of {} lines: {} statements, {} inserts, {} updates", LINES, statistics.getPrepareStatementCount(), statistics.getEntityInsertCount(), statistics.getEntityUpdateCount());
+
+        Assertions.assertEquals(LINES + 1, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 15);
+
+        log.info("Finished testCheckoutStatements successfully");
+    }
+
+    private List<Product> getDummyProducts(){
+        List<Product> products = new ArrayList<>();
+
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product();
+            product.setName("productTest " + i);
+            product.setPrice(BigDecimal.valueOf(100));
+            product.setStockQuantity(5);
+            product.setDescription("productTest description");
+            product.setBrand("productTest brand");
+            product.setCategory("productTest category");
+            products.add(product);
+        }
+
+        return products;
+    }
+
+    private Customer getDummyCustomer(){
+        String username = "user" + UUID.randomUUID().toString().substring(0, 8);
+
+        return Customer.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@cartblitz.com")
+                .fullName("userTest")
+                .build();
+    }
+}
@@ -0,0 +1,250 @@
+package com.savian.cartblitz.persistence;
+
+import com.savian.cartblitz.model.*;
+import com.savian.cartblitz.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@SpringBootTest(properties = "cartblitz.cart.flush-interval=1h")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class EndpointQueryCountUnitTest {
+    private static final int CUSTOMERS = 5;
+    private static final int PRODUCTS = 8;
+    private static final int ORDERS_PER_CUSTOMER = 4;
+    private static final int LINES_PER_ORDER = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private WarrantyRepository warrantyRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private Customer customer;
+    private Order order;
+    private Product product;
+
+    @BeforeAll
+    public void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Tag> tags = tagRepository.saveAll(List.of(new Tag("QUERY-A" + suffix()), new Tag("QUERY-B" + suffix())));
+            List<Product> products = new ArrayList<>();
+            List<Customer> customers = new ArrayList<>();
+
+            for (int i = 0; i < PRODUCTS; i++) {
+                products.add(productRepository.save(getDummyProduct(i, tags)));
+            }
+
+            for (int i = 0; i < CUSTOMERS; i++) {
+                customers.add(customerRepository.save(getDummyCustomer()));
+            }
+
+            for (Customer dummyCustomer : customers) {
+                for (Product dummyProduct : products) {
+                    reviewRepository.save(getDummyReview(dummyCustomer, dummyProduct));
+                }
+
+                for (int i = 0; i < ORDERS_PER_CUSTOMER; i++) {
+                    orderRepository.save(getDummyOrder(dummyCustomer, products, i));
+                }
+            }
+
+            customer = customers.get(0);
+            product = products.get(0);
+        });
+
+        order = orderRepository.findByCustomerCustomerId(customer.getCustomerId()).get(0);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testGetAllOrdersQueryCount() throws Exception {
+        assertQueryCount("/order", 2);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testGetOrdersByStatusQueryCount() throws Exception {
+        assertQueryCount("/order/status/COMPLETED", 2);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testGetOrderByIdQueryCount() throws Exception {
+        assertQueryCount("/order/id/" + order.getOrderId(), 2);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testGetOrdersByCustomerIdQueryCount() throws Exception {
+        assertQueryCount("/order/customer/" + customer.getCustomerId(), 3);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testGetProductByIdApiQueryCount() throws Exception {
+        assertQueryCount("/product/api/id/" + product.getProductId(), 5);
+    }
+
+    @Test
+    public void testProductPageRendersFromViewModel() throws Exception {
+        assertQueryCount(get("/product/id/" + product.getProductId()).accept(MediaType.TEXT_HTML), 5)
+                .andExpect(status().isOk())
+                .andExpect(view().name("product"))
+                .andExpect(content().string(containsString(customer.getUsername())));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testOrderDetailsPageRendersFromViewModel() throws Exception {
+        assertQueryCount(get("/order/id/" + order.getOrderId()).accept(MediaType.TEXT_HTML), 2)
+                .andExpect(status().isOk())
+                .andExpect(view().name("orderDetails"))
+                .andExpect(content().string(containsString("productTest")));
+    }
+
+    @Test
+    public void testProfilePageRendersFromViewModel() throws Exception {
+        assertQueryCount(get("/profile").accept(MediaType.TEXT_HTML).with(user(customer.getUsername()).roles("USER")), 4)
+                .andExpect(status().isOk())
+                .andExpect(view().name("profile"))
+                .andExpect(content().string(containsString(customer.getEmail())));
+    }
+
+    private void assertQueryCount(String path, long maxStatements) throws Exception {
+        assertQueryCount(get(path).contentType(MediaType.APPLICATION_JSON), maxStatements)
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions assertQueryCount(MockHttpServletRequestBuilder request, long maxStatements) throws Exception {
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        ResultActions result = mockMvc.perform(request);
+        String path = result.andReturn().getRequest().getRequestURI();
+
+        log.info("{}: {} statements", path, statistics.getPrepareStatementCount());
+
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= maxStatements,
+                path + " issued " + statistics.getPrepareStatementCount() + " statements");
+
+        return result;
+    }
+
+    private String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    private Product getDummyProduct(int index, List<Tag> tags){
+        Warranty warranty = new Warranty();
+        warranty.setDurationMonths(24);
+        warranty.setType("warrantyTest type");
+        warranty.setTerms("warrantyTest terms");
+        warranty.setDetails("warrantyTest details");
+
+        Product product = new Product();
+        product.setName("productTest " + index);
+        product.setPrice(BigDecimal.valueOf(100));
+        product.setStockQuantity(50);
+        product.setDescription("productTest description");
+        product.setBrand("productTest brand");
+        product.setCategory("productTest category");
+        product.setWarranty(warrantyRepository.save(warranty));
+        product.setTags(new ArrayList<>(tags));
+        return product;
+    }
+
+    private Customer getDummyCustomer(){
+        String username = "user" + suffix();
+
+        return Customer.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@cartblitz.com")
+                .fullName("userTest")
+                .build();
+    }
+
+    private Review getDummyReview(Customer customer, Product product){
+        Review review = new Review();
+        review.setCustomer(customer);
+        review.setProduct(product);
+        review.setRating(5);
+        review.setComment("reviewTest comment");
+        review.setReviewDate(new Timestamp(System.currentTimeMillis()));
+        return review;
+    }
+
+    private Order getDummyOrder(Customer customer, List<Product> products, int index){
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(OrderStatusEnum.COMPLETED);
+        order.setTotalAmount(BigDecimal.valueOf(100L * LINES_PER_ORDER));
+        order.setOrderDate(new Timestamp(System.currentTimeMillis()));
+        order.setOrderProducts(new ArrayList<>());
+
+        for (int i = 0; i < LINES_PER_ORDER; i++) {
+            Product product = products.get((index + i) % products.size());
+
+            OrderProduct orderProduct = new OrderProduct();
+            orderProduct.setOrderProductId(new OrderProductId(null, product.getProductId()));
+            orderProduct.setOrder(order);
+            orderProduct.setProduct(product);
+            orderProduct.setQuantity(1);
+            orderProduct.setPrice(product.getPrice());
+            order.getOrderProducts().add(orderProduct);
+        }
+
+        return order;
+    }
+}
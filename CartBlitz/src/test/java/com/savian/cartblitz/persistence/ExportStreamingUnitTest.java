@@ -0,0 +1,160 @@
+package com.savian.cartblitz.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savian.cartblitz.model.*;
+import com.savian.cartblitz.repository.CustomerRepository;
+import com.savian.cartblitz.repository.OrderRepository;
+import com.savian.cartblitz.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "cartblitz.cart.flush-interval=1h")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class ExportStreamingUnitTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testOrderExportStreamsNdjsonWithLines() throws Exception {
+        log.info("Starting testOrderExportStreamsNdjsonWithLines");
+
+        Order order = new TransactionTemplate(transactionManager).execute(status -> saveDummyOrder());
+
+        MvcResult result = mockMvc.perform(get("/order/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        JsonNode exported = null;
+        for (String line : body.split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.get("orderId").asLong() == order.getOrderId()) {
+                exported = node;
+            }
+        }
+
+        Assertions.assertNotNull(exported);
+        Assertions.assertEquals(order.getCustomer().getCustomerId(), exported.get("customerId").asLong());
+        Assertions.assertEquals(2, exported.get("orderProducts").size());
+
+        log.info("Finished testOrderExportStreamsNdjsonWithLines successfully");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testProductExportAsJsonArray() throws Exception {
+        log.info("Starting testProductExportAsJsonArray");
+
+        Product product = productRepository.save(getDummyProduct());
+
+        MvcResult result = mockMvc.perform(get("/product/export").param("format", "ARRAY"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        JsonNode products = objectMapper.readTree(body);
+        Assertions.assertTrue(products.isArray());
+        Assertions.assertTrue(products.findValues("productId").stream().anyMatch(id -> id.asLong() == product.getProductId()));
+
+        log.info("Finished testProductExportAsJsonArray successfully");
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testExportRequiresAdmin() throws Exception {
+        log.info("Starting testExportRequiresAdmin");
+
+        mockMvc.perform(get("/product/export")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/customer/export")).andExpect(status().isForbidden());
+
+        log.info("Finished testExportRequiresAdmin successfully");
+    }
+
+    private Order saveDummyOrder() {
+        String username = "user" + UUID.randomUUID().toString().substring(0, 8);
+        Customer customer = customerRepository.save(Customer.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@cartblitz.com")
+                .fullName("userTest")
+                .build());
+
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(OrderStatusEnum.COMPLETED);
+        order.setTotalAmount(BigDecimal.valueOf(200));
+        order.setOrderDate(new Timestamp(System.currentTimeMillis()));
+        order.setOrderProducts(new ArrayList<>());
+
+        for (int i = 0; i < 2; i++) {
+            Product product = productRepository.save(getDummyProduct());
+
+            OrderProduct orderProduct = new OrderProduct();
+            orderProduct.setOrderProductId(new OrderProductId(null, product.getProductId()));
+            orderProduct.setOrder(order);
+            orderProduct.setProduct(product);
+            orderProduct.setQuantity(1);
+            orderProduct.setPrice(product.getPrice());
+            order.getOrderProducts().add(orderProduct);
+        }
+
+        return orderRepository.save(order);
+    }
+
+    private Product getDummyProduct() {
+        Product product = new Product();
+        product.setName("productTest");
+        product.setPrice(BigDecimal.valueOf(100));
+        product.setStockQuantity(50);
+        product.setDescription("productTest description");
+        product.setBrand("productTest brand");
+        product.setCategory("productTest category");
+        return product;
+    }
+}
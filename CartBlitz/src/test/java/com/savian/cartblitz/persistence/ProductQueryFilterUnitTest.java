@@ -0,0 +1,149 @@
+package com.savian.cartblitz.persistence;
+
+import com.savian.cartblitz.dto.ProductSummary;
+import com.savian.cartblitz.dto.ReviewDto;
+import com.savian.cartblitz.model.Customer;
+import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.repository.CustomerRepository;
+import com.savian.cartblitz.repository.ProductQuery;
+import com.savian.cartblitz.repository.ProductRepository;
+import com.savian.cartblitz.service.ReviewService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest(properties = "cartblitz.cart.flush-interval=1h")
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class ProductQueryFilterUnitTest {
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ReviewService reviewService;
+
+    @Test
+    public void testCategoryAndBrandFiltersIgnoreCase() {
+        log.info("Starting testCategoryAndBrandFiltersIgnoreCase");
+        String category = "Category " + suffix();
+
+        Product product = productRepository.save(getDummyProduct("name", "Brand", category, "description"));
+
+        List<ProductSummary> result = productRepository.findSummaries(ProductQuery.builder()
+                .category(category.toLowerCase())
+                .brand("bRAND")
+                .build());
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(product.getProductId(), result.get(0).getProductId());
+        log.info("Finished testCategoryAndBrandFiltersIgnoreCase successfully");
+    }
+
+    @Test
+    public void testRatingStatsAreMaintainedAndSortable() {
+        log.info("Starting testRatingStatsAreMaintainedAndSortable");
+        String category = "Category " + suffix();
+
+        Product unrated = productRepository.save(getDummyProduct("name", "brand", category, "description"));
+        Product average = productRepository.save(getDummyProduct("name", "brand", category, "description"));
+        Product best = productRepository.save(getDummyProduct("name", "brand", category, "description"));
+        Customer customer = customerRepository.save(getDummyCustomer());
+
+        saveReview(customer, average, 2);
+        saveReview(customer, average, 4);
+        saveReview(customer, best, 5);
+        ReviewDto removed = saveReview(customer, best, 1);
+        reviewService.removeReviewById(removed.getReviewId());
+
+        List<ProductSummary> result = productRepository.findSummaries(ProductQuery.builder()
+                .category(category)
+                .sortBy(ProductQuery.RATING_SORT)
+                .sortOrder("desc")
+                .build());
+
+        Assertions.assertEquals(List.of(best.getProductId(), average.getProductId(), unrated.getProductId()),
+                result.stream().map(ProductSummary::getProductId).toList());
+        Assertions.assertEquals(1L, result.get(0).getReviewCount());
+        Assertions.assertEquals(5.0, result.get(0).getAverageRating());
+        Assertions.assertEquals(2L, result.get(1).getReviewCount());
+        Assertions.assertEquals(3.0, result.get(1).getAverageRating());
+        Assertions.assertEquals(0L, result.get(2).getReviewCount());
+        Assertions.assertNull(result.get(2).getAverageRating());
+        log.info("Finished testRatingStatsAreMaintainedAndSortable successfully");
+    }
+
+    @Test
+    public void testOffsetPagesFollowSortOrder() {
+        log.info("Starting testOffsetPagesFollowSortOrder");
+        String category = "Category " + suffix();
+
+        Product first = productRepository.save(getDummyProduct("name c", "brand", category, "description"));
+        Product second = productRepository.save(getDummyProduct("name b", "brand", category, "description"));
+        Product third = productRepository.save(getDummyProduct("name a", "brand", category, "description"));
+
+        List<ProductSummary> firstPage = productRepository.findSummaries(ProductQuery.builder()
+                .category(category)
+                .sortBy("name")
+                .sortOrder("desc")
+                .offset(0)
+                .limit(2)
+                .build());
+        List<ProductSummary> secondPage = productRepository.findSummaries(ProductQuery.builder()
+                .category(category)
+                .sortBy("name")
+                .sortOrder("desc")
+                .offset(2)
+                .limit(2)
+                .build());
+
+        Assertions.assertEquals(List.of(first.getProductId(), second.getProductId()),
+                firstPage.stream().map(ProductSummary::getProductId).toList());
+        Assertions.assertEquals(List.of(third.getProductId()),
+                secondPage.stream().map(ProductSummary::getProductId).toList());
+        log.info("Finished testOffsetPagesFollowSortOrder successfully");
+    }
+
+    private ReviewDto saveReview(Customer customer, Product product, int rating) {
+        ReviewDto reviewDto = new ReviewDto();
+        reviewDto.setCustomerId(customer.getCustomerId());
+        reviewDto.setProductId(product.getProductId());
+        reviewDto.setRating(rating);
+        reviewDto.setComment("reviewTest comment");
+        return reviewService.saveReview(reviewDto);
+    }
+
+    private Customer getDummyCustomer(){
+        String username = "user" + suffix();
+
+        return Customer.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@cartblitz.com")
+                .fullName("userTest")
+                .build();
+    }
+
+    private String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    private Product getDummyProduct(String name, String brand, String category, String description){
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.valueOf(100));
+        product.setStockQuantity(50);
+        product.setDescription(description);
+        product.setBrand(brand);
+        product.setCategory(category);
+        return product;
+    }
+}
@@ -0,0 +1,168 @@
+package com.savian.cartblitz.persistence;
+
+import com.savian.cartblitz.config.ReadWriteRoutingDataSource;
+import com.savian.cartblitz.config.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.Duration;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class ReadWriteRoutingUnitTest {
+    @Mock
+    private DataSource primaryDataSource;
+    @Mock
+    private DataSource replicaDataSource;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+
+    private MeterRegistry meterRegistry;
+    private ReplicaLagMonitor replicaLagMonitor;
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replicaLagMonitor = new ReplicaLagMonitor(replicaDataSource, Duration.ofSeconds(5), meterRegistry);
+        routingDataSource = new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        replicaLagMonitor.shutdown();
+    }
+
+    @Test
+    public void testWriteTransactionUsesPrimary() throws SQLException {
+        log.info("Starting testWriteTransactionUsesPrimary");
+        mockReplicaLag(0L, "Yes", false);
+        replicaLagMonitor.check();
+        Mockito.when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+
+        Assertions.assertSame(primaryConnection, routingDataSource.getConnection());
+        Assertions.assertEquals(1, routeCount("primary"));
+        log.info("Finished testWriteTransactionUsesPrimary successfully");
+    }
+
+    @Test
+    public void testReadOnlyTransactionUsesReplica() throws SQLException {
+        log.info("Starting testReadOnlyTransactionUsesReplica");
+        mockReplicaLag(2L, "Yes", false);
+        replicaLagMonitor.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertTrue(replicaLagMonitor.isReplicaUsable());
+        Assertions.assertSame(replicaConnection, routingDataSource.getConnection());
+        Assertions.assertEquals(1, routeCount("replica"));
+        Assertions.assertEquals(2.0, meterRegistry.get("cartblitz.datasource.replica.lag").gauge().value());
+        log.info("Finished testReadOnlyTransactionUsesReplica successfully");
+    }
+
+    @Test
+    public void testReadOnlyTransactionFallsBackWhenReplicaLags() throws SQLException {
+        log.info("Starting testReadOnlyTransactionFallsBackWhenReplicaLags");
+        mockReplicaLag(30L, "Yes", false);
+        replicaLagMonitor.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+        Assertions.assertSame(primaryConnection, routingDataSource.getConnection());
+        Assertions.assertEquals(1, routeCount("fallback"));
+        log.info("Finished testReadOnlyTransactionFallsBackWhenReplicaLags successfully");
+    }
+
+    @Test
+    public void testReplicaWithStoppedReplicationIsNotUsable() throws SQLException {
+        log.info("Starting testReplicaWithStoppedReplicationIsNotUsable");
+        mockReplicaLag(0L, "Yes", true);
+        replicaLagMonitor.check();
+
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+        Assertions.assertEquals(-1, replicaLagMonitor.getLagSeconds());
+        log.info("Finished testReplicaWithStoppedReplicationIsNotUsable successfully");
+    }
+
+    @Test
+    public void testReplicaWithStoppedSqlThreadIsNotUsable() throws SQLException {
+        log.info("Starting testReplicaWithStoppedSqlThreadIsNotUsable");
+        mockReplicaLag(0L, "No", false);
+        replicaLagMonitor.check();
+
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+        Assertions.assertEquals(-1, replicaLagMonitor.getLagSeconds());
+        log.info("Finished testReplicaWithStoppedSqlThreadIsNotUsable successfully");
+    }
+
+    @Test
+    public void testReplicaWithoutReplicationIsNotUsable() throws SQLException {
+        log.info("Starting testReplicaWithoutReplicationIsNotUsable");
+        ResultSet resultSet = mockReplicaStatus();
+        Mockito.when(resultSet.next()).thenReturn(false);
+        replicaLagMonitor.check();
+
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+        Assertions.assertEquals(-1, replicaLagMonitor.getLagSeconds());
+        log.info("Finished testReplicaWithoutReplicationIsNotUsable successfully");
+    }
+
+    @Test
+    public void testUnreachableReplicaIsNotUsable() throws SQLException {
+        log.info("Starting testUnreachableReplicaIsNotUsable");
+        Mockito.when(replicaDataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+        replicaLagMonitor.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Mockito.when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+        Assertions.assertSame(primaryConnection, routingDataSource.getConnection());
+        Assertions.assertEquals(0.0, meterRegistry.get("cartblitz.datasource.replica.usable").gauge().value());
+        log.info("Finished testUnreachableReplicaIsNotUsable successfully");
+    }
+
+    private void mockReplicaLag(long lagSeconds, String sqlRunning, boolean replicationStopped) throws SQLException {
+        ResultSet resultSet = mockReplicaStatus();
+
+        Mockito.when(resultSet.next()).thenReturn(true);
+        Mockito.when(resultSet.getString("Replica_IO_Running")).thenReturn("Yes");
+        Mockito.when(resultSet.getString("Replica_SQL_Running")).thenReturn(sqlRunning);
+        Mockito.when(resultSet.getLong("Seconds_Behind_Source")).thenReturn(lagSeconds);
+        Mockito.when(resultSet.wasNull()).thenReturn(replicationStopped);
+    }
+
+    private ResultSet mockReplicaStatus() throws SQLException {
+        DatabaseMetaData metaData = Mockito.mock(DatabaseMetaData.class);
+        Statement statement = Mockito.mock(Statement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+
+        Mockito.when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+        Mockito.when(replicaConnection.getMetaData()).thenReturn(metaData);
+        Mockito.when(metaData.getDatabaseProductName()).thenReturn("MySQL");
+        Mockito.when(replicaConnection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(resultSet);
+        return resultSet;
+    }
+
+    private double routeCount(String route) {
+        return meterRegistry.get("cartblitz.datasource.routing").tag("route", route).counter().count();
+    }
+}
@@ -0,0 +1,446 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.dto.CartItemDto;
+import com.savian.cartblitz.dto.CartLine;
+import com.savian.cartblitz.dto.OrderDto;
+import com.savian.cartblitz.dto.CartSnapshot;
+import com.savian.cartblitz.exception.*;
+import com.savian.cartblitz.model.*;
+import com.savian.cartblitz.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class CartServiceUnitTest {
+    @InjectMocks
+    private CartServiceImpl cartService;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderProductRepository orderProductRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private CartStore cartStore;
+
+    @Test
+    public void testAddLineNewProduct() {
+        Order order = getDummyOrder();
+        Product product = getDummyProduct();
+
+        log.info("Starting testAddLineNewProduct");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(productRepository.findById(product.getProductId())).thenReturn(Optional.of(product));
+
+        OrderProduct result = cartService.addLine(order.getOrderId(), product.getProductId(), 2);
+
+        Assertions.assertEquals(2, result.getQuantity());
+        Assertions.assertEquals(BigDecimal.valueOf(100), result.getPrice());
+        Assertions.assertEquals(1, order.getOrderProducts().size());
+        Assertions.assertEquals(0, BigDecimal.valueOf(200).compareTo(order.getTotalAmount()));
+        Mockito.verify(orderRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verifyNoInteractions(orderProductRepository);
+
+        log.info("Finished testAddLineNewProduct successfully");
+    }
+
+    @Test
+    public void testAddLineExistingProduct() {
+        Order order = getDummyOrder();
+        OrderProduct line = addDummyLine(order, getDummyProduct(), 1, BigDecimal.valueOf(80));
+
+        log.info("Starting testAddLineExistingProduct");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(productRepository.findById(line.getProduct().getProductId())).thenReturn(Optional.of(line.getProduct()));
+
+        OrderProduct result = cartService.addLine(order.getOrderId(), line.getProduct().getProductId(), 1);
+
+        Assertions.assertSame(line, result);
+        Assertions.assertEquals(2, result.getQuantity());
+        Assertions.assertEquals(BigDecimal.valueOf(100), result.getPrice());
+        Assertions.assertEquals(0, BigDecimal.valueOf(200).compareTo(order.getTotalAmount()));
+
+        log.info("Finished testAddLineExistingProduct successfully");
+    }
+
+    @Test
+    public void testSaveLineOrderNotFound() {
+        log.info("Starting testSaveLineOrderNotFound");
+
+        Mockito.when(productRepository.findById(10L)).thenReturn(Optional.of(getDummyProduct()));
+        Mockito.when(orderRepository.findWithLinesByOrderId(10L)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(OrderNotFoundException.class, () -> cartService.saveLine(10L, 10L, 1, BigDecimal.ONE));
+
+        log.info("Finished testSaveLineOrderNotFound successfully");
+    }
+
+    @Test
+    public void testSaveLineProductNotFound() {
+        Order order = getDummyOrder();
+
+        log.info("Starting testSaveLineProductNotFound");
+
+        Mockito.when(productRepository.findById(10L)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(ProductNotFoundException.class, () -> cartService.saveLine(order.getOrderId(), 10L, 1, BigDecimal.ONE));
+        Mockito.verifyNoInteractions(cartStore, orderRepository);
+
+        log.info("Finished testSaveLineProductNotFound successfully");
+    }
+
+    @Test
+    public void testSaveLineProductQuantityException() {
+        Order order = getDummyOrder();
+        Product product = getDummyProduct();
+
+        log.info("Starting testSaveLineProductQuantityException");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(productRepository.findById(product.getProductId())).thenReturn(Optional.of(product));
+
+        Assertions.assertThrows(ProductQuantityException.class, () -> cartService.saveLine(order.getOrderId(), product.getProductId(), 6, BigDecimal.ONE));
+        Assertions.assertTrue(order.getOrderProducts().isEmpty());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(order.getTotalAmount()));
+
+        log.info("Finished testSaveLineProductQuantityException successfully");
+    }
+
+    @Test
+    public void testUpdateLine() {
+        Order order = getDummyOrder();
+        OrderProduct line = addDummyLine(order, getDummyProduct(), 2, BigDecimal.valueOf(100));
+
+        log.info("Starting testUpdateLine");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+
+        OrderProduct result = cartService.updateLine(order.getOrderId(), line.getProduct().getProductId(), 3, BigDecimal.valueOf(90));
+
+        Assertions.assertEquals(3, result.getQuantity());
+        Assertions.assertEquals(0, BigDecimal.valueOf(270).compareTo(order.getTotalAmount()));
+
+        log.info("Finished testUpdateLine successfully");
+    }
+
+    @Test
+    public void testUpdateLineNotFound() {
+        Order order = getDummyOrder();
+
+        log.info("Starting testUpdateLineNotFound");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+
+        Assertions.assertThrows(OrderProductNotFoundException.class, () -> cartService.updateLine(order.getOrderId(), 10L, 1, BigDecimal.ONE));
+
+        log.info("Finished testUpdateLineNotFound successfully");
+    }
+
+    @Test
+    public void testRemoveLine() {
+        Order order = getDummyOrder();
+        OrderProduct line = addDummyLine(order, getDummyProduct(), 2, BigDecimal.valueOf(100));
+
+        log.info("Starting testRemoveLine");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+
+        cartService.removeLine(order.getOrderId(), line.getProduct().getProductId());
+
+        Assertions.assertTrue(order.getOrderProducts().isEmpty());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(order.getTotalAmount()));
+        Mockito.verify(orderProductRepository).delete(line);
+
+        log.info("Finished testRemoveLine successfully");
+    }
+
+    @Test
+    public void testRemoveLineNotFound() {
+        Order order = getDummyOrder();
+
+        log.info("Starting testRemoveLineNotFound");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+
+        Assertions.assertThrows(OrderProductNotFoundException.class, () -> cartService.removeLine(order.getOrderId(), 10L));
+        Mockito.verifyNoInteractions(orderProductRepository);
+
+        log.info("Finished testRemoveLineNotFound successfully");
+    }
+
+    @Test
+    public void testAddLineActiveCart() {
+        Product product = getDummyProduct();
+        CartSnapshot cart = getDummyCart();
+        cart.getLines().add(new CartLine(product.getProductId(), 1, BigDecimal.valueOf(80)));
+        cart.setTotalAmount(BigDecimal.valueOf(80));
+
+        log.info("Starting testAddLineActiveCart");
+
+        Mockito.when(productRepository.findById(product.getProductId())).thenReturn(Optional.of(product));
+        Mockito.when(cartStore.modify(Mockito.eq(cart.getOrderId()), Mockito.any())).thenAnswer(invocation -> {
+            invocation.<Consumer<CartSnapshot>>getArgument(1).accept(cart);
+            return Optional.of(cart.copy());
+        });
+
+        OrderProduct result = cartService.addLine(cart.getOrderId(), product.getProductId(), 1);
+
+        Assertions.assertEquals(2, result.getQuantity());
+        Assertions.assertEquals(BigDecimal.valueOf(100), result.getPrice());
+        Assertions.assertEquals(cart.getOrderId(), result.getOrder().getOrderId());
+        Assertions.assertEquals(0, BigDecimal.valueOf(200).compareTo(cart.getTotalAmount()));
+        Mockito.verifyNoInteractions(orderRepository, orderProductRepository);
+
+        log.info("Finished testAddLineActiveCart successfully");
+    }
+
+    @Test
+    public void testRemoveLineActiveCart() {
+        CartSnapshot cart = getDummyCart();
+        cart.getLines().add(new CartLine(10L, 2, BigDecimal.valueOf(100)));
+        cart.getLines().add(new CartLine(11L, 1, BigDecimal.valueOf(50)));
+        cart.setTotalAmount(BigDecimal.valueOf(250));
+
+        log.info("Starting testRemoveLineActiveCart");
+
+        Mockito.when(cartStore.modify(Mockito.eq(cart.getOrderId()), Mockito.any())).thenAnswer(invocation -> {
+            invocation.<Consumer<CartSnapshot>>getArgument(1).accept(cart);
+            return Optional.of(cart.copy());
+        });
+
+        cartService.removeLine(cart.getOrderId(), 10L);
+
+        Assertions.assertEquals(1, cart.getLines().size());
+        Assertions.assertEquals(0, BigDecimal.valueOf(50).compareTo(cart.getTotalAmount()));
+        Mockito.verifyNoInteractions(orderRepository, orderProductRepository);
+
+        log.info("Finished testRemoveLineActiveCart successfully");
+    }
+
+    @Test
+    public void testGetCart() {
+        Product product = getDummyProduct();
+        CartSnapshot cart = getDummyCart();
+        cart.getLines().add(new CartLine(product.getProductId(), 2, BigDecimal.valueOf(100)));
+        cart.setTotalAmount(BigDecimal.valueOf(200));
+
+        log.info("Starting testGetCart");
+
+        Mockito.when(cartStore.getCart("userTest")).thenReturn(Optional.of(cart));
+        Mockito.when(productRepository.findAllById(List.of(product.getProductId()))).thenReturn(List.of(product));
+
+        Optional<Order> result = cartService.getCart("userTest");
+
+        Assertions.assertTrue(result.isPresent());
+        Assertions.assertEquals(cart.getOrderId(), result.get().getOrderId());
+        Assertions.assertEquals(cart.getTotalAmount(), result.get().getTotalAmount());
+        Assertions.assertEquals(1, result.get().getOrderProducts().size());
+        Assertions.assertEquals(product, result.get().getOrderProducts().get(0).getProduct());
+
+        log.info("Finished testGetCart successfully");
+    }
+
+    @Test
+    public void testAddLinesActiveCart() {
+        Product product = getDummyProduct();
+        Product otherProduct = getDummyProduct();
+        otherProduct.setProductId(11L);
+        otherProduct.setPrice(BigDecimal.valueOf(50));
+        CartSnapshot cart = getDummyCart();
+        cart.getLines().add(new CartLine(product.getProductId(), 1, BigDecimal.valueOf(100)));
+        cart.setTotalAmount(BigDecimal.valueOf(100));
+
+        log.info("Starting testAddLinesActiveCart");
+
+        Mockito.when(productRepository.findAllById(Mockito.anyCollection())).thenReturn(List.of(product, otherProduct));
+        Mockito.when(cartStore.modify(Mockito.eq(cart.getOrderId()), Mockito.any())).thenAnswer(invocation -> {
+            invocation.<Consumer<CartSnapshot>>getArgument(1).accept(cart);
+            return Optional.of(cart.copy());
+        });
+
+        List<OrderProduct> result = cartService.addLines(cart.getOrderId(), List.of(
+                new CartItemDto(product.getProductId(), 1),
+                new CartItemDto(otherProduct.getProductId(), 3),
+                new CartItemDto(product.getProductId(), 1)));
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(3, result.get(0).getQuantity());
+        Assertions.assertEquals(3, result.get(1).getQuantity());
+        Assertions.assertEquals(2, cart.getLines().size());
+        Assertions.assertEquals(0, BigDecimal.valueOf(450).compareTo(cart.getTotalAmount()));
+        Mockito.verify(cartStore, Mockito.times(1)).modify(Mockito.eq(cart.getOrderId()), Mockito.any());
+        Mockito.verify(productRepository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verifyNoInteractions(orderRepository, orderProductRepository);
+
+        log.info("Finished testAddLinesActiveCart successfully");
+    }
+
+    @Test
+    public void testAddLinesInsufficientStockLeavesCartUnchanged() {
+        Product product = getDummyProduct();
+        Product otherProduct = getDummyProduct();
+        otherProduct.setProductId(11L);
+        otherProduct.setStockQuantity(1);
+        CartSnapshot cart = getDummyCart();
+
+        log.info("Starting testAddLinesInsufficientStockLeavesCartUnchanged");
+
+        Mockito.when(productRepository.findAllById(Mockito.anyCollection())).thenReturn(List.of(product, otherProduct));
+        Mockito.when(cartStore.modify(Mockito.eq(cart.getOrderId()), Mockito.any())).thenAnswer(invocation -> {
+            invocation.<Consumer<CartSnapshot>>getArgument(1).accept(cart);
+            return Optional.of(cart.copy());
+        });
+
+        Assertions.assertThrows(ProductQuantityException.class, () -> cartService.addLines(cart.getOrderId(), List.of(
+                new CartItemDto(product.getProductId(), 1),
+                new CartItemDto(otherProduct.getProductId(), 2))));
+        Assertions.assertTrue(cart.getLines().isEmpty());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(cart.getTotalAmount()));
+
+        log.info("Finished testAddLinesInsufficientStockLeavesCartUnchanged successfully");
+    }
+
+    @Test
+    public void testAddLinesProductNotFound() {
+        log.info("Starting testAddLinesProductNotFound");
+
+        Mockito.when(productRepository.findAllById(Mockito.anyCollection())).thenReturn(List.of(getDummyProduct()));
+
+        Assertions.assertThrows(ProductNotFoundException.class, () -> cartService.addLines(10L, List.of(
+                new CartItemDto(10L, 1),
+                new CartItemDto(11L, 1))));
+        Mockito.verifyNoInteractions(cartStore, orderRepository);
+
+        log.info("Finished testAddLinesProductNotFound successfully");
+    }
+
+    @Test
+    public void testAddLinesStoredOrder() {
+        Order order = getDummyOrder();
+        OrderProduct line = addDummyLine(order, getDummyProduct(), 1, BigDecimal.valueOf(100));
+        Product otherProduct = getDummyProduct();
+        otherProduct.setProductId(11L);
+        otherProduct.setPrice(BigDecimal.valueOf(50));
+
+        log.info("Starting testAddLinesStoredOrder");
+
+        Mockito.when(productRepository.findAllById(Mockito.anyCollection())).thenReturn(List.of(line.getProduct(), otherProduct));
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+
+        List<OrderProduct> result = cartService.addLines(order.getOrderId(), List.of(
+                new CartItemDto(line.getProduct().getProductId(), 2),
+                new CartItemDto(otherProduct.getProductId(), 2)));
+
+        Assertions.assertSame(line, result.get(0));
+        Assertions.assertEquals(3, line.getQuantity());
+        Assertions.assertEquals(2, order.getOrderProducts().size());
+        Assertions.assertEquals(0, BigDecimal.valueOf(400).compareTo(order.getTotalAmount()));
+        Mockito.verify(orderRepository, Mockito.never()).save(Mockito.any());
+
+        log.info("Finished testAddLinesStoredOrder successfully");
+    }
+
+    @Test
+    public void testGetOrCreateCartIdCreatesCart() {
+        Customer customer = new Customer();
+        customer.setCustomerId(10L);
+        customer.setUsername("userTest");
+        OrderDto orderDto = new OrderDto();
+        orderDto.setOrderId(20L);
+
+        log.info("Starting testGetOrCreateCartIdCreatesCart");
+
+        Mockito.when(cartStore.getCart("userTest")).thenReturn(Optional.empty());
+        Mockito.when(customerRepository.findByUsername("userTest")).thenReturn(Optional.of(customer));
+        Mockito.when(orderService.saveOrder(customer.getCustomerId())).thenReturn(orderDto);
+
+        Assertions.assertEquals(20L, cartService.getOrCreateCartId("userTest"));
+
+        log.info("Finished testGetOrCreateCartIdCreatesCart successfully");
+    }
+
+    @Test
+    public void testGetOrCreateCartIdConcurrentCart() {
+        Customer customer = new Customer();
+        customer.setCustomerId(10L);
+        customer.setUsername("userTest");
+
+        log.info("Starting testGetOrCreateCartIdConcurrentCart");
+
+        Mockito.when(cartStore.getCart("userTest")).thenReturn(Optional.empty(), Optional.of(getDummyCart()));
+        Mockito.when(customerRepository.findByUsername("userTest")).thenReturn(Optional.of(customer));
+        Mockito.when(orderService.saveOrder(customer.getCustomerId())).thenThrow(new OrderInProgressException());
+
+        Assertions.assertEquals(10L, cartService.getOrCreateCartId("userTest"));
+
+        log.info("Finished testGetOrCreateCartIdConcurrentCart successfully");
+    }
+
+    private CartSnapshot getDummyCart(){
+        CartSnapshot cart = new CartSnapshot();
+        cart.setUsername("userTest");
+        cart.setCustomerId(10L);
+        cart.setOrderId(10L);
+        cart.setTotalAmount(BigDecimal.ZERO);
+        cart.setUpdatedAt(System.currentTimeMillis());
+        return cart;
+    }
+
+    private OrderProduct addDummyLine(Order order, Product product, Integer quantity, BigDecimal price){
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setOrderProductId(new OrderProductId(order.getOrderId(), product.getProductId()));
+        orderProduct.setOrder(order);
+        orderProduct.setProduct(product);
+        orderProduct.setQuantity(quantity);
+        orderProduct.setPrice(price);
+        order.getOrderProducts().add(orderProduct);
+        order.setTotalAmount(order.getTotalAmount().add(price.multiply(BigDecimal.valueOf(quantity))));
+        return orderProduct;
+    }
+
+    private Order getDummyOrder(){
+        Order order = new Order();
+        order.setOrderId(10L);
+        order.setTotalAmount(BigDecimal.valueOf(0));
+        order.setStatus(OrderStatusEnum.CART);
+        order.setOrderDate(Timestamp.valueOf(LocalDateTime.now()));
+        order.setOrderProducts(new ArrayList<>());
+        return order;
+    }
+
+    private Product getDummyProduct(){
+        Product product = new Product();
+        product.setProductId(10L);
+        product.setName("productTest");
+        product.setPrice(BigDecimal.valueOf(100));
+        product.setStockQuantity(5);
+        product.setDescription("productTest description");
+        product.setBrand("productTest brand");
+        product.setCategory("productTest category");
+        return product;
+    }
+}
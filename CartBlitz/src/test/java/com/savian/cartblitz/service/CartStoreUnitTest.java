@@ -0,0 +1,313 @@
+package com.savian.cartblitz.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savian.cartblitz.config.CartStoreProperties;
+import com.savian.cartblitz.dto.CartLine;
+import com.savian.cartblitz.dto.CartSnapshot;
+import com.savian.cartblitz.model.*;
+import com.savian.cartblitz.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class CartStoreUnitTest {
+    @TempDir
+    Path journalDir;
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderProductRepository orderProductRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<CartStoreImpl> stores = new ArrayList<>();
+    private CartStoreImpl cartStore;
+
+    @BeforeEach
+    public void setUp() {
+        cartStore = newStore();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        for (CartStoreImpl store : stores) {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    public void testModifyKeepsChangesInMemory() {
+        Order order = getDummyOrder();
+
+        log.info("Starting testModifyKeepsChangesInMemory");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+
+        cartStore.modify(order.getOrderId(), cart -> addLine(cart, 10L, 2, BigDecimal.valueOf(100)));
+        cartStore.modify(order.getOrderId(), cart -> addLine(cart, 11L, 1, BigDecimal.valueOf(50)));
+
+        Optional<CartSnapshot> result = cartStore.getCart("userTest");
+
+        Assertions.assertTrue(result.isPresent());
+        Assertions.assertEquals(2, result.get().getLines().size());
+        Assertions.assertEquals(0, BigDecimal.valueOf(250).compareTo(result.get().getTotalAmount()));
+        Assertions.assertTrue(order.getOrderProducts().isEmpty());
+        Mockito.verify(orderRepository).findWithLinesByOrderId(order.getOrderId());
+        Mockito.verify(orderRepository, Mockito.never()).findActiveCartByUsername(Mockito.anyString());
+
+        log.info("Finished testModifyKeepsChangesInMemory successfully");
+    }
+
+    @Test
+    public void testFlushAllWritesCoalescedChanges() throws IOException {
+        Order order = getDummyOrder();
+
+        log.info("Starting testFlushAllWritesCoalescedChanges");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(getDummyProduct(10L)));
+
+        for (int i = 0; i < 3; i++) {
+            cartStore.modify(order.getOrderId(), cart -> addLine(cart, 10L, 1, BigDecimal.valueOf(100)));
+        }
+
+        cartStore.flushAll();
+
+        Assertions.assertEquals(1, order.getOrderProducts().size());
+        Assertions.assertEquals(3, order.getOrderProducts().get(0).getQuantity());
+        Assertions.assertEquals(0, BigDecimal.valueOf(300).compareTo(order.getTotalAmount()));
+        Mockito.verify(productRepository, Mockito.times(1)).findAllById(List.of(10L));
+        Assertions.assertEquals(0, Files.size(journalDir.resolve("carts.journal")));
+
+        log.info("Finished testFlushAllWritesCoalescedChanges successfully");
+    }
+
+    @Test
+    public void testJournalRecoversCartsAfterRestart() {
+        Order order = getDummyOrder();
+
+        log.info("Starting testJournalRecoversCartsAfterRestart");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(getDummyProduct(10L)));
+
+        cartStore.modify(order.getOrderId(), cart -> addLine(cart, 10L, 2, BigDecimal.valueOf(100)));
+
+        CartStoreImpl restartedStore = newStore();
+        Optional<CartSnapshot> recovered = restartedStore.getCart("userTest");
+
+        Assertions.assertTrue(recovered.isPresent());
+        Assertions.assertEquals(2, recovered.get().getLines().get(0).getQuantity());
+        Mockito.verify(orderRepository, Mockito.never()).findActiveCartByUsername(Mockito.anyString());
+
+        restartedStore.flushAll();
+
+        Assertions.assertEquals(1, order.getOrderProducts().size());
+        Assertions.assertEquals(0, BigDecimal.valueOf(200).compareTo(order.getTotalAmount()));
+
+        log.info("Finished testJournalRecoversCartsAfterRestart successfully");
+    }
+
+    @Test
+    public void testEvictWritesThrough() {
+        Order order = getDummyOrder();
+
+        log.info("Starting testEvictWritesThrough");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(getDummyProduct(10L)));
+
+        cartStore.modify(order.getOrderId(), cart -> addLine(cart, 10L, 1, BigDecimal.valueOf(100)));
+        cartStore.evict(order.getOrderId());
+
+        Assertions.assertEquals(1, order.getOrderProducts().size());
+        Assertions.assertTrue(cartStore.findCart(order.getOrderId()).isEmpty());
+
+        log.info("Finished testEvictWritesThrough successfully");
+    }
+
+    @Test
+    public void testWriteReappliesCartChangedElsewhere() {
+        Order order = getDummyOrder();
+
+        log.info("Starting testWriteReappliesCartChangedElsewhere");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(getDummyProduct(10L)));
+
+        cartStore.modify(order.getOrderId(), cart -> addLine(cart, 10L, 1, BigDecimal.valueOf(100)));
+        order.setVersion(order.getVersion() + 1);
+        order.setTotalAmount(BigDecimal.valueOf(10));
+
+        cartStore.flushAll();
+
+        Assertions.assertEquals(1, order.getOrderProducts().size());
+        Assertions.assertEquals(1, order.getOrderProducts().get(0).getQuantity());
+        Assertions.assertEquals(0, BigDecimal.valueOf(110).compareTo(order.getTotalAmount()));
+
+        Optional<CartSnapshot> cart = cartStore.findCart(order.getOrderId());
+        Assertions.assertTrue(cart.isPresent());
+        Assertions.assertEquals(order.getVersion(), cart.get().getVersion());
+        Assertions.assertEquals(0, BigDecimal.valueOf(110).compareTo(cart.get().getTotalAmount()));
+
+        log.info("Finished testWriteReappliesCartChangedElsewhere successfully");
+    }
+
+    @Test
+    public void testEvictedCartIsWrittenByWriteBehind() throws InterruptedException {
+        Order first = getDummyOrder();
+        Order second = getDummyOrder(11L, "userTest2");
+
+        log.info("Starting testEvictedCartIsWrittenByWriteBehind");
+
+        CartStoreProperties cartStoreProperties = getCartStoreProperties();
+        cartStoreProperties.setMaxActiveCarts(1);
+        CartStoreImpl store = newStore(cartStoreProperties);
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(first.getOrderId())).thenReturn(Optional.of(first));
+        Mockito.when(orderRepository.findWithLinesByOrderId(second.getOrderId())).thenReturn(Optional.of(second));
+        Mockito.when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(getDummyProduct(10L)));
+
+        store.modify(first.getOrderId(), cart -> addLine(cart, 10L, 1, BigDecimal.valueOf(100)));
+        store.modify(second.getOrderId(), cart -> addLine(cart, 10L, 2, BigDecimal.valueOf(100)));
+
+        for (int i = 0; i < 100 && store.findCart(first.getOrderId()).isPresent() && store.findCart(second.getOrderId()).isPresent(); i++) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertTrue(store.findCart(first.getOrderId()).isEmpty() || store.findCart(second.getOrderId()).isEmpty());
+        Mockito.verify(orderRepository, Mockito.never()).flush();
+
+        store.flushAll();
+
+        Assertions.assertEquals(1, first.getOrderProducts().get(0).getQuantity());
+        Assertions.assertEquals(2, second.getOrderProducts().get(0).getQuantity());
+
+        log.info("Finished testEvictedCartIsWrittenByWriteBehind successfully");
+    }
+
+    @Test
+    public void testConcurrentModificationsAreJournaled() throws InterruptedException {
+        Order order = getDummyOrder();
+
+        log.info("Starting testConcurrentModificationsAreJournaled");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+
+        cartStore.modify(order.getOrderId(), cart -> addLine(cart, 10L, 1, BigDecimal.valueOf(100)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 40; i++) {
+            executor.execute(() -> cartStore.modify(order.getOrderId(), cart -> addLine(cart, 10L, 1, BigDecimal.valueOf(100))));
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Optional<CartSnapshot> recovered = newStore().getCart("userTest");
+
+        Assertions.assertTrue(recovered.isPresent());
+        Assertions.assertEquals(41, recovered.get().getLines().get(0).getQuantity());
+
+        log.info("Finished testConcurrentModificationsAreJournaled successfully");
+    }
+
+    @Test
+    public void testModifyCompletedOrder() {
+        Order order = getDummyOrder();
+        order.setStatus(OrderStatusEnum.COMPLETED);
+
+        log.info("Starting testModifyCompletedOrder");
+
+        Mockito.when(orderRepository.findWithLinesByOrderId(order.getOrderId())).thenReturn(Optional.of(order));
+
+        Assertions.assertTrue(cartStore.modify(order.getOrderId(), cart -> addLine(cart, 10L, 1, BigDecimal.ONE)).isEmpty());
+        Assertions.assertTrue(cartStore.findCart(order.getOrderId()).isEmpty());
+
+        log.info("Finished testModifyCompletedOrder successfully");
+    }
+
+    private CartStoreImpl newStore() {
+        return newStore(getCartStoreProperties());
+    }
+
+    private CartStoreImpl newStore(CartStoreProperties cartStoreProperties) {
+        CartStoreImpl store = new CartStoreImpl(orderRepository, orderProductRepository, productRepository, new ObjectMapper(), transactionManager, cartStoreProperties);
+        stores.add(store);
+        return store;
+    }
+
+    private CartStoreProperties getCartStoreProperties() {
+        CartStoreProperties cartStoreProperties = new CartStoreProperties();
+        cartStoreProperties.setJournalDir(journalDir.toString());
+        cartStoreProperties.setFlushInterval(Duration.ofHours(1));
+        return cartStoreProperties;
+    }
+
+    private void addLine(CartSnapshot cart, Long productId, Integer quantity, BigDecimal price) {
+        Optional<CartLine> line = cart.findLine(productId);
+
+        if (line.isPresent()) {
+            line.get().setQuantity(line.get().getQuantity() + quantity);
+        }
+        else {
+            cart.getLines().add(new CartLine(productId, quantity, price));
+        }
+
+        cart.setTotalAmount(cart.getTotalAmount().add(price.multiply(BigDecimal.valueOf(quantity))));
+    }
+
+    private Order getDummyOrder(){
+        return getDummyOrder(10L, "userTest");
+    }
+
+    private Order getDummyOrder(Long id, String username){
+        Customer customer = new Customer();
+        customer.setCustomerId(id);
+        customer.setUsername(username);
+
+        Order order = new Order();
+        order.setOrderId(id);
+        order.setCustomer(customer);
+        order.setTotalAmount(BigDecimal.ZERO);
+        order.setStatus(OrderStatusEnum.CART);
+        order.setOrderProducts(new ArrayList<>());
+        return order;
+    }
+
+    private Product getDummyProduct(Long productId){
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setName("productTest");
+        product.setPrice(BigDecimal.valueOf(100));
+        product.setStockQuantity(5);
+        return product;
+    }
+}
@@ -0,0 +1,86 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class CatalogCacheServiceUnitTest {
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+    @Mock
+    private CacheImplementor cache;
+
+    private CatalogCacheServiceImpl catalogCacheService;
+
+    @BeforeEach
+    public void setUp() {
+        Mockito.when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        Mockito.when(sessionFactory.getCache()).thenReturn(cache);
+        catalogCacheService = new CatalogCacheServiceImpl(entityManagerFactory);
+    }
+
+    @Test
+    public void testEvictProduct() {
+        log.info("Starting testEvictProduct");
+
+        catalogCacheService.evictProduct(10L);
+
+        Mockito.verify(cache).evictEntityData(Product.class, 10L);
+        Mockito.verify(cache).evictCollectionData(Product.class.getName() + ".tags", 10L);
+
+        log.info("Finished testEvictProduct successfully");
+    }
+
+    @Test
+    public void testEvictProductTags() {
+        log.info("Starting testEvictProductTags");
+
+        catalogCacheService.evictProductTags(List.of(10L, 11L));
+
+        Mockito.verify(cache).evictCollectionData(Product.class.getName() + ".tags", 10L);
+        Mockito.verify(cache).evictCollectionData(Product.class.getName() + ".tags", 11L);
+        Mockito.verifyNoMoreInteractions(cache);
+
+        log.info("Finished testEvictProductTags successfully");
+    }
+
+    @Test
+    public void testEvictProductStockInvalidatesOnlyProductQueries() {
+        TimestampsCache timestampsCache = Mockito.mock(TimestampsCache.class);
+        SessionImplementor session = Mockito.mock(SessionImplementor.class);
+
+        log.info("Starting testEvictProductStockInvalidatesOnlyProductQueries");
+
+        Mockito.when(cache.getTimestampsCache()).thenReturn(timestampsCache);
+        Mockito.when(sessionFactory.openSession()).thenReturn(session);
+
+        catalogCacheService.evictProductStock(List.of(10L, 11L));
+
+        Mockito.verify(cache).evictEntityData(Product.class, 10L);
+        Mockito.verify(cache).evictEntityData(Product.class, 11L);
+        Mockito.verify(timestampsCache).invalidate(new String[] { "product" }, session);
+        Mockito.verify(cache, Mockito.never()).evictDefaultQueryRegion();
+        Mockito.verify(session).close();
+
+        log.info("Finished testEvictProductStockInvalidatesOnlyProductQueries successfully");
+    }
+}
@@ -0,0 +1,187 @@
+package com.savian.cartblitz.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savian.cartblitz.config.CatalogImportProperties;
+import com.savian.cartblitz.dto.CatalogFormat;
+import com.savian.cartblitz.dto.CatalogImportResult;
+import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.model.Tag;
+import com.savian.cartblitz.repository.ProductRepository;
+import com.savian.cartblitz.repository.TagRepository;
+import com.savian.cartblitz.repository.WarrantyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class CatalogImportServiceUnitTest {
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private WarrantyRepository warrantyRepository;
+    @Mock
+    private TagRepository tagRepository;
+    @Mock
+    private TagService tagService;
+    @Mock
+    private ProductSearchService productSearchService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private Session session;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CatalogImportServiceImpl catalogImportService;
+
+    @BeforeEach
+    public void setUp() {
+        CatalogImportProperties properties = new CatalogImportProperties();
+        properties.setChunkSize(2);
+        properties.setThreads(2);
+
+        catalogImportService = new CatalogImportServiceImpl(productRepository, warrantyRepository, tagRepository, tagService, productSearchService,
+                properties, Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), entityManager, transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        catalogImportService.shutdown();
+    }
+
+    @Test
+    public void testImportCsvCatalog() throws Exception {
+        log.info("Starting testImportCsvCatalog");
+
+        Tag gpu = getDummyTag(1L, "GPU");
+        Tag sale = getDummyTag(2L, "Sale");
+        Mockito.when(tagRepository.findAll()).thenReturn(List.of(gpu));
+        Mockito.when(tagService.resolveTags(List.of("Sale"))).thenReturn(List.of(sale));
+        Mockito.when(entityManager.unwrap(Session.class)).thenReturn(session);
+
+        String catalog = String.join("\n",
+                "name,price,stockQuantity,description,brand,category,tags,warrantyDurationMonths,warrantyType,warrantyTerms,warrantyDetails",
+                "productTest 1,100.50,5,\"Fast, quiet \"\"GPU\"\"\",productTest brand,productTest category,gpu|Sale|SALE,24,standard,terms,details",
+                "productTest 2,-1,5,,productTest brand,productTest category,,,,,",
+                "",
+                "productTest 3,200,0,\"Two",
+                "lines\",productTest brand,productTest category,GPU,,,,");
+
+        CatalogImportResult result = catalogImportService.importCatalog(
+                new ByteArrayInputStream(catalog.getBytes(StandardCharsets.UTF_8)), CatalogFormat.CSV);
+
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        Assertions.assertEquals(List.of("line 3: Product price must be greater than 0"), result.getErrors());
+
+        List<Product> products = captureSavedProducts(1);
+        Assertions.assertEquals("Fast, quiet \"GPU\"", products.get(0).getDescription());
+        Assertions.assertEquals(new BigDecimal("100.50"), products.get(0).getPrice());
+        Assertions.assertEquals(List.of(gpu, sale), products.get(0).getTags());
+        Assertions.assertEquals(24, products.get(0).getWarranty().getDurationMonths());
+        Assertions.assertEquals("Two\nlines", products.get(1).getDescription());
+        Assertions.assertEquals(List.of(gpu), products.get(1).getTags());
+        Assertions.assertNull(products.get(1).getWarranty());
+
+        Mockito.verify(session).setCacheMode(CacheMode.IGNORE);
+        Mockito.verify(productSearchService, Mockito.times(2)).indexProduct(Mockito.any());
+
+        log.info("Finished testImportCsvCatalog successfully");
+    }
+
+    @Test
+    public void testImportNdjsonCatalogInChunks() throws Exception {
+        log.info("Starting testImportNdjsonCatalogInChunks");
+
+        Mockito.when(tagRepository.findAll()).thenReturn(List.of());
+        Mockito.when(entityManager.unwrap(Session.class)).thenReturn(session);
+
+        String catalog = """
+                {"name":"productTest 1","price":10,"stockQuantity":1,"supplierSku":"A-1"}
+                {"name":"productTest 2","price":20,"stockQuantity":2}
+                {"name":"productTest 3","price":
+                {"name":"productTest 4","price":40,"stockQuantity":4,"warrantyDurationMonths":12}
+                {"name":"productTest 5","price":50,"stockQuantity":5}
+                """;
+
+        CatalogImportResult result = catalogImportService.importCatalog(
+                new ByteArrayInputStream(catalog.getBytes(StandardCharsets.UTF_8)), CatalogFormat.NDJSON);
+
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(2, result.getFailed());
+        Assertions.assertTrue(result.getErrors().get(0).startsWith("line 3: "));
+        Assertions.assertEquals("line 4: Warranty fields must be either all set or all empty.", result.getErrors().get(1));
+
+        List<Product> products = captureSavedProducts(2);
+        Assertions.assertEquals(List.of("productTest 1", "productTest 2", "productTest 5"), products.stream().map(Product::getName).toList());
+        Mockito.verifyNoInteractions(tagService);
+
+        log.info("Finished testImportNdjsonCatalogInChunks successfully");
+    }
+
+    @Test
+    public void testImportReportsFailedChunk() throws Exception {
+        log.info("Starting testImportReportsFailedChunk");
+
+        Mockito.when(tagRepository.findAll()).thenReturn(List.of());
+        Mockito.when(entityManager.unwrap(Session.class)).thenReturn(session);
+        Mockito.when(productRepository.saveAll(Mockito.anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        String catalog = """
+                name,price,stockQuantity
+                productTest 1,10,1
+                productTest 2,20,2
+                """;
+
+        CatalogImportResult result = catalogImportService.importCatalog(
+                new ByteArrayInputStream(catalog.getBytes(StandardCharsets.UTF_8)), CatalogFormat.CSV);
+
+        Assertions.assertEquals(0, result.getImported());
+        Assertions.assertEquals(2, result.getFailed());
+        Assertions.assertEquals(List.of("lines 2-3: duplicate"), result.getErrors());
+        Mockito.verifyNoInteractions(productSearchService);
+
+        log.info("Finished testImportReportsFailedChunk successfully");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Product> captureSavedProducts(int chunks) {
+        ArgumentCaptor<List<Product>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(productRepository, Mockito.times(chunks)).saveAll(captor.capture());
+
+        List<Product> products = new ArrayList<>();
+        captor.getAllValues().forEach(products::addAll);
+        products.sort(Comparator.comparing(Product::getName));
+        return products;
+    }
+
+    private Tag getDummyTag(Long tagId, String name) {
+        Tag tag = new Tag(name);
+        tag.setTagId(tagId);
+        return tag;
+    }
+}
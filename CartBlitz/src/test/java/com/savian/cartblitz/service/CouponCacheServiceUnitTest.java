@@ -0,0 +1,208 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.config.CouponCacheProperties;
+import com.savian.cartblitz.dto.CouponEvaluationLine;
+import com.savian.cartblitz.dto.CouponEvaluationRequest;
+import com.savian.cartblitz.dto.CouponEvaluationResult;
+import com.savian.cartblitz.model.Coupon;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class CouponCacheServiceUnitTest {
+    @Mock
+    private CouponServiceProxy couponServiceProxy;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private CouponCacheServiceImpl couponCacheService;
+
+    @AfterEach
+    public void tearDown() {
+        couponCacheService.shutdown();
+    }
+
+    @Test
+    public void testGetCouponServesFreshValueFromCache() {
+        log.info("Starting testGetCouponServesFreshValueFromCache");
+
+        couponCacheService = getCouponCacheService(Duration.ofMinutes(5));
+        Mockito.when(couponServiceProxy.getCoupon("coupon")).thenReturn(ResponseEntity.ok(getDummyCoupon("1")));
+
+        Assertions.assertEquals("1", couponCacheService.getCoupon("coupon").getVersionId());
+        Assertions.assertEquals("1", couponCacheService.getCoupon("coupon").getVersionId());
+
+        Mockito.verify(couponServiceProxy, Mockito.times(1)).getCoupon("coupon");
+
+        log.info("Finished testGetCouponServesFreshValueFromCache successfully");
+    }
+
+    @Test
+    public void testGetCouponServesStaleValueWhileRevalidating() throws Exception {
+        log.info("Starting testGetCouponServesStaleValueWhileRevalidating");
+
+        couponCacheService = getCouponCacheService(Duration.ZERO);
+        Mockito.when(couponServiceProxy.getCoupon("coupon"))
+                .thenReturn(ResponseEntity.ok(getDummyCoupon("1")))
+                .thenReturn(ResponseEntity.ok(getDummyCoupon("2")));
+
+        Assertions.assertEquals("1", couponCacheService.getCoupon("coupon").getVersionId());
+        Assertions.assertEquals("1", couponCacheService.getCoupon("coupon").getVersionId());
+
+        awaitVersion("2");
+
+        log.info("Finished testGetCouponServesStaleValueWhileRevalidating successfully");
+    }
+
+    @Test
+    public void testGetCouponFallsBackToLastKnownWhenCircuitIsOpen() throws Exception {
+        log.info("Starting testGetCouponFallsBackToLastKnownWhenCircuitIsOpen");
+
+        couponCacheService = getCouponCacheService(Duration.ZERO);
+        Mockito.when(couponServiceProxy.getCoupon("coupon")).thenReturn(ResponseEntity.ok(getDummyCoupon("1")));
+
+        Assertions.assertEquals("1", couponCacheService.getCoupon("coupon").getVersionId());
+
+        circuitBreakerRegistry.circuitBreaker(CouponCacheServiceImpl.CIRCUIT_BREAKER).transitionToOpenState();
+
+        Assertions.assertEquals("1", couponCacheService.getCoupon("coupon").getVersionId());
+        Thread.sleep(100);
+        Assertions.assertEquals("1", couponCacheService.getCoupon("coupon").getVersionId());
+
+        Mockito.verify(couponServiceProxy, Mockito.times(1)).getCoupon("coupon");
+
+        log.info("Finished testGetCouponFallsBackToLastKnownWhenCircuitIsOpen successfully");
+    }
+
+    @Test
+    public void testGetCouponWithoutLastKnownWhenCircuitIsOpen() {
+        log.info("Starting testGetCouponWithoutLastKnownWhenCircuitIsOpen");
+
+        couponCacheService = getCouponCacheService(Duration.ofMinutes(5));
+        circuitBreakerRegistry.circuitBreaker(CouponCacheServiceImpl.CIRCUIT_BREAKER).transitionToOpenState();
+
+        Assertions.assertThrows(CallNotPermittedException.class, () -> couponCacheService.getCoupon("coupon"));
+        Mockito.verifyNoInteractions(couponServiceProxy);
+
+        log.info("Finished testGetCouponWithoutLastKnownWhenCircuitIsOpen successfully");
+    }
+
+    @Test
+    public void testInvalidateRevalidatesCurrentVersion() throws Exception {
+        log.info("Starting testInvalidateRevalidatesCurrentVersion");
+
+        couponCacheService = getCouponCacheService(Duration.ofMinutes(5));
+        Mockito.when(couponServiceProxy.getCoupon(Mockito.anyString()))
+                .thenReturn(ResponseEntity.ok(getDummyCoupon("1")))
+                .thenReturn(ResponseEntity.ok(getDummyCoupon("2")));
+
+        Assertions.assertEquals("1", couponCacheService.getCoupon("coupon").getVersionId());
+
+        couponCacheService.onRefresh();
+
+        awaitVersion("2");
+
+        log.info("Finished testInvalidateRevalidatesCurrentVersion successfully");
+    }
+
+    @Test
+    public void testEvaluateReusesResultForSameVersion() {
+        log.info("Starting testEvaluateReusesResultForSameVersion");
+
+        couponCacheService = getCouponCacheService(Duration.ofMinutes(5));
+        Mockito.when(couponServiceProxy.getCoupon("coupon")).thenReturn(ResponseEntity.ok(getDummyCoupon("1")));
+        Mockito.when(couponServiceProxy.evaluate(Mockito.eq("coupon"), Mockito.any())).thenReturn(ResponseEntity.ok(getDummyEvaluation("1")));
+
+        Assertions.assertEquals("1", couponCacheService.evaluate("coupon", getDummyEvaluationRequest(2)).getVersionId());
+        Assertions.assertEquals("1", couponCacheService.evaluate("coupon", getDummyEvaluationRequest(2)).getVersionId());
+
+        Mockito.verify(couponServiceProxy, Mockito.times(1)).evaluate(Mockito.eq("coupon"), Mockito.any());
+
+        couponCacheService.evaluate("coupon", getDummyEvaluationRequest(3));
+
+        Mockito.verify(couponServiceProxy, Mockito.times(2)).evaluate(Mockito.eq("coupon"), Mockito.any());
+
+        log.info("Finished testEvaluateReusesResultForSameVersion successfully");
+    }
+
+    @Test
+    public void testEvaluateAgainAfterVersionChange() throws Exception {
+        log.info("Starting testEvaluateAgainAfterVersionChange");
+
+        couponCacheService = getCouponCacheService(Duration.ZERO);
+        Mockito.when(couponServiceProxy.getCoupon("coupon"))
+                .thenReturn(ResponseEntity.ok(getDummyCoupon("1")))
+                .thenReturn(ResponseEntity.ok(getDummyCoupon("2")));
+        Mockito.when(couponServiceProxy.evaluate(Mockito.eq("coupon"), Mockito.any()))
+                .thenReturn(ResponseEntity.ok(getDummyEvaluation("1")))
+                .thenReturn(ResponseEntity.ok(getDummyEvaluation("2")));
+
+        Assertions.assertEquals("1", couponCacheService.evaluate("coupon", getDummyEvaluationRequest(2)).getVersionId());
+
+        awaitVersion("2");
+
+        Assertions.assertEquals("2", couponCacheService.evaluate("coupon", getDummyEvaluationRequest(2)).getVersionId());
+        Mockito.verify(couponServiceProxy, Mockito.times(2)).evaluate(Mockito.eq("coupon"), Mockito.any());
+
+        log.info("Finished testEvaluateAgainAfterVersionChange successfully");
+    }
+
+    @Test
+    public void testEvaluateWhenCircuitIsOpen() {
+        log.info("Starting testEvaluateWhenCircuitIsOpen");
+
+        couponCacheService = getCouponCacheService(Duration.ofMinutes(5));
+        Mockito.when(couponServiceProxy.getCoupon("coupon")).thenReturn(ResponseEntity.ok(getDummyCoupon("1")));
+
+        couponCacheService.getCoupon("coupon");
+        circuitBreakerRegistry.circuitBreaker(CouponCacheServiceImpl.CIRCUIT_BREAKER).transitionToOpenState();
+
+        Assertions.assertThrows(CallNotPermittedException.class, () -> couponCacheService.evaluate("coupon", getDummyEvaluationRequest(2)));
+        Mockito.verify(couponServiceProxy, Mockito.never()).evaluate(Mockito.any(), Mockito.any());
+
+        log.info("Finished testEvaluateWhenCircuitIsOpen successfully");
+    }
+
+    private void awaitVersion(String versionId) throws InterruptedException {
+        for (int i = 0; i < 100 && !versionId.equals(couponCacheService.getCoupon("coupon").getVersionId()); i++) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertEquals(versionId, couponCacheService.getCoupon("coupon").getVersionId());
+    }
+
+    private CouponCacheServiceImpl getCouponCacheService(Duration ttl) {
+        CouponCacheProperties properties = new CouponCacheProperties();
+        properties.setTtl(ttl);
+
+        return new CouponCacheServiceImpl(couponServiceProxy, properties, circuitBreakerRegistry);
+    }
+
+    private Coupon getDummyCoupon(String versionId) {
+        return new Coupon("cpu", 15, versionId);
+    }
+
+    private CouponEvaluationRequest getDummyEvaluationRequest(int quantity) {
+        return new CouponEvaluationRequest(List.of(), List.of(new CouponEvaluationLine(10L, "cpu", "brand", List.of("CPU"), new BigDecimal("100.00"), quantity)));
+    }
+
+    private CouponEvaluationResult getDummyEvaluation(String versionId) {
+        return new CouponEvaluationResult(versionId, List.of(), BigDecimal.ZERO, BigDecimal.ZERO, List.of(), List.of());
+    }
+}
@@ -1,6 +1,7 @@
 package com.savian.cartblitz.service;
 
 import com.savian.cartblitz.dto.CustomerDto;
+import com.savian.cartblitz.dto.CustomerProfileView;
 import com.savian.cartblitz.exception.CustomerNotFoundException;
 import com.savian.cartblitz.exception.CustomerUsernameDuplicateException;
 import com.savian.cartblitz.mapper.CustomerMapper;
@@ -124,6 +125,37 @@ public class CustomerServiceUnitTest {
         log.info("Finished testGetCustomerByUsernameNotFound successfully");
     }
 
+    @Test
+    public void testGetCustomerProfileFound() {
+        Customer customer = getDummyCustomer();
+        CustomerProfileView customerProfileView = new CustomerProfileView();
+        customerProfileView.setUsername(customer.getUsername());
+
+        log.info("Starting testGetCustomerProfileFound");
+
+        Mockito.when(customerRepository.findByUsername(customer.getUsername())).thenReturn(Optional.of(customer));
+        Mockito.when(customerMapper.customerToCustomerProfileView(customer)).thenReturn(customerProfileView);
+
+        Optional<CustomerProfileView> result = customerService.getCustomerProfile(customer.getUsername());
+
+        Assertions.assertTrue(result.isPresent());
+        Assertions.assertEquals(customerProfileView, result.get());
+
+        log.info("Finished testGetCustomerProfileFound successfully");
+    }
+
+    @Test
+    public void testGetCustomerProfileNotFound() {
+        log.info("Starting testGetCustomerProfileNotFound");
+
+        Mockito.when(customerRepository.findByUsername("missing")).thenReturn(Optional.empty());
+
+        Assertions.assertTrue(customerService.getCustomerProfile("missing").isEmpty());
+        Mockito.verify(customerMapper, Mockito.never()).customerToCustomerProfileView(Mockito.any());
+
+        log.info("Finished testGetCustomerProfileNotFound successfully");
+    }
+
     @Test
     public void testGetCustomersAscFullName() {
         List<Customer> customers = new ArrayList<>();
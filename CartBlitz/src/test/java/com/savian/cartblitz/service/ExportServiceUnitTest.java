@@ -0,0 +1,134 @@
+package com.savian.cartblitz.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savian.cartblitz.dto.*;
+import com.savian.cartblitz.model.OrderStatusEnum;
+import com.savian.cartblitz.repository.ExportRowRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class ExportServiceUnitTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ExportRowRepository exportRowRepository;
+
+    private ExportServiceImpl exportService;
+
+    @BeforeEach
+    public void setUp() {
+        exportService = new ExportServiceImpl(exportRowRepository, objectMapper);
+    }
+
+    @Test
+    public void testExportProductsAsNdjson() throws Exception {
+        log.info("Starting testExportProductsAsNdjson");
+
+        AtomicBoolean closed = new AtomicBoolean();
+        Mockito.when(exportRowRepository.streamProducts()).thenReturn(Stream.of(getDummyProductSummary(10L), getDummyProductSummary(11L))
+                .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long count = exportService.exportProducts(outputStream, ExportFormat.NDJSON);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(2, count);
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertEquals(10L, objectMapper.readTree(lines[0]).get("productId").asLong());
+        Assertions.assertEquals(11L, objectMapper.readTree(lines[1]).get("productId").asLong());
+        Assertions.assertTrue(outputStream.toString(StandardCharsets.UTF_8).endsWith("\n"));
+        Assertions.assertTrue(closed.get());
+
+        log.info("Finished testExportProductsAsNdjson successfully");
+    }
+
+    @Test
+    public void testExportReviewsAsArray() throws Exception {
+        log.info("Starting testExportReviewsAsArray");
+
+        Mockito.when(exportRowRepository.streamReviews()).thenReturn(Stream.of(
+                new ReviewDto(1L, 2L, 3L, 5, "comment", new Timestamp(0L)),
+                new ReviewDto(4L, 2L, 3L, 1, null, new Timestamp(0L))));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exportService.exportReviews(outputStream, ExportFormat.ARRAY);
+
+        JsonNode reviews = objectMapper.readTree(outputStream.toByteArray());
+        Assertions.assertTrue(reviews.isArray());
+        Assertions.assertEquals(2, reviews.size());
+        Assertions.assertEquals(5, reviews.get(0).get("rating").asInt());
+        Assertions.assertEquals(4L, reviews.get(1).get("reviewId").asLong());
+
+        log.info("Finished testExportReviewsAsArray successfully");
+    }
+
+    @Test
+    public void testExportEmptyTable() throws Exception {
+        log.info("Starting testExportEmptyTable");
+
+        Mockito.when(exportRowRepository.streamCustomers()).thenReturn(Stream.empty());
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        ByteArrayOutputStream array = new ByteArrayOutputStream();
+
+        Assertions.assertEquals(0, exportService.exportCustomers(ndjson, ExportFormat.NDJSON));
+        Mockito.when(exportRowRepository.streamCustomers()).thenReturn(Stream.empty());
+        Assertions.assertEquals(0, exportService.exportCustomers(array, ExportFormat.ARRAY));
+
+        Assertions.assertEquals("", ndjson.toString(StandardCharsets.UTF_8));
+        Assertions.assertEquals("[]", array.toString(StandardCharsets.UTF_8));
+
+        log.info("Finished testExportEmptyTable successfully");
+    }
+
+    @Test
+    public void testExportOrdersGroupsLines() throws Exception {
+        log.info("Starting testExportOrdersGroupsLines");
+
+        Mockito.when(exportRowRepository.streamOrders()).thenReturn(Stream.of(
+                getDummyOrderRow(1L, 10L),
+                getDummyOrderRow(1L, 11L),
+                getDummyOrderRow(2L, null),
+                getDummyOrderRow(3L, 10L)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long count = exportService.exportOrders(outputStream, ExportFormat.NDJSON);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(3, count);
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertEquals(2, objectMapper.readTree(lines[0]).get("orderProducts").size());
+        Assertions.assertEquals(11L, objectMapper.readTree(lines[0]).get("orderProducts").get(1).get("productId").asLong());
+        Assertions.assertEquals(0, objectMapper.readTree(lines[1]).get("orderProducts").size());
+        Assertions.assertEquals(3L, objectMapper.readTree(lines[2]).get("orderId").asLong());
+
+        log.info("Finished testExportOrdersGroupsLines successfully");
+    }
+
+    private ProductSummary getDummyProductSummary(Long productId) {
+        return new ProductSummary(productId, "productTest", BigDecimal.TEN, 5, "productTest description", "productTest brand", "productTest category", 0L, null);
+    }
+
+    private OrderExportRow getDummyOrderRow(Long orderId, Long productId) {
+        return new OrderExportRow(orderId, 7L, BigDecimal.valueOf(100), OrderStatusEnum.COMPLETED, new Timestamp(0L), 0L,
+                productId, productId == null ? null : 1, productId == null ? null : BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,93 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.exception.ProductNotFoundException;
+import com.savian.cartblitz.exception.ProductQuantityException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class InventoryServiceUnitTest {
+    @InjectMocks
+    private InventoryServiceImpl inventoryService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private CatalogCacheService catalogCacheService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReserveStockSuccess() {
+        log.info("Starting testReserveStockSuccess");
+
+        ArgumentCaptor<Collection<Map.Entry<Long, Integer>>> lines = ArgumentCaptor.forClass(Collection.class);
+        Mockito.when(jdbcTemplate.batchUpdate(Mockito.anyString(), lines.capture(), Mockito.eq(3), Mockito.any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 1, 1}});
+
+        inventoryService.reserveStock(Map.of(30L, 1, 10L, 2, 20L, 3));
+
+        Assertions.assertEquals(List.of(10L, 20L, 30L), lines.getValue().stream().map(Map.Entry::getKey).toList());
+        Mockito.verify(catalogCacheService).evictProductStock(Mockito.argThat(productIds -> productIds.containsAll(List.of(10L, 20L, 30L))));
+
+        log.info("Finished testReserveStockSuccess successfully");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReserveStockInsufficientStock() {
+        log.info("Starting testReserveStockInsufficientStock");
+
+        Mockito.when(jdbcTemplate.batchUpdate(Mockito.anyString(), Mockito.anyCollection(), Mockito.eq(2), Mockito.any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 0}});
+        Mockito.when(jdbcTemplate.queryForList(Mockito.anyString(), Mockito.eq(Integer.class), Mockito.eq(20L))).thenReturn(List.of(1));
+
+        ProductQuantityException exception = Assertions.assertThrows(ProductQuantityException.class,
+                () -> inventoryService.reserveStock(Map.of(10L, 1, 20L, 2)));
+
+        Assertions.assertTrue(exception.getMessage().contains("20"));
+        Mockito.verifyNoInteractions(catalogCacheService);
+
+        log.info("Finished testReserveStockInsufficientStock successfully");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReserveStockProductNotFound() {
+        log.info("Starting testReserveStockProductNotFound");
+
+        Mockito.when(jdbcTemplate.batchUpdate(Mockito.anyString(), Mockito.anyCollection(), Mockito.eq(1), Mockito.any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{0}});
+        Mockito.when(jdbcTemplate.queryForList(Mockito.anyString(), Mockito.eq(Integer.class), Mockito.eq(10L))).thenReturn(List.of());
+
+        Assertions.assertThrows(ProductNotFoundException.class, () -> inventoryService.reserveStock(Map.of(10L, 1)));
+
+        log.info("Finished testReserveStockProductNotFound successfully");
+    }
+
+    @Test
+    public void testReserveStockEmpty() {
+        log.info("Starting testReserveStockEmpty");
+
+        inventoryService.reserveStock(Map.of());
+
+        Mockito.verifyNoInteractions(jdbcTemplate, catalogCacheService);
+
+        log.info("Finished testReserveStockEmpty successfully");
+    }
+}
@@ -35,7 +35,7 @@ public class OrderProductServiceUnitTest {
     @Mock
     private ProductRepository productRepository;
     @Mock
-    private OrderService orderService;
+    private CartService cartService;
 
     @Test
     public void testGetAllOrderProducts() {
@@ -62,12 +62,12 @@ public class OrderProductServiceUnitTest {
 
         log.info("Starting testGetOrderProductByIdFound");
 
-        Mockito.when(orderProductRepository.findByOrderOrderIdAndProductProductId(Mockito.anyLong(), Mockito.anyLong())).thenReturn(Optional.of(orderProduct));
+        Mockito.when(cartService.getLine(Mockito.anyLong(), Mockito.anyLong())).thenReturn(Optional.of(orderProduct));
 
         Optional<OrderProduct> result = orderProductService.getOrderProductByOrderIdAndProductId(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId());
         result.ifPresent(value -> log.info(String.valueOf(value.getOrderProductId())));
 
-        Mockito.verify(orderProductRepository).findByOrderOrderIdAndProductProductId(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId());
+        Mockito.verify(cartService).getLine(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId());
 
         log.info("Finished testGetOrderProductByIdFound successfully");
 
@@ -81,12 +81,12 @@ public class OrderProductServiceUnitTest {
 
         log.info("Starting testGetOrderProductByIdNotFound");
 
-        Mockito.when(orderProductRepository.findByOrderOrderIdAndProductProductId(Mockito.anyLong(), Mockito.anyLong())).thenReturn(Optional.empty());
+        Mockito.when(cartService.getLine(Mockito.anyLong(), Mockito.anyLong())).thenReturn(Optional.empty());
 
         Assertions.assertThrows(OrderProductNotFoundException.class, () -> orderProductService.getOrderProductByOrderIdAndProductId(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId()));
         log.error("OrderProduct with given ID was not found");
 
-        Mockito.verify(orderProductRepository).findByOrderOrderIdAndProductProductId(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId());
+        Mockito.verify(cartService).getLine(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId());
 
         log.info("Finished testGetOrderProductByIdNotFound successfully");
     }
@@ -100,12 +100,12 @@ public class OrderProductServiceUnitTest {
         log.info("Starting testGetOrderProductsByOrderIdFound");
 
         Mockito.when(orderRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(orderProduct.getOrder()));
-        Mockito.when(orderProductRepository.findByOrderOrderId(Mockito.anyLong())).thenReturn(orderProducts);
+        Mockito.when(cartService.getLines(Mockito.anyLong())).thenReturn(orderProducts);
 
         List<OrderProduct> result = orderProductService.getOrderProductsByOrderId(orderProduct.getOrder().getOrderId());
         orderProducts.forEach(orderProduct1 -> log.info(String.valueOf(orderProduct1.getOrderProductId())));
 
-        Mockito.verify(orderProductRepository).findByOrderOrderId(orderProduct.getOrder().getOrderId());
+        Mockito.verify(cartService).getLines(orderProduct.getOrder().getOrderId());
 
         log.info("Finished testGetOrderProductsByOrderIdFound successfully");
 
@@ -172,10 +172,7 @@ public class OrderProductServiceUnitTest {
 
         log.info("Starting testSaveOrderProduct");
 
-        Mockito.when(orderRepository.findById(orderProductDto.getOrderId())).thenReturn(Optional.of(orderProduct.getOrder()));
-        Mockito.when(productRepository.findById(orderProductDto.getProductId())).thenReturn(Optional.of(orderProduct.getProduct()));
-        Mockito.when(orderProductRepository.findByOrderOrderIdAndProductProductId(Mockito.anyLong(), Mockito.anyLong())).thenReturn(Optional.empty());
-        Mockito.when(orderProductRepository.save(Mockito.any(OrderProduct.class))).thenReturn(orderProduct);
+        Mockito.when(cartService.saveLine(orderProductDto.getOrderId(), orderProductDto.getProductId(), orderProductDto.getQuantity(), orderProductDto.getPrice())).thenReturn(orderProduct);
 
         OrderProduct result = orderProductService.saveOrderProduct(orderProductDto);
         log.info(String.valueOf(result.getOrderProductId()));
@@ -191,7 +188,8 @@ public class OrderProductServiceUnitTest {
 
         log.info("Starting testSaveOrderProductOrderNotFound");
 
-        Mockito.when(orderRepository.findById(orderProductDto.getOrderId())).thenReturn(Optional.empty());
+        Mockito.when(cartService.saveLine(orderProductDto.getOrderId(), orderProductDto.getProductId(), orderProductDto.getQuantity(), orderProductDto.getPrice()))
+                .thenThrow(new OrderNotFoundException(orderProductDto.getOrderId()));
 
         Assertions.assertThrows(OrderNotFoundException.class, () -> orderProductService.saveOrderProduct(orderProductDto));
         log.error("OrderProduct with given orderId was not found");
@@ -199,62 +197,6 @@ public class OrderProductServiceUnitTest {
         log.info("Finished testSaveOrderProductOrderNotFound successfully");
     }
 
-    @Test
-    public void testSaveOrderProductProductNotFound() {
-        OrderProductDto orderProductDto = getDummyOrderProductDto();
-        OrderProduct orderProduct = getDummyOrderProduct();
-
-        log.info("Starting testSaveOrderProductProductNotFound");
-
-        Mockito.when(orderRepository.findById(orderProductDto.getOrderId())).thenReturn(Optional.of(orderProduct.getOrder()));
-        Mockito.when(productRepository.findById(orderProductDto.getProductId())).thenReturn(Optional.empty());
-
-        Assertions.assertThrows(ProductNotFoundException.class, () -> orderProductService.saveOrderProduct(orderProductDto));
-        log.error("OrderProduct with given orderId was not found");
-
-        log.info("Finished testSaveOrderProductProductNotFound successfully");
-    }
-
-    @Test
-    public void testSaveOrderProductUpdateOrderProduct() {
-        OrderProductDto orderProductDto = getDummyOrderProductDto();
-        OrderProduct existingOrderProduct = getDummyOrderProduct();
-
-        log.info("Starting testSaveOrderProductUpdateOrderProduct");
-
-        Mockito.when(orderRepository.findById(orderProductDto.getOrderId())).thenReturn(Optional.of(existingOrderProduct.getOrder()));
-        Mockito.when(productRepository.findById(orderProductDto.getProductId())).thenReturn(Optional.of(existingOrderProduct.getProduct()));
-        Mockito.when(orderProductRepository.findByOrderOrderIdAndProductProductId(Mockito.anyLong(), Mockito.anyLong())).thenReturn(Optional.of(existingOrderProduct));
-        Mockito.when(orderProductRepository.save(Mockito.any(OrderProduct.class))).thenReturn(existingOrderProduct);
-
-        OrderProduct result = orderProductService.saveOrderProduct(orderProductDto);
-        log.info(String.valueOf(result.getOrderProductId()));
-
-        Assertions.assertEquals(existingOrderProduct, result);
-
-        Mockito.verify(orderService, Mockito.times(2)).modifyTotalAmount(Mockito.anyLong(), Mockito.any(BigDecimal.class));
-
-        log.info("Finished testSaveOrderProductUpdateOrderProduct successfully");
-    }
-
-    @Test
-    public void testSaveOrderProductProductQuantityException() {
-        OrderProductDto orderProductDto = getDummyOrderProductDto();
-        OrderProduct orderProduct = getDummyOrderProduct();
-        orderProductDto.setQuantity(1);
-
-        log.info("Starting testSaveOrderProductProductQuantityException");
-
-        Mockito.when(orderRepository.findById(orderProductDto.getOrderId())).thenReturn(Optional.of(orderProduct.getOrder()));
-        Mockito.when(productRepository.findById(orderProductDto.getProductId())).thenReturn(Optional.of(orderProduct.getProduct()));
-        Mockito.when(orderProductRepository.findByOrderOrderIdAndProductProductId(Mockito.anyLong(), Mockito.anyLong())).thenReturn(Optional.empty());
-
-        Assertions.assertThrows(ProductQuantityException.class, () -> orderProductService.saveOrderProduct(orderProductDto));
-        log.error("There are not enough products in the db");
-
-        log.info("Finished testSaveOrderProductProductQuantityException successfully");
-    }
-
     @Test
     public void testUpdateOrderProduct() {
         OrderProductDto orderProductDto = getDummyOrderProductDto();
@@ -262,16 +204,12 @@ public class OrderProductServiceUnitTest {
 
         log.info("Starting testUpdateOrderProduct");
 
-        Mockito.when(orderProductRepository.findByOrderOrderIdAndProductProductId(orderProductDto.getOrderId(), orderProductDto.getProductId())).thenReturn(Optional.of(existingOrderProduct));
-        Mockito.when(orderRepository.findById(orderProductDto.getOrderId())).thenReturn(Optional.of(existingOrderProduct.getOrder()));
-        Mockito.when(productRepository.findById(orderProductDto.getProductId())).thenReturn(Optional.of(existingOrderProduct.getProduct()));
-        Mockito.when(orderProductRepository.save(Mockito.any(OrderProduct.class))).thenReturn(existingOrderProduct);
+        Mockito.when(cartService.updateLine(orderProductDto.getOrderId(), orderProductDto.getProductId(), orderProductDto.getQuantity(), orderProductDto.getPrice())).thenReturn(existingOrderProduct);
 
         OrderProduct result = orderProductService.updateOrderProduct(orderProductDto.getOrderId(), orderProductDto.getProductId(), orderProductDto);
         log.info(String.valueOf(result.getOrderProductId()));
 
         Assertions.assertEquals(existingOrderProduct, result);
-        Mockito.verify(orderService, Mockito.times(2)).modifyTotalAmount(Mockito.anyLong(), Mockito.any(BigDecimal.class));
 
         log.info("Finished testUpdateOrderProduct successfully");
     }
@@ -282,7 +220,8 @@ public class OrderProductServiceUnitTest {
 
         log.info("Starting testUpdateOrderProductOrderProductNotFound");
 
-        Mockito.when(orderProductRepository.findByOrderOrderIdAndProductProductId(orderProductDto.getOrderId(), orderProductDto.getProductId())).thenReturn(Optional.empty());
+        Mockito.when(cartService.updateLine(orderProductDto.getOrderId(), orderProductDto.getProductId(), orderProductDto.getQuantity(), orderProductDto.getPrice()))
+                .thenThrow(new OrderProductNotFoundException(orderProductDto.getOrderId(), orderProductDto.getProductId()));
 
         Assertions.assertThrows(OrderProductNotFoundException.class, () -> orderProductService.updateOrderProduct(orderProductDto.getOrderId(), orderProductDto.getProductId(), orderProductDto));
         log.error("OrderProduct with given ID was not found");
@@ -296,33 +235,14 @@ public class OrderProductServiceUnitTest {
 
         log.info("Starting testRemoveOrderProductByIdSuccess");
 
-        Mockito.when(orderProductRepository.findByOrderOrderIdAndProductProductId(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId())).thenReturn(Optional.of(orderProduct));
-
         orderProductService.removeOrderProductById(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId());
         log.info(String.valueOf(orderProduct.getOrderProductId()));
 
-        Mockito.verify(orderService).modifyTotalAmount(Mockito.anyLong(), Mockito.any(BigDecimal.class));
-        Mockito.verify(orderProductRepository).deleteByOrderIdAndProductId(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId());
+        Mockito.verify(cartService).removeLine(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId());
 
         log.info("Finished testRemoveOrderProductByIdSuccess successfully");
     }
 
-    @Test
-    public void testRemoveOrderProductByIdNotFound() {
-        OrderProduct orderProduct = getDummyOrderProduct();
-
-        log.info("Starting testRemoveOrderProductByIdNotFound");
-
-        Mockito.when(orderProductRepository.findByOrderOrderIdAndProductProductId(Mockito.anyLong(), Mockito.anyLong())).thenReturn(Optional.empty());
-
-        Assertions.assertThrows(OrderProductNotFoundException.class, () -> orderProductService.removeOrderProductById(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId()));
-        log.error("OrderProduct with given ID was not found");
-
-        Mockito.verify(orderProductRepository).findByOrderOrderIdAndProductProductId(orderProduct.getOrder().getOrderId(), orderProduct.getProduct().getProductId());
-
-        log.info("Finished testRemoveOrderProductByIdNotFound successfully");
-    }
-
     private OrderProduct getDummyOrderProduct(){
         OrderProduct orderProduct = new OrderProduct();
         orderProduct.setOrder(getDummyOrder());
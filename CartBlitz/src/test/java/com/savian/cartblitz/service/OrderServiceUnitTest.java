@@ -1,29 +1,40 @@
 package com.savian.cartblitz.service;
 
+import com.savian.cartblitz.dto.CouponEvaluationResult;
+import com.savian.cartblitz.dto.CouponLinePrice;
+import com.savian.cartblitz.dto.OrderDetailView;
 import com.savian.cartblitz.dto.OrderDto;
 import com.savian.cartblitz.exception.CustomerNotFoundException;
 import com.savian.cartblitz.exception.OrderInProgressException;
 import com.savian.cartblitz.exception.OrderNotFoundException;
+import com.savian.cartblitz.exception.ProductQuantityException;
 import com.savian.cartblitz.mapper.OrderMapper;
 import com.savian.cartblitz.model.*;
 import com.savian.cartblitz.repository.CustomerRepository;
 import com.savian.cartblitz.repository.OrderRepository;
 import com.savian.cartblitz.repository.ProductRepository;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +52,14 @@ public class OrderServiceUnitTest {
     private CustomerRepository customerRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private InventoryService inventoryService;
+    @Mock
+    private CartStore cartStore;
+    @Mock
+    private CouponCacheService couponCacheService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @Test
     void testGetAllOrders() {
@@ -68,13 +87,13 @@ public class OrderServiceUnitTest {
 
         log.info("Starting testGetOrderByIdFound");
 
-        Mockito.when(orderRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(order));
+        Mockito.when(orderRepository.findDetailByOrderId(Mockito.anyLong())).thenReturn(Optional.of(order));
         Mockito.when(orderMapper.orderToOrderDto(Mockito.any(Order.class))).thenReturn(orderDto);
 
         Optional<OrderDto> result = orderService.getOrderById(orderDto.getOrderId());
         result.ifPresent(value -> log.info(String.valueOf(value.getOrderId())));
 
-        Mockito.verify(orderRepository).findById(order.getOrderId());
+        Mockito.verify(orderRepository).findDetailByOrderId(order.getOrderId());
         Assertions.assertTrue(result.isPresent());
         Assertions.assertEquals(orderDto, result.get());
 
@@ -87,7 +106,7 @@ public class OrderServiceUnitTest {
 
         log.info("Starting testGetOrderByIdNotFound");
 
-        Mockito.when(orderRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        Mockito.when(orderRepository.findDetailByOrderId(Mockito.anyLong())).thenReturn(Optional.empty());
 
         Assertions.assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(order.getOrderId()));
         log.error("Order with given ID was not found");
@@ -95,6 +114,39 @@ public class OrderServiceUnitTest {
         log.info("Finished testGetOrderByIdNotFound successfully");
     }
 
+    @Test
+    void testGetOrderDetailViewFound() {
+        Order order = getDummyOrder();
+        OrderDetailView orderDetailView = new OrderDetailView();
+        orderDetailView.setOrderId(order.getOrderId());
+
+        log.info("Starting testGetOrderDetailViewFound");
+
+        Mockito.when(orderRepository.findDetailByOrderId(Mockito.anyLong())).thenReturn(Optional.of(order));
+        Mockito.when(orderMapper.orderToOrderDetailView(order)).thenReturn(orderDetailView);
+
+        Optional<OrderDetailView> result = orderService.getOrderDetailView(order.getOrderId());
+
+        Mockito.verify(orderRepository).findDetailByOrderId(order.getOrderId());
+        Assertions.assertTrue(result.isPresent());
+        Assertions.assertEquals(orderDetailView, result.get());
+
+        log.info("Finished testGetOrderDetailViewFound successfully");
+    }
+
+    @Test
+    void testGetOrderDetailViewNotFound() {
+        Order order = getDummyOrder();
+
+        log.info("Starting testGetOrderDetailViewNotFound");
+
+        Mockito.when(orderRepository.findDetailByOrderId(Mockito.anyLong())).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(OrderNotFoundException.class, () -> orderService.getOrderDetailView(order.getOrderId()));
+
+        log.info("Finished testGetOrderDetailViewNotFound successfully");
+    }
+
     @Test
     void testGetOrdersByCustomerIdFound() {
         Order order = getDummyOrder();
@@ -106,7 +158,8 @@ public class OrderServiceUnitTest {
 
         log.info("Starting testGetOrdersByCustomerIdFound");
 
-        Mockito.when(customerRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(order.getCustomer()));
+        Mockito.when(customerRepository.existsById(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(orderRepository.findByCustomerCustomerId(Mockito.anyLong())).thenReturn(List.of(order));
         Mockito.when(orderMapper.orderToOrderDto(order)).thenReturn(orderDto);
 
         List<OrderDto> result = orderService.getOrdersByCustomerId(orderDto.getCustomerId());
@@ -116,7 +169,8 @@ public class OrderServiceUnitTest {
         Assertions.assertEquals(1, result.size());
         Assertions.assertEquals(orderDto, result.get(0));
 
-        Mockito.verify(customerRepository).findById(customer.getCustomerId());
+        Mockito.verify(customerRepository).existsById(customer.getCustomerId());
+        Mockito.verify(orderRepository).findByCustomerCustomerId(customer.getCustomerId());
         Mockito.verify(orderMapper).orderToOrderDto(order);
 
         log.info("Finished testGetOrdersByCustomerIdFound successfully");
@@ -128,7 +182,7 @@ public class OrderServiceUnitTest {
 
         log.info("Starting testGetOrdersByCustomerIdCustomerNotFound");
 
-        Mockito.when(customerRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        Mockito.when(customerRepository.existsById(Mockito.anyLong())).thenReturn(false);
 
         List<OrderDto> result =  orderService.getOrdersByCustomerId(orderDto.getCustomerId());
         log.error("Customer with given ID was not found, so an empty list has been returned");
@@ -166,7 +220,6 @@ public class OrderServiceUnitTest {
         log.info("Starting testCompleteOrderFound");
 
         Mockito.when(orderRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(order));
-        Mockito.when(productRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
         Mockito.when(orderRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
         Mockito.when(orderMapper.orderToOrderDto(order)).thenReturn(orderDto);
 
@@ -176,14 +229,57 @@ public class OrderServiceUnitTest {
         Assertions.assertNotNull(result);
         Assertions.assertEquals(OrderStatusEnum.COMPLETED, order.getStatus());
 
-        Mockito.verify(orderRepository).findById(order.getOrderId());
-        Mockito.verify(productRepository, Mockito.times(order.getOrderProducts().size())).save(Mockito.any());
+        InOrder inOrder = Mockito.inOrder(cartStore, transactionManager, orderRepository);
+        inOrder.verify(cartStore).evict(order.getOrderId());
+        inOrder.verify(transactionManager).getTransaction(Mockito.any());
+        inOrder.verify(orderRepository).findById(order.getOrderId());
+        Mockito.verify(inventoryService).reserveStock(Map.of(getDummyProduct().getProductId(), 0));
+        Mockito.verify(productRepository, Mockito.never()).save(Mockito.any());
         Mockito.verify(orderRepository).save(order);
         Mockito.verify(orderMapper).orderToOrderDto(order);
 
         log.info("Finished testCompleteOrderFound successfully");
     }
 
+    @Test
+    void testCompleteOrderInsufficientStock() {
+        Order order = getDummyOrder();
+        order.setStatus(OrderStatusEnum.CART);
+        order.setOrderProducts(List.of(getDummyOrderProduct()));
+
+        log.info("Starting testCompleteOrderInsufficientStock");
+
+        Mockito.when(orderRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(order));
+        Mockito.doThrow(new ProductQuantityException(10L, 0)).when(inventoryService).reserveStock(Mockito.anyMap());
+
+        Assertions.assertThrows(ProductQuantityException.class, () -> orderService.completeOrder(order.getOrderId()));
+        Assertions.assertEquals(OrderStatusEnum.CART, order.getStatus());
+
+        Mockito.verify(orderRepository, Mockito.never()).save(Mockito.any());
+
+        log.info("Finished testCompleteOrderInsufficientStock successfully");
+    }
+
+    @Test
+    void testCompleteOrderAlreadyCompleted() {
+        Order order = getDummyOrder();
+        order.setStatus(OrderStatusEnum.COMPLETED);
+        order.setOrderProducts(List.of(getDummyOrderProduct()));
+        OrderDto orderDto = getDummyOrderDto();
+
+        log.info("Starting testCompleteOrderAlreadyCompleted");
+
+        Mockito.when(orderRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(order));
+        Mockito.when(orderMapper.orderToOrderDto(order)).thenReturn(orderDto);
+
+        Assertions.assertEquals(orderDto, orderService.completeOrder(order.getOrderId()));
+
+        Mockito.verifyNoInteractions(inventoryService);
+        Mockito.verify(orderRepository, Mockito.never()).save(Mockito.any());
+
+        log.info("Finished testCompleteOrderAlreadyCompleted successfully");
+    }
+
     @Test
     void testCompleteOrderNotFound() {
         Order order = getDummyOrder();
@@ -241,7 +337,7 @@ public class OrderServiceUnitTest {
 
         Mockito.when(orderRepository.findByCustomerCustomerIdAndStatus(Mockito.anyLong(), Mockito.any())).thenReturn(Collections.emptyList());
         Mockito.when(customerRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(order.getCustomer()));
-        Mockito.when(orderRepository.save(Mockito.any())).thenReturn(order);
+        Mockito.when(orderRepository.saveAndFlush(Mockito.any())).thenReturn(order);
         Mockito.when(orderMapper.orderToOrderDto(order)).thenReturn(orderDto);
 
         OrderDto result = orderService.saveOrder(order.getOrderId());
@@ -266,6 +362,22 @@ public class OrderServiceUnitTest {
         log.info("Finished testSaveOrderInProgressFound successfully");
     }
 
+    @Test
+    void testSaveOrderConcurrentCartCreated() {
+        Order order = getDummyOrder();
+
+        log.info("Starting testSaveOrderConcurrentCartCreated");
+
+        Mockito.when(orderRepository.findByCustomerCustomerIdAndStatus(Mockito.anyLong(), Mockito.any())).thenReturn(Collections.emptyList());
+        Mockito.when(customerRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(order.getCustomer()));
+        Mockito.when(orderRepository.saveAndFlush(Mockito.any())).thenThrow(new DataIntegrityViolationException("uk_order_active_cart"));
+
+        Assertions.assertThrows(OrderInProgressException.class, () -> orderService.saveOrder(order.getOrderId()));
+        log.error("A cart order was created concurrently for the customer");
+
+        log.info("Finished testSaveOrderConcurrentCartCreated successfully");
+    }
+
     @Test
     void testSaveOrderCustomerNotFound() {
         Order order = getDummyOrder();
@@ -365,6 +477,125 @@ public class OrderServiceUnitTest {
         log.info("Finished testRemoveOrderByIdNotFound successfully");
     }
 
+    @Test
+    void testApplyCouponWithoutCodesUsesEvaluation() {
+        Order order = getDummyCouponOrder();
+        CouponEvaluationResult evaluation = new CouponEvaluationResult("1",
+                List.of(new CouponLinePrice(10L, 2, new BigDecimal("99.99"), new BigDecimal("90.00"), new BigDecimal("180.00"), List.of())),
+                new BigDecimal("199.98"), new BigDecimal("180.00"), List.of(), List.of());
+
+        log.info("Starting testApplyCouponWithoutCodesUsesEvaluation");
+
+        Mockito.when(orderRepository.findById(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(couponCacheService.evaluate(Mockito.eq("coupon"), Mockito.argThat(request -> request.getCodes().isEmpty())))
+                .thenReturn(evaluation);
+        Mockito.when(orderRepository.save(order)).thenReturn(order);
+
+        Order result = orderService.applyCoupon(order.getOrderId(), List.of(), "coupon");
+
+        Assertions.assertEquals(new BigDecimal("90.00"), result.getOrderProducts().get(0).getPrice());
+        Assertions.assertEquals(new BigDecimal("180.00"), result.getTotalAmount());
+        Mockito.verify(cartStore).evict(order.getOrderId());
+        Mockito.verify(couponCacheService, Mockito.never()).getCoupon(Mockito.any());
+
+        log.info("Finished testApplyCouponWithoutCodesUsesEvaluation successfully");
+    }
+
+    @Test
+    void testApplyCachedCouponWhenEvaluationFails() {
+        Order order = getDummyCouponOrder();
+
+        log.info("Starting testApplyCachedCouponWhenEvaluationFails");
+
+        Mockito.when(orderRepository.findById(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(couponCacheService.evaluate(Mockito.eq("coupon"), Mockito.any())).thenThrow(new IllegalStateException("coupon service unavailable"));
+        Mockito.when(couponCacheService.getCoupon("coupon")).thenReturn(new Coupon("PRODUCTTEST CATEGORY", 15, "1"));
+        Mockito.when(orderRepository.save(order)).thenReturn(order);
+
+        Order result = orderService.applyCoupon(order.getOrderId(), List.of(), "coupon");
+
+        Assertions.assertEquals(new BigDecimal("84.99"), result.getOrderProducts().get(0).getPrice());
+        Assertions.assertEquals(new BigDecimal("169.98"), result.getTotalAmount());
+
+        log.info("Finished testApplyCachedCouponWhenEvaluationFails successfully");
+    }
+
+    @Test
+    void testApplyCachedCouponWhenCircuitIsOpen() {
+        Order order = getDummyCouponOrder();
+
+        log.info("Starting testApplyCachedCouponWhenCircuitIsOpen");
+
+        Mockito.when(orderRepository.findById(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(couponCacheService.evaluate(Mockito.eq("coupon"), Mockito.any()))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults(CouponCacheServiceImpl.CIRCUIT_BREAKER)));
+        Mockito.when(couponCacheService.getCoupon("coupon")).thenReturn(new Coupon("PRODUCTTEST CATEGORY", 15, "1"));
+        Mockito.when(orderRepository.save(order)).thenReturn(order);
+
+        Order result = orderService.applyCoupon(order.getOrderId(), List.of(), "coupon");
+
+        Assertions.assertEquals(new BigDecimal("84.99"), result.getOrderProducts().get(0).getPrice());
+
+        log.info("Finished testApplyCachedCouponWhenCircuitIsOpen successfully");
+    }
+
+    @Test
+    void testApplyCouponCodesWhenEvaluationFails() {
+        Order order = getDummyCouponOrder();
+
+        log.info("Starting testApplyCouponCodesWhenEvaluationFails");
+
+        Mockito.when(orderRepository.findById(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(couponCacheService.evaluate(Mockito.eq("coupon"), Mockito.any())).thenThrow(new IllegalStateException("coupon service unavailable"));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> orderService.applyCoupon(order.getOrderId(), List.of("GPU10"), "coupon"));
+        Mockito.verify(couponCacheService, Mockito.never()).getCoupon(Mockito.any());
+        Mockito.verify(orderRepository, Mockito.never()).save(Mockito.any());
+
+        log.info("Finished testApplyCouponCodesWhenEvaluationFails successfully");
+    }
+
+    @Test
+    void testApplyCouponCodes() {
+        Order order = getDummyCouponOrder();
+        CouponEvaluationResult evaluation = new CouponEvaluationResult("1",
+                List.of(new CouponLinePrice(10L, 2, new BigDecimal("99.99"), new BigDecimal("80.00"), new BigDecimal("160.00"), List.of("GPU10"))),
+                new BigDecimal("199.98"), new BigDecimal("160.00"), List.of("GPU10"), List.of());
+
+        log.info("Starting testApplyCouponCodes");
+
+        Mockito.when(orderRepository.findById(order.getOrderId())).thenReturn(Optional.of(order));
+        Mockito.when(couponCacheService.evaluate(Mockito.eq("coupon"), Mockito.argThat(request ->
+                request.getCodes().equals(List.of("GPU10"))
+                        && request.getLines().size() == 1
+                        && request.getLines().get(0).getUnitPrice().equals(new BigDecimal("99.99"))
+                        && request.getLines().get(0).getTags().equals(List.of("GPU"))))).thenReturn(evaluation);
+        Mockito.when(orderRepository.save(order)).thenReturn(order);
+
+        Order result = orderService.applyCoupon(order.getOrderId(), List.of("GPU10"), "coupon");
+
+        Assertions.assertEquals(new BigDecimal("80.00"), result.getOrderProducts().get(0).getPrice());
+        Assertions.assertEquals(new BigDecimal("160.00"), result.getTotalAmount());
+        Mockito.verify(couponCacheService, Mockito.never()).getCoupon(Mockito.any());
+
+        log.info("Finished testApplyCouponCodes successfully");
+    }
+
+    private Order getDummyCouponOrder(){
+        Product product = getDummyProduct();
+        product.setPrice(new BigDecimal("99.99"));
+        product.setTags(new ArrayList<>(List.of(new Tag("GPU"))));
+
+        OrderProduct orderProduct = getDummyOrderProduct();
+        orderProduct.setProduct(product);
+        orderProduct.setQuantity(2);
+        orderProduct.setPrice(product.getPrice());
+
+        Order order = getDummyOrder();
+        order.setOrderProducts(new ArrayList<>(List.of(orderProduct)));
+        return order;
+    }
+
     private Order getDummyOrder(){
         Order order = new Order();
         order.setOrderId(10L);
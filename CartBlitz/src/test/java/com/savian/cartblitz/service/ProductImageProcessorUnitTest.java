@@ -0,0 +1,129 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.config.ProductImageProperties;
+import com.savian.cartblitz.exception.ProductImageQueueFullException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class ProductImageProcessorUnitTest {
+    @TempDir
+    Path imagesDir;
+
+    private ProductImageServiceImpl productImageService;
+    private ProductImageProcessorImpl productImageProcessor;
+
+    @BeforeEach
+    public void setUp() {
+        ProductImageProperties productImageProperties = new ProductImageProperties();
+        productImageProperties.setProductsDir(imagesDir.toString());
+        productImageService = new ProductImageServiceImpl(productImageProperties);
+        productImageProcessor = new ProductImageProcessorImpl(productImageService, productImageProperties);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        productImageProcessor.shutdown();
+    }
+
+    @Test
+    public void testProcess() throws IOException {
+        log.info("Starting testProcess");
+
+        productImageService.markPending(1L);
+        productImageProcessor.process("cpu", 1L, 1, getDummyImage(1200, 900));
+
+        BufferedImage detailImage = ImageIO.read(imagesDir.resolve("cpu").resolve("1_1.jpg").toFile());
+        Assertions.assertEquals(800, detailImage.getWidth());
+        Assertions.assertEquals(800, detailImage.getHeight());
+        Assertions.assertEquals(400, ImageIO.read(imagesDir.resolve("cpu").resolve("1_1_400.jpg").toFile()).getWidth());
+        Assertions.assertEquals(200, ImageIO.read(imagesDir.resolve("cpu").resolve("1_1_200.jpg").toFile()).getWidth());
+
+        Assertions.assertEquals(1, productImageService.getImageCount(1L));
+        Assertions.assertEquals(ImageFingerprint.of(imagesDir.resolve("cpu").resolve("1_1.jpg")), productImageService.getFingerprint(1L, 1));
+        Assertions.assertFalse(productImageService.isPending(1L));
+
+        log.info("Finished testProcess successfully");
+    }
+
+    @Test
+    public void testReserveRejectsWhenQueueIsFull() throws IOException, InterruptedException {
+        ProductImageProperties productImageProperties = new ProductImageProperties();
+        productImageProperties.setProductsDir(imagesDir.toString());
+        productImageProperties.setWorkerThreads(1);
+        productImageProperties.setQueueCapacity(1);
+        ProductImageProcessorImpl boundedProcessor = new ProductImageProcessorImpl(productImageService, productImageProperties);
+
+        log.info("Starting testReserveRejectsWhenQueueIsFull");
+
+        try {
+            boundedProcessor.reserve(2);
+            Assertions.assertThrows(ProductImageQueueFullException.class, () -> boundedProcessor.reserve(1));
+
+            boundedProcessor.submit("cpu", 1L, 1, getDummyImage(1200, 900));
+            boundedProcessor.release(1);
+        } finally {
+            boundedProcessor.shutdown();
+        }
+
+        Assertions.assertFalse(productImageService.isPending(1L));
+        Assertions.assertTrue(Files.exists(imagesDir.resolve("cpu").resolve("1_1.jpg")));
+        boundedProcessor.reserve(2);
+
+        log.info("Finished testReserveRejectsWhenQueueIsFull successfully");
+    }
+
+    @Test
+    public void testProcessInvalidImage() throws IOException {
+        log.info("Starting testProcessInvalidImage");
+
+        productImageService.markPending(2L);
+        productImageProcessor.process("cpu", 2L, 1, new byte[]{1, 2, 3});
+
+        Assertions.assertFalse(Files.exists(imagesDir.resolve("cpu").resolve("2_1.jpg")));
+        Assertions.assertEquals(0, productImageService.getImageCount(2L));
+        Assertions.assertFalse(productImageService.isPending(2L));
+
+        log.info("Finished testProcessInvalidImage successfully");
+    }
+
+    @Test
+    public void testWriteVariantRemovesTempFileOnFailure() throws IOException {
+        log.info("Starting testWriteVariantRemovesTempFileOnFailure");
+
+        Path source = imagesDir.resolve("source.png");
+        Files.write(source, getDummyImage(100, 100));
+        Path target = Files.createDirectories(imagesDir.resolve("cpu").resolve("3_1_200.jpg"));
+        Files.createFile(target.resolve("occupied"));
+
+        Assertions.assertThrows(IOException.class, () -> productImageProcessor.writeVariant(source, target, 200));
+
+        try (Stream<Path> files = Files.list(target.getParent())) {
+            Assertions.assertEquals(List.of(target), files.toList());
+        }
+
+        log.info("Finished testWriteVariantRemovesTempFileOnFailure successfully");
+    }
+
+    private byte[] getDummyImage(int width, int height) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,104 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.config.ProductImageProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class ProductImageServiceUnitTest {
+    @TempDir
+    Path imagesDir;
+
+    private ProductImageServiceImpl productImageService;
+
+    @BeforeEach
+    public void setUp() {
+        ProductImageProperties productImageProperties = new ProductImageProperties();
+        productImageProperties.setProductsDir(imagesDir.toString());
+        productImageService = new ProductImageServiceImpl(productImageProperties);
+    }
+
+    @Test
+    public void testRebuildManifest() throws IOException {
+        log.info("Starting testRebuildManifest");
+
+        createImage("cpu", "1_1.jpg");
+        createImage("cpu", "1_2.jpg");
+        createImage("cpu", "2_1.jpg");
+        createImage("cpu", "2_3.jpg");
+        createImage("gpu", "3_2.jpg");
+        createImage("gpu", "notes.txt");
+
+        productImageService.rebuildManifest();
+
+        Assertions.assertEquals(2, productImageService.getImageCount(1L));
+        Assertions.assertEquals(1, productImageService.getImageCount(2L));
+        Assertions.assertEquals(0, productImageService.getImageCount(3L));
+        Assertions.assertEquals(0, productImageService.getImageCount(4L));
+        Assertions.assertEquals(List.of("/images/products/cpu/1_1.jpg", "/images/products/cpu/1_2.jpg"), productImageService.getImagePaths(1L));
+        Assertions.assertEquals(ImageFingerprint.of(imagesDir.resolve("cpu").resolve("1_1.jpg")), productImageService.getFingerprint(1L, 1));
+        Assertions.assertNull(productImageService.getFingerprint(1L, 3));
+
+        log.info("Finished testRebuildManifest successfully");
+    }
+
+    @Test
+    public void testRegisterImage() {
+        log.info("Starting testRegisterImage");
+
+        productImageService.registerImage("ssd", 5L, 2, "fingerprint2");
+        Assertions.assertEquals(0, productImageService.getImageCount(5L));
+
+        productImageService.registerImage("ssd", 5L, 1, "fingerprint1");
+        Assertions.assertEquals(2, productImageService.getImageCount(5L));
+        Assertions.assertEquals("fingerprint1", productImageService.getFingerprint(5L, 1));
+        Assertions.assertEquals("fingerprint2", productImageService.getFingerprint(5L, 2));
+
+        productImageService.removeProduct(5L);
+        Assertions.assertEquals(0, productImageService.getImageCount(5L));
+
+        log.info("Finished testRegisterImage successfully");
+    }
+
+    @Test
+    public void testGetImagePath() {
+        log.info("Starting testGetImagePath");
+
+        Assertions.assertEquals(imagesDir.resolve("ram").resolve("7_3.jpg"), productImageService.getImagePath("ram", 7L, 3));
+
+        log.info("Finished testGetImagePath successfully");
+    }
+
+    @Test
+    public void testPendingImages() {
+        log.info("Starting testPendingImages");
+
+        productImageService.markPending(8L);
+        productImageService.markPending(8L);
+        Assertions.assertTrue(productImageService.isPending(8L));
+
+        productImageService.completePending(8L);
+        Assertions.assertTrue(productImageService.isPending(8L));
+
+        productImageService.completePending(8L);
+        Assertions.assertFalse(productImageService.isPending(8L));
+
+        log.info("Finished testPendingImages successfully");
+    }
+
+    private void createImage(String category, String name) throws IOException {
+        Files.createDirectories(imagesDir.resolve(category));
+        Files.write(imagesDir.resolve(category).resolve(name), new byte[]{1});
+    }
+}
@@ -0,0 +1,115 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.config.ProductImageProperties;
+import com.savian.cartblitz.dto.ProductImageVariant;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class ProductImageVariantServiceUnitTest {
+    @TempDir
+    Path imagesDir;
+    @TempDir
+    Path cacheDir;
+
+    private ProductImageServiceImpl productImageService;
+    private ProductImageProcessorImpl productImageProcessor;
+    private ProductImageVariantServiceImpl productImageVariantService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        ProductImageProperties productImageProperties = new ProductImageProperties();
+        productImageProperties.setProductsDir(imagesDir.toString());
+        productImageProperties.setCacheDir(cacheDir.toString());
+
+        productImageService = new ProductImageServiceImpl(productImageProperties);
+        productImageProcessor = new ProductImageProcessorImpl(productImageService, productImageProperties);
+        productImageVariantService = new ProductImageVariantServiceImpl(productImageService, productImageProcessor, productImageProperties);
+
+        Files.createDirectories(imagesDir.resolve("cpu"));
+        ImageIO.write(new BufferedImage(800, 800, BufferedImage.TYPE_INT_RGB), "jpg", imagesDir.resolve("cpu").resolve("1_1.jpg").toFile());
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        productImageProcessor.shutdown();
+    }
+
+    @Test
+    public void testGetVariantOriginal() {
+        log.info("Starting testGetVariantOriginal");
+
+        Optional<ProductImageVariant> variant = productImageVariantService.getVariant("cpu", 1L, 1, null);
+
+        Assertions.assertTrue(variant.isPresent());
+        Assertions.assertEquals(imagesDir.resolve("cpu").resolve("1_1.jpg"), variant.get().getPath());
+        Assertions.assertEquals(variant.get().getFingerprint(), variant.get().getEtag());
+
+        log.info("Finished testGetVariantOriginal successfully");
+    }
+
+    @Test
+    public void testGetVariantGeneratesCachedVariant() throws IOException {
+        log.info("Starting testGetVariantGeneratesCachedVariant");
+
+        Optional<ProductImageVariant> variant = productImageVariantService.getVariant("cpu", 1L, 1, 150);
+
+        Assertions.assertTrue(variant.isPresent());
+        Assertions.assertEquals(cacheDir.resolve("cpu").resolve("1_1_200.jpg"), variant.get().getPath());
+        Assertions.assertEquals(200, ImageIO.read(variant.get().getPath().toFile()).getWidth());
+        Assertions.assertNotEquals(variant.get().getFingerprint(), variant.get().getEtag());
+
+        log.info("Finished testGetVariantGeneratesCachedVariant successfully");
+    }
+
+    @Test
+    public void testGetVariantPrefersPregeneratedVariant() throws IOException {
+        log.info("Starting testGetVariantPrefersPregeneratedVariant");
+
+        productImageProcessor.writeVariant(imagesDir.resolve("cpu").resolve("1_1.jpg"), imagesDir.resolve("cpu").resolve("1_1_400.jpg"), 400);
+
+        Optional<ProductImageVariant> variant = productImageVariantService.getVariant("cpu", 1L, 1, 400);
+
+        Assertions.assertTrue(variant.isPresent());
+        Assertions.assertEquals(imagesDir.resolve("cpu").resolve("1_1_400.jpg"), variant.get().getPath());
+        Assertions.assertFalse(Files.exists(cacheDir.resolve("cpu").resolve("1_1_400.jpg")));
+
+        log.info("Finished testGetVariantPrefersPregeneratedVariant successfully");
+    }
+
+    @Test
+    public void testGetVariantMissingImage() {
+        log.info("Starting testGetVariantMissingImage");
+
+        Assertions.assertTrue(productImageVariantService.getVariant("cpu", 2L, 1, 200).isEmpty());
+
+        log.info("Finished testGetVariantMissingImage successfully");
+    }
+
+    @Test
+    public void testGetImageUrl() {
+        log.info("Starting testGetImageUrl");
+
+        productImageService.rebuildManifest();
+        String fingerprint = productImageVariantService.getVariant("cpu", 1L, 1, null).orElseThrow().getFingerprint();
+
+        Assertions.assertEquals("/images/products/cpu/1_1.jpg?w=200&v=" + fingerprint, productImageVariantService.getImageUrl("cpu", 1L, 1, 200));
+        Assertions.assertEquals("/images/products/cpu/2_1.jpg", productImageVariantService.getImageUrl("cpu", 2L, 1, null));
+
+        log.info("Finished testGetImageUrl successfully");
+    }
+}
@@ -0,0 +1,88 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.dto.ProductRatingDto;
+import com.savian.cartblitz.model.ProductRatingStats;
+import com.savian.cartblitz.repository.ProductRatingStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class ProductRatingServiceUnitTest {
+    @InjectMocks
+    private ProductRatingServiceImpl productRatingService;
+    @Mock
+    private ProductRatingStatsRepository productRatingStatsRepository;
+
+    @Test
+    public void testAddRatingUpsertsStats() {
+        log.info("Starting testAddRatingUpsertsStats");
+
+        productRatingService.addRating(10L, 4);
+
+        Mockito.verify(productRatingStatsRepository).upsertDelta(10L, 1, 4, 0, 0, 0, 1, 0);
+        Mockito.verify(productRatingStatsRepository, Mockito.never()).saveAndFlush(Mockito.any());
+
+        log.info("Finished testAddRatingUpsertsStats successfully");
+    }
+
+    @Test
+    public void testRemoveRating() {
+        log.info("Starting testRemoveRating");
+
+        productRatingService.removeRating(10L, 2);
+
+        Mockito.verify(productRatingStatsRepository).applyDelta(10L, -1, -2, 0, -1, 0, 0, 0);
+
+        log.info("Finished testRemoveRating successfully");
+    }
+
+    @Test
+    public void testGetRating() {
+        ProductRatingStats stats = new ProductRatingStats(10L);
+        stats.setReviewCount(3);
+        stats.setRatingSum(12);
+        stats.setThreeStars(1);
+        stats.setFourStars(1);
+        stats.setFiveStars(1);
+        stats.setAverageRating(4.0);
+
+        log.info("Starting testGetRating");
+
+        Mockito.when(productRatingStatsRepository.findById(10L)).thenReturn(Optional.of(stats));
+
+        ProductRatingDto result = productRatingService.getRating(10L);
+
+        Assertions.assertEquals(3, result.getReviewCount());
+        Assertions.assertEquals(4.0, result.getAverageRating());
+        Assertions.assertEquals(Map.of(1, 0L, 2, 0L, 3, 1L, 4, 1L, 5, 1L), result.getHistogram());
+
+        log.info("Finished testGetRating successfully");
+    }
+
+    @Test
+    public void testGetRatingWithoutReviews() {
+        log.info("Starting testGetRatingWithoutReviews");
+
+        Mockito.when(productRatingStatsRepository.findById(10L)).thenReturn(Optional.empty());
+
+        ProductRatingDto result = productRatingService.getRating(10L);
+
+        Assertions.assertEquals(0, result.getReviewCount());
+        Assertions.assertNull(result.getAverageRating());
+
+        log.info("Finished testGetRatingWithoutReviews successfully");
+    }
+}
@@ -0,0 +1,151 @@
+package com.savian.cartblitz.service;
+
+import com.savian.cartblitz.model.Product;
+import com.savian.cartblitz.model.Tag;
+import com.savian.cartblitz.repository.ProductRepository;
+import com.savian.cartblitz.repository.TagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("h2")
+@Slf4j
+@org.junit.jupiter.api.Tag("test")
+public class ProductSearchServiceUnitTest {
+    @InjectMocks
+    private ProductSearchServiceImpl productSearchService;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private TagRepository tagRepository;
+
+    @Test
+    public void testRebuildIndexAndSearch() {
+        log.info("Starting testRebuildIndexAndSearch");
+
+        Mockito.when(productRepository.findAll()).thenReturn(List.of(
+                getDummyProduct(1L, "Ryzen 7 7800X3D", "AMD", "CPU", "8 nuclee, AM5"),
+                getDummyProduct(2L, "Core i7-14700K", "Intel", "CPU", "20 nuclee, LGA1700"),
+                getDummyProduct(3L, "Radeon RX 7900 XTX", "AMD", "GPU", "24GB GDDR6")));
+
+        productSearchService.rebuildIndex();
+
+        Assertions.assertEquals(List.of(1L, 3L), productSearchService.search("amd"));
+        Assertions.assertEquals(List.of(1L, 2L), productSearchService.search("CPU"));
+        Assertions.assertEquals(List.of(1L), productSearchService.search("ryz"));
+        Assertions.assertEquals(List.of(3L), productSearchService.search("amd gpu"));
+        Assertions.assertTrue(productSearchService.search("nvidia").isEmpty());
+        Assertions.assertEquals(List.of(1L, 2L, 3L), productSearchService.search(" "));
+
+        log.info("Finished testRebuildIndexAndSearch successfully");
+    }
+
+    @Test
+    public void testRebuildIndexKeepsUpdatesMadeDuringRebuild() {
+        log.info("Starting testRebuildIndexKeepsUpdatesMadeDuringRebuild");
+
+        Mockito.when(productRepository.findAll()).thenAnswer(invocation -> {
+            List<Product> products = List.of(
+                    getDummyProduct(1L, "Ryzen 7 7800X3D", "AMD", "CPU", "8 nuclee, AM5"),
+                    getDummyProduct(2L, "Core i7-14700K", "Intel", "CPU", "20 nuclee, LGA1700"));
+
+            productSearchService.indexProduct(getDummyProduct(1L, "Ryzen 9 9950X", "AMD", "CPU", "16 nuclee, AM5"));
+            productSearchService.removeProduct(2L);
+            productSearchService.indexProduct(getDummyProduct(3L, "Radeon RX 7900 XTX", "AMD", "GPU", "24GB GDDR6"));
+
+            return products;
+        });
+
+        productSearchService.rebuildIndex();
+
+        Assertions.assertEquals(List.of(1L), productSearchService.search("9950x"));
+        Assertions.assertTrue(productSearchService.search("7800x3d").isEmpty());
+        Assertions.assertTrue(productSearchService.search("intel").isEmpty());
+        Assertions.assertEquals(List.of(3L), productSearchService.search("gpu"));
+
+        log.info("Finished testRebuildIndexKeepsUpdatesMadeDuringRebuild successfully");
+    }
+
+    @Test
+    public void testSearchRanksNameMatchesFirst() {
+        log.info("Starting testSearchRanksNameMatchesFirst");
+
+        productSearchService.indexProduct(getDummyProduct(1L, "Placa de baza", "ASUS", "MDB", "suport gaming"));
+        productSearchService.indexProduct(getDummyProduct(2L, "Gaming X", "MSI", "MDB", "chipset B650"));
+
+        Assertions.assertEquals(List.of(2L, 1L), productSearchService.search("gaming"));
+
+        log.info("Finished testSearchRanksNameMatchesFirst successfully");
+    }
+
+    @Test
+    public void testIndexProductReplacesPreviousEntry() {
+        log.info("Starting testIndexProductReplacesPreviousEntry");
+
+        Product product = getDummyProduct(1L, "Vengeance", "Corsair", "RAM", "DDR5");
+        productSearchService.indexProduct(product);
+
+        product.setBrand("Kingston");
+        product.getTags().add(new Tag("RGB"));
+        productSearchService.indexProduct(product);
+
+        Assertions.assertTrue(productSearchService.search("corsair").isEmpty());
+        Assertions.assertEquals(List.of(1L), productSearchService.search("kingston"));
+        Assertions.assertEquals(List.of(1L), productSearchService.search("rgb"));
+
+        log.info("Finished testIndexProductReplacesPreviousEntry successfully");
+    }
+
+    @Test
+    public void testRemoveProduct() {
+        log.info("Starting testRemoveProduct");
+
+        productSearchService.indexProduct(getDummyProduct(1L, "Samsung 990 Pro", "Samsung", "SSD", "NVMe"));
+        productSearchService.removeProduct(1L);
+
+        Assertions.assertTrue(productSearchService.search("samsung").isEmpty());
+
+        log.info("Finished testRemoveProduct successfully");
+    }
+
+    @Test
+    public void testReindexProductsRemovesMissingProducts() {
+        log.info("Starting testReindexProductsRemovesMissingProducts");
+
+        productSearchService.indexProduct(getDummyProduct(1L, "Focus GX", "Seasonic", "PSU", "850W"));
+        productSearchService.indexProduct(getDummyProduct(2L, "RM850x", "Corsair", "PSU", "850W"));
+
+        Mockito.when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(getDummyProduct(2L, "RM1000x", "Corsair", "PSU", "1000W")));
+
+        productSearchService.reindexProducts(List.of(1L, 2L));
+
+        Assertions.assertTrue(productSearchService.search("seasonic").isEmpty());
+        Assertions.assertEquals(List.of(2L), productSearchService.search("1000w"));
+
+        log.info("Finished testReindexProductsRemovesMissingProducts successfully");
+    }
+
+    private Product getDummyProduct(Long productId, String name, String brand, String category, String description){
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setName(name);
+        product.setPrice(BigDecimal.valueOf(0L));
+        product.setStockQuantity(0);
+        product.setDescription(description);
+        product.setBrand(brand);
+        product.setCategory(category);
+        product.setTags(new ArrayList<>());
+        return product;
+    }
+}
@@ -1,11 +1,16 @@
 package com.savian.cartblitz.service;
 
+import com.savian.cartblitz.dto.ProductDetailView;
 import com.savian.cartblitz.dto.ProductDto;
+import com.savian.cartblitz.dto.ProductPageDto;
+import com.savian.cartblitz.dto.ProductRatingDto;
+import com.savian.cartblitz.dto.ProductSummary;
 import com.savian.cartblitz.exception.ProductNotFoundException;
 import com.savian.cartblitz.exception.TagNotFoundException;
 import com.savian.cartblitz.mapper.ProductMapper;
 import com.savian.cartblitz.model.Product;
 import com.savian.cartblitz.model.Tag;
+import com.savian.cartblitz.repository.ProductQuery;
 import com.savian.cartblitz.repository.ProductRepository;
 import com.savian.cartblitz.repository.TagRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +21,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -38,23 +45,31 @@ public class ProductServiceUnitTest {
     private TagRepository tagRepository;
     @Mock
     private ProductMapper productMapper;
+    @Mock
+    private ProductSearchService productSearchService;
+    @Mock
+    private ProductImageService productImageService;
+    @Mock
+    private ProductRatingService productRatingService;
 
     @Test
-    public void testGetAllProducts() {
-        List<Product> products = new ArrayList<>();
-        products.add(getDummyProduct());
+    public void testFindProducts() {
+        List<ProductSummary> products = new ArrayList<>();
+        products.add(getDummyProductSummary(10L));
+        ProductQuery query = ProductQuery.builder().category("CPU").sortBy("price").sortOrder("desc").limit(20).build();
 
-        log.info("Starting testGetAllProducts");
+        log.info("Starting testFindProducts");
 
-        Mockito.when(productRepository.findAll()).thenReturn(products);
+        Mockito.when(productRepository.findSummaries(query)).thenReturn(products);
 
-        List<ProductDto> result = productService.getAllProducts();
-        products.forEach(product -> log.info(String.valueOf(product.getProductId())));
+        List<ProductSummary> result = productService.findProducts(query);
 
-        Mockito.verify(productRepository).findAll();
-        Assertions.assertEquals(products.stream().map(productMapper::productToProductDto).toList(), result);
+        Mockito.verify(productRepository).findSummaries(query);
+        Assertions.assertEquals(products, result);
+        Assertions.assertEquals(0, result.get(0).getImageCount());
+        Mockito.verify(productImageService).getImageCount(10L);
 
-        log.info("Finished testGetAllProducts successfully");
+        log.info("Finished testFindProducts successfully");
     }
 
     @Test
@@ -92,60 +107,159 @@ public class ProductServiceUnitTest {
     }
 
     @Test
-    public void testGetProductsByCategory() {
-        List<Product> products = new ArrayList<>();
+    public void testGetProductDetailByIdFound() {
         Product product = getDummyProduct();
-        products.add(product);
 
-        log.info("Starting testGetProductsByCategory");
+        log.info("Starting testGetProductDetailByIdFound");
 
-        Mockito.when(productRepository.findByCategoryIgnoreCase(Mockito.anyString())).thenReturn(products);
+        ProductDto productDto = new ProductDto();
+        productDto.setProductId(product.getProductId());
+        ProductRatingDto rating = new ProductRatingDto();
+        rating.setReviewCount(3);
+        rating.setAverageRating(4.0);
 
-        List<ProductDto> result = productService.getProductsByCategory(product.getCategory());
-        products.forEach(product1 -> log.info(String.valueOf(product1.getProductId())));
+        Mockito.when(productRepository.findDetailByProductId(Mockito.anyLong())).thenReturn(Optional.of(product));
+        Mockito.when(productMapper.productToProductDto(product)).thenReturn(productDto);
+        Mockito.when(productRatingService.getRating(product.getProductId())).thenReturn(rating);
 
-        Mockito.verify(productRepository).findByCategoryIgnoreCase(product.getCategory());
-        Assertions.assertEquals(products.stream().map(productMapper::productToProductDto).toList(), result);
+        Optional<ProductDto> result = productService.getProductDetailById(product.getProductId());
 
-        log.info("Finished testGetProductsByCategory successfully");
+        Mockito.verify(productRepository).findDetailByProductId(product.getProductId());
+        Mockito.verify(productRepository, Mockito.never()).findById(Mockito.anyLong());
+        Assertions.assertTrue(result.isPresent());
+        Assertions.assertEquals(productDto, result.get());
+        Assertions.assertEquals(rating, result.get().getRating());
+
+        log.info("Finished testGetProductDetailByIdFound successfully");
     }
 
     @Test
-    public void testGetProductsByBrand() {
-        List<Product> products = new ArrayList<>();
+    public void testGetProductDetailViewFound() {
         Product product = getDummyProduct();
-        products.add(product);
+        ProductDetailView productDetailView = new ProductDetailView();
+        productDetailView.setProductId(product.getProductId());
 
-        log.info("Starting testGetProductsByBrand");
+        log.info("Starting testGetProductDetailViewFound");
 
-        Mockito.when(productRepository.findByBrandIgnoreCase(Mockito.anyString())).thenReturn(products);
+        Mockito.when(productRepository.findDetailByProductId(Mockito.anyLong())).thenReturn(Optional.of(product));
+        Mockito.when(productMapper.productToProductDetailView(product)).thenReturn(productDetailView);
 
-        List<ProductDto> result = productService.getProductsByBrand(product.getBrand());
-        products.forEach(product1 -> log.info(String.valueOf(product1.getProductId())));
+        Optional<ProductDetailView> result = productService.getProductDetailView(product.getProductId());
+
+        Mockito.verify(productRepository).findDetailByProductId(product.getProductId());
+        Assertions.assertTrue(result.isPresent());
+        Assertions.assertEquals(productDetailView, result.get());
+
+        log.info("Finished testGetProductDetailViewFound successfully");
+    }
+
+    @Test
+    public void testGetProductDetailViewNotFound() {
+        Product product = getDummyProduct();
+
+        log.info("Starting testGetProductDetailViewNotFound");
 
-        Mockito.verify(productRepository).findByBrandIgnoreCase(product.getBrand());
-        Assertions.assertEquals(products.stream().map(productMapper::productToProductDto).toList(), result);
+        Mockito.when(productRepository.findDetailByProductId(Mockito.anyLong())).thenReturn(Optional.empty());
 
-        log.info("Finished testGetProductsByBrand successfully");
+        Assertions.assertThrows(ProductNotFoundException.class, () -> productService.getProductDetailView(product.getProductId()));
+
+        log.info("Finished testGetProductDetailViewNotFound successfully");
     }
 
     @Test
-    public void testGetProductsByPriceRange() {
-        List<Product> products = new ArrayList<>();
+    public void testGetProductDetailByIdNotFound() {
         Product product = getDummyProduct();
+
+        log.info("Starting testGetProductDetailByIdNotFound");
+
+        Mockito.when(productRepository.findDetailByProductId(Mockito.anyLong())).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(ProductNotFoundException.class, () -> productService.getProductDetailById(product.getProductId()));
+
+        log.info("Finished testGetProductDetailByIdNotFound successfully");
+    }
+
+    @Test
+    public void testGetProductsByCategory() {
+        List<ProductSummary> products = new ArrayList<>();
+        ProductSummary product = getDummyProductSummary(10L);
         products.add(product);
 
-        log.info("Starting testGetProductsByPriceRange");
+        log.info("Starting testGetProductsByCategory");
 
-        Mockito.when(productRepository.findByPriceBetween(Mockito.any(), Mockito.any())).thenReturn(products);
+        Mockito.when(productRepository.findSummaries(Mockito.any(ProductQuery.class))).thenReturn(products);
 
-        List<ProductDto> result = productService.getProductsByPriceRange(product.getPrice(), product.getPrice());
+        List<ProductSummary> result = productService.getProductsByCategory(product.getCategory());
         products.forEach(product1 -> log.info(String.valueOf(product1.getProductId())));
 
-        Mockito.verify(productRepository).findByPriceBetween(product.getPrice(), product.getPrice());
-        Assertions.assertEquals(products.stream().map(productMapper::productToProductDto).toList(), result);
+        Mockito.verify(productRepository).findSummaries(Mockito.argThat((ProductQuery query) -> product.getCategory().equals(query.getCategory())));
+        Assertions.assertEquals(products, result);
+
+        log.info("Finished testGetProductsByCategory successfully");
+    }
+
+    @Test
+    public void testGetProductsByBrandPage() {
+        log.info("Starting testGetProductsByBrandPage");
+
+        Mockito.when(productRepository.findSummaries(Mockito.any(Specification.class), Mockito.eq(Sort.by("productId").ascending()), Mockito.eq(2)))
+                .thenReturn(new ArrayList<>(List.of(getDummyProductSummary(10L), getDummyProductSummary(11L))));
+
+        ProductPageDto result = productService.getProductsByBrandPage("productTest brand", null, null, 1);
+
+        Assertions.assertEquals(List.of(10L), result.getProducts().stream().map(ProductSummary::getProductId).toList());
+        Assertions.assertEquals(10L, result.getNextCursor());
+        Assertions.assertNull(result.getPrevCursor());
+
+        log.info("Finished testGetProductsByBrandPage successfully");
+    }
+
+    @Test
+    public void testGetProductsByPriceRangePage() {
+        log.info("Starting testGetProductsByPriceRangePage");
+
+        Mockito.when(productRepository.findSummaries(Mockito.any(Specification.class), Mockito.eq(Sort.by("productId").ascending()), Mockito.eq(21)))
+                .thenReturn(new ArrayList<>(List.of(getDummyProductSummary(10L))));
+
+        ProductPageDto result = productService.getProductsByPriceRangePage(BigDecimal.ZERO, BigDecimal.TEN, 5L, null, 20);
+
+        Assertions.assertEquals(1, result.getProducts().size());
+        Assertions.assertNull(result.getNextCursor());
+        Assertions.assertEquals(10L, result.getPrevCursor());
+
+        log.info("Finished testGetProductsByPriceRangePage successfully");
+    }
+
+    @Test
+    public void testGetProductsPageBefore() {
+        log.info("Starting testGetProductsPageBefore");
+
+        Mockito.when(productRepository.findSummaries(Mockito.any(Specification.class), Mockito.eq(Sort.by("productId").descending()), Mockito.eq(3)))
+                .thenReturn(new ArrayList<>(List.of(getDummyProductSummary(11L), getDummyProductSummary(10L), getDummyProductSummary(9L))));
+
+        ProductPageDto result = productService.getProductsPage(null, 12L, 2);
+
+        Assertions.assertEquals(List.of(10L, 11L), result.getProducts().stream().map(ProductSummary::getProductId).toList());
+        Assertions.assertEquals(11L, result.getNextCursor());
+        Assertions.assertEquals(10L, result.getPrevCursor());
 
-        log.info("Finished testGetProductsByPriceRange successfully");
+        log.info("Finished testGetProductsPageBefore successfully");
+    }
+
+    @Test
+    public void testGetProductsPageEmpty() {
+        log.info("Starting testGetProductsPageEmpty");
+
+        Mockito.when(productRepository.findSummaries(Mockito.any(Specification.class), Mockito.any(Sort.class), Mockito.anyInt()))
+                .thenReturn(new ArrayList<>());
+
+        ProductPageDto result = productService.getProductsPage(100L, null, 20);
+
+        Assertions.assertTrue(result.getProducts().isEmpty());
+        Assertions.assertNull(result.getNextCursor());
+        Assertions.assertNull(result.getPrevCursor());
+
+        log.info("Finished testGetProductsPageEmpty successfully");
     }
 
     @Test
@@ -161,29 +275,27 @@ public class ProductServiceUnitTest {
         Assertions.assertThrows(TagNotFoundException.class, () -> productService.getProductsByTagId(tag.getTagId()));
         log.error("Tag with given id was not found");
 
-        Mockito.verify(productRepository, Mockito.never()).findByTagsTagId(Mockito.anyLong());
+        Mockito.verify(productRepository, Mockito.never()).findSummaries(Mockito.any(ProductQuery.class));
 
         log.info("Finished testGetProductsByTagIdNotFound successfully");
     }
 
     @Test
     public void testGetProductsByTagIdFound(){
-        List<Product> products = new ArrayList<>();
-        Product product = getDummyProduct();
+        List<ProductSummary> products = new ArrayList<>();
+        products.add(getDummyProductSummary(10L));
         Tag tag = getDummyTag();
-        product.setTags(Collections.singletonList(tag));
-        products.add(product);
 
         log.info("Starting testGetProductsByTagIdFound");
 
         Mockito.when(tagRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(tag));
-        Mockito.when(productRepository.findByTagsTagId(Mockito.anyLong())).thenReturn(products);
+        Mockito.when(productRepository.findSummaries(Mockito.any(ProductQuery.class))).thenReturn(products);
 
-        List<ProductDto> result = productService.getProductsByTagId(tag.getTagId());
+        List<ProductSummary> result = productService.getProductsByTagId(tag.getTagId());
         products.forEach(product1 -> log.info(String.valueOf(product1.getProductId())));
 
-        Mockito.verify(productRepository).findByTagsTagId(tag.getTagId());
-        Assertions.assertEquals(products.stream().map(productMapper::productToProductDto).toList(), result);
+        Mockito.verify(productRepository).findSummaries(Mockito.argThat((ProductQuery query) -> tag.getTagId().equals(query.getTagId())));
+        Assertions.assertEquals(products, result);
 
         log.info("Finished testGetProductsByTagIdFound successfully");
     }
@@ -192,15 +304,15 @@ public class ProductServiceUnitTest {
     public void testSortProducts(){
         log.info("Starting testSortProducts");
 
-        List<ProductDto> products = new ArrayList<>();
-        products.add(getDummyProductDto());
-        products.add(getDummyProductDto());
-        products.add(getDummyProductDto());
+        List<ProductSummary> products = new ArrayList<>();
+        products.add(getDummyProductSummary(10L));
+        products.add(getDummyProductSummary(10L));
+        products.add(getDummyProductSummary(10L));
 
         products.get(1).setBrand("productTest brand 3");
         products.get(2).setBrand("productTest brand 2");
 
-        List<ProductDto> sortedProducts = productService.sortProducts(products, "brand", "asc");
+        List<ProductSummary> sortedProducts = productService.sortProducts(products, "brand", "asc");
 
         Assertions.assertEquals("productTest brand", sortedProducts.get(0).getBrand());
         Assertions.assertEquals("productTest brand 2", sortedProducts.get(1).getBrand());
@@ -209,21 +321,41 @@ public class ProductServiceUnitTest {
         log.info("Finished testSortProducts successfully");
     }
 
+    @Test
+    public void testSortProductsByRatingPutsUnratedLast(){
+        log.info("Starting testSortProductsByRatingPutsUnratedLast");
+
+        List<ProductSummary> products = new ArrayList<>();
+        products.add(getDummyProductSummary(1L));
+        products.add(getDummyProductSummary(2L));
+        products.add(getDummyProductSummary(3L));
+
+        products.get(0).setAverageRating(null);
+        products.get(1).setAverageRating(3.5);
+        products.get(2).setAverageRating(4.5);
+
+        List<ProductSummary> sortedProducts = productService.sortProducts(products, "rating", "desc");
+
+        Assertions.assertEquals(List.of(3L, 2L, 1L), sortedProducts.stream().map(ProductSummary::getProductId).toList());
+
+        log.info("Finished testSortProductsByRatingPutsUnratedLast successfully");
+    }
+
     @Test
     public void testFilterProductsMinPriceMaxPrice(){
         log.info("Starting testFilterProductsMinPriceMaxPrice");
 
-        List<ProductDto> products = new ArrayList<>();
-        products.add(getDummyProductDto());
-        products.add(getDummyProductDto());
-        products.add(getDummyProductDto());
+        List<ProductSummary> products = new ArrayList<>();
+        products.add(getDummyProductSummary(10L));
+        products.add(getDummyProductSummary(10L));
+        products.add(getDummyProductSummary(10L));
 
         products.get(1).setBrand("productTest brand 2");
         products.get(1).setPrice(BigDecimal.valueOf(25));
         products.get(2).setBrand("productTest brand 3");
         products.get(2).setPrice(BigDecimal.valueOf(35));
 
-        List<ProductDto> filteredProducts = productService.filterProductsMinPriceMaxPrice(products, new BigDecimal("25.00"), new BigDecimal("35.00"));
+        List<ProductSummary> filteredProducts = productService.filterProductsMinPriceMaxPrice(products, new BigDecimal("25.00"), new BigDecimal("35.00"));
 
         Assertions.assertEquals(2, filteredProducts.size());
         Assertions.assertEquals("productTest brand 2", filteredProducts.get(0).getBrand());
@@ -236,32 +368,37 @@ public class ProductServiceUnitTest {
     public void testSearchProducts(){
         log.info("Starting testSearchProducts");
 
-        List<Product> products = new ArrayList<>();
-        products.add(getDummyProduct());
-        products.get(0).setTags(List.of(new Tag("a")));
-        products.get(0).setProductId(1L);
-        products.add(getDummyProduct());
-        products.get(1).setTags(List.of(new Tag("a")));
-        products.get(1).setProductId(2L);
-        products.add(getDummyProduct());
-        products.get(2).setTags(List.of(new Tag("a")));
-        products.get(2).setProductId(3L);
-
-        Mockito.when(productRepository.findByBrandContainingIgnoreCase("a")).thenReturn(products);
-        Mockito.when(productRepository.findByCategoryContainingIgnoreCase("a")).thenReturn(products);
-        Mockito.when(productRepository.findByDescriptionContainingIgnoreCase("a")).thenReturn(products);
-        Mockito.when(productRepository.findByNameContainingIgnoreCase("a")).thenReturn(products);
-        Mockito.when(productRepository.findByTagsNameIgnoreCase("a")).thenReturn(products);
+        List<ProductSummary> products = new ArrayList<>();
+        products.add(getDummyProductSummary(1L));
+        products.add(getDummyProductSummary(2L));
+        products.add(getDummyProductSummary(3L));
 
-        Mockito.when(productMapper.productToProductDto(Mockito.any())).thenReturn(new ProductDto());
+        Mockito.when(productSearchService.search("a")).thenReturn(List.of(3L, 1L, 2L));
+        Mockito.when(productRepository.findSummaries(Mockito.any(ProductQuery.class))).thenReturn(products);
 
-        List<ProductDto> result = productService.searchProducts("a");
+        List<ProductSummary> result = productService.searchProducts("a");
 
+        Mockito.verify(productRepository).findSummaries(Mockito.argThat((ProductQuery query) -> List.of(3L, 1L, 2L).equals(query.getProductIds())));
         Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals(List.of(3L, 1L, 2L), result.stream().map(ProductSummary::getProductId).toList());
 
         log.info("Finished testSearchProducts successfully");
     }
 
+    @Test
+    public void testSearchProductsNoMatches(){
+        log.info("Starting testSearchProductsNoMatches");
+
+        Mockito.when(productSearchService.search("a")).thenReturn(Collections.emptyList());
+
+        List<ProductSummary> result = productService.searchProducts("a");
+
+        Assertions.assertTrue(result.isEmpty());
+        Mockito.verify(productRepository, Mockito.never()).findSummaries(Mockito.any(ProductQuery.class));
+
+        log.info("Finished testSearchProductsNoMatches successfully");
+    }
+
     @Test
     public void testUpdateStockQuantitySuccess() {
         Product existingProduct = getDummyProduct();
@@ -304,19 +441,20 @@ public class ProductServiceUnitTest {
     }
 
     @Test
-    public void testGetNumImagesForProductProductNotFound() {
+    public void testGetNumImagesForProduct() {
         Product product = getDummyProduct();
 
-        log.info("Starting testGetNumImagesForProductProductNotFound");
+        log.info("Starting testGetNumImagesForProduct");
 
-        Mockito.when(productRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        Mockito.when(productImageService.getImageCount(Mockito.anyLong())).thenReturn(3);
 
-        Assertions.assertThrows(ProductNotFoundException.class, () -> productService.getNumImagesForProduct(product.getCategory(), product.getProductId()));
-        log.error("Product with given ID was not found");
+        int result = productService.getNumImagesForProduct(product.getProductId());
 
-        Mockito.verify(productRepository).findById(product.getProductId());
+        Mockito.verify(productImageService).getImageCount(product.getProductId());
+        Mockito.verifyNoInteractions(productRepository);
+        Assertions.assertEquals(3, result);
 
-        log.info("Finished testGetNumImagesForProductProductNotFound successfully");
+        log.info("Finished testGetNumImagesForProduct successfully");
     }
 
     @Test
@@ -433,6 +571,18 @@ public class ProductServiceUnitTest {
         return productDto;
     }
 
+    private ProductSummary getDummyProductSummary(Long productId){
+        ProductSummary productSummary = new ProductSummary();
+        productSummary.setProductId(productId);
+        productSummary.setName("productTest");
+        productSummary.setPrice(BigDecimal.valueOf(0L));
+        productSummary.setStockQuantity(0);
+        productSummary.setDescription("productTest description");
+        productSummary.setBrand("productTest brand");
+        productSummary.setCategory("productTest category");
+        return productSummary;
+    }
+
     private Tag getDummyTag(){
         Tag tag = new Tag();
         tag.setTagId(10L);
@@ -43,6 +43,8 @@ public class ReviewServiceUnitTest {
     private CustomerRepository customerRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private ProductRatingService productRatingService;
 
     @Test
     public void testGetAllReviews() {
@@ -218,6 +220,7 @@ public class ReviewServiceUnitTest {
         Mockito.verify(reviewMapper).reviewDtoToReview(reviewDto);
         Mockito.verify(reviewRepository).save(review);
         Mockito.verify(reviewMapper).reviewToReviewDto(review);
+        Mockito.verify(productRatingService).addRating(reviewDto.getProductId(), reviewDto.getRating());
 
         log.info("Finished testSaveReviewSuccess successfully");
     }
@@ -283,10 +286,33 @@ public class ReviewServiceUnitTest {
         Mockito.verify(productRepository).findById(existingReview.getProduct().getProductId());
         Mockito.verify(reviewRepository).save(existingReview);
         Mockito.verify(reviewMapper).reviewToReviewDto(existingReview);
+        Mockito.verifyNoInteractions(productRatingService);
 
         log.info("Finished testUpdateReviewSuccess successfully");
     }
 
+    @Test
+    public void testUpdateReviewRatingChanged() {
+        Review existingReview = getDummyReview();
+        ReviewDto reviewDto = getDummyReviewDto();
+        reviewDto.setRating(2);
+
+        log.info("Starting testUpdateReviewRatingChanged");
+
+        Mockito.when(reviewRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(existingReview));
+        Mockito.when(customerRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(existingReview.getCustomer()));
+        Mockito.when(productRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(existingReview.getProduct()));
+        Mockito.when(reviewRepository.save(existingReview)).thenReturn(existingReview);
+        Mockito.when(reviewMapper.reviewToReviewDto(existingReview)).thenReturn(reviewDto);
+
+        reviewService.updateReview(existingReview.getReviewId(), reviewDto);
+
+        Mockito.verify(productRatingService).removeRating(existingReview.getProduct().getProductId(), 5);
+        Mockito.verify(productRatingService).addRating(existingReview.getProduct().getProductId(), 2);
+
+        log.info("Finished testUpdateReviewRatingChanged successfully");
+    }
+
     @Test
     public void testUpdateReviewNotFound() {
         ReviewDto reviewDto = getDummyReviewDto();
@@ -356,6 +382,7 @@ public class ReviewServiceUnitTest {
 
         Mockito.verify(reviewRepository).findById(review.getReviewId());
         Mockito.verify(reviewRepository).deleteById(review.getReviewId());
+        Mockito.verify(productRatingService).removeRating(review.getProduct().getProductId(), review.getRating());
 
         log.info("Finished testRemoveReviewByIdSuccess successfully");
     }
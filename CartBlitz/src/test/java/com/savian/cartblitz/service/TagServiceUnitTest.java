@@ -38,6 +38,10 @@ public class TagServiceUnitTest {
     private ProductRepository productRepository;
     @Mock
     private TagMapper tagMapper;
+    @Mock
+    private ProductSearchService productSearchService;
+    @Mock
+    private CatalogCacheService catalogCacheService;
 
     @Test
     public void testGetAllTags() {
@@ -281,6 +285,7 @@ public class TagServiceUnitTest {
 
         Mockito.verify(tagRepository).findById(tag.getTagId());
         Mockito.verify(tagRepository).deleteById(tag.getTagId());
+        Mockito.verify(catalogCacheService).evictProductTags(Mockito.anyList());
 
         log.info("Finished testRemoveTagByIdSuccess successfully");
     }
@@ -301,6 +306,44 @@ public class TagServiceUnitTest {
         log.info("Finished testRemoveTagByIdNotFound successfully");
     }
 
+    @Test
+    public void testResolveTags() {
+        Tag existingTag = getDummyTag();
+
+        log.info("Starting testResolveTags");
+
+        Mockito.when(tagRepository.findByNameIn(Mockito.anyCollection())).thenReturn(List.of(existingTag));
+        Mockito.when(tagRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Tag> result = tagService.resolveTags(List.of("name", "GAMING", "name", "GAMING"));
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertSame(existingTag, result.get(0));
+        Assertions.assertEquals("GAMING", result.get(1).getName());
+        Mockito.verify(tagRepository, Mockito.times(1)).findByNameIn(Mockito.anyCollection());
+        Mockito.verify(tagRepository, Mockito.times(1)).saveAll(Mockito.argThat(tags -> ((List<Tag>) tags).size() == 1));
+        Mockito.verify(tagRepository, Mockito.never()).findByName(Mockito.anyString());
+
+        log.info("Finished testResolveTags successfully");
+    }
+
+    @Test
+    public void testResolveTagsMatchesExistingTagIgnoringCase() {
+        Tag existingTag = getDummyTag();
+
+        log.info("Starting testResolveTagsMatchesExistingTagIgnoringCase");
+
+        Mockito.when(tagRepository.findByNameIn(Mockito.anyCollection())).thenReturn(List.of(existingTag));
+        Mockito.when(tagRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Tag> result = tagService.resolveTags(List.of(existingTag.getName().toUpperCase()));
+
+        Assertions.assertEquals(List.of(existingTag), result);
+        Mockito.verify(tagRepository).saveAll(Mockito.argThat(tags -> ((List<Tag>) tags).isEmpty()));
+
+        log.info("Finished testResolveTagsMatchesExistingTagIgnoringCase successfully");
+    }
+
     private Tag getDummyTag(){
         Tag tag = new Tag();
         tag.setTagId(10L);
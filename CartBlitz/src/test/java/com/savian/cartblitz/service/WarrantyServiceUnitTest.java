@@ -30,6 +30,8 @@ public class WarrantyServiceUnitTest {
     private WarrantyRepository warrantyRepository;
     @Mock
     private WarrantyMapper warrantyMapper;
+    @Mock
+    private CatalogCacheService catalogCacheService;
 
     @Test
     public void testGetAllWarranties() {
@@ -153,10 +155,30 @@ public class WarrantyServiceUnitTest {
 
         Mockito.verify(warrantyRepository).findById(warranty.getWarrantyId());
         Mockito.verify(warrantyRepository).deleteById(warranty.getWarrantyId());
+        Mockito.verifyNoInteractions(catalogCacheService);
 
         log.info("Finished testRemoveWarrantyByIdSuccess successfully");
     }
 
+    @Test
+    public void testRemoveWarrantyByIdEvictsProduct() {
+        Warranty warranty = getDummyWarranty();
+        Product product = new Product();
+        product.setProductId(20L);
+        warranty.setProduct(product);
+
+        log.info("Starting testRemoveWarrantyByIdEvictsProduct");
+
+        Mockito.when(warrantyRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(warranty));
+
+        warrantyService.removeWarrantyById(warranty.getWarrantyId());
+
+        Mockito.verify(warrantyRepository).deleteById(warranty.getWarrantyId());
+        Mockito.verify(catalogCacheService).evictProduct(product.getProductId());
+
+        log.info("Finished testRemoveWarrantyByIdEvictsProduct successfully");
+    }
+
     @Test
     public void testRemoveWarrantyByIdNotFound() {
         Warranty warranty = getDummyWarranty();
@@ -1,10 +1,14 @@
 package com.example.coupon.config;
 
+import com.example.coupon.model.Promotion;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 @ConfigurationProperties("coupon")
 @Getter
@@ -13,4 +17,5 @@ public class CouponPropertiesConfig {
     private String productCategory;
     private int discount;
     private String versionId;
-}
\ No newline at end of file
+    private List<Promotion> promotions = new ArrayList<>();
+}
@@ -2,13 +2,14 @@ package com.example.coupon.controller;
 
 import com.example.coupon.config.CouponPropertiesConfig;
 import com.example.coupon.model.Coupon;
+import com.example.coupon.model.EvaluationRequest;
+import com.example.coupon.model.EvaluationResult;
+import com.example.coupon.service.PromotionEngine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 @RestController
 @Slf4j
@@ -16,6 +17,9 @@ public class CouponController {
     @Autowired
     private CouponPropertiesConfig configuration;
 
+    @Autowired
+    private PromotionEngine promotionEngine;
+
     @GetMapping("/coupon")
     public ResponseEntity<Coupon> getDiscount(@RequestHeader(value = "coupon", defaultValue = "coupon") String correlationId){
 
@@ -24,4 +28,19 @@ public class CouponController {
         log.info("correlation-id discount: {}", correlationId);
         return ResponseEntity.status(HttpStatus.OK).body(coupon);
     }
+
+    @PostMapping("/coupon/evaluate")
+    public ResponseEntity<EvaluationResult> evaluate(@RequestHeader(value = "coupon", defaultValue = "coupon") String correlationId,
+                                                     @RequestBody EvaluationRequest request){
+
+        EvaluationResult result = promotionEngine.evaluate(request);
+
+        log.info("correlation-id evaluate: {}, applied {}", correlationId, result.getAppliedCodes());
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e){
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
 }
@@ -0,0 +1,23 @@
+package com.example.coupon.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationLine {
+    private Long productId;
+    private String category;
+    private String brand;
+    private List<String> tags = new ArrayList<>();
+    private BigDecimal unitPrice;
+    private int quantity;
+}
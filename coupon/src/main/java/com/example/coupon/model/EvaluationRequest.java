@@ -0,0 +1,18 @@
+package com.example.coupon.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationRequest {
+    private List<String> codes = new ArrayList<>();
+    private List<EvaluationLine> lines = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package com.example.coupon.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationResult {
+    private String versionId;
+    private List<LinePrice> lines;
+    private BigDecimal subtotal;
+    private BigDecimal total;
+    private List<String> appliedCodes;
+    private List<String> unknownCodes;
+}
@@ -0,0 +1,22 @@
+package com.example.coupon.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinePrice {
+    private Long productId;
+    private int quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal discountedUnitPrice;
+    private BigDecimal lineTotal;
+    private List<String> appliedCodes;
+}
@@ -0,0 +1,25 @@
+package com.example.coupon.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Setter
+@Getter
+public class Promotion {
+    private String code;
+    private BigDecimal percentOff;
+    private int priority;
+    private boolean stackable;
+    private OffsetDateTime validFrom;
+    private OffsetDateTime validUntil;
+    private BigDecimal minimumBasket;
+    private Set<String> categories = new HashSet<>();
+    private Set<String> brands = new HashSet<>();
+    private Set<Long> productIds = new HashSet<>();
+    private Set<String> tags = new HashSet<>();
+}
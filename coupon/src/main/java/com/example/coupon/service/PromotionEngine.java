@@ -0,0 +1,118 @@
+package com.example.coupon.service;
+
+import com.example.coupon.config.CouponPropertiesConfig;
+import com.example.coupon.model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+
+@Slf4j
+@Service
+public class PromotionEngine {
+    private final CouponPropertiesConfig configuration;
+    private volatile PromotionIndex index;
+
+    public PromotionEngine(CouponPropertiesConfig configuration) {
+        this.configuration = configuration;
+        this.index = compile();
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        try {
+            index = compile();
+        }
+        catch (IllegalArgumentException e) {
+            log.error("Keeping the previous promotions, the refreshed ones are invalid: {}", e.getMessage());
+        }
+    }
+
+    public EvaluationResult evaluate(EvaluationRequest request) {
+        return evaluate(request, Instant.now());
+    }
+
+    EvaluationResult evaluate(EvaluationRequest request, Instant now) {
+        PromotionIndex promotions = index;
+        Set<String> codes = new LinkedHashSet<>();
+        List<String> unknownCodes = new ArrayList<>();
+
+        if (request.getCodes() != null) {
+            for (String code : request.getCodes()) {
+                String normalizedCode = PromotionRule.normalize(code);
+
+                if (normalizedCode != null && codes.add(normalizedCode) && !promotions.isKnownCode(normalizedCode)) {
+                    unknownCodes.add(normalizedCode);
+                }
+            }
+        }
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+
+        for (EvaluationLine line : request.getLines()) {
+            if (line.getUnitPrice() == null || line.getUnitPrice().signum() < 0 || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Line for product " + line.getProductId() + " needs a unit price and a positive quantity");
+            }
+
+            subtotal = subtotal.add(line.getUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+        }
+
+        Set<String> appliedCodes = new LinkedHashSet<>();
+        List<LinePrice> linePrices = new ArrayList<>(request.getLines().size());
+        BigDecimal total = BigDecimal.ZERO;
+
+        for (EvaluationLine line : request.getLines()) {
+            BigDecimal price = line.getUnitPrice();
+            List<String> lineCodes = new ArrayList<>();
+            boolean discounted = false;
+
+            for (PromotionRule rule : promotions.candidates(line)) {
+                if ((discounted && !rule.stackable) || !rule.isApplicable(codes, subtotal, now) || !rule.matches(line)) {
+                    continue;
+                }
+
+                price = rule.apply(price);
+                discounted = true;
+
+                if (rule.code != null) {
+                    lineCodes.add(rule.code);
+                }
+
+                if (!rule.stackable) {
+                    break;
+                }
+            }
+
+            BigDecimal lineTotal = price.multiply(BigDecimal.valueOf(line.getQuantity()));
+            total = total.add(lineTotal);
+            appliedCodes.addAll(lineCodes);
+            linePrices.add(new LinePrice(line.getProductId(), line.getQuantity(), line.getUnitPrice(), price, lineTotal, lineCodes));
+        }
+
+        return new EvaluationResult(configuration.getVersionId(), linePrices, subtotal, total, new ArrayList<>(appliedCodes), unknownCodes);
+    }
+
+    private PromotionIndex compile() {
+        List<PromotionRule> rules = new ArrayList<>();
+
+        if (configuration.getProductCategory() != null && configuration.getDiscount() > 0) {
+            Promotion defaultCoupon = new Promotion();
+            defaultCoupon.setPercentOff(BigDecimal.valueOf(configuration.getDiscount()));
+            defaultCoupon.setCategories(Set.of(configuration.getProductCategory()));
+            rules.add(new PromotionRule(rules.size(), defaultCoupon));
+        }
+
+        for (Promotion promotion : configuration.getPromotions()) {
+            rules.add(new PromotionRule(rules.size(), promotion));
+        }
+
+        PromotionIndex promotionIndex = new PromotionIndex(rules);
+        log.info("Compiled {} promotions for coupon version {}", promotionIndex.size(), configuration.getVersionId());
+
+        return promotionIndex;
+    }
+}
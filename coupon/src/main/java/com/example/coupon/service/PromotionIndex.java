@@ -0,0 +1,84 @@
+package com.example.coupon.service;
+
+import com.example.coupon.model.EvaluationLine;
+
+import java.util.*;
+
+class PromotionIndex {
+    private static final Comparator<PromotionRule> ORDER = Comparator.<PromotionRule>comparingInt(rule -> rule.priority).reversed()
+            .thenComparingInt(rule -> rule.ordinal);
+
+    private final Map<Long, List<PromotionRule>> byProductId = new HashMap<>();
+    private final Map<String, List<PromotionRule>> byTag = new HashMap<>();
+    private final Map<String, List<PromotionRule>> byBrand = new HashMap<>();
+    private final Map<String, List<PromotionRule>> byCategory = new HashMap<>();
+    private final List<PromotionRule> untargeted = new ArrayList<>();
+    private final Set<String> codes = new HashSet<>();
+    private final int size;
+
+    PromotionIndex(List<PromotionRule> rules) {
+        for (PromotionRule rule : rules) {
+            if (rule.code != null) {
+                codes.add(rule.code);
+            }
+
+            if (!rule.productIds.isEmpty()) {
+                rule.productIds.forEach(productId -> byProductId.computeIfAbsent(productId, key -> new ArrayList<>()).add(rule));
+            }
+            else if (!rule.tags.isEmpty()) {
+                rule.tags.forEach(tag -> byTag.computeIfAbsent(tag, key -> new ArrayList<>()).add(rule));
+            }
+            else if (!rule.brands.isEmpty()) {
+                rule.brands.forEach(brand -> byBrand.computeIfAbsent(brand, key -> new ArrayList<>()).add(rule));
+            }
+            else if (!rule.categories.isEmpty()) {
+                rule.categories.forEach(category -> byCategory.computeIfAbsent(category, key -> new ArrayList<>()).add(rule));
+            }
+            else {
+                untargeted.add(rule);
+            }
+        }
+
+        this.size = rules.size();
+    }
+
+    List<PromotionRule> candidates(EvaluationLine line) {
+        List<PromotionRule> candidates = new ArrayList<>(untargeted);
+        addAll(candidates, byProductId.get(line.getProductId()));
+
+        if (line.getTags() != null) {
+            for (String tag : line.getTags()) {
+                addAll(candidates, byTag.get(PromotionRule.normalize(tag)));
+            }
+        }
+
+        addAll(candidates, byBrand.get(PromotionRule.normalize(line.getBrand())));
+        addAll(candidates, byCategory.get(PromotionRule.normalize(line.getCategory())));
+
+        if (candidates.size() > 1) {
+            candidates.sort(ORDER);
+
+            for (int i = candidates.size() - 1; i > 0; i--) {
+                if (candidates.get(i) == candidates.get(i - 1)) {
+                    candidates.remove(i);
+                }
+            }
+        }
+
+        return candidates;
+    }
+
+    boolean isKnownCode(String code) {
+        return codes.contains(code);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void addAll(List<PromotionRule> candidates, List<PromotionRule> rules) {
+        if (rules != null) {
+            candidates.addAll(rules);
+        }
+    }
+}
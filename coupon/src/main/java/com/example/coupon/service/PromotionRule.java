@@ -0,0 +1,76 @@
+package com.example.coupon.service;
+
+import com.example.coupon.model.EvaluationLine;
+import com.example.coupon.model.Promotion;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class PromotionRule {
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    final int ordinal;
+    final String code;
+    final int priority;
+    final boolean stackable;
+    final BigDecimal percentOff;
+    final Instant validFrom;
+    final Instant validUntil;
+    final BigDecimal minimumBasket;
+    final Set<String> categories;
+    final Set<String> brands;
+    final Set<Long> productIds;
+    final Set<String> tags;
+
+    PromotionRule(int ordinal, Promotion promotion) {
+        if (promotion.getPercentOff() == null || promotion.getPercentOff().signum() <= 0 || promotion.getPercentOff().compareTo(HUNDRED) > 0) {
+            throw new IllegalArgumentException("Promotion " + promotion.getCode() + " must have a percentOff between 0 and 100");
+        }
+
+        this.ordinal = ordinal;
+        this.code = normalize(promotion.getCode());
+        this.priority = promotion.getPriority();
+        this.stackable = promotion.isStackable();
+        this.percentOff = promotion.getPercentOff();
+        this.validFrom = promotion.getValidFrom() == null ? null : promotion.getValidFrom().toInstant();
+        this.validUntil = promotion.getValidUntil() == null ? null : promotion.getValidUntil().toInstant();
+        this.minimumBasket = promotion.getMinimumBasket();
+        this.categories = normalize(promotion.getCategories());
+        this.brands = normalize(promotion.getBrands());
+        this.productIds = Set.copyOf(promotion.getProductIds());
+        this.tags = normalize(promotion.getTags());
+    }
+
+    boolean isApplicable(Set<String> codes, BigDecimal subtotal, Instant now) {
+        return (code == null || codes.contains(code))
+                && (validFrom == null || !now.isBefore(validFrom))
+                && (validUntil == null || now.isBefore(validUntil))
+                && (minimumBasket == null || subtotal.compareTo(minimumBasket) >= 0);
+    }
+
+    boolean matches(EvaluationLine line) {
+        return (productIds.isEmpty() || productIds.contains(line.getProductId()))
+                && (categories.isEmpty() || categories.contains(normalize(line.getCategory())))
+                && (brands.isEmpty() || brands.contains(normalize(line.getBrand())))
+                && (tags.isEmpty() || line.getTags() != null && line.getTags().stream().map(PromotionRule::normalize).anyMatch(tags::contains));
+    }
+
+    BigDecimal apply(BigDecimal price) {
+        return price.multiply(HUNDRED.subtract(percentOff)).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+    }
+
+    static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalize(Set<String> values) {
+        return values.stream()
+                .map(PromotionRule::normalize)
+                .filter(value -> value != null)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.coupon.service;
+
+import com.example.coupon.config.CouponPropertiesConfig;
+import com.example.coupon.model.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+class PromotionEngineTests {
+
+	private static final Instant NOW = Instant.parse("2026-06-01T12:00:00Z");
+
+	@Test
+	void appliesDefaultCouponWithoutCodes() {
+		PromotionEngine engine = new PromotionEngine(configuration());
+
+		EvaluationResult result = engine.evaluate(request(List.of(), line(1L, "CPU", "intel", "100.00", 2), line(2L, "gpu", "nvidia", "50.00", 1)), NOW);
+
+		Assertions.assertEquals(new BigDecimal("85.00"), result.getLines().get(0).getDiscountedUnitPrice());
+		Assertions.assertEquals(new BigDecimal("170.00"), result.getLines().get(0).getLineTotal());
+		Assertions.assertEquals(new BigDecimal("50.00"), result.getLines().get(1).getDiscountedUnitPrice());
+		Assertions.assertEquals(0, new BigDecimal("220.00").compareTo(result.getTotal()));
+		Assertions.assertEquals("8081", result.getVersionId());
+	}
+
+	@Test
+	void stacksPromotionsByPriority() {
+		Promotion gpu = promotion("GPU10", "10", 10, true);
+		gpu.setCategories(Set.of("gpu"));
+		Promotion basket = promotion("BASKET5", "5", 5, true);
+		basket.setMinimumBasket(new BigDecimal("100"));
+		Promotion exclusive = promotion("NVIDIA20", "20", 1, false);
+		exclusive.setBrands(Set.of("nvidia"));
+
+		PromotionEngine engine = new PromotionEngine(configuration(gpu, basket, exclusive));
+
+		EvaluationResult result = engine.evaluate(request(List.of("gpu10", "basket5", "nvidia20", "missing"), line(2L, "GPU", "NVIDIA", "200.00", 1)), NOW);
+
+		Assertions.assertEquals(new BigDecimal("171.00"), result.getLines().get(0).getDiscountedUnitPrice());
+		Assertions.assertEquals(List.of("GPU10", "BASKET5"), result.getLines().get(0).getAppliedCodes());
+		Assertions.assertEquals(List.of("MISSING"), result.getUnknownCodes());
+	}
+
+	@Test
+	void exclusivePromotionStopsStacking() {
+		Promotion product = promotion("SKU30", "30", 20, false);
+		product.setProductIds(Set.of(7L));
+		Promotion tag = promotion("SALE10", "10", 10, true);
+		tag.setTags(Set.of("sale"));
+
+		PromotionEngine engine = new PromotionEngine(configuration(product, tag));
+
+		EvaluationResult result = engine.evaluate(request(List.of("SKU30", "SALE10"),
+				line(7L, "ram", "kingston", "100.00", 1, "SALE"), line(8L, "ram", "kingston", "100.00", 1, "sale")), NOW);
+
+		Assertions.assertEquals(new BigDecimal("70.00"), result.getLines().get(0).getDiscountedUnitPrice());
+		Assertions.assertEquals(new BigDecimal("90.00"), result.getLines().get(1).getDiscountedUnitPrice());
+		Assertions.assertEquals(List.of("SKU30", "SALE10"), result.getAppliedCodes());
+	}
+
+	@Test
+	void ignoresPromotionsOutsideTheirWindowOrBasket() {
+		Promotion expired = promotion("OLD", "50", 1, true);
+		expired.setValidUntil(OffsetDateTime.parse("2026-05-01T00:00:00Z"));
+		Promotion upcoming = promotion("NEW", "50", 1, true);
+		upcoming.setValidFrom(OffsetDateTime.parse("2026-07-01T00:00:00Z"));
+		Promotion basket = promotion("BIG", "50", 1, true);
+		basket.setMinimumBasket(new BigDecimal("1000"));
+
+		PromotionEngine engine = new PromotionEngine(configuration(expired, upcoming, basket));
+
+		EvaluationResult result = engine.evaluate(request(List.of("OLD", "NEW", "BIG"), line(1L, "ssd", "samsung", "100.00", 1)), NOW);
+
+		Assertions.assertEquals(new BigDecimal("100.00"), result.getLines().get(0).getDiscountedUnitPrice());
+		Assertions.assertTrue(result.getAppliedCodes().isEmpty());
+		Assertions.assertTrue(result.getUnknownCodes().isEmpty());
+	}
+
+	@Test
+	void rejectsInvalidPromotions() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new PromotionEngine(configuration(promotion("FREE", "120", 1, true))));
+	}
+
+	private CouponPropertiesConfig configuration(Promotion... promotions) {
+		CouponPropertiesConfig configuration = new CouponPropertiesConfig();
+		configuration.setProductCategory("cpu");
+		configuration.setDiscount(15);
+		configuration.setVersionId("8081");
+		configuration.setPromotions(List.of(promotions));
+		return configuration;
+	}
+
+	private Promotion promotion(String code, String percentOff, int priority, boolean stackable) {
+		Promotion promotion = new Promotion();
+		promotion.setCode(code);
+		promotion.setPercentOff(new BigDecimal(percentOff));
+		promotion.setPriority(priority);
+		promotion.setStackable(stackable);
+		return promotion;
+	}
+
+	private EvaluationRequest request(List<String> codes, EvaluationLine... lines) {
+		return new EvaluationRequest(codes, List.of(lines));
+	}
+
+	private EvaluationLine line(Long productId, String category, String brand, String unitPrice, int quantity, String... tags) {
+		return new EvaluationLine(productId, category, brand, List.of(tags), new BigDecimal(unitPrice), quantity);
+	}
+}